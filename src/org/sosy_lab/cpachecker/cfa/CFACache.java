@@ -0,0 +1,234 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.util.ByteBufferInputStream;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Persistent storage for CFAs, which allows to skip parsing and CFA construction
+ * in later runs of CPAchecker on the same program with the same CFA-related configuration.
+ *
+ * A CFA is identified by the content of the source files,
+ * the CPAchecker version, and all options that influence parsing and CFA creation
+ * (all options with the prefixes "cfa." and "parser.",
+ * and the relevant options with prefix "analysis.").
+ * Files that are included by the preprocessor are not part of the key,
+ * so the cache is not used if the preprocessor is enabled.
+ *
+ * The CFA is stored with Java serialization (including loop structure and variable classification,
+ * but not live variables) and loaded from a memory-mapped file.
+ */
+@Options(prefix="cfa.cache")
+class CFACache {
+
+  @Option(secure=true, name="enable",
+      description="Store created CFAs in the cache directory and re-use them in later runs "
+          + "on the same source files with the same CFA-related configuration. "
+          + "The cache is not used together with parser.usePreprocessor.")
+  private boolean enabled = false;
+
+  @Option(secure=true, description="directory for CFAs that are re-used across runs "
+      + "(should be an absolute path if the output directory differs between runs)")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path directory = Paths.get("CFACache");
+
+  private static final String[] RELEVANT_OPTION_PREFIXES = {
+    "cfa.", "parser.", "language", "analysis.entryFunction", "analysis.machineModel",
+    "analysis.interprocedural", "analysis.functionPointerCalls", "analysis.useGlobalVars",
+    "analysis.summaryEdges", "analysis.functionPointerTargets",
+    "analysis.functionPointerEdgesForUnknownPointer" };
+
+  private static final String[] IRRELEVANT_OPTION_PREFIXES = {
+    "cfa.cache.", "cfa.export", "cfa.file", "cfa.callgraph." };
+
+  // increase whenever the layout of the cache files changes
+  private static final int FORMAT_VERSION = 2;
+
+  private final Configuration config;
+  private final LogManager logger;
+
+  CFACache(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+  }
+
+  boolean isEnabled() {
+    return enabled && directory != null;
+  }
+
+  /**
+   * Load the CFA for the given source files.
+   * @return the CFA, or null if it is not in the cache
+   */
+  @Nullable ImmutableCFA load(List<String> sourceFiles) {
+    File file = getCacheFile(sourceFiles);
+    if (file == null || !file.isFile()) {
+      return null;
+    }
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      InputStream content;
+      if (channel.size() <= Integer.MAX_VALUE) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        content = new ByteBufferInputStream(buffer);
+      } else {
+        content = new BufferedInputStream(Channels.newInputStream(channel));
+      }
+
+      try (ObjectInputStream in = new ObjectInputStream(content)) {
+        int maxNodeNumber = in.readInt();
+        ImmutableCFA cfa = (ImmutableCFA)CFANode.readWithFreshNodeNumbers(in, maxNodeNumber);
+        logger.log(Level.FINE, "Loaded CFA from cache file", file);
+        return cfa;
+      }
+
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logDebugException(e, "Could not read CFA from cache file " + file);
+      return null;
+    }
+  }
+
+  /**
+   * Store the CFA for the given source files, if it is not yet stored.
+   */
+  void store(List<String> sourceFiles, ImmutableCFA cfa) {
+    File file = getCacheFile(sourceFiles);
+    if (file == null || file.isFile()) {
+      return;
+    }
+
+    File dir = file.getParentFile();
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      logger.log(Level.WARNING, "Could not create directory", dir, "for CFA cache.");
+      return;
+    }
+
+    // Write to a unique temporary file first and move it atomically,
+    // such that concurrent runs neither see partial CFAs nor write to the same file.
+    File tmpFile;
+    try {
+      tmpFile = File.createTempFile(file.getName(), ".tmp", dir);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write CFA to cache");
+      return;
+    }
+
+    try {
+      try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+        out.writeInt(cfa.getAllNodes().isEmpty() ? 0 : cfa.getAllNodes().last().getNodeNumber());
+        out.writeObject(cfa);
+      }
+      java.nio.file.Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+    } catch (IOException e) {
+      // also thrown if the file system cannot move atomically,
+      // the CFA is then not cached
+      logger.logUserException(Level.WARNING, e, "Could not write CFA to cache");
+      tmpFile.delete();
+    }
+  }
+
+  private @Nullable File getCacheFile(List<String> sourceFiles) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(CPAchecker.getCPAcheckerVersion(), StandardCharsets.UTF_8);
+    hasher.putInt(FORMAT_VERSION);
+
+    for (String option : getRelevantOptions()) {
+      hasher.putString(option, StandardCharsets.UTF_8);
+      hasher.putChar('\n');
+    }
+
+    for (String sourceFile : sourceFiles) {
+      hasher.putString(sourceFile, StandardCharsets.UTF_8);
+      try {
+        HashCode fileHash = Files.hash(new File(sourceFile), Hashing.sha256());
+        hasher.putBytes(fileHash.asBytes());
+      } catch (IOException e) {
+        logger.logDebugException(e, "Cannot compute key for CFA cache");
+        return null;
+      }
+    }
+    return new File(directory.toFile(), hasher.hash().toString() + ".cfa");
+  }
+
+  private List<String> getRelevantOptions() {
+    List<String> result = new ArrayList<>();
+    for (String line : Splitter.on('\n').omitEmptyStrings().trimResults()
+                               .split(config.asPropertiesString())) {
+      if (startsWithAny(line, RELEVANT_OPTION_PREFIXES)
+          && !startsWithAny(line, IRRELEVANT_OPTION_PREFIXES)) {
+        result.add(line);
+      }
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  private static boolean startsWithAny(String s, String[] prefixes) {
+    for (String prefix : prefixes) {
+      if (s.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
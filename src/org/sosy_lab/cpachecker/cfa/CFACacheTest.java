@@ -0,0 +1,122 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+
+public class CFACacheTest {
+
+  private static final ImmutableList<String> PROGRAM =
+      ImmutableList.of("test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+
+  @Rule
+  public TemporaryFolder cacheDir = new TemporaryFolder();
+
+  private Configuration configWithCache(String... pOptions) throws Exception {
+    ConfigurationBuilder config = TestDataTools.configurationForTest()
+        .setOption("cfa.cache.enable", "true")
+        .setOption("cfa.cache.directory", cacheDir.getRoot().getAbsolutePath());
+    for (int i = 0; i < pOptions.length; i += 2) {
+      config.setOption(pOptions[i], pOptions[i+1]);
+    }
+    return config.build();
+  }
+
+  private CFA createCFA(Configuration pConfig) throws Exception {
+    return new CFACreator(pConfig, TestLogManager.getInstance(), ShutdownNotifier.create())
+        .parseFileAndCreateCFA(PROGRAM);
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    Configuration config = configWithCache();
+    CFA original = createCFA(config);
+    assertThat(cacheDir.getRoot().list()).hasLength(1);
+
+    CFA loaded = createCFA(config);
+
+    assertThat(loaded.getNumberOfFunctions()).isEqualTo(original.getNumberOfFunctions());
+    assertThat(loaded.getAllFunctionNames()).containsExactlyElementsIn(original.getAllFunctionNames());
+    assertThat(loaded.getMainFunction().getFunctionName())
+        .isEqualTo(original.getMainFunction().getFunctionName());
+
+    List<CFANode> originalNodes = Ordering.natural().sortedCopy(original.getAllNodes());
+    List<CFANode> loadedNodes = Ordering.natural().sortedCopy(loaded.getAllNodes());
+    assertThat(loadedNodes).hasSize(originalNodes.size());
+
+    for (int i = 0; i < originalNodes.size(); i++) {
+      CFANode originalNode = originalNodes.get(i);
+      CFANode loadedNode = loadedNodes.get(i);
+
+      // the nodes from the cache must not collide with the nodes that already exist
+      assertThat(loadedNode).isNotSameAs(originalNode);
+      assertThat(loadedNode.getNodeNumber()).isNotEqualTo(originalNode.getNodeNumber());
+      assertThat(loadedNode.getFunctionName()).isEqualTo(originalNode.getFunctionName());
+
+      List<CFAEdge> originalEdges = CFAUtils.leavingEdges(originalNode).toList();
+      List<CFAEdge> loadedEdges = CFAUtils.leavingEdges(loadedNode).toList();
+      assertThat(loadedEdges).hasSize(originalEdges.size());
+      for (int j = 0; j < originalEdges.size(); j++) {
+        assertThat(loadedEdges.get(j).getRawStatement()).isEqualTo(originalEdges.get(j).getRawStatement());
+        assertThat(loadedEdges.get(j).getEdgeType()).isEqualTo(originalEdges.get(j).getEdgeType());
+        // successors have the same position in the sorted node list
+        assertThat(loadedNodes.indexOf(loadedEdges.get(j).getSuccessor()))
+            .isEqualTo(originalNodes.indexOf(originalEdges.get(j).getSuccessor()));
+      }
+    }
+
+    // nodes created after loading get fresh numbers
+    CFANode newNode = new CFANode("main");
+    assertThat(newNode.getNodeNumber()).isGreaterThan(loadedNodes.get(loadedNodes.size() - 1).getNodeNumber());
+  }
+
+  @Test
+  public void testRelevantOptionsArePartOfKey() throws Exception {
+    createCFA(configWithCache());
+    createCFA(configWithCache("analysis.summaryEdges", "true"));
+    createCFA(configWithCache("analysis.functionPointerEdgesForUnknownPointer", "false"));
+    createCFA(configWithCache("analysis.functionPointerTargets", "USED_IN_CODE"));
+
+    File[] files = cacheDir.getRoot().listFiles();
+    assertThat(files).hasLength(4);
+  }
+}
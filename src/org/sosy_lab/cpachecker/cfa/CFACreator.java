@@ -35,13 +35,17 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -50,6 +54,7 @@ import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner.FunctionTask;
 import org.sosy_lab.cpachecker.cfa.CParser.FileToParse;
 import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
@@ -92,6 +97,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CElaboratedType;
 import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.threading.ThreadingTransferRelation;
@@ -104,9 +110,11 @@ import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.VariableClassification;
 import org.sosy_lab.cpachecker.util.VariableClassificationBuilder;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 /**
@@ -230,15 +238,24 @@ public class CFACreator {
       description="This option enables the computation of a classification of CFA nodes.")
 private boolean classifyNodes = false;
 
+  @Option(secure=true, name="cfa.parallelThreads",
+      description="Number of threads for converting the single functions "
+      + "to CFAs and for the post-processings of single functions. "
+      + "1 disables parallel CFA construction, 0 uses one thread per available processor.")
+  @IntegerOption(min=0)
+  private int parallelThreads = 1;
+
   @Option(secure=true, description="C or Java?")
   private Language language = Language.C;
 
   private final LogManager logger;
   private final Parser parser;
   private final CFAReduction cfaReduction;
+  private final CFACache cfaCache;
+  private final CFAFunctionTaskRunner functionRunner;
   private final ShutdownNotifier shutdownNotifier;
 
-  private static class CFACreatorStatistics implements Statistics {
+  private static class CFACreatorStatistics implements Statistics, MetricStatistics {
 
     private final Timer parserInstantiationTime = new Timer();
     private final Timer totalTime = new Timer();
@@ -249,20 +266,47 @@ private boolean classifyNodes = false;
     private final Timer pruningTime = new Timer();
     private final Timer variableClassificationTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer cacheTime = new Timer();
+    private boolean loadedFromCache = false;
+    private CFAFunctionTaskRunner conversionRunner = null;
+    private CFAFunctionTaskRunner processingRunner = null;
 
     @Override
     public String getName() {
       return "";
     }
 
+    @Override
+    public void registerMetrics(StatisticsRegistry pRegistry) {
+      pRegistry.register("parserInstantiationTime", parserInstantiationTime);
+      pRegistry.register("totalTime", totalTime);
+      if (parsingTime != null) {
+        pRegistry.register("parsingTime", parsingTime);
+      }
+      if (conversionTime != null) {
+        pRegistry.register("conversionTime", conversionTime);
+      }
+      pRegistry.register("checkTime", checkTime);
+      pRegistry.register("processingTime", processingTime);
+      pRegistry.register("pruningTime", pruningTime);
+      pRegistry.register("variableClassificationTime", variableClassificationTime);
+      pRegistry.register("exportTime", exportTime);
+      pRegistry.register("cacheTime", cacheTime);
+    }
+
     @Override
     public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
       out.println("  Time for loading parser:    " + parserInstantiationTime);
       out.println("  Time for CFA construction:  " + totalTime);
+      if (cacheTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for CFA cache:       " + cacheTime + (loadedFromCache ? " (CFA was loaded from cache)" : ""));
+      }
       out.println("    Time for parsing file(s): " + parsingTime);
       out.println("    Time for AST to CFA:      " + conversionTime);
+      printSpeedup(out, "      Speedup of functions:   ", conversionRunner);
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
+      printSpeedup(out, "      Speedup of functions:   ", processingRunner);
       if (pruningTime.getNumberOfIntervals() > 0) {
         out.println("      Time for CFA pruning:   " + pruningTime);
       }
@@ -273,6 +317,14 @@ private boolean classifyNodes = false;
         out.println("    Time for CFA export:      " + exportTime);
       }
     }
+
+    private static void printSpeedup(PrintStream out, String label, @Nullable CFAFunctionTaskRunner runner) {
+      if (runner != null && runner.isParallel()) {
+        out.println(label + String.format("%.2f", runner.getSpeedup())
+            + " (" + runner.getTaskTime().formatAs(TimeUnit.SECONDS) + " on "
+            + runner.getNumberOfThreads() + " threads)");
+      }
+    }
   }
 
   private final CFACreatorStatistics stats = new CFACreatorStatistics();
@@ -294,7 +346,8 @@ private boolean classifyNodes = false;
       parser = EclipseParsers.getJavaParser(logger, config);
       break;
     case C:
-      CParser outerParser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machineModel);
+      CParser outerParser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machineModel,
+          parallelThreads);
 
       outerParser = new CParserWithLocationMapper(config, logger, outerParser,
           readLineDirectives || usePreprocessor);
@@ -320,6 +373,10 @@ private boolean classifyNodes = false;
       cfaReduction = null;
     }
 
+    cfaCache = new CFACache(config, logger);
+    functionRunner = new CFAFunctionTaskRunner(parallelThreads);
+    stats.processingRunner = functionRunner;
+
     stats.parserInstantiationTime.stop();
   }
 
@@ -366,6 +423,23 @@ private boolean classifyNodes = false;
 
     stats.totalTime.start();
     try {
+      // The CFA cache does not know the specification and cannot store live variables.
+      // Its key does not cover files included by the preprocessor.
+      final boolean useCache = cfaCache.isEnabled() && cfaReduction == null && !findLiveVariables
+          && !usePreprocessor;
+      if (useCache) {
+        stats.cacheTime.start();
+        ImmutableCFA cachedCfa = cfaCache.load(sourceFiles);
+        stats.cacheTime.stop();
+
+        if (cachedCfa != null) {
+          stats.loadedFromCache = true;
+          logger.log(Level.FINE, "Using cached CFA for", cachedCfa.getNumberOfFunctions(), "functions.");
+          exportCFAAsyncIfRequested(cachedCfa);
+          return cachedCfa;
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -386,14 +460,21 @@ private boolean classifyNodes = false;
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      ImmutableCFA cfa = createCFA(c, mainFunction);
+
+      if (useCache) {
+        stats.cacheTime.start();
+        cfaCache.store(sourceFiles, cfa);
+        stats.cacheTime.stop();
+      }
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
     }
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+  private ImmutableCFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -424,10 +505,13 @@ private boolean classifyNodes = false;
     // THIRD, do read-only post-processings on each single function CFA
 
     // Annotate CFA nodes with reverse postorder information for later use.
-    for (FunctionEntryNode function : cfa.getAllFunctionHeads()) {
-      CFAReversePostorder sorter = new CFAReversePostorder();
-      sorter.assignSorting(function);
-    }
+    functionRunner.processAll(cfa.getAllFunctionHeads(), new FunctionTask<FunctionEntryNode>() {
+      @Override
+      public void process(FunctionEntryNode pFunction) {
+        CFAReversePostorder sorter = new CFAReversePostorder();
+        sorter.assignSorting(pFunction);
+      }
+    });
 
     // get loop information
     // (needs post-order information)
@@ -502,10 +586,7 @@ private boolean classifyNodes = false;
     assert CFACheck.check(mainFunction, null, cfaReduction != null);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAAsyncIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
@@ -533,6 +614,7 @@ private boolean classifyNodes = false;
       }
     }
 
+    stats.conversionRunner = parser.getFunctionConversionRunner();
     return parseResult;
   }
 
@@ -577,6 +659,7 @@ private boolean classifyNodes = false;
       }
     }
 
+    stats.conversionRunner = parser.getFunctionConversionRunner();
     return parseResult;
   }
 
@@ -586,11 +669,17 @@ private boolean classifyNodes = false;
    * @return either a modified old CFA or a complete new CFA
    */
   private MutableCFA postProcessingOnMutableCFAs(MutableCFA cfa, final List<Pair<ADeclaration, String>> globalDeclarations)
-          throws InvalidConfigurationException, CParserException {
+          throws InvalidConfigurationException, CParserException, InterruptedException {
 
     // remove all edges which don't have any effect on the program
     if (simplifyCfa) {
-      CFASimplifier.simplifyCFA(cfa);
+      final MutableCFA simplifiedCfa = cfa;
+      functionRunner.processAll(ImmutableList.copyOf(cfa.getAllFunctionHeads()), new FunctionTask<FunctionEntryNode>() {
+        @Override
+        public void process(FunctionEntryNode pFunction) {
+          CFASimplifier.simplifyFunction(pFunction, simplifiedCfa);
+        }
+      });
     }
 
     if (moveDeclarationsToFunctionStart) {
@@ -672,7 +761,13 @@ private boolean classifyNodes = false;
     }
 
     if (useMultiEdges) {
-      MultiEdgeCreator.createMultiEdges(cfa);
+      final MutableCFA multiEdgeCfa = cfa;
+      functionRunner.processAll(ImmutableList.copyOf(cfa.getAllFunctionHeads()), new FunctionTask<FunctionEntryNode>() {
+        @Override
+        public void process(FunctionEntryNode pFunction) {
+          MultiEdgeCreator.createMultiEdges(multiEdgeCfa, pFunction);
+        }
+      });
     }
 
     return cfa;
@@ -933,6 +1028,13 @@ v.addInitializer(initializer);
     }
   }
 
+  private void exportCFAAsyncIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // execute asynchronously, this may take several seconds for large programs on slow disks
     Threads.newThread(new Runnable() {
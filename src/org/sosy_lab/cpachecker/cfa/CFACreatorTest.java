@@ -0,0 +1,105 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+
+public class CFACreatorTest {
+
+  private static final ImmutableList<String> PROGRAM =
+      ImmutableList.of("test/programs/simple/parallelCfaConstruction.c");
+
+  private CFA createCFA(int pThreads) throws Exception {
+    return new CFACreator(
+        TestDataTools.configurationForTest()
+            .setOption("cfa.parallelThreads", Integer.toString(pThreads))
+            .build(),
+        TestLogManager.getInstance(), ShutdownNotifier.create())
+        .parseFileAndCreateCFA(PROGRAM);
+  }
+
+  /**
+   * Assert that both CFAs have the same structure,
+   * and that their nodes are numbered identically up to a common offset.
+   */
+  private static void assertSameCFA(CFA pActual, CFA pExpected) {
+    assertThat(pActual.getAllFunctionNames()).containsExactlyElementsIn(pExpected.getAllFunctionNames());
+
+    List<CFANode> expectedNodes = Ordering.natural().sortedCopy(pExpected.getAllNodes());
+    List<CFANode> actualNodes = Ordering.natural().sortedCopy(pActual.getAllNodes());
+    assertThat(actualNodes).hasSize(expectedNodes.size());
+
+    int expectedOffset = expectedNodes.get(0).getNodeNumber();
+    int actualOffset = actualNodes.get(0).getNodeNumber();
+
+    for (int i = 0; i < expectedNodes.size(); i++) {
+      CFANode expectedNode = expectedNodes.get(i);
+      CFANode actualNode = actualNodes.get(i);
+
+      assertThat(actualNode.getNodeNumber() - actualOffset)
+          .isEqualTo(expectedNode.getNodeNumber() - expectedOffset);
+      assertThat(actualNode.getFunctionName()).isEqualTo(expectedNode.getFunctionName());
+      assertThat(actualNode.getReversePostorderId()).isEqualTo(expectedNode.getReversePostorderId());
+
+      List<CFAEdge> expectedEdges = CFAUtils.leavingEdges(expectedNode).toList();
+      List<CFAEdge> actualEdges = CFAUtils.leavingEdges(actualNode).toList();
+      assertThat(actualEdges).hasSize(expectedEdges.size());
+      for (int j = 0; j < expectedEdges.size(); j++) {
+        assertThat(actualEdges.get(j).getEdgeType()).isEqualTo(expectedEdges.get(j).getEdgeType());
+        assertThat(actualEdges.get(j).getDescription()).isEqualTo(expectedEdges.get(j).getDescription());
+        assertThat(actualNodes.indexOf(actualEdges.get(j).getSuccessor()))
+            .isEqualTo(expectedNodes.indexOf(expectedEdges.get(j).getSuccessor()));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelConstructionEqualsSequential() throws Exception {
+    CFA sequential = createCFA(1);
+    CFA parallel = createCFA(4);
+
+    assertSameCFA(parallel, sequential);
+  }
+
+  @Test
+  public void testParallelConstructionIsDeterministic() throws Exception {
+    CFA first = createCFA(4);
+    for (int i = 0; i < 5; i++) {
+      assertSameCFA(createCFA(4), first);
+    }
+  }
+}
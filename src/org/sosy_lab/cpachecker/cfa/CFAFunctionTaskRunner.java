@@ -0,0 +1,156 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Helper for running independent tasks of the CFA construction
+ * (one per function) on a fixed number of threads.
+ *
+ * Besides the elapsed time, the time that the single tasks needed is summed up,
+ * such that the speedup of the parallel execution can be reported.
+ * With only one thread, all tasks are executed sequentially in the calling thread.
+ */
+public final class CFAFunctionTaskRunner {
+
+  /**
+   * A task that processes a single item independently of all other items.
+   * Implementations need to be thread-safe if more than one thread is used.
+   */
+  public static interface FunctionTask<T> {
+    void process(T item);
+  }
+
+  private final int threads;
+
+  private final Timer elapsedTime = new Timer();
+  private final AtomicLong taskNanos = new AtomicLong();
+
+  /**
+   * @param pThreads The number of threads to use, 0 for one thread per available processor.
+   */
+  public CFAFunctionTaskRunner(int pThreads) {
+    checkArgument(pThreads >= 0);
+    threads = (pThreads == 0) ? Runtime.getRuntime().availableProcessors() : pThreads;
+  }
+
+  public boolean isParallel() {
+    return threads > 1;
+  }
+
+  /**
+   * Process all given items with the given task and wait for all of them.
+   * Runtime exceptions thrown by a task are re-thrown in the calling thread.
+   */
+  public <T> void processAll(Collection<T> items, final FunctionTask<? super T> task)
+      throws InterruptedException {
+    elapsedTime.start();
+    try {
+      if (!isParallel() || items.size() <= 1) {
+        for (T item : items) {
+          processTimed(task, item);
+        }
+        return;
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, items.size()),
+          Threads.threadFactoryBuilder().setNameFormat("CFA construction %d").setDaemon(true).build());
+      try {
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        for (final T item : items) {
+          futures.add(executor.submit(new Runnable() {
+              @Override
+              public void run() {
+                processTimed(task, item);
+              }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+          try {
+            future.get();
+          } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new AssertionError(e.getCause()); // Runnables do not throw checked exceptions
+          }
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    } finally {
+      elapsedTime.stop();
+    }
+  }
+
+  private <T> void processTimed(FunctionTask<? super T> task, T item) {
+    long start = System.nanoTime();
+    try {
+      task.process(item);
+    } finally {
+      taskNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+
+  public int getNumberOfThreads() {
+    return threads;
+  }
+
+  /** The time the tasks needed, summed up over all threads. */
+  public TimeSpan getTaskTime() {
+    return TimeSpan.ofNanos(taskNanos.get());
+  }
+
+  /** The time that passed while the tasks were executed. */
+  public TimeSpan getElapsedTime() {
+    return elapsedTime.getSumTime();
+  }
+
+  /**
+   * The ratio of the summed-up task time and the elapsed time,
+   * or 1.0 if nothing was executed yet.
+   */
+  public double getSpeedup() {
+    long elapsed = getElapsedTime().asNanos();
+    if (elapsed <= 0) {
+      return 1.0;
+    }
+    return (double)taskNanos.get() / elapsed;
+  }
+}
@@ -172,7 +172,16 @@ public interface CParser extends Parser {
     }
 
     public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+      return getParser(config, logger, options, machine, 1);
+    }
+
+    /**
+     * Create a parser that converts the single functions to CFAs
+     * on the given number of threads (0 for one per available processor).
+     */
+    public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine,
+        int parallelThreads) {
+      return EclipseParsers.getCParser(config, logger, options.dialect, machine, parallelThreads);
     }
   }
 }
@@ -70,6 +70,11 @@ public class DummyParser implements CParser {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public CFAFunctionTaskRunner getFunctionConversionRunner() {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping pSourceOriginMapping)
       throws CParserException, IOException, InvalidConfigurationException, InterruptedException {
@@ -25,17 +25,30 @@ package org.sosy_lab.cpachecker.cfa;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.VariableClassification;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
@@ -45,7 +58,9 @@ import com.google.common.collect.SetMultimap;
  * This class represents a CFA after it has been fully created (parsing, linking
  * of functions, etc.).
  */
-class ImmutableCFA implements CFA {
+class ImmutableCFA implements CFA, Serializable {
+
+  private static final long serialVersionUID = 5399965350156780812L;
 
   private final MachineModel machineModel;
   private final ImmutableSortedMap<String, FunctionEntryNode> functions;
@@ -78,6 +93,25 @@ class ImmutableCFA implements CFA {
     checkArgument(functions.get(mainFunction.getFunctionName()) == mainFunction);
   }
 
+  private ImmutableCFA(
+      MachineModel pMachineModel,
+      ImmutableSortedMap<String, FunctionEntryNode> pFunctions,
+      ImmutableSortedSet<CFANode> pAllNodes,
+      FunctionEntryNode pMainFunction,
+      Optional<LoopStructure> pLoopStructure,
+      Optional<VariableClassification> pVarClassification,
+      Language pLanguage) {
+
+    machineModel = pMachineModel;
+    functions = pFunctions;
+    allNodes = pAllNodes;
+    mainFunction = checkNotNull(pMainFunction);
+    loopStructure = pLoopStructure;
+    varClassification = pVarClassification;
+    liveVariables = Optional.absent();
+    language = pLanguage;
+  }
+
   private ImmutableCFA(MachineModel pMachineModel, Language pLanguage) {
     machineModel = pMachineModel;
     functions = ImmutableSortedMap.of();
@@ -166,4 +200,88 @@ class ImmutableCFA implements CFA {
     return language;
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Serialized form of a CFA.
+   * The edges of the nodes are not serialized as part of the nodes
+   * (this would recurse along the paths of the CFA and overflow the stack for large programs),
+   * so this class stores them separately in flat lists and connects the nodes again.
+   * Live-variables information is not serialized.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -3150218553932436291L;
+
+    private final MachineModel machineModel;
+    private final ImmutableSortedMap<String, FunctionEntryNode> functions;
+    private final ImmutableSortedSet<CFANode> allNodes;
+    private final FunctionEntryNode mainFunction;
+    private final Optional<LoopStructure> loopStructure;
+    private final Optional<VariableClassification> varClassification;
+    private final Language language;
+
+    // all nodes that are connected to the CFA,
+    // including nodes inside of multi edges that are not part of allNodes,
+    // and their edges
+    private final List<CFANode> connectedNodes = new ArrayList<>();
+    private final List<List<CFAEdge>> leavingEdges = new ArrayList<>();
+    private final List<List<CFAEdge>> enteringEdges = new ArrayList<>();
+
+    private SerializationProxy(ImmutableCFA pCfa) {
+      machineModel = pCfa.machineModel;
+      functions = pCfa.functions;
+      allNodes = pCfa.allNodes;
+      mainFunction = pCfa.mainFunction;
+      loopStructure = pCfa.loopStructure;
+      varClassification = pCfa.varClassification;
+      language = pCfa.language;
+
+      Set<CFANode> visited = new HashSet<>(allNodes);
+      Deque<CFANode> waitlist = new ArrayDeque<>(allNodes);
+      while (!waitlist.isEmpty()) {
+        CFANode node = waitlist.poll();
+        connectedNodes.add(node);
+        leavingEdges.add(ImmutableList.copyOf(CFAUtils.leavingEdges(node)));
+        enteringEdges.add(ImmutableList.copyOf(CFAUtils.enteringEdges(node)));
+
+        for (CFAEdge edge : CFAUtils.allLeavingEdges(node).append(CFAUtils.allEnteringEdges(node))) {
+          List<CFAEdge> edges = edge instanceof MultiEdge
+              ? ((MultiEdge)edge).getEdges()
+              : ImmutableList.of(edge);
+          for (CFAEdge innerEdge : edges) {
+            for (CFANode other : ImmutableList.of(innerEdge.getPredecessor(), innerEdge.getSuccessor())) {
+              if (visited.add(other)) {
+                waitlist.add(other);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    private Object readResolve() {
+      for (int i = 0; i < connectedNodes.size(); i++) {
+        CFANode node = connectedNodes.get(i);
+        for (CFAEdge edge : leavingEdges.get(i)) {
+          node.addLeavingEdge(edge);
+        }
+        for (CFAEdge edge : enteringEdges.get(i)) {
+          node.addEnteringEdge(edge);
+        }
+      }
+
+      if (mainFunction == null) {
+        return empty(machineModel, language);
+      }
+      return new ImmutableCFA(machineModel, functions, allNodes, mainFunction,
+          loopStructure, varClassification, language);
+    }
+  }
 }
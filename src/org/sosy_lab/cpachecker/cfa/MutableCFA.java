@@ -70,7 +70,10 @@ public class MutableCFA implements CFA {
     assert functions.get(mainFunction.getFunctionName()) == mainFunction;
   }
 
-  public void addNode(CFANode pNode) {
+  // Adding and removing nodes is synchronized, because the functions
+  // may be post-processed in parallel (cf. CFAFunctionTaskRunner).
+  // This is sufficient as long as no function is added or removed concurrently.
+  public synchronized void addNode(CFANode pNode) {
     assert functions.containsKey(pNode.getFunctionName());
     allNodes.put(pNode.getFunctionName(), pNode);
   }
@@ -80,7 +83,7 @@ public class MutableCFA implements CFA {
     allNodes.clear();
   }
 
-  public void removeNode(CFANode pNode) {
+  public synchronized void removeNode(CFANode pNode) {
     SortedSet<CFANode> functionNodes = allNodes.get(pNode.getFunctionName());
     assert functionNodes.contains(pNode);
     functionNodes.remove(pNode);
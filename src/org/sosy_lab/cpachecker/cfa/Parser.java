@@ -73,4 +73,11 @@ public interface Parser {
    */
   Timer getCFAConstructionTime();
 
+  /**
+   * Return the helper that converted the single functions to CFAs
+   * in the last CFA construction, which measured the time and speedup of this step.
+   * Optional method: may return null.
+   */
+  CFAFunctionTaskRunner getFunctionConversionRunner();
+
 }
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AArraySubscriptExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 3403159605943823426L;
+
 
   private final AExpression arrayExpression;
   private final AExpression subscriptExpression;
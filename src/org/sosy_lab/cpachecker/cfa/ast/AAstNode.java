@@ -23,10 +23,12 @@
  */
 package org.sosy_lab.cpachecker.cfa.ast;
 
+import java.io.Serializable;
+
 import com.google.common.base.Function;
 
 
-public interface AAstNode {
+public interface AAstNode extends Serializable {
 
   public static final Function<AAstNode, String> TO_AST_STRING = new Function<AAstNode, String>() {
 
@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ABinaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = 4317584242725059437L;
+
 
   private final AExpression operand1;
   private final AExpression operand2;
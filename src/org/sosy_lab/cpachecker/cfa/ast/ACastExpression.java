@@ -33,6 +33,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ACastExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 3975237762339555447L;
+
   private final AExpression operand;
   private final Type     castType;
 
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ACharLiteralExpression extends ALiteralExpression {
 
+  private static final long serialVersionUID = -2400606121183485895L;
+
 
   private final char character;
 
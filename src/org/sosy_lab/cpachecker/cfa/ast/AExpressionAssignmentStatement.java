@@ -30,6 +30,8 @@ import java.util.Objects;
 
 public abstract class AExpressionAssignmentStatement extends AbstractStatement implements AAssignment {
 
+  private static final long serialVersionUID = -3233328961809959027L;
+
   private final ALeftHandSide leftHandSide;
   private final AExpression rightHandSide;
 
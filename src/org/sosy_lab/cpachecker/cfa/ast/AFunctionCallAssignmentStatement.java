@@ -30,6 +30,8 @@ import java.util.Objects;
 
 public abstract class AFunctionCallAssignmentStatement extends AbstractStatement implements AAssignment, AFunctionCall {
 
+  private static final long serialVersionUID = -2646676813709774696L;
+
 
   private final ALeftHandSide leftHandSide;
   private final AFunctionCallExpression rightHandSide;
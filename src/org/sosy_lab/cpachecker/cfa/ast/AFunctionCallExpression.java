@@ -36,6 +36,8 @@ import com.google.common.collect.ImmutableList;
 
 public abstract class AFunctionCallExpression extends AbstractRightHandSide {
 
+  private static final long serialVersionUID = 8868628288700557605L;
+
   private final AExpression functionName;
   private final List<? extends AExpression> parameters;
   private final AFunctionDeclaration declaration;
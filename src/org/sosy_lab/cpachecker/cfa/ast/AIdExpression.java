@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AIdExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 1962415575994895222L;
+
   private final String name;
   private final ASimpleDeclaration declaration;
 
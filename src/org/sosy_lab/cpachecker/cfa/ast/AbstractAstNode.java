@@ -29,6 +29,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public abstract class AbstractAstNode implements AAstNode {
 
+  private static final long serialVersionUID = 2976654555382496875L;
+
   private final FileLocation fileLocation;
 
   public AbstractAstNode(final FileLocation pFileLocation) {
@@ -27,6 +27,8 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 public abstract class AbstractInitializer extends AbstractAstNode implements AInitializer {
 
+  private static final long serialVersionUID = 233199892754788412L;
+
   public AbstractInitializer(final FileLocation pFileLocation) {
     super(pFileLocation);
   }
@@ -39,6 +39,8 @@ import com.google.common.base.Strings;
  */
 public abstract class AbstractSimpleDeclaration extends AbstractAstNode implements ASimpleDeclaration {
 
+  private static final long serialVersionUID = 4836707054511714436L;
+
   private  Type type;
   private final String name;
   private final String origName;
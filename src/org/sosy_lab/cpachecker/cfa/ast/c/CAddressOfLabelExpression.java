@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CAddressOfLabelExpression extends AbstractExpression implements CExpression {
 
+  private static final long serialVersionUID = -7857975373719658022L;
+
   private final String label;
 
   public CAddressOfLabelExpression(final FileLocation pFileLocation,
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CArraySubscriptExpression extends AArraySubscriptExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = 6308177686811602046L;
+
 
 
   public CArraySubscriptExpression(final FileLocation pFileLocation,
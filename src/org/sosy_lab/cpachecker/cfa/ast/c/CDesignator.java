@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public abstract class CDesignator extends AbstractAstNode implements CAstNode {
 
+  private static final long serialVersionUID = 9144248151619446949L;
+
   public CDesignator(FileLocation pFileLoc) {
     super(pFileLoc);
   }
@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class CExpressionAssignmentStatement extends AExpressionAssignmentStatement implements CAssignment, CStatement {
 
+  private static final long serialVersionUID = -8647925997987205560L;
+
   public CExpressionAssignmentStatement(FileLocation pFileLocation,
                                            CLeftHandSide pLeftHandSide,
                                            CExpression pRightHandSide) {
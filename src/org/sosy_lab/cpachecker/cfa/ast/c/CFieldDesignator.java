@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public class CFieldDesignator extends CDesignator {
 
+  private static final long serialVersionUID = 4343327274802497635L;
+
   private final String         name;
 
   public CFieldDesignator(final FileLocation pFileLocation,
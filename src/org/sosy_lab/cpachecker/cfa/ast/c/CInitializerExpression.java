@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public final class CInitializerExpression extends AInitializerExpression implements CInitializer {
 
+  private static final long serialVersionUID = -8905854978171672666L;
+
 
 
   public CInitializerExpression(final FileLocation pFileLocation,
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CPointerExpression extends APointerExpression implements CLeftHandSide {
 
+  private static final long serialVersionUID = -3541683746306713918L;
+
 
   public CPointerExpression(final FileLocation pFileLocation,
                             final CType pType, final CExpression pOperand) {
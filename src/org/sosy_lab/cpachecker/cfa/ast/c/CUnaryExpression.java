@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CUnaryExpression extends AUnaryExpression implements CExpression {
 
+  private static final long serialVersionUID = -8272365557969881266L;
+
 
 
   public CUnaryExpression(final FileLocation pFileLocation,
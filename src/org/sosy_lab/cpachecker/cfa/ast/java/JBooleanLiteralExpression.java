@@ -41,6 +41,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JBooleanLiteralExpression extends ALiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = 338213650587759804L;
+
 
   final Boolean value;
 
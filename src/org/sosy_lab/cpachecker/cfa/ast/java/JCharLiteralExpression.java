@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JCharLiteralExpression extends ACharLiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = -4010886079603988211L;
+
   public JCharLiteralExpression(FileLocation pFileLocation, JType pType, char pCharacter) {
     super(pFileLocation, pType, pCharacter);
   }
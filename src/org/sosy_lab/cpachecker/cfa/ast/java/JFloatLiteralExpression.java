@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JFloatLiteralExpression extends AFloatLiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = -5887876850265304529L;
+
   public JFloatLiteralExpression(FileLocation pFileLocation, BigDecimal pValue) {
     super(pFileLocation, JSimpleType.getFloat(), pValue);
   }
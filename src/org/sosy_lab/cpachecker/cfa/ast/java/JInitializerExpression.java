@@ -32,6 +32,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JInitializerExpression extends AInitializerExpression implements JInitializer {
 
+  private static final long serialVersionUID = -5336562303696141557L;
+
   public JInitializerExpression(FileLocation pFileLocation, JExpression pExpression) {
     super(pFileLocation, pExpression);
   }
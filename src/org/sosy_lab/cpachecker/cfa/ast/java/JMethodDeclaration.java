@@ -55,6 +55,8 @@ import com.google.common.base.Strings;
  */
 public class JMethodDeclaration extends AFunctionDeclaration implements JDeclaration {
 
+  private static final long serialVersionUID = -4979536481240701972L;
+
  // TODO Type Variables, Exceptions, Annotations
 
   private final boolean isFinal;
@@ -43,6 +43,8 @@ import com.google.common.base.Optional;
  */
 public class JObjectReferenceReturn extends JReturnStatement {
 
+  private static final long serialVersionUID = 3898621034439983949L;
+
   private final JClassType classReference;
 
   public JObjectReferenceReturn(FileLocation pFileLocation, JClassType pClassReference) {
@@ -35,6 +35,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JClassOrInterfaceType;
  */
 public class JThisExpression extends AbstractExpression implements JRunTimeTypeExpression {
 
+  private static final long serialVersionUID = -7429727372845879362L;
+
   public JThisExpression(FileLocation pFileLocation, JClassOrInterfaceType pType) {
     super(pFileLocation, pType);
   }
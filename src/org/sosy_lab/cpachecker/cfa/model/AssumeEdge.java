@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public class AssumeEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -5516091986358980559L;
+
   private final boolean truthAssumption;
   protected final AExpression expression;
 
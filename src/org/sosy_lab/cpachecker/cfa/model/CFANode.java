@@ -26,20 +26,37 @@ package org.sosy_lab.cpachecker.cfa.model;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.getLast;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
-public class CFANode implements Comparable<CFANode> {
+public class CFANode implements Comparable<CFANode>, Serializable {
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  private static final long serialVersionUID = 2728657666648317904L;
 
-  private final int nodeNumber;
+  private static final AtomicInteger nextNodeNumber = new AtomicInteger();
 
-  private final List<CFAEdge> leavingEdges = new ArrayList<>(1);
-  private final List<CFAEdge> enteringEdges = new ArrayList<>(1);
+  // Offset that is added to the numbers of nodes deserialized by the current thread,
+  // if set (cf. readWithFreshNodeNumbers()).
+  private static final ThreadLocal<Integer> deserializationOffset = new ThreadLocal<>();
+
+  // The nodes created by the current thread with preliminary numbers,
+  // if set (cf. startLocalNodeNumbering()).
+  private static final ThreadLocal<List<CFANode>> locallyNumberedNodes = new ThreadLocal<>();
+
+  // only modified during deserialization
+  private int nodeNumber;
+
+  // The edges are not serialized together with the node,
+  // because this would recurse along the whole CFA and overflow the stack.
+  // Whoever serializes a CFA needs to restore them (cf. ImmutableCFA).
+  private transient List<CFAEdge> leavingEdges = new ArrayList<>(1);
+  private transient List<CFAEdge> enteringEdges = new ArrayList<>(1);
 
   // is start node of a loop?
   private boolean isLoopStart = false;
@@ -58,7 +75,14 @@ public class CFANode implements Comparable<CFANode> {
     assert !pFunctionName.isEmpty();
 
     functionName = pFunctionName;
-    nodeNumber = idGenerator.getFreshId();
+
+    List<CFANode> localNodes = locallyNumberedNodes.get();
+    if (localNodes == null) {
+      nodeNumber = nextNodeNumber.getAndIncrement();
+    } else {
+      nodeNumber = localNodes.size();
+      localNodes.add(this);
+    }
   }
 
   public int getNodeNumber() {
@@ -247,4 +271,82 @@ public class CFANode implements Comparable<CFANode> {
 
     return "";
   }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    leavingEdges = new ArrayList<>(1);
+    enteringEdges = new ArrayList<>(1);
+
+    Integer offset = deserializationOffset.get();
+    if (offset != null) {
+      nodeNumber += offset;
+    }
+
+    // Make sure that nodes created after deserialization get unique numbers.
+    int next;
+    do {
+      next = nextNodeNumber.get();
+    } while (next <= nodeNumber && !nextNodeNumber.compareAndSet(next, nodeNumber + 1));
+  }
+
+  /**
+   * Read an object that contains CFA nodes with numbers from 0 to pMaxNodeNumber
+   * and give all deserialized nodes fresh numbers.
+   * The numbers are shifted by a common offset, so the order of the nodes is preserved
+   * and sorted collections of nodes remain valid.
+   * The numbers do not collide with nodes that already exist in this JVM or that are created later.
+   * In a JVM without other CFA nodes, the nodes keep their numbers.
+   */
+  public static Object readWithFreshNodeNumbers(ObjectInputStream in, int pMaxNodeNumber)
+      throws IOException, ClassNotFoundException {
+    checkArgument(pMaxNodeNumber >= 0);
+    checkState(deserializationOffset.get() == null);
+    deserializationOffset.set(nextNodeNumber.getAndAdd(pMaxNodeNumber + 1));
+    try {
+      return in.readObject();
+    } finally {
+      deserializationOffset.remove();
+    }
+  }
+
+  /**
+   * Let all nodes that the current thread creates from now on get preliminary numbers
+   * 0, 1, ..., independently of nodes that are created by other threads.
+   * This allows to create the nodes of several functions in parallel
+   * and still number them deterministically.
+   * The preliminary numbers are unique only among the nodes created by this thread,
+   * so these nodes must not be mixed with other nodes
+   * until {@link #assignFinalNodeNumbers(List)} was called for them.
+   */
+  public static void startLocalNodeNumbering() {
+    checkState(locallyNumberedNodes.get() == null);
+    locallyNumberedNodes.set(new ArrayList<CFANode>());
+  }
+
+  /**
+   * Stop the local numbering started by {@link #startLocalNodeNumbering()}
+   * and return the nodes that were created since then, in the order of their creation.
+   */
+  public static List<CFANode> stopLocalNodeNumbering() {
+    List<CFANode> localNodes = locallyNumberedNodes.get();
+    checkState(localNodes != null);
+    locallyNumberedNodes.remove();
+    return localNodes;
+  }
+
+  /**
+   * Replace the preliminary numbers of nodes returned by {@link #stopLocalNodeNumbering()}
+   * with unique numbers.
+   * The order of the nodes is preserved, so sorted collections of these nodes remain valid.
+   * If this method is called for the nodes of several threads in a fixed order,
+   * the nodes get the same numbers as if they had been created sequentially in this order.
+   */
+  public static void assignFinalNodeNumbers(List<CFANode> pLocalNodes) {
+    int offset = nextNodeNumber.getAndAdd(pLocalNodes.size());
+    for (int i = 0; i < pLocalNodes.size(); i++) {
+      CFANode node = pLocalNodes.get(i);
+      checkArgument(node.nodeNumber == i, "Node %s was not created with local numbering", node);
+      node.nodeNumber += offset;
+    }
+  }
 }
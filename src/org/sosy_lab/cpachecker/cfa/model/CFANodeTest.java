@@ -0,0 +1,92 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa.model;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class CFANodeTest {
+
+  private static Callable<List<CFANode>> createLocalNodes(final String pFunction, final int pCount) {
+    return new Callable<List<CFANode>>() {
+      @Override
+      public List<CFANode> call() {
+        CFANode.startLocalNodeNumbering();
+        for (int i = 0; i < pCount; i++) {
+          new CFANode(pFunction);
+        }
+        return CFANode.stopLocalNodeNumbering();
+      }
+    };
+  }
+
+  @Test
+  public void testLocalNumberingIsIndependentOfScheduling() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      List<Future<List<CFANode>>> results = new ArrayList<>();
+      for (int f = 0; f < 6; f++) {
+        results.add(executor.submit(createLocalNodes("f" + f, 100 + f)));
+      }
+
+      List<List<CFANode>> nodesPerFunction = new ArrayList<>();
+      for (Future<List<CFANode>> result : results) {
+        List<CFANode> nodes = result.get();
+        CFANode.assignFinalNodeNumbers(nodes);
+        nodesPerFunction.add(nodes);
+      }
+
+      // numbers are consecutive in the order of the calls to assignFinalNodeNumbers
+      int next = nodesPerFunction.get(0).get(0).getNodeNumber();
+      for (List<CFANode> nodes : nodesPerFunction) {
+        for (CFANode node : nodes) {
+          assertThat(node.getNodeNumber()).isEqualTo(next++);
+        }
+      }
+
+      // nodes created afterwards do not collide
+      assertThat(new CFANode("main").getNodeNumber()).isAtLeast(next);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testNestedLocalNumbering() {
+    CFANode.startLocalNodeNumbering();
+    try {
+      CFANode.startLocalNodeNumbering();
+    } finally {
+      CFANode.stopLocalNodeNumbering();
+    }
+  }
+}
@@ -34,6 +34,8 @@ import com.google.common.base.Optional;
 
 public class FunctionCallEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 3493386878298339315L;
+
   protected final AFunctionCall functionCall;
   protected final FunctionSummaryEdge summaryEdge;
 
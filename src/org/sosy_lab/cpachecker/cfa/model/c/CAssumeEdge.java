@@ -33,6 +33,8 @@ import com.google.common.base.Optional;
 
 public class CAssumeEdge extends AssumeEdge {
 
+  private static final long serialVersionUID = -5222747162361674329L;
+
 
 
   public CAssumeEdge(String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
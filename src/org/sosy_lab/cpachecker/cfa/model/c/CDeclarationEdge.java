@@ -32,6 +32,8 @@ import com.google.common.base.Optional;
 
 public class CDeclarationEdge extends ADeclarationEdge {
 
+  private static final long serialVersionUID = 1519628200242444391L;
+
 
 
   public CDeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
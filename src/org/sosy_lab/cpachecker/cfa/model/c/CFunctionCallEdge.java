@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class CFunctionCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = 8510966979903625294L;
+
 
 
   public CFunctionCallEdge(String pRawStatement,
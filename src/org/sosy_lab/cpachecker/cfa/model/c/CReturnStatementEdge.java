@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class CReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = -5170838283230226111L;
+
 
   public CReturnStatementEdge(String pRawStatement, CReturnStatement pRawAST,
       FileLocation pFileLocation, CFANode pPredecessor, FunctionExitNode pSuccessor) {
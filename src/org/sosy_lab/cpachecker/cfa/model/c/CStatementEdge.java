@@ -32,6 +32,8 @@ import com.google.common.base.Optional;
 
 public class CStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = -8346410469068628277L;
+
 
   public CStatementEdge(String pRawStatement, CStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
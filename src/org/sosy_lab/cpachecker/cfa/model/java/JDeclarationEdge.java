@@ -34,6 +34,8 @@ import com.google.common.base.Optional;
 
 public class JDeclarationEdge extends ADeclarationEdge {
 
+  private static final long serialVersionUID = -7565799833199940793L;
+
 
 
   public JDeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
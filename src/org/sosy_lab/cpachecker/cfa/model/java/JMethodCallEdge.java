@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class JMethodCallEdge extends FunctionCallEdge {
 
+  private static final long serialVersionUID = 5706370193758825710L;
+
 
 
   public JMethodCallEdge(String pRawStatement,
@@ -30,6 +30,8 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class JMethodReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = 7494623493034167314L;
+
 
   public JMethodReturnEdge(FileLocation pFileLocation,
       FunctionExitNode pPredecessor, CFANode pSuccessor,
@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class JReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = 8368363180049900886L;
+
 
   public JReturnStatementEdge(String pRawStatement, JReturnStatement pRawAST,
       FileLocation pFileLocation, CFANode pPredecessor, FunctionExitNode pSuccessor) {
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -221,7 +222,7 @@ class ASTConverter {
   // this counter is static to make the replacing names for anonymous types, in
   // more than one file (which get parsed with different AstConverters, although
   // they are in the same run) unique
-  private static int anonTypeCounter = 0;
+  private static final AtomicInteger anonTypeCounter = new AtomicInteger();
 
 
   private final Sideassignments sideAssignmentStack;
@@ -1987,7 +1988,7 @@ class ASTConverter {
       if (d.getStorageClass() == IASTDeclSpecifier.sc_typedef) {
         name += ((IASTSimpleDeclaration)d.getParent()).getDeclarators()[0].getName().getRawSignature();
       } else {
-        name += anonTypeCounter++;
+        name += anonTypeCounter.getAndIncrement();
       }
     }
 
@@ -2019,7 +2020,7 @@ class ASTConverter {
     // when the enum has no name we create one
     // (this may be the case when the enum declaration is surrounded by a typedef)
     if (name.isEmpty()) {
-      name = "__anon_type_" + anonTypeCounter++;
+      name = "__anon_type_" + anonTypeCounter.getAndIncrement();
     }
 
     CEnumType enumType = new CEnumType(d.isConst(), d.isVolatile(), list, name, origName);
@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -32,6 +33,8 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
@@ -96,13 +99,75 @@ class ASTTypeConverter {
     filePrefix = pFilePrefix;
     niceFileNameFunction = pNiceFileNameFunction;
     if (!typeConversions.containsKey(filePrefix)) {
-      typeConversions.put(filePrefix, new IdentityHashMap<IType, CType>());
+      typeConversions.putIfAbsent(filePrefix, new IdentityHashMap<IType, CType>());
     }
   }
 
   /** cache for all ITypes, so that they don't have to be parsed again and again
-   *  (Eclipse seems to give us identical objects for identical types already). */
-  private final static Map<String, Map<IType, CType>> typeConversions = new HashMap<>();
+   *  (Eclipse seems to give us identical objects for identical types already).
+   *  While functions are converted in parallel, this cache is only read,
+   *  new conversions are stored in {@link #localTypeConversions} instead. */
+  private final static ConcurrentMap<String, Map<IType, CType>> typeConversions = new ConcurrentHashMap<>();
+
+  /** Conversions of the current thread that are not yet visible to other threads,
+   *  if set (cf. {@link #startLocalConversions()}). */
+  private final static ThreadLocal<Map<String, Map<IType, CType>>> localTypeConversions = new ThreadLocal<>();
+
+  /**
+   * Let the current thread store all types it converts from now on
+   * only locally instead of in the global cache.
+   * This allows to convert several functions in parallel without locking,
+   * and without other threads seeing the incomplete composite types
+   * that are cached during their conversion.
+   * The result of each thread is independent of the other threads.
+   */
+  static void startLocalConversions() {
+    checkState(localTypeConversions.get() == null);
+    localTypeConversions.set(new HashMap<String, Map<IType, CType>>());
+  }
+
+  /**
+   * Stop storing conversions locally and return the conversions
+   * done since {@link #startLocalConversions()}.
+   * They should be added to the global cache with {@link #mergeLocalConversions(Map)}.
+   */
+  static Map<String, Map<IType, CType>> stopLocalConversions() {
+    Map<String, Map<IType, CType>> result = localTypeConversions.get();
+    checkState(result != null);
+    localTypeConversions.remove();
+    return result;
+  }
+
+  /**
+   * Add conversions returned by {@link #stopLocalConversions()} to the global cache.
+   * Conversions that already exist are kept, so if this method is called
+   * in a fixed order, the cache does not depend on the order of the conversions.
+   * This must not be called while other threads convert types.
+   */
+  static void mergeLocalConversions(Map<String, Map<IType, CType>> pLocalConversions) {
+    for (Entry<String, Map<IType, CType>> fileConversions : pLocalConversions.entrySet()) {
+      Map<IType, CType> conversions = typeConversions.get(fileConversions.getKey());
+      for (Entry<IType, CType> entry : fileConversions.getValue().entrySet()) {
+        if (!conversions.containsKey(entry.getKey())) {
+          conversions.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  /** Get the map where new conversions for the current file should be stored. */
+  private Map<IType, CType> getModifiableConversions() {
+    Map<String, Map<IType, CType>> localConversions = localTypeConversions.get();
+    if (localConversions == null) {
+      return typeConversions.get(filePrefix);
+    }
+    Map<IType, CType> result = localConversions.get(filePrefix);
+    if (result == null) {
+      result = new IdentityHashMap<>();
+      localConversions.put(filePrefix, result);
+    }
+    return result;
+  }
 
   /**
    * This can be used to rename a CType in case of Types with equal names but
@@ -124,10 +189,14 @@ class ASTTypeConverter {
   CType convert(IType t) {
     CType result = typeConversions.get(filePrefix).get(t);
     if (result == null) {
-      result = checkNotNull(convert0(t));
-      // re-check, in some cases we updated the map already
-      if (!typeConversions.get(filePrefix).containsKey(t)) {
-        typeConversions.get(filePrefix).put(t, result);
+      Map<IType, CType> conversions = getModifiableConversions();
+      result = conversions.get(t);
+      if (result == null) {
+        result = checkNotNull(convert0(t));
+        // re-check, in some cases we updated the map already
+        if (!conversions.containsKey(t)) {
+          conversions.put(t, result);
+        }
       }
     }
     return result;
@@ -183,7 +252,7 @@ class ASTTypeConverter {
       // we cheat and put a CElaboratedType instance in the map.
       // This means that wherever the ICompositeType instance appears, it will be
       // replaced by an CElaboratedType.
-      typeConversions.get(filePrefix).put(t, new CElaboratedType(false, false, kind, name, compType.getOrigName(), compType));
+      getModifiableConversions().put(t, new CElaboratedType(false, false, kind, name, compType.getOrigName(), compType));
 
       compType.setMembers(conv(ct.getFields()));
 
@@ -28,6 +28,7 @@ import static com.google.common.collect.FluentIterable.from;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -38,19 +39,24 @@ import javax.annotation.Nullable;
 import org.eclipse.cdt.core.dom.ast.ASTVisitor;
 import org.eclipse.cdt.core.dom.ast.IASTASMDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTExpression;
 import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTProblem;
 import org.eclipse.cdt.core.dom.ast.IASTProblemDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IType;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner.FunctionTask;
 import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
@@ -67,6 +73,7 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.exceptions.CParserException;
 
 import com.google.common.base.Function;
@@ -83,6 +90,9 @@ import com.google.common.collect.TreeMultimap;
  * call {@link #analyzeTranslationUnit(IASTTranslationUnit, String)}
  * once for each translation unit that should be used
  * and finally call {@link #createCFA()}.
+ *
+ * The bodies of the functions are converted after all translation units
+ * were analyzed, optionally in parallel (cf. option cfa.parallelThreads).
  */
 class CFABuilder extends ASTVisitor {
 
@@ -107,8 +117,10 @@ class CFABuilder extends ASTVisitor {
   private final CSourceOriginMapping sourceOriginMapping;
 
   private final MachineModel machine;
+  private final LogManager plainLogger;
   private final LogManagerWithoutDuplicates logger;
   private final CheckBindingVisitor checkBinding;
+  private final CFAFunctionTaskRunner functionRunner;
 
   private final Configuration config;
 
@@ -118,8 +130,9 @@ class CFABuilder extends ASTVisitor {
   public CFABuilder(Configuration pConfig, LogManager pLogger,
       Function<String, String> pNiceFileNameFunction,
       CSourceOriginMapping pSourceOriginMapping,
-      MachineModel pMachine) {
+      MachineModel pMachine, int pParallelThreads) {
 
+    plainLogger = pLogger;
     logger = new LogManagerWithoutDuplicates(pLogger);
     niceFileNameFunction = pNiceFileNameFunction;
     sourceOriginMapping = pSourceOriginMapping;
@@ -127,6 +140,7 @@ class CFABuilder extends ASTVisitor {
     config = pConfig;
 
     checkBinding = new CheckBindingVisitor(pLogger);
+    functionRunner = new CFAFunctionTaskRunner(pParallelThreads);
 
     shouldVisitDeclarations = true;
     shouldVisitEnumerators = true;
@@ -307,10 +321,11 @@ class CFABuilder extends ASTVisitor {
       ((CDeclaration)decl.getFirst()).getType().accept(fillInAllBindingsVisitor);
     }
 
+    List<FunctionDefinitionConversion> conversions = new ArrayList<>();
     for (Triple<List<IASTFunctionDefinition>, String, GlobalScope> triple : functionDeclarations) {
       GlobalScope actScope = triple.getThird();
 
-      // giving these variables as parameters to the handleFunctionDefinition method
+      // giving these variables as parameters to the FunctionDefinitionConversion
       // increases performance drastically, as there is no need to create the Immutable
       // Map each time
       ImmutableMap<String, CFunctionDeclaration> actFunctions = actScope.getFunctions();
@@ -318,16 +333,43 @@ class CFABuilder extends ASTVisitor {
       ImmutableMap<String, CTypeDefDeclaration> actTypeDefs = actScope.getTypeDefs();
       ImmutableMap<String, CSimpleDeclaration> actVars = actScope.getGlobalVars();
       for (IASTFunctionDefinition declaration : triple.getFirst()) {
-          handleFunctionDefinition(actScope,
-                                   triple.getSecond(),
-                                   declaration,
-                                   actFunctions,
-                                   actTypes,
-                                   actTypeDefs,
-                                   actVars);
+        conversions.add(new FunctionDefinitionConversion(actScope,
+                                                         triple.getSecond(),
+                                                         declaration,
+                                                         actFunctions,
+                                                         actTypes,
+                                                         actTypeDefs,
+                                                         actVars));
       }
     }
 
+    if (functionRunner.isParallel()) {
+      // Eclipse CDT resolves bindings lazily and caches them in the AST,
+      // which is not thread-safe, so we resolve everything once beforehand.
+      BindingResolver bindingResolver = new BindingResolver();
+      for (FunctionDefinitionConversion conversion : conversions) {
+        conversion.declaration.accept(bindingResolver);
+      }
+    }
+
+    try {
+      functionRunner.processAll(conversions, new FunctionTask<FunctionDefinitionConversion>() {
+        @Override
+        public void process(FunctionDefinitionConversion pConversion) {
+          pConversion.convert();
+        }
+      });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CParserException("Interrupted during conversion of function definitions");
+    }
+
+    // register the results in the order of the function definitions,
+    // independently of the order in which they were converted
+    for (FunctionDefinitionConversion conversion : conversions) {
+      conversion.registerResult();
+    }
+
     if (encounteredAsm) {
       logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
     }
@@ -344,46 +386,134 @@ class CFABuilder extends ASTVisitor {
     return result;
   }
 
-  private void handleFunctionDefinition(final GlobalScope actScope,
-                                        String fileName,
-                                        IASTFunctionDefinition declaration,
-                                        ImmutableMap<String, CFunctionDeclaration> functions,
-                                        ImmutableMap<String, CComplexTypeDeclaration> types,
-                                        ImmutableMap<String, CTypeDefDeclaration> typedefs,
-                                        ImmutableMap<String, CSimpleDeclaration> globalVars) {
+  /**
+   * The conversion of a single function definition to a CFA.
+   * The conversion itself does not modify the state of the CFABuilder
+   * or any other shared state and can thus be executed concurrently with other conversions,
+   * the results are collected afterwards by {@link #registerResult()}.
+   */
+  private class FunctionDefinitionConversion {
+
+    private final GlobalScope actScope;
+    private final IASTFunctionDefinition declaration;
+    private final CFAFunctionBuilder functionBuilder;
+
+    private FunctionEntryNode startNode = null;
+    private Set<CFANode> nodes = null;
+    private List<CFANode> createdNodes = null;
+    private Map<String, Map<IType, CType>> localTypeConversions = null;
+    private List<Pair<ADeclaration, String>> functionGlobalDeclarations = null;
+    private boolean functionEncounteredAsm = false;
+
+    private FunctionDefinitionConversion(GlobalScope pActScope,
+        String fileName,
+        IASTFunctionDefinition pDeclaration,
+        ImmutableMap<String, CFunctionDeclaration> functions,
+        ImmutableMap<String, CComplexTypeDeclaration> types,
+        ImmutableMap<String, CTypeDefDeclaration> typedefs,
+        ImmutableMap<String, CSimpleDeclaration> globalVars) {
+      actScope = pActScope;
+      declaration = pDeclaration;
+
+      FunctionScope localScope = new FunctionScope(functions, types, typedefs, globalVars, fileName);
+
+      // The logger and the side-assignment stack are not thread-safe,
+      // so each function gets its own if functions are converted in parallel.
+      LogManagerWithoutDuplicates functionLogger = logger;
+      Sideassignments functionSideAssignments = sideAssignmentStack;
+      if (functionRunner.isParallel()) {
+        functionLogger = new LogManagerWithoutDuplicates(plainLogger);
+        functionSideAssignments = new Sideassignments();
+      }
 
-    FunctionScope localScope = new FunctionScope(functions, types, typedefs, globalVars, fileName);
-    CFAFunctionBuilder functionBuilder;
+      // The builder is created here and not in convert(),
+      // because injecting the configuration is not thread-safe.
+      try {
+        functionBuilder = new CFAFunctionBuilder(config, functionLogger, localScope, niceFileNameFunction,
+            sourceOriginMapping,
+            machine, fileName, functionSideAssignments, checkBinding);
+      } catch (InvalidConfigurationException e) {
+        throw new CFAGenerationRuntimeException("Invalid configuration");
+      }
+    }
 
-    try {
-      functionBuilder = new CFAFunctionBuilder(config, logger, localScope, niceFileNameFunction,
-          sourceOriginMapping,
-          machine, fileName, sideAssignmentStack, checkBinding);
-    } catch (InvalidConfigurationException e) {
-      throw new CFAGenerationRuntimeException("Invalid configuration");
+    private void convert() {
+      // Nodes are numbered and types are cached locally during the conversion,
+      // such that the result does not depend on other functions that are converted
+      // at the same time. Both is made global in registerResult(), in a fixed order.
+      CFANode.startLocalNodeNumbering();
+      if (functionRunner.isParallel()) {
+        ASTTypeConverter.startLocalConversions();
+      }
+      try {
+        declaration.accept(functionBuilder);
+
+        startNode = functionBuilder.getStartNode();
+        nodes = functionBuilder.getCfaNodes();
+        functionGlobalDeclarations = functionBuilder.getGlobalDeclarations();
+        functionEncounteredAsm = functionBuilder.didEncounterAsm();
+        functionBuilder.finish();
+      } finally {
+        createdNodes = CFANode.stopLocalNodeNumbering();
+        if (functionRunner.isParallel()) {
+          localTypeConversions = ASTTypeConverter.stopLocalConversions();
+        }
+      }
+    }
+
+    private void registerResult() {
+      CFANode.assignFinalNodeNumbers(createdNodes);
+      if (localTypeConversions != null) {
+        ASTTypeConverter.mergeLocalConversions(localTypeConversions);
+      }
+
+      String functionName = startNode.getFunctionName();
+
+      if (cfas.containsKey(functionName)) {
+        throw new CFAGenerationRuntimeException("Duplicate function " + functionName
+            + " in " + startNode.getFileLocation() + " and " + cfas.get(functionName).getFileLocation());
+      }
+      cfas.put(functionName, startNode);
+      cfaNodes.putAll(functionName, nodes);
+      globalDeclarations.addAll(from(functionGlobalDeclarations).transform(new Function<Pair<ADeclaration, String>, Triple<ADeclaration, String, GlobalScope>>() {
+
+        @Override
+        public Triple<ADeclaration, String, GlobalScope> apply(Pair<ADeclaration, String> pInput) {
+          return Triple.of(pInput.getFirst(), pInput.getSecond(), actScope);
+        }}).toList());
+      globalDecls.addAll(functionGlobalDeclarations);
+
+      encounteredAsm |= functionEncounteredAsm;
     }
+  }
+
+  /**
+   * Visitor that resolves the bindings of all names and the types of all expressions
+   * such that the lazily computed information is cached in the AST
+   * before it is accessed concurrently.
+   */
+  private static class BindingResolver extends ASTVisitor {
 
-    declaration.accept(functionBuilder);
+    private BindingResolver() {
+      shouldVisitNames = true;
+      shouldVisitExpressions = true;
+    }
 
-    FunctionEntryNode startNode = functionBuilder.getStartNode();
-    String functionName = startNode.getFunctionName();
+    @Override
+    public int visit(IASTName pName) {
+      pName.resolveBinding();
+      return PROCESS_CONTINUE;
+    }
 
-    if (cfas.containsKey(functionName)) {
-      throw new CFAGenerationRuntimeException("Duplicate function " + functionName
-          + " in " + startNode.getFileLocation() + " and " + cfas.get(functionName).getFileLocation());
+    @Override
+    public int visit(IASTExpression pExpression) {
+      pExpression.getExpressionType();
+      return PROCESS_CONTINUE;
     }
-    cfas.put(functionName, startNode);
-    cfaNodes.putAll(functionName, functionBuilder.getCfaNodes());
-    globalDeclarations.addAll(from(functionBuilder.getGlobalDeclarations()).transform(new Function<Pair<ADeclaration, String>, Triple<ADeclaration, String, GlobalScope>>() {
-
-      @Override
-      public Triple<ADeclaration, String, GlobalScope> apply(Pair<ADeclaration, String> pInput) {
-        return Triple.of(pInput.getFirst(), pInput.getSecond(), actScope);
-      }}).toList());
-    globalDecls.addAll(functionBuilder.getGlobalDeclarations());
-
-    encounteredAsm |= functionBuilder.didEncounterAsm();
-    functionBuilder.finish();
+  }
+
+  CFAFunctionTaskRunner getFunctionRunner() {
+    return functionRunner;
   }
 
   @Override
@@ -67,6 +67,7 @@ import com.google.common.collect.Sets;
 /**
  * This class can traverse through an AST and log a warning for all undefined
  * identifiers which are referenced.
+ * It may be used concurrently for several functions.
  */
 class CheckBindingVisitor implements CRightHandSideVisitor<Void, CFAGenerationRuntimeException>,
                                        CInitializerVisitor<Void, CFAGenerationRuntimeException>,
@@ -75,9 +76,9 @@ class CheckBindingVisitor implements CRightHandSideVisitor<Void, CFAGenerationRu
 
   private final LogManager logger;
 
-  private final Set<String> printedWarnings = Sets.newHashSet();
+  private final Set<String> printedWarnings = Sets.newConcurrentHashSet();
 
-  private boolean foundUndefinedIdentifiers = false;
+  private volatile boolean foundUndefinedIdentifiers = false;
 
   CheckBindingVisitor(LogManager pLogger) {
     logger = pLogger;
@@ -61,6 +61,7 @@ import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
@@ -91,13 +92,16 @@ class EclipseCParser implements CParser {
 
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
+  private final int parallelThreads;
+  private CFAFunctionTaskRunner functionRunner = null;
 
   public EclipseCParser(Configuration pConfig, LogManager pLogger,
-      Dialect dialect, MachineModel pMachine) {
+      Dialect dialect, MachineModel pMachine, int pParallelThreads) {
 
     this.logger = pLogger;
     this.machine = pMachine;
     this.config = pConfig;
+    this.parallelThreads = pParallelThreads;
 
     switch (dialect) {
     case C99:
@@ -320,7 +324,7 @@ class EclipseCParser implements CParser {
 
     Function<String, String> niceFileNameFunction = createNiceFileNameFunction(asts);
     try {
-      CFABuilder builder = new CFABuilder(config, logger, niceFileNameFunction, sourceOriginMapping, machine);
+      CFABuilder builder = new CFABuilder(config, logger, niceFileNameFunction, sourceOriginMapping, machine, parallelThreads);
 
       // we don't need any file prefix if we only have one file
       if (asts.size() == 1) {
@@ -336,7 +340,9 @@ class EclipseCParser implements CParser {
         }
       }
 
-      return builder.createCFA();
+      ParseResult result = builder.createCFA();
+      functionRunner = builder.getFunctionRunner();
+      return result;
 
     } catch (CFAGenerationRuntimeException e) {
       throw new CParserException(e);
@@ -414,6 +420,11 @@ class EclipseCParser implements CParser {
     return cfaTimer;
   }
 
+  @Override
+  public CFAFunctionTaskRunner getFunctionConversionRunner() {
+    return functionRunner;
+  }
+
 
   /**
    * Private class extending the Eclipse CDT class that is the starting point
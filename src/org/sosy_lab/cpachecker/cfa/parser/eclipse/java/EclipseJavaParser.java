@@ -52,6 +52,7 @@ import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner;
 import org.sosy_lab.cpachecker.cfa.CSourceOriginMapping;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
@@ -401,6 +402,11 @@ class EclipseJavaParser implements Parser {
     return cfaTimer;
   }
 
+  @Override
+  public CFAFunctionTaskRunner getFunctionConversionRunner() {
+    return null;
+  }
+
   public static final class JavaFileAST {
 
     private final  String fileName;
@@ -52,6 +52,15 @@ public class MultiEdgeCreator extends DefaultCFAVisitor {
     }
   }
 
+  /**
+   * Create the multi edges of a single function.
+   * As long as there are no super edges in the cfa,
+   * different functions may be handled concurrently.
+   */
+  public static void createMultiEdges(MutableCFA cfa, CFANode functionStart) {
+    CFATraversal.dfs().ignoreSummaryEdges().traverseOnce(functionStart, new MultiEdgeCreator(cfa));
+  }
+
   private final MutableCFA cfa;
 
   private MultiEdgeCreator(MutableCFA pCfa) {
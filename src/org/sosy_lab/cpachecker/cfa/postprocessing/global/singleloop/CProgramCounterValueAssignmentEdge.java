@@ -41,6 +41,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
  */
 class CProgramCounterValueAssignmentEdge extends CStatementEdge implements ProgramCounterValueAssignmentEdge {
 
+  private static final long serialVersionUID = -5524610988479529861L;
+
   /**
    * The program counter value.
    */
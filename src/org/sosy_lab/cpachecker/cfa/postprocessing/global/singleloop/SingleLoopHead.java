@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.cfa.postprocessing.global.singleloop;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,10 +49,14 @@ import com.google.common.base.Preconditions;
  */
 public class SingleLoopHead extends CFANode {
 
+  private static final long serialVersionUID = -7944443909823537429L;
+
   /**
    * The program counter value assignment edges leading to the loop head.
+   * Like the entering edges of the node, they are not serialized
+   * and are filled again when the entering edges are restored.
    */
-  private final Map<Integer, ProgramCounterValueAssignmentEdge> enteringPCValueAssignmentEdges = new HashMap<>();
+  private transient Map<Integer, ProgramCounterValueAssignmentEdge> enteringPCValueAssignmentEdges = new HashMap<>();
 
   /**
    * Creates a new loop head with line number 0 and an artificial function name.
@@ -125,4 +131,8 @@ public class SingleLoopHead extends CFANode {
     return Collections.unmodifiableSet(enteringPCValueAssignmentEdges.keySet());
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    enteringPCValueAssignmentEdges = new HashMap<>();
+  }
 }
\ No newline at end of file
@@ -31,6 +31,8 @@ import java.util.Objects;
 
 public abstract class AArrayType implements Type {
 
+  private static final long serialVersionUID = -3280414085535793754L;
+
 
   private final Type elementType;
 
@@ -42,6 +42,8 @@ import com.google.common.collect.ImmutableList;
 
 public final class CEnumType implements CComplexType {
 
+  private static final long serialVersionUID = 3692558841697874094L;
+
   private final ImmutableList<CEnumerator> enumerators;
   private final String name;
   private final String origName;
@@ -123,6 +125,8 @@ public final class CEnumType implements CComplexType {
 
   public static final class CEnumerator extends AbstractSimpleDeclaration implements CSimpleDeclaration {
 
+    private static final long serialVersionUID = 6567404618579722993L;
+
     private final @Nullable Long  value;
     private CEnumType             enumType;
     private final String         qualifiedName;
@@ -41,6 +41,7 @@ import org.sosy_lab.cpachecker.core.algorithm.BDDCPARestrictionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CEGARAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CustomInstructionRequirementsExtractingAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelCPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithmWithARGReplay;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -96,6 +97,11 @@ public class CoreComponentsFactory {
         + "after the analysis has finished, works only with PredicateCPA")
   private boolean useBMC = false;
 
+  @Option(secure=true, name="algorithm.parallelCPA",
+      description="explore the state space with several threads (cf. cpa.parallel.threads),"
+        + " this needs a thread-safe reached set (analysis.reachedSet=SYNCHRONIZED or STRIPED)")
+  private boolean useParallelCPAAlgorithm = false;
+
   @Option(secure=true, name="algorithm.impact",
       description="Use McMillan's Impact algorithm for lazy interpolation")
   private boolean useImpactAlgorithm = false;
@@ -183,7 +189,11 @@ public class CoreComponentsFactory {
       algorithm = new RestartAlgorithmWithARGReplay(config, logger, shutdownNotifier, cfa);
 
     } else {
-      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats);
+      if (useParallelCPAAlgorithm) {
+        algorithm = new ParallelCPAAlgorithm(cpa, logger, config, shutdownNotifier, stats);
+      } else {
+        algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats);
+      }
 
       if (useAnalysisWithEnablerCPAAlgorithm) {
         algorithm = new AnalysisWithRefinableEnablerCPAAlgorithm(algorithm, cpa, cfa, logger, config, shutdownNotifier);
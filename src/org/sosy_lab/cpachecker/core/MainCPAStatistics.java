@@ -28,9 +28,12 @@ import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.AbstractStates.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
@@ -62,15 +65,19 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AlgorithmIterationListener;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.IterationStatistics;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.StripedPartitionedReachedSet;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.coverage.CoverageReport;
 import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 import com.google.common.base.Function;
@@ -108,19 +115,35 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     description="track memory usage of JVM during runtime")
   private boolean monitorMemoryUsage = true;
 
+  @Option(secure=true, name="statistics.metricsFile",
+      description="export all registered metrics in a machine-readable format to this file "
+          + "at the end of the analysis")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path metricsFile = null;
+
+  @Option(secure=true, name="statistics.metricsFormat",
+      description="format for exporting the metrics")
+  private MetricsFormat metricsFormat = MetricsFormat.JSON;
+
+  private static enum MetricsFormat {
+    JSON,
+    CSV
+  }
+
   private final LogManager logger;
   private final Collection<Statistics> subStats;
   private final MemoryStatistics memStats;
   private final CoverageReport coverageReport;
   private Thread memStatsThread;
+  private final StatisticsRegistry metrics = new StatisticsRegistry("CPAchecker");
 
   private Collection<IterationStatistics> iterationStats;
 
-  private final Timer programTime = new Timer();
-  final Timer creationTime = new Timer();
-  final Timer cpaCreationTime = new Timer();
-  private final Timer analysisTime = new Timer();
-  final Timer resultAnalysisTime = new Timer();
+  private final StatTimer programTime = new StatTimer("Total time for CPAchecker");
+  final StatTimer creationTime = new StatTimer("Time for analysis setup");
+  final StatTimer cpaCreationTime = new StatTimer("Time for loading CPAs");
+  private final StatTimer analysisTime = new StatTimer("Time for Analysis");
+  final StatTimer resultAnalysisTime = new StatTimer("Time for analyzing result");
 
   private long programCpuTime;
   private long analysisCpuTime = 0;
@@ -162,6 +185,12 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     }
 
     coverageReport = new CoverageReport(config, pLogger);
+
+    metrics.register(programTime)
+           .register(creationTime)
+           .register(cpaCreationTime)
+           .register(analysisTime)
+           .register(resultAnalysisTime);
   }
 
   public Collection<Statistics> getSubStatistics() {
@@ -274,6 +303,71 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     out.println();
 
     printMemoryStatistics(out);
+
+    if (metricsFile != null) {
+      // The statistics are not thread-safe, so they are exported only now
+      // when the analysis does not update them anymore.
+      registerSubMetrics();
+      exportMetrics();
+    }
+  }
+
+  private void registerSubMetrics() {
+    if (cfaCreatorStatistics instanceof MetricStatistics) {
+      registerMetrics((MetricStatistics)cfaCreatorStatistics);
+    }
+    for (Statistics s : subStats) {
+      if (s instanceof MetricStatistics) {
+        registerMetrics((MetricStatistics)s);
+      }
+    }
+  }
+
+  private void registerMetrics(MetricStatistics pStats) {
+    String name = pStats.getName();
+    if (Strings.isNullOrEmpty(name)) {
+      name = pStats.getClass().getSimpleName();
+    }
+    pStats.registerMetrics(metrics.getSubRegistry(name));
+  }
+
+  /**
+   * Write the current metrics to the metrics file.
+   * The values are written to a temporary file first that replaces the target
+   * afterwards, such that external readers never see a partially written file.
+   */
+  private void exportMetrics() {
+    File target = metricsFile.toFile();
+    File tmpFile = new File(target.getPath() + ".tmp");
+    try (Writer w = Files.openOutputFile(Paths.get(tmpFile.getPath()))) {
+      switch (metricsFormat) {
+      case JSON:
+        metrics.writeJson(w);
+        break;
+      case CSV:
+        metrics.writeCsv(w);
+        break;
+      default:
+        throw new AssertionError(metricsFormat);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write metrics to file");
+      tmpFile.delete();
+      return;
+    }
+
+    try {
+      try {
+        java.nio.file.Files.move(tmpFile.toPath(), target.toPath(),
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        java.nio.file.Files.move(tmpFile.toPath(), target.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write metrics to file");
+      tmpFile.delete();
+    }
   }
 
 
@@ -420,20 +514,29 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
 
     if (reached instanceof PartitionedReachedSet) {
       PartitionedReachedSet p = (PartitionedReachedSet)reached;
-      int partitions = p.getNumberOfPartitions();
-      out.println("  Number of partitions:          " + partitions);
-      out.println("    Avg size of partitions:      " + reachedSize / partitions);
-      Map.Entry<Object, Collection<AbstractState>> maxPartition = p.getMaxPartition();
-      out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
-      if (maxPartition.getValue().size() > 1) {
-        out.println(" (with key " + maxPartition.getKey() + ")");
-      } else {
-        out.println();
-      }
+      printPartitionStatistics(p.getNumberOfPartitions(), p.getMaxPartition(), reachedSize, out);
+    } else if (reached instanceof StripedPartitionedReachedSet) {
+      StripedPartitionedReachedSet p = (StripedPartitionedReachedSet)reached;
+      printPartitionStatistics(p.getNumberOfPartitions(), p.getMaxPartition(), reachedSize, out);
     }
     out.println("  Number of target states:       " + from(reached).filter(IS_TARGET_STATE).size());
   }
 
+  private void printPartitionStatistics(int partitions,
+      Map.Entry<Object, Collection<AbstractState>> maxPartition, int reachedSize, PrintStream out) {
+    out.println("  Number of partitions:          " + partitions);
+    if (partitions == 0) {
+      return;
+    }
+    out.println("    Avg size of partitions:      " + reachedSize / partitions);
+    out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
+    if (maxPartition.getValue().size() > 1) {
+      out.println(" (with key " + maxPartition.getKey() + ")");
+    } else {
+      out.println();
+    }
+  }
+
   private void printCfaStatistics(PrintStream out) {
     if (cfa != null) {
       int edges = 0;
@@ -464,7 +567,7 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     }
     out.println("Time for Analysis:            " + analysisTime);
     out.println("CPU time for analysis:        " + TimeSpan.ofNanos(analysisCpuTime).formatAs(TimeUnit.SECONDS));
-    if (resultAnalysisTime.getNumberOfIntervals() > 0) {
+    if (resultAnalysisTime.getUpdateCount() > 0) {
       out.println("Time for analyzing result:    " + resultAnalysisTime);
     }
     out.println("Total time for CPAchecker:    " + programTime);
@@ -49,6 +49,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AlgorithmIterationListener;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCovering;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
@@ -61,6 +62,7 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
@@ -68,7 +70,7 @@ import com.google.common.collect.Iterables;
 
 public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
-  private static class CPAStatistics implements Statistics {
+  private static class CPAStatistics implements MetricStatistics {
 
     private Timer totalTimer         = new Timer();
     private Timer chooseTimer        = new Timer();
@@ -124,6 +126,26 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       out.println("  Time for stop operator:         " + stopTimer);
       out.println("  Time for adding to reached set: " + addTimer);
     }
+
+    @Override
+    public void registerMetrics(StatisticsRegistry pRegistry) {
+      pRegistry.register("Number of iterations", countIterations)
+          .register("Max size of waitlist", maxWaitlistSize)
+          .register("Sum of waitlist sizes", countWaitlistSize)
+          .register("Number of computed successors", countSuccessors)
+          .register("Max successors for one state", maxSuccessors)
+          .register("Number of times merged", countMerge)
+          .register("Number of times stopped", countStop)
+          .register("Number of times breaked", countBreak)
+          .register("Total time for CPA algorithm", totalTimer)
+          .register("Time for choose from waitlist", chooseTimer)
+          .register("Time for forced covering", forcedCoveringTimer)
+          .register("Time for precision adjustment", precisionTimer)
+          .register("Time for transfer relation", transferTimer)
+          .register("Time for merge operator", mergeTimer)
+          .register("Time for stop operator", stopTimer)
+          .register("Time for adding to reached set", addTimer);
+    }
   }
 
   @Options(prefix="cpa")
@@ -212,6 +234,13 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
   }
 
+  /**
+   * Get the status this algorithm reports for a finished analysis.
+   */
+  AlgorithmStatus getStatus() {
+    return status;
+  }
+
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     stats.totalTimer.start();
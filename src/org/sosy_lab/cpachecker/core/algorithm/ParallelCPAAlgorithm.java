@@ -0,0 +1,522 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Predicates.instanceOf;
+import static com.google.common.base.Predicates.not;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AlgorithmIterationListener;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import com.google.common.base.Functions;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+
+/**
+ * Variant of the {@link CPAAlgorithm} that explores the state space
+ * with several worker threads.
+ *
+ * Each worker takes a state from the waitlist and computes its successors
+ * (transfer relation and precision adjustment) independently of the other workers.
+ * Merge and stop (and adding the successor to the reached set) are serialized
+ * per partition of the reached set, which thus has to be a {@link ConcurrentReachedSet}
+ * (use analysis.reachedSet=SYNCHRONIZED or STRIPED).
+ *
+ * If the reached set is not thread-safe, if only one thread is configured,
+ * or if one of the CPAs is not a {@link ThreadSafeCPA},
+ * this algorithm falls back to the sequential {@link CPAAlgorithm}.
+ * Forced covering and the merge operator of the ARGCPA for CPA-enabled analyses
+ * (which deletes whole subtrees of the ARG) are not supported in parallel mode.
+ */
+@Options(prefix="cpa.parallel")
+public class ParallelCPAAlgorithm implements Algorithm, StatisticsProvider {
+
+  private static class ParallelCPAStatistics implements Statistics {
+
+    private int threads = 0;
+    private final AtomicInteger busyWorkers     = new AtomicInteger();
+    private final AtomicInteger countIterations = new AtomicInteger();
+    private final AtomicInteger countSuccessors = new AtomicInteger();
+    private final AtomicInteger maxSuccessors   = new AtomicInteger();
+    private final AtomicInteger countMerge      = new AtomicInteger();
+    private final AtomicInteger countStop       = new AtomicInteger();
+    private final AtomicInteger countBreak      = new AtomicInteger();
+
+    // accumulated over all worker threads, in nanoseconds
+    private final AtomicLong waitTime      = new AtomicLong();
+    private final AtomicLong precisionTime = new AtomicLong();
+    private final AtomicLong transferTime  = new AtomicLong();
+    private final AtomicLong lockTime      = new AtomicLong();
+    private final AtomicLong mergeTime     = new AtomicLong();
+    private final AtomicLong stopTime      = new AtomicLong();
+    private final AtomicLong addTime       = new AtomicLong();
+
+    private long totalTime = 0;
+
+    private void updateMaxSuccessors(int pNumSuccessors) {
+      int max;
+      do {
+        max = maxSuccessors.get();
+      } while (pNumSuccessors > max && !maxSuccessors.compareAndSet(max, pNumSuccessors));
+    }
+
+    @Override
+    public String getName() {
+      return "Parallel CPA algorithm";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
+      out.println("Number of worker threads:        " + threads);
+      out.println("Number of workers with states:   " + busyWorkers.get());
+      out.println("Number of iterations:            " + countIterations.get());
+      if (countIterations.get() == 0) {
+        return;
+      }
+
+      out.println("Number of computed successors:   " + countSuccessors.get());
+      out.println("Max successors for one state:    " + maxSuccessors.get());
+      out.println("Number of times merged:          " + countMerge.get());
+      out.println("Number of times stopped:         " + countStop.get());
+      out.println("Number of times breaked:         " + countBreak.get());
+      out.println();
+      out.println("Total time for CPA algorithm:     " + format(totalTime));
+      out.println("Times summed over all threads:");
+      out.println("  Time for waiting for work:      " + format(waitTime.get()));
+      out.println("  Time for precision adjustment:  " + format(precisionTime.get()));
+      out.println("  Time for transfer relation:     " + format(transferTime.get()));
+      out.println("  Time for acquiring partitions:  " + format(lockTime.get()));
+      out.println("  Time for merge operator:        " + format(mergeTime.get()));
+      out.println("  Time for stop operator:         " + format(stopTime.get()));
+      out.println("  Time for adding to reached set: " + format(addTime.get()));
+    }
+
+    private static String format(long nanos) {
+      return TimeSpan.ofNanos(nanos).formatAs(SECONDS);
+    }
+  }
+
+  @Option(secure=true, description="Number of threads that explore the state space concurrently. "
+      + "Values smaller than 2 mean sequential exploration with the normal CPA algorithm.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  private final ParallelCPAStatistics stats = new ParallelCPAStatistics();
+
+  private final ConfigurableProgramAnalysis cpa;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final @Nullable AlgorithmIterationListener iterationListener;
+
+  private final CPAAlgorithm sequentialAlgorithm;
+  private final boolean cpaIsThreadSafe;
+
+  public ParallelCPAAlgorithm(ConfigurableProgramAnalysis pCpa, LogManager pLogger,
+      Configuration pConfig, ShutdownNotifier pShutdownNotifier,
+      @Nullable AlgorithmIterationListener pIterationListener) throws InvalidConfigurationException {
+
+    pConfig.inject(this);
+    cpa = pCpa;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+    iterationListener = pIterationListener;
+    sequentialAlgorithm = CPAAlgorithm.create(pCpa, pLogger, pConfig, pShutdownNotifier, pIterationListener);
+
+    List<ConfigurableProgramAnalysis> nonThreadSafeCPAs =
+        CPAs.asIterable(cpa).filter(not(instanceOf(ThreadSafeCPA.class))).toList();
+    if (!nonThreadSafeCPAs.isEmpty()) {
+      cpaIsThreadSafe = false;
+      logger.log(Level.WARNING, "Using sequential CPA algorithm because the following CPAs are not thread-safe:",
+          Iterables.transform(nonThreadSafeCPAs, Functions.toStringFunction()));
+    } else if (cpa.getMergeOperator() instanceof ARGMergeJoinCPAEnabledAnalysis) {
+      cpaIsThreadSafe = false;
+      logger.log(Level.WARNING, "Using sequential CPA algorithm because the ARG is used in a CPA-enabled analysis.");
+    } else {
+      cpaIsThreadSafe = true;
+    }
+  }
+
+  @Override
+  public AlgorithmStatus run(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    ReachedSet reachedSet = pReachedSet;
+    while (reachedSet instanceof ForwardingReachedSet) {
+      reachedSet = ((ForwardingReachedSet)reachedSet).getDelegate();
+    }
+
+    if (threads < 2 || !cpaIsThreadSafe) {
+      return sequentialAlgorithm.run(pReachedSet);
+    }
+    if (!(reachedSet instanceof ConcurrentReachedSet)) {
+      logger.log(Level.WARNING, "Using sequential CPA algorithm because reached set is not thread-safe,"
+          + " please set analysis.reachedSet=SYNCHRONIZED or STRIPED.");
+      return sequentialAlgorithm.run(pReachedSet);
+    }
+
+    stats.threads = threads;
+    long startTime = System.nanoTime();
+    try {
+      return new Exploration((ConcurrentReachedSet)reachedSet).run();
+    } finally {
+      stats.totalTime += System.nanoTime() - startTime;
+    }
+  }
+
+  /**
+   * The state of a single call to {@link ParallelCPAAlgorithm#run(ReachedSet)}.
+   * All fields except the reached set are guarded by {@link #workLock}.
+   */
+  private class Exploration {
+
+    private final ConcurrentReachedSet reachedSet;
+
+    private final TransferRelation transferRelation = cpa.getTransferRelation();
+    private final MergeOperator mergeOperator = cpa.getMergeOperator();
+    private final StopOperator stopOperator = cpa.getStopOperator();
+    private final PrecisionAdjustment precisionAdjustment = cpa.getPrecisionAdjustment();
+
+    private final Object workLock = new Object();
+    private int activeWorkers = 0;
+    private boolean finished = false;
+    private @Nullable Throwable failure = null;
+
+    private Exploration(ConcurrentReachedSet pReachedSet) {
+      reachedSet = pReachedSet;
+    }
+
+    private AlgorithmStatus run() throws CPAException, InterruptedException {
+      ExecutorService executor = Executors.newFixedThreadPool(threads,
+          Threads.threadFactoryBuilder().setNameFormat("CPA algorithm worker %d").setDaemon(true).build());
+      try {
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+          workers.add(executor.submit(new Worker()));
+        }
+        for (Future<?> worker : workers) {
+          worker.get();
+        }
+      } catch (ExecutionException e) {
+        // Worker catches all exceptions itself.
+        throw new AssertionError(e);
+      } catch (InterruptedException e) {
+        abort(e);
+        throw e;
+      } finally {
+        executor.shutdownNow();
+      }
+
+      Throwable t;
+      synchronized (workLock) {
+        t = failure;
+      }
+      if (t != null) {
+        Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+        throw new AssertionError(t);
+      }
+      return sequentialAlgorithm.getStatus();
+    }
+
+    private class Worker implements Runnable {
+      @Override
+      public void run() {
+        try {
+          Pair<AbstractState, Precision> next = takeState();
+          if (next != null) {
+            stats.busyWorkers.incrementAndGet();
+          }
+          for (; next != null; next = takeState()) {
+            try {
+              handleState(next.getFirst(), next.getSecond());
+            } finally {
+              finishState();
+            }
+          }
+        } catch (CPAException | InterruptedException | RuntimeException | Error e) {
+          abort(e);
+        }
+      }
+    }
+
+    /**
+     * Wait until there is a state in the waitlist and take it,
+     * or return null if the exploration has ended.
+     */
+    private @Nullable Pair<AbstractState, Precision> takeState() throws InterruptedException {
+      long startTime = System.nanoTime();
+      try {
+        synchronized (workLock) {
+          while (!finished && activeWorkers > 0 && !reachedSet.hasWaitingState()) {
+            workLock.wait();
+          }
+          if (finished || !reachedSet.hasWaitingState()) {
+            // waitlist is empty and no worker is left that could fill it again
+            finished = true;
+            workLock.notifyAll();
+            return null;
+          }
+
+          AbstractState state = reachedSet.popFromWaitlist();
+          Precision precision = reachedSet.getPrecision(state);
+          activeWorkers++;
+          stats.countIterations.incrementAndGet();
+          return Pair.of(state, precision);
+        }
+      } finally {
+        stats.waitTime.addAndGet(System.nanoTime() - startTime);
+      }
+    }
+
+    private void finishState() {
+      synchronized (workLock) {
+        activeWorkers--;
+        if (iterationListener != null) {
+          iterationListener.afterAlgorithmIteration(ParallelCPAAlgorithm.this, reachedSet);
+        }
+        workLock.notifyAll();
+      }
+    }
+
+    /** Wake up waiting workers after states were added to the waitlist. */
+    private void signalNewStates() {
+      synchronized (workLock) {
+        workLock.notifyAll();
+      }
+    }
+
+    /** Let the other workers stop after they are done with their current state. */
+    private void signalBreak() {
+      synchronized (workLock) {
+        finished = true;
+        workLock.notifyAll();
+      }
+    }
+
+    private void abort(Throwable t) {
+      synchronized (workLock) {
+        if (failure == null) {
+          failure = t;
+        }
+        finished = true;
+        workLock.notifyAll();
+      }
+    }
+
+    private void handleState(final AbstractState state, final Precision precision)
+        throws CPAException, InterruptedException {
+      shutdownNotifier.shutdownIfNecessary();
+      logger.log(Level.ALL, "Current state is", state, "with precision", precision);
+
+      long startTime = System.nanoTime();
+      Collection<? extends AbstractState> successors;
+      try {
+        successors = transferRelation.getAbstractSuccessors(state, precision);
+      } finally {
+        stats.transferTime.addAndGet(System.nanoTime() - startTime);
+      }
+
+      int numSuccessors = successors.size();
+      logger.log(Level.FINER, "Current state has", numSuccessors, "successors");
+      stats.countSuccessors.addAndGet(numSuccessors);
+      stats.updateMaxSuccessors(numSuccessors);
+
+      for (AbstractState successor : Iterables.consumingIterable(successors)) {
+        logger.log(Level.ALL, "Successor of", state, "\nis", successor);
+
+        startTime = System.nanoTime();
+        PrecisionAdjustmentResult precAdjustmentResult;
+        try {
+          Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
+              precisionAdjustment.prec(
+                  successor, precision, reachedSet,
+                  Functions.<AbstractState>identity(),
+                  successor);
+          if (!precAdjustmentOptional.isPresent()) {
+            continue;
+          }
+          precAdjustmentResult = precAdjustmentOptional.get();
+        } finally {
+          stats.precisionTime.addAndGet(System.nanoTime() - startTime);
+        }
+
+        successor = precAdjustmentResult.abstractState();
+        Precision successorPrecision = precAdjustmentResult.precision();
+        Action action = precAdjustmentResult.action();
+
+        boolean added;
+        startTime = System.nanoTime();
+        Lock partitionLock = reachedSet.getPartitionLock(successor);
+        partitionLock.lock();
+        stats.lockTime.addAndGet(System.nanoTime() - startTime);
+        try {
+          if (action == Action.BREAK) {
+            boolean stop = stop(successor, successorPrecision);
+            if (AbstractStates.isTargetState(successor) && stop) {
+              // don't signal BREAK for covered states
+              stats.countStop.incrementAndGet();
+              logger.log(Level.FINER, "Break was signalled but ignored because the state is covered.");
+              continue;
+            }
+
+            stats.countBreak.incrementAndGet();
+            logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
+            reachedSet.add(successor, successorPrecision);
+            if (!successors.isEmpty()) {
+              // re-add the old state to the waitlist, there are unhandled
+              // successors left that otherwise would be forgotten
+              reachedSet.reAddToWaitlist(state);
+            }
+            signalBreak();
+            return;
+          }
+          assert action == Action.CONTINUE : "Enum Action has unhandled values!";
+
+          merge(successor, successorPrecision);
+          added = !stop(successor, successorPrecision);
+          if (added) {
+            startTime = System.nanoTime();
+            reachedSet.add(successor, successorPrecision);
+            stats.addTime.addAndGet(System.nanoTime() - startTime);
+          } else {
+            logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
+            stats.countStop.incrementAndGet();
+          }
+        } finally {
+          partitionLock.unlock();
+        }
+
+        if (added) {
+          signalNewStates();
+        }
+      }
+    }
+
+    /** Merge the successor into its partition, the caller has to hold the partition lock. */
+    private void merge(AbstractState successor, Precision successorPrecision)
+        throws CPAException, InterruptedException {
+      // An optimization, we don't bother merging if we know that the
+      // merge operator won't do anything (i.e., it is merge-sep).
+      if (mergeOperator == MergeSepOperator.getInstance()) {
+        return;
+      }
+      Collection<AbstractState> reached = reachedSet.getReached(successor);
+      if (reached.isEmpty()) {
+        return;
+      }
+
+      long startTime = System.nanoTime();
+      try {
+        List<AbstractState> toRemove = new ArrayList<>();
+        List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+
+        for (AbstractState reachedState : reached) {
+          AbstractState mergedState = mergeOperator.merge(successor, reachedState, successorPrecision);
+
+          if (!mergedState.equals(reachedState)) {
+            logger.log(Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
+            stats.countMerge.incrementAndGet();
+
+            toRemove.add(reachedState);
+            toAdd.add(Pair.of(mergedState, successorPrecision));
+          }
+        }
+        reachedSet.removeAll(toRemove);
+        reachedSet.addAll(toAdd);
+
+        if (!toAdd.isEmpty()) {
+          signalNewStates();
+        }
+      } finally {
+        stats.mergeTime.addAndGet(System.nanoTime() - startTime);
+      }
+    }
+
+    /** Check coverage of the successor, the caller has to hold the partition lock. */
+    private boolean stop(AbstractState successor, Precision successorPrecision)
+        throws CPAException, InterruptedException {
+      long startTime = System.nanoTime();
+      try {
+        // the reached set returns a snapshot, so we need to retrieve it after merging
+        Collection<AbstractState> reached = reachedSet.getReached(successor);
+        return stopOperator.stop(successor, reached, successorPrecision);
+      } finally {
+        stats.stopTime.addAndGet(System.nanoTime() - startTime);
+      }
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    sequentialAlgorithm.collectStatistics(pStatsCollection);
+    pStatsCollection.add(stats);
+  }
+
+  @Override
+  public String toString() {
+    return "ParallelCPAAlgorithm with " + threads + " threads";
+  }
+}
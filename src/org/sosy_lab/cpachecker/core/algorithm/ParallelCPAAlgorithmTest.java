@@ -0,0 +1,138 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ParallelCPAAlgorithmTest {
+
+  private static final String PROGRAM = "test/programs/simple/explicit/explicitIgnoreFeatureVars.c";
+
+  private static Map<String, String> valueAnalysisWithThreads(int threads, String blacklist) {
+    return ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA")
+        .put("specification", "config/specification/default.spc")
+        .put("ValueAnalysisCPA.precision.variableBlacklist", blacklist)
+        .put("analysis.algorithm.parallelCPA", "true")
+        .put("analysis.reachedSet", "SYNCHRONIZED")
+        .put("cpa.parallel.threads", Integer.toString(threads))
+        .build();
+  }
+
+  /**
+   * Options for an analysis in which every CPA is thread-safe:
+   * the ARG over the function-pointer analysis, without specification automata.
+   */
+  private static Map<String, String> functionPointerAnalysisWithThreads(int threads) {
+    return ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.functionpointer.FunctionPointerCPA")
+        .put("analysis.algorithm.parallelCPA", "true")
+        .put("analysis.reachedSet", "SYNCHRONIZED")
+        .put("cpa.parallel.threads", Integer.toString(threads))
+        .build();
+  }
+
+  /** Returns the statistics of the parallel algorithm (and all statistics printed after them). */
+  private static String statistics(TestResults results) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    results.getCheckerResult().printStatistics(new PrintStream(out));
+    String statistics = out.toString();
+    int start = statistics.indexOf("Parallel CPA algorithm");
+    assertThat(start).named("start of parallel statistics").isAtLeast(0);
+    return statistics.substring(start);
+  }
+
+  private static int statisticsValue(String statistics, String name) {
+    Matcher m = Pattern.compile(Pattern.quote(name) + ":\\s*(\\d+)").matcher(statistics);
+    assertThat(m.find()).named("statistics contain " + name).isTrue();
+    return Integer.parseInt(m.group(1));
+  }
+
+  @Test
+  public void testForwardingTransferRelationRunsSequentially() throws Exception {
+    // ValueAnalysisTransferRelation keeps per-call state in fields,
+    // so the analysis must not run with several threads.
+    TestResults results = CPATestRunner.run(
+        valueAnalysisWithThreads(4, "__SELECTED_FEATURE_(\\w)*"), PROGRAM);
+
+    assertThat(results.getLog()).contains("not thread-safe");
+    assertThat(results.getLog()).contains("ValueAnalysisCPA");
+    assertThat(statisticsValue(statistics(results), "Number of worker threads")).isEqualTo(0);
+    results.assertIsUnsafe();
+  }
+
+  @Test
+  public void testWorkersExploreStateSpace() throws Exception {
+    TestResults results = CPATestRunner.run(functionPointerAnalysisWithThreads(4), PROGRAM);
+
+    assertThat(results.getLog()).doesNotContain("Using sequential CPA algorithm");
+    String statistics = statistics(results);
+    assertThat(statisticsValue(statistics, "Number of worker threads")).isEqualTo(4);
+    assertThat(statisticsValue(statistics, "Number of workers with states")).isAtLeast(1);
+
+    // every state in the reached set was taken from the waitlist by a worker
+    UnmodifiableReachedSet reached = results.getCheckerResult().getReached();
+    assertThat(statisticsValue(statistics, "Number of iterations")).isAtLeast(reached.size());
+  }
+
+  @Test
+  public void testParallelARGIsConsistent() throws Exception {
+    TestResults sequential = CPATestRunner.run(functionPointerAnalysisWithThreads(1), PROGRAM);
+    TestResults parallel = CPATestRunner.run(functionPointerAnalysisWithThreads(4), PROGRAM);
+
+    UnmodifiableReachedSet reached = parallel.getCheckerResult().getReached();
+    assertThat(reached.size()).isEqualTo(sequential.getCheckerResult().getReached().size());
+
+    ARGState root = (ARGState)reached.getFirstState();
+    assertThat(root.getParents()).isEmpty();
+    for (AbstractState state : reached) {
+      ARGState argState = (ARGState)state;
+      assertThat(argState.isDestroyed()).isFalse();
+      if (argState != root) {
+        assertThat(argState.getParents()).isNotEmpty();
+      }
+      for (ARGState parent : argState.getParents()) {
+        assertThat(parent.getChildren()).contains(argState);
+      }
+    }
+  }
+}
@@ -33,15 +33,23 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -72,6 +80,7 @@ import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
@@ -88,6 +97,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     private int noOfAlgorithmsUsed = 0;
     private Timer totalTime = new Timer();
 
+    // only used in parallel mode
+    private final List<PortfolioAnalysis> portfolioAnalyses = new ArrayList<>();
+    private @Nullable PortfolioAnalysis portfolioWinner = null;
+
     public RestartAlgorithmStatistics(int pNoOfAlgorithms) {
       noOfAlgorithms = pNoOfAlgorithms;
       subStats = new ArrayList<>();
@@ -125,13 +138,43 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of algorithms provided:    " + noOfAlgorithms);
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
 
+      if (!portfolioAnalyses.isEmpty()) {
+        printPortfolioStatistics(out, result, reached);
+        return;
+      }
+
       printSubStatistics(out, result, reached);
     }
 
     private void printSubStatistics(PrintStream out, Result result, ReachedSet reached) {
       out.println("Total time for algorithm " + noOfAlgorithmsUsed + ": " + totalTime);
 
-      for (Statistics s : subStats) {
+      printStatisticsOf(subStats, out, result, reached);
+    }
+
+    private void printPortfolioStatistics(PrintStream out, Result result, ReachedSet reached) {
+      out.println("Algorithm that provided result:   "
+          + (portfolioWinner == null ? "none" : portfolioWinner.number));
+
+      for (PortfolioAnalysis analysis : portfolioAnalyses) {
+        out.println();
+        String text = "Statistics for algorithm " + analysis.number + " of " + noOfAlgorithms;
+        out.println(text);
+        out.println(Strings.repeat("=", text.length()));
+        out.println("Configuration file:               " + analysis.configFile);
+        out.println("Outcome:                          " + analysis.outcome);
+        out.println("Total time for algorithm " + analysis.number + ": " + analysis.totalTime);
+
+        // statistics of the other analyses refer to their own reached set
+        printStatisticsOf(analysis.subStats, out,
+            analysis == portfolioWinner ? result : Result.UNKNOWN,
+            analysis.reached == null ? reached : analysis.reached);
+      }
+    }
+
+    private static void printStatisticsOf(Collection<Statistics> pStats, PrintStream out, Result result,
+        ReachedSet reached) {
+      for (Statistics s : pStats) {
         String name = s.getName();
         if (!isNullOrEmpty(name)) {
           name = name + " statistics";
@@ -151,6 +194,17 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<Path> configFiles;
 
+  @Option(secure=true, name="parallel", description = "Run the analyses of all configuration files concurrently "
+      + "(as a portfolio) instead of one after another. As soon as one analysis finishes with a definitive result, "
+      + "all other analyses are stopped. Conditions attached to the configuration files are ignored in this mode.")
+  private boolean runInParallel = false;
+
+  @Option(secure=true, description = "Maximal number of analyses that run concurrently in parallel mode, "
+      + "further analyses are started when a running analysis ends without result. "
+      + "0 means that all analyses are started at once.")
+  @IntegerOption(min=0)
+  private int parallelThreads = 0;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final RestartAlgorithmStatistics stats;
@@ -188,6 +242,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     assert initialNodes != null : "Location information needed";
     CFANode mainFunction = Iterables.getOnlyElement(initialNodes);
 
+    if (runInParallel) {
+      return runPortfolio(reached, mainFunction);
+    }
+
     PeekingIterator<Path> configFilesIterator = Iterators.peekingIterator(configFiles.iterator());
 
     AlgorithmStatus status = AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -209,7 +267,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
         singleConfigFileName = Paths.get(CONFIG_FILE_CONDITION_SPLITTER.split(singleConfigFileName.toString()).iterator().next());
 
         try {
-          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier);
+          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier,
+              stats.noOfAlgorithmsUsed + 1, stats.getSubStatistics());
           currentAlgorithm = currentAlg.getFirst();
           currentCpa = currentAlg.getSecond();
           currentReached = currentAlg.getThird();
@@ -344,6 +403,200 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /**
+   * One analysis of the portfolio that is run in parallel mode.
+   * All fields are written only by the thread running the analysis
+   * and read by the main thread after the analysis has ended.
+   */
+  private static class PortfolioAnalysis {
+
+    private final int number;
+    private final Path configFile;
+    private final ShutdownNotifier shutdownNotifier;
+    private final Collection<Statistics> subStats = new ArrayList<>();
+    private final Timer totalTime = new Timer();
+
+    private @Nullable ConfigurableProgramAnalysis cpa = null;
+    private @Nullable Algorithm algorithm = null;
+    private @Nullable ReachedSet reached = null;
+    private @Nullable AlgorithmStatus status = null;
+    private @Nullable CPAException failure = null;
+    private boolean started = false;
+    private boolean definitive = false;
+    private String outcome = "not started";
+
+    private PortfolioAnalysis(int pNumber, Path pConfigFile, ShutdownNotifier pShutdownNotifier) {
+      number = pNumber;
+      configFile = pConfigFile;
+      shutdownNotifier = pShutdownNotifier;
+    }
+  }
+
+  private AlgorithmStatus runPortfolio(ForwardingReachedSet reached, final CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    List<PortfolioAnalysis> analyses = new ArrayList<>(configFiles.size());
+    for (Path configFile : configFiles) {
+      List<String> parts = CONFIG_FILE_CONDITION_SPLITTER.splitToList(configFile.toString());
+      if (parts.size() == 2) {
+        logger.logf(Level.WARNING, "Ignoring restart condition '%s' of configuration '%s' because analyses run in parallel.",
+            parts.get(1), parts.get(0));
+      }
+      analyses.add(new PortfolioAnalysis(analyses.size() + 1, Paths.get(parts.get(0)),
+          ShutdownNotifier.createWithParent(shutdownNotifier)));
+    }
+    stats.portfolioAnalyses.addAll(analyses);
+
+    int threads = parallelThreads == 0 ? analyses.size() : Math.min(parallelThreads, analyses.size());
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        Threads.threadFactoryBuilder().setNameFormat("Portfolio analysis %d").setDaemon(true).build());
+    CompletionService<PortfolioAnalysis> completionService = new ExecutorCompletionService<>(executor);
+
+    PortfolioAnalysis winner = null;
+    Throwable unexpectedFailure = null;
+    stats.totalTime.start();
+    try {
+      for (final PortfolioAnalysis analysis : analyses) {
+        completionService.submit(new Callable<PortfolioAnalysis>() {
+          @Override
+          public PortfolioAnalysis call() {
+            runPortfolioAnalysis(analysis, mainFunction);
+            return analysis;
+          }
+        });
+      }
+
+      // wait for all analyses, the remaining ones stop quickly once a result is found
+      for (int i = 0; i < analyses.size(); i++) {
+        PortfolioAnalysis finished;
+        try {
+          finished = completionService.take().get();
+        } catch (ExecutionException e) {
+          if (unexpectedFailure == null) {
+            unexpectedFailure = e.getCause();
+          }
+          stopPortfolio(analyses, "Other analysis failed");
+          continue;
+        }
+
+        if (winner == null && finished.definitive) {
+          winner = finished;
+          logger.log(Level.INFO, "Analysis", finished.number, "finished with a result, stopping other analyses.");
+          stopPortfolio(analyses, "Other analysis finished with a result");
+        }
+      }
+    } catch (InterruptedException e) {
+      stopPortfolio(analyses, "Analysis interrupted");
+      throw e;
+    } finally {
+      executor.shutdownNow();
+      stopPortfolio(analyses, "Analysis terminated"); // shutdown any remaining components
+      stats.totalTime.stop();
+    }
+
+    if (unexpectedFailure != null) {
+      Throwables.propagateIfPossible(unexpectedFailure, CPAException.class, InterruptedException.class);
+      throw new AssertionError(unexpectedFailure);
+    }
+    shutdownNotifier.shutdownIfNecessary();
+
+    // without definitive result, use the last analysis that ended, as in sequential mode
+    PortfolioAnalysis result = winner;
+    CPAException lastFailure = null;
+    for (PortfolioAnalysis analysis : analyses) {
+      if (analysis.started) {
+        stats.noOfAlgorithmsUsed++;
+      }
+      if (winner == null && analysis.status != null) {
+        result = analysis;
+      }
+      if (analysis.failure != null) {
+        lastFailure = analysis.failure;
+      }
+    }
+    stats.portfolioWinner = winner;
+
+    for (PortfolioAnalysis analysis : analyses) {
+      if (analysis != result) {
+        if (analysis.cpa != null) {
+          CPAs.closeCpaIfPossible(analysis.cpa, logger);
+        }
+        CPAs.closeIfPossible(analysis.algorithm, logger);
+      }
+    }
+
+    if (result == null) {
+      if (lastFailure != null) {
+        throw lastFailure;
+      }
+      logger.log(Level.INFO, "No further configuration available.");
+      return AlgorithmStatus.UNSOUND_AND_PRECISE;
+    }
+
+    if (reached instanceof HistoryForwardingReachedSet && result.cpa != null) {
+      ((HistoryForwardingReachedSet) reached).saveCPA(result.cpa);
+    }
+    reached.setDelegate(result.reached);
+    currentAlgorithm = result.algorithm;
+
+    if (winner == null) {
+      logger.log(Level.INFO, "No analysis finished with a result.");
+    }
+    return result.status;
+  }
+
+  private void runPortfolioAnalysis(PortfolioAnalysis analysis, CFANode mainFunction) {
+    analysis.totalTime.start();
+    try {
+      if (analysis.shutdownNotifier.shouldShutdown()) {
+        return;
+      }
+
+      Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg;
+      try {
+        currentAlg = createNextAlgorithm(analysis.configFile, mainFunction, analysis.shutdownNotifier,
+            analysis.number, analysis.subStats);
+      } catch (InvalidConfigurationException e) {
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + analysis.configFile.toString() + " is invalid");
+        analysis.outcome = "skipped (invalid configuration)";
+        return;
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + analysis.configFile.toString() + " could not be read");
+        analysis.outcome = "skipped (configuration not readable)";
+        return;
+      }
+      analysis.algorithm = currentAlg.getFirst();
+      analysis.cpa = currentAlg.getSecond();
+      analysis.reached = currentAlg.getThird();
+
+      if (analysis.algorithm instanceof StatisticsProvider) {
+        ((StatisticsProvider)analysis.algorithm).collectStatistics(analysis.subStats);
+      }
+      analysis.started = true;
+
+      AlgorithmStatus status = analysis.algorithm.run(analysis.reached);
+      analysis.status = status;
+      analysis.definitive = (from(analysis.reached).anyMatch(IS_TARGET_STATE) && status.isPrecise())
+          || (status.isSound() && !analysis.reached.hasWaitingState());
+      analysis.outcome = analysis.definitive ? "finished with result" : "finished without result";
+
+    } catch (CPAException e) {
+      logger.logUserException(Level.WARNING, e, "Analysis " + analysis.number + " not completed");
+      analysis.failure = e;
+      analysis.outcome = "failed";
+    } catch (InterruptedException e) {
+      logger.log(Level.FINE, "Analysis", analysis.number, "stopped");
+      analysis.outcome = "stopped";
+    } finally {
+      analysis.totalTime.stop();
+    }
+  }
+
+  private static void stopPortfolio(List<PortfolioAnalysis> pAnalyses, String pReason) {
+    for (PortfolioAnalysis analysis : pAnalyses) {
+      analysis.shutdownNotifier.requestShutdown(pReason);
+    }
+  }
+
   @Options
   private static class RestartAlgorithmOptions {
 
@@ -377,7 +630,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
-  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier) throws InvalidConfigurationException, CPAException, IOException {
+  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier,
+      int pNumber, Collection<Statistics> pSubStats) throws InvalidConfigurationException, CPAException, IOException {
 
     ReachedSet reached;
     ConfigurableProgramAnalysis cpa;
@@ -392,7 +646,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       singleConfigBuilder.copyOptionFrom(globalConfig, "specification");
     }
     Configuration singleConfig = singleConfigBuilder.build();
-    LogManager singleLogger = logger.withComponentName("Analysis" + (stats.noOfAlgorithmsUsed+1));
+    LogManager singleLogger = logger.withComponentName("Analysis" + pNumber);
 
     RestartAlgorithmOptions singleOptions = new RestartAlgorithmOptions();
     singleConfig.inject(singleOptions);
@@ -406,8 +660,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       reached = new ReachedSetFactory(singleConfig, singleLogger).create();
     } else {
       ReachedSetFactory singleReachedSetFactory = new ReachedSetFactory(singleConfig, singleLogger);
-      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, stats);
-      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, stats, singleReachedSetFactory, singleOptions);
+      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, pSubStats);
+      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, singleReachedSetFactory, singleOptions);
       reached = createInitialReachedSetForRestart(cpa, mainFunction, singleReachedSetFactory, singleLogger);
     }
 
@@ -431,14 +685,14 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   private ConfigurableProgramAnalysis createCPA(ReachedSetFactory pReachedSetFactory,
       Configuration pConfig, LogManager singleLogger, ShutdownNotifier singleShutdownNotifier,
-      RestartAlgorithmStatistics stats) throws InvalidConfigurationException, CPAException {
+      Collection<Statistics> pSubStats) throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating CPAs");
 
     CPABuilder builder = new CPABuilder(pConfig, singleLogger, singleShutdownNotifier, pReachedSetFactory);
     ConfigurableProgramAnalysis cpa = builder.buildCPAWithSpecAutomatas(cfa);
 
     if (cpa instanceof StatisticsProvider) {
-      ((StatisticsProvider)cpa).collectStatistics(stats.getSubStatistics());
+      ((StatisticsProvider)cpa).collectStatistics(pSubStats);
     }
     return cpa;
   }
@@ -447,7 +701,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       final ConfigurableProgramAnalysis cpa, Configuration pConfig,
       final LogManager singleLogger,
       final ShutdownNotifier singleShutdownNotifier,
-      final RestartAlgorithmStatistics stats, ReachedSetFactory singleReachedSetFactory,
+      ReachedSetFactory singleReachedSetFactory,
       RestartAlgorithmOptions pOptions)
   throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating algorithms");
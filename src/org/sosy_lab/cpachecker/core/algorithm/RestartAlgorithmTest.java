@@ -0,0 +1,111 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class RestartAlgorithmTest {
+
+  private static final String VALUE_ANALYSIS = "test/config/restart/valueAnalysis.properties";
+  private static final String LOCATION_ANALYSIS = "test/config/restart/locationAnalysis.properties";
+  private static final String MISSING_CONFIG = "test/config/restart/doesNotExist.properties";
+
+  private static final String UNSAFE_PROGRAM = "test/programs/bmc/loop-bound_false-unreach-label.c";
+  private static final String NON_TERMINATING_PROGRAM = "test/programs/simple/unboundedCounter.c";
+
+  private static Map<String, String> restartOptions(boolean pParallel, String pConfigFiles) {
+    return ImmutableMap.of(
+        "analysis.restartAfterUnknown", "true",
+        "restartAlgorithm.configFiles", pConfigFiles,
+        "restartAlgorithm.parallel", Boolean.toString(pParallel),
+        "specification", "config/specification/default.spc");
+  }
+
+  private static String statistics(TestResults results) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    results.getCheckerResult().printStatistics(new PrintStream(out));
+    return out.toString();
+  }
+
+  /**
+   * Return the statistics of one analysis of the portfolio.
+   */
+  private static String statisticsOfAnalysis(String statistics, int number) {
+    int start = statistics.indexOf("Statistics for algorithm " + number + " of");
+    assertThat(start).isAtLeast(0);
+    int end = statistics.indexOf("Statistics for algorithm ", start + 1);
+    return end < 0 ? statistics.substring(start) : statistics.substring(start, end);
+  }
+
+  @Test
+  public void testSequentialSkipsMissingConfiguration() throws Exception {
+    TestResults results = CPATestRunner.run(
+        restartOptions(false, MISSING_CONFIG + ", " + VALUE_ANALYSIS), UNSAFE_PROGRAM);
+
+    results.assertIsUnsafe();
+    assertThat(results.getLog()).contains("Skipping one analysis because the configuration file");
+    String statistics = statistics(results);
+    assertThat(statistics).contains("Number of algorithms used:        1");
+    assertThat(statistics).doesNotContain("Algorithm that provided result:");
+  }
+
+  @Test
+  public void testParallelSkipsMissingConfiguration() throws Exception {
+    TestResults results = CPATestRunner.run(
+        restartOptions(true, MISSING_CONFIG + ", " + VALUE_ANALYSIS), UNSAFE_PROGRAM);
+
+    results.assertIsUnsafe();
+    String statistics = statistics(results);
+    assertThat(statistics).contains("Algorithm that provided result:   2");
+    assertThat(statisticsOfAnalysis(statistics, 1)).contains("Outcome:                          skipped");
+    assertThat(statisticsOfAnalysis(statistics, 2)).contains("Outcome:                          finished with result");
+  }
+
+  @Test(timeout=120000)
+  public void testParallelStopsOtherAnalyses() throws Exception {
+    // The value analysis does not terminate on this program.
+    // The location analysis can only win if both run at the same time,
+    // and the portfolio ends only if the value analysis is stopped afterwards.
+    TestResults results = CPATestRunner.run(
+        restartOptions(true, VALUE_ANALYSIS + ", " + LOCATION_ANALYSIS), NON_TERMINATING_PROGRAM);
+
+    results.assertIsSafe();
+    String statistics = statistics(results);
+    assertThat(statistics).contains("Number of algorithms used:        2");
+    assertThat(statistics).contains("Algorithm that provided result:   2");
+    assertThat(statisticsOfAnalysis(statistics, 1)).contains("Outcome:                          stopped");
+    assertThat(statisticsOfAnalysis(statistics, 2)).contains("Outcome:                          finished with result");
+    assertThat(results.getLog()).contains("finished with a result, stopping other analyses.");
+  }
+}
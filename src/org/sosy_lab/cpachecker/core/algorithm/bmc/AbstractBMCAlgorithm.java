@@ -46,6 +46,7 @@ import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm.AlgorithmStatus;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.CPAInvariantGenerator;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.ConcurrentInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.DoNothingInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.KInductionInvariantGenerator;
@@ -107,6 +108,11 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
   @Option(secure=true, description="Generate additional invariants by induction and add them to the induction hypothesis.")
   private boolean addInvariantsByInduction = true;
 
+  @Option(secure=true, description="Run the invariant generators selected by addInvariantsByAI, "
+      + "addInvariantsByInduction, and invariantGeneration.concurrent.configs concurrently, "
+      + "and add their invariants to the induction hypothesis as soon as they become available.")
+  private boolean addInvariantsConcurrently = false;
+
   @Option(secure=true, description="Adds pre-loop information to the induction hypothesis. "
       + "This is unsound and should generally not be used; however "
       + "it is provided as an implementation of the technique introduced in "
@@ -170,7 +176,7 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     }
 
     ShutdownNotifier invariantGeneratorNotifier = pShutdownNotifier;
-    if (addInvariantsByAI || addInvariantsByInduction) {
+    if (addInvariantsByAI || addInvariantsByInduction || addInvariantsConcurrently) {
       invariantGeneratorNotifier = ShutdownNotifier.createWithParent(pShutdownNotifier);
       propagateSafetyInterrupt = new ShutdownRequestListener() {
 
@@ -187,6 +193,12 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     }
 
     if (!pIsInvariantGenerator
+        && induction
+        && addInvariantsConcurrently) {
+      invariantGenerator = ConcurrentInvariantGenerator.create(pConfig, pLogger,
+          invariantGeneratorNotifier, pCFA, pReachedSetFactory, addInvariantsByAI, addInvariantsByInduction);
+      addInvariantsByInduction = false;
+    } else if (!pIsInvariantGenerator
         && induction
         && addInvariantsByInduction) {
       addInvariantsByInduction = false;
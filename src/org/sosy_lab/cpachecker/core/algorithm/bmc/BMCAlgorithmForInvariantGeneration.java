@@ -57,7 +57,8 @@ public class BMCAlgorithmForInvariantGeneration extends AbstractBMCAlgorithm {
 
   private final Optional<CandidateGenerator> candidateGenerator;
 
-  private InvariantSupplier locationInvariantsProvider = InvariantSupplier.TrivialInvariantSupplier.INSTANCE;
+  // written by the thread running this algorithm, read by users of the invariants
+  private volatile InvariantSupplier locationInvariantsProvider = InvariantSupplier.TrivialInvariantSupplier.INSTANCE;
 
   public BMCAlgorithmForInvariantGeneration(Algorithm pAlgorithm, ConfigurableProgramAnalysis pCPA,
                       Configuration pConfig, LogManager pLogger,
@@ -0,0 +1,112 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.bmc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+public class BMCAlgorithmTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/bmc/loop-bound_true-unreach-label.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/bmc/loop-bound_false-unreach-label.c";
+  private static final String INDUCTION_PROGRAM = "test/programs/induction/induction1.c";
+
+  private static final String BMC_CPAS = "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.functionpointer.FunctionPointerCPA, cpa.predicate.PredicateCPA, cpa.assumptions.storage.AssumptionStorageCPA, cpa.bounds.BoundsCPA, cpa.value.ValueAnalysisCPA";
+  private static final String INDUCTION_CPAS = "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.functionpointer.FunctionPointerCPA, cpa.predicate.PredicateCPA, cpa.assumptions.storage.AssumptionStorageCPA, cpa.bounds.BoundsCPA, cpa.edgeexclusion.EdgeExclusionCPA, cpa.programcounter.ProgramCounterCPA, cpa.value.ValueAnalysisCPA";
+
+  private static ImmutableMap.Builder<String, String> options(String pCpas, String pUpperBound) {
+    return ImmutableMap.<String, String>builder()
+        .put("analysis.algorithm.BMC", "true")
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", pCpas)
+        .put("specification", "config/specification/default.spc")
+        .put("analysis.traversal.order", "bfs")
+        .put("analysis.traversal.useReversePostorder", "true")
+        .put("analysis.traversal.useCallstack", "true")
+        .put("cpa.predicate.blk.useCache", "false")
+        .put("cpa.predicate.blk.alwaysAtFunctions", "false")
+        .put("cpa.predicate.blk.alwaysAtLoops", "false")
+        .put("cpa.predicate.targetStateSatCheck", "false")
+        .put("cpa.automaton.breakOnTargetState", "0")
+        .put("cpa.value.merge", "JOIN")
+        .put("cpa.bounds.maxLoopIterations", "1")
+        .put("cpa.bounds.maxLoopIterationAdjusterFactory", "INCREMENT")
+        .put("cpa.bounds.maxLoopIterationsUpperBound", pUpperBound)
+        .put("solver.solver", "SMTInterpol")
+        .put("cpa.predicate.encodeFloatAs", "RATIONAL");
+  }
+
+  /**
+   * Options for plain bounded model checking with SMTInterpol,
+   * which callers may extend before building them.
+   */
+  public static ImmutableMap.Builder<String, String> bmcOptions() {
+    return options(BMC_CPAS, "6");
+  }
+
+  /**
+   * Options for k-induction with SMTInterpol,
+   * which callers may extend (e.g., by invariant generation) before building them.
+   */
+  public static ImmutableMap.Builder<String, String> kInductionOptions() {
+    return options(INDUCTION_CPAS, "10")
+        .put("bmc.induction", "true")
+        .put("cfa.transformIntoSingleLoop", "false")
+        .put("cpa.callstack.depth", "1");
+  }
+
+  @Test
+  public void testSafeProgramIsProvenByBoundingAssertions() throws Exception {
+    TestResults results = CPATestRunner.run(bmcOptions().build(), SAFE_PROGRAM);
+
+    results.assertIsSafe();
+    // without induction, only the check of the bounding assertions can prove safety
+    assertThat(results.getLog()).contains("Starting assertions check");
+    assertThat(results.getLog()).doesNotContain("Starting induction check");
+  }
+
+  @Test
+  public void testUnsafeProgramYieldsErrorPath() throws Exception {
+    TestResults results = CPATestRunner.run(bmcOptions().build(), UNSAFE_PROGRAM);
+
+    results.assertIsUnsafe();
+    assertThat(results.getLog()).contains("Starting satisfiability check");
+    assertThat(results.getLog()).contains("Error found, creating error path");
+  }
+
+  @Test
+  public void testSafeProgramIsProvenByInduction() throws Exception {
+    TestResults results = CPATestRunner.run(kInductionOptions().build(), INDUCTION_PROGRAM);
+
+    results.assertIsSafe();
+    assertThat(results.getLog()).contains("Running algorithm to create induction hypothesis");
+    assertThat(results.getLog()).contains("Starting induction check");
+  }
+}
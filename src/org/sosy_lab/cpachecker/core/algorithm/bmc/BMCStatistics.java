@@ -38,6 +38,7 @@ public class BMCStatistics implements Statistics {
 
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
+  int inductionChecksWithInvariants = 0;
   private int inductionCutPoints = 0;
 
   @Override
@@ -55,6 +56,7 @@ public class BMCStatistics implements Statistics {
       out.println("Number of cut points for induction:  " + inductionCutPoints);
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
+      out.println("Induction checks with invariants:    " + inductionChecksWithInvariants);
     }
   }
 
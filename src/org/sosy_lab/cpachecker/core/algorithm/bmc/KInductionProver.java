@@ -219,7 +219,9 @@ class KInductionProver implements AutoCloseable {
       return invariantsSupplier;
     }
     try {
-      return invariantGenerator.get();
+      // remember the latest invariants in case the generator fails later on
+      invariantsSupplier = invariantGenerator.get();
+      return invariantsSupplier;
     } catch (CPAException e) {
       logger.logUserException(Level.FINE, e, "Invariant generation failed.");
       invariantGenerationRunning = false;
@@ -418,9 +420,11 @@ class KInductionProver implements AutoCloseable {
       }
 
       // Re-attempt the proof immediately, if new invariants are available
+      boolean usedInvariants = !bfmgr.isTrue(invariants);
       BooleanFormula oldInvariants = invariants;
       BooleanFormula currentInvariants = getCurrentLoopHeadInvariants(stopLocations);
       while (!isInvariant && !currentInvariants.equals(oldInvariants)) {
+        usedInvariants |= !bfmgr.isTrue(currentInvariants);
         push(fmgr.instantiate(currentInvariants, SSAMap.emptySSAMap().withDefault(1)));
         isInvariant = prover.isUnsat();
 
@@ -447,6 +451,9 @@ class KInductionProver implements AutoCloseable {
       pop(); // Pop invariant predecessor assertion
       pop(); // Pop loop head invariants
       stats.inductionCheck.stop();
+      if (usedInvariants) {
+        stats.inductionChecksWithInvariants++;
+      }
 
       logger.log(Level.FINER, "Soundness after induction check:", isInvariant);
     }
@@ -116,9 +116,11 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
       out.println("  Time for cover:                   " + coverTime);
       out.println("Time spent by solver for reasoning: " + solver.solverTime);
       out.println();
-      out.println("Number of SMT sat checks:           " + solver.satChecks);
-      out.println("  trivial:                          " + solver.trivialSatChecks);
-      out.println("  cached:                           " + solver.cachedSatChecks);
+      out.println("Number of SMT sat checks:           " + solver.satChecks.get());
+      out.println("  trivial:                          " + solver.trivialSatChecks.get());
+      out.println("  cached:                           " + solver.cachedSatChecks.get());
+      out.println("  cache misses:                     " + solver.uncachedSatChecks.get());
+      out.println("  cache evictions:                  " + solver.getSatCheckCacheEvictions());
       out.println("Number of refinements:              " + refinementTime.getNumberOfIntervals());
       if (useForcedCovering) {
         out.println("Number of forced coverings:         " + forceCoverTime.getNumberOfIntervals());
@@ -141,7 +143,7 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
     solver = Solver.create(config, pLogger, pShutdownNotifier);
     fmgr = solver.getFormulaManager();
     bfmgr = fmgr.getBooleanFormulaManager();
-    pfmgr = new CachingPathFormulaManager(new PathFormulaManagerImpl(fmgr, config, logger, pShutdownNotifier, cfa, AnalysisDirection.FORWARD));
+    pfmgr = new CachingPathFormulaManager(new PathFormulaManagerImpl(fmgr, config, logger, pShutdownNotifier, cfa, AnalysisDirection.FORWARD), config);
     imgr = new InterpolationManager(pfmgr, solver, cfa.getLoopStructure(), cfa.getVarClassification(), config, pShutdownNotifier, logger);
   }
 
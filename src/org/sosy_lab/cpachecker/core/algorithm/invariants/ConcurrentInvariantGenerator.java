@@ -0,0 +1,378 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.AssumeEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.BooleanFormulaManager;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Invariant generator that runs several other invariant generators
+ * (e.g., CPA-based ones with different abstract domains, and k-induction)
+ * concurrently on a bounded pool of threads.
+ *
+ * The invariants of all generators are conjoined.
+ * Each time a generator finishes (or finishes an iteration,
+ * if it adjusts its conditions), the conjunction is updated.
+ * {@link #get()} never blocks and always returns
+ * the strongest invariants that are available at the moment,
+ * so clients that call it repeatedly pick up stronger invariants
+ * as soon as they are published.
+ */
+@Options(prefix="invariantGeneration.concurrent")
+public class ConcurrentInvariantGenerator implements InvariantGenerator, StatisticsProvider {
+
+  private static class ConcurrentInvariantGeneratorStatistics implements Statistics {
+
+    private int generators = 0;
+    private int threads = 0;
+    private final AtomicInteger publishedInvariants = new AtomicInteger();
+    private final AtomicInteger failedGenerators = new AtomicInteger();
+
+    @Override
+    public void printStatistics(PrintStream out, Result result, ReachedSet reached) {
+      out.println("Number of invariant generators:         " + generators);
+      out.println("Number of threads for generators:       " + threads);
+      out.println("Number of published invariant updates:  " + publishedInvariants.get());
+      out.println("Number of failed invariant generators:  " + failedGenerators.get());
+    }
+
+    @Override
+    public String getName() {
+      return "Concurrent invariant generator";
+    }
+  }
+
+  @Option(secure=true, name="configs",
+      description="configuration files of CPA-based invariant generators to run concurrently "
+          + "(e.g., with the interval and the octagon domain), in addition to the default ones")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private List<Path> configFiles = ImmutableList.of();
+
+  @Option(secure=true, description="maximal number of invariant generators that run at the same time, "
+      + "further generators are started when a running one finishes. "
+      + "0 means that all generators are started at once.")
+  @IntegerOption(min=0)
+  private int threads = 0;
+
+  private final ConcurrentInvariantGeneratorStatistics stats = new ConcurrentInvariantGeneratorStatistics();
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+
+  private final ImmutableList<InvariantGenerator> generators;
+
+  // The latest invariants of each generator, null if it has not yet published anything.
+  private final AtomicReferenceArray<InvariantSupplier> invariants;
+
+  // The conjunction of all entries of the array above.
+  private volatile InvariantSupplier currentInvariants = TrivialInvariantSupplier.INSTANCE;
+
+  private ExecutorService executor = null;
+  private final List<Future<?>> generationFutures = new ArrayList<>();
+
+  /**
+   * Creates a new {@link ConcurrentInvariantGenerator}.
+   *
+   * @param pConfig the configuration options.
+   * @param pLogger the logger to be used.
+   * @param pShutdownNotifier shutdown notifier to shutdown the invariant generators,
+   * it is also notified if one of the generators proves safety.
+   * @param pCFA the CFA to run the generators on.
+   * @param pReachedSetFactory the reached-set factory for k-induction.
+   * @param pWithDefaultCPAGenerator whether the CPA-based invariant generator
+   * of the option invariantGeneration.config should be run.
+   * @param pWithKInduction whether a k-induction invariant generator should be run.
+   *
+   * @return a new {@link ConcurrentInvariantGenerator}.
+   *
+   * @throws InvalidConfigurationException if the configuration is invalid.
+   * @throws CPAException if one of the generators cannot be created.
+   */
+  public static ConcurrentInvariantGenerator create(final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier,
+      final CFA pCFA,
+      final ReachedSetFactory pReachedSetFactory,
+      final boolean pWithDefaultCPAGenerator,
+      final boolean pWithKInduction)
+          throws InvalidConfigurationException, CPAException {
+    return new ConcurrentInvariantGenerator(pConfig,
+        pLogger.withComponentName("ConcurrentInvariantGenerator"),
+        pShutdownNotifier, pCFA, pReachedSetFactory,
+        pWithDefaultCPAGenerator, pWithKInduction);
+  }
+
+  private ConcurrentInvariantGenerator(final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier,
+      final CFA pCFA,
+      final ReachedSetFactory pReachedSetFactory,
+      final boolean pWithDefaultCPAGenerator,
+      final boolean pWithKInduction)
+          throws InvalidConfigurationException, CPAException {
+    pConfig.inject(this);
+    logger = pLogger;
+    shutdownNotifier = ShutdownNotifier.createWithParent(pShutdownNotifier);
+
+    // The generators run in our threads, so they must not start their own.
+    // If one of them proves safety, it notifies the parent notifier,
+    // whose listeners can then check isProgramSafe() of this generator.
+    ImmutableList.Builder<InvariantGenerator> generatorsBuilder = ImmutableList.builder();
+    if (pWithDefaultCPAGenerator) {
+      generatorsBuilder.add(CPAInvariantGenerator.create(
+          synchronousConfig(pConfig, null), pLogger, shutdownNotifier, Optional.of(pShutdownNotifier), pCFA));
+    }
+    for (Path configFile : configFiles) {
+      generatorsBuilder.add(CPAInvariantGenerator.create(
+          synchronousConfig(pConfig, configFile), pLogger, shutdownNotifier, Optional.of(pShutdownNotifier), pCFA));
+    }
+    if (pWithKInduction) {
+      generatorsBuilder.add(KInductionInvariantGenerator.createForConcurrentUse(
+          pConfig, pLogger, shutdownNotifier, pCFA, pReachedSetFactory));
+    }
+    generators = generatorsBuilder.build();
+    invariants = new AtomicReferenceArray<>(generators.size());
+
+    stats.generators = generators.size();
+    stats.threads = threads == 0 ? generators.size() : Math.min(threads, generators.size());
+  }
+
+  private static Configuration synchronousConfig(Configuration pConfig, Path pConfigFile)
+      throws InvalidConfigurationException {
+    ConfigurationBuilder builder = Configuration.builder().copyFrom(pConfig);
+    builder.setOption("invariantGeneration.async", "false");
+    if (pConfigFile != null) {
+      builder.setOption("invariantGeneration.config", pConfigFile.toString());
+    }
+    return builder.build();
+  }
+
+  @Override
+  public void start(final CFANode pInitialLocation) {
+    checkState(executor == null);
+
+    for (int i = 0; i < generators.size(); i++) {
+      InvariantGenerator generator = generators.get(i);
+      generator.start(pInitialLocation);
+      if (generator instanceof KInductionInvariantGenerator) {
+        // k-induction proves its invariants one by one, make them available immediately
+        publish(i, ((KInductionInvariantGenerator) generator).getCurrentInvariants());
+      }
+    }
+
+    executor = Executors.newFixedThreadPool(Math.max(stats.threads, 1),
+        Threads.threadFactoryBuilder().setNameFormat("Invariant generator %d").setDaemon(true).build());
+    for (int i = 0; i < generators.size(); i++) {
+      generationFutures.add(executor.submit(new InvariantGenerationTask(i, pInitialLocation)));
+    }
+    executor.shutdown(); // will shutdown after all tasks are finished
+  }
+
+  @Override
+  public void cancel() {
+    checkState(executor != null);
+    shutdownNotifier.requestShutdown("Invariant generation cancel requested.");
+    executor.shutdownNow();
+  }
+
+  /**
+   * Return the conjunction of the latest invariants of all generators.
+   * This never waits for a generator to finish.
+   */
+  @Override
+  public InvariantSupplier get() throws CPAException, InterruptedException {
+    checkState(executor != null);
+
+    // Failures of single generators are handled by the tasks,
+    // so this propagates only unexpected exceptions.
+    for (Future<?> future : generationFutures) {
+      if (future.isDone() && !future.isCancelled()) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+          throw new UnexpectedCheckedException("invariant generation", e.getCause());
+        }
+      }
+    }
+    return currentInvariants;
+  }
+
+  @Override
+  public boolean isProgramSafe() {
+    for (InvariantGenerator generator : generators) {
+      if (generator.isProgramSafe()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void injectInvariant(CFANode pLocation, AssumeEdge pAssumption) throws UnrecognizedCodeException {
+    for (InvariantGenerator generator : generators) {
+      generator.injectInvariant(pLocation, pAssumption);
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    for (InvariantGenerator generator : generators) {
+      if (generator instanceof StatisticsProvider) {
+        ((StatisticsProvider) generator).collectStatistics(pStatsCollection);
+      }
+    }
+    pStatsCollection.add(stats);
+  }
+
+  /**
+   * Replace the invariants of one generator and update the conjunction.
+   * Synchronized such that concurrent updates cannot overwrite each other.
+   */
+  private synchronized void publish(int pGenerator, InvariantSupplier pInvariants) {
+    invariants.set(pGenerator, pInvariants);
+
+    List<InvariantSupplier> available = new ArrayList<>(generators.size());
+    for (int i = 0; i < invariants.length(); i++) {
+      InvariantSupplier supplier = invariants.get(i);
+      if (supplier != null && supplier != TrivialInvariantSupplier.INSTANCE) {
+        available.add(supplier);
+      }
+    }
+
+    if (available.isEmpty()) {
+      currentInvariants = TrivialInvariantSupplier.INSTANCE;
+    } else if (available.size() == 1) {
+      currentInvariants = available.get(0);
+    } else {
+      currentInvariants = new ConjunctiveInvariantSupplier(available);
+    }
+    stats.publishedInvariants.incrementAndGet();
+  }
+
+  /**
+   * {@link InvariantSupplier} that conjoins the invariants of several other suppliers.
+   */
+  private static class ConjunctiveInvariantSupplier implements InvariantSupplier {
+
+    private final ImmutableList<InvariantSupplier> suppliers;
+
+    private ConjunctiveInvariantSupplier(List<InvariantSupplier> pSuppliers) {
+      suppliers = ImmutableList.copyOf(pSuppliers);
+    }
+
+    @Override
+    public BooleanFormula getInvariantFor(CFANode pNode, FormulaManagerView pFmgr, PathFormulaManager pPfmgr) {
+      BooleanFormulaManager bfmgr = pFmgr.getBooleanFormulaManager();
+      BooleanFormula invariant = bfmgr.makeBoolean(true);
+      for (InvariantSupplier supplier : suppliers) {
+        invariant = bfmgr.and(invariant, supplier.getInvariantFor(pNode, pFmgr, pPfmgr));
+      }
+      return invariant;
+    }
+  }
+
+  /**
+   * Task that runs one of the generators and publishes its invariants,
+   * repeatedly if the generator adjusts its conditions.
+   */
+  private class InvariantGenerationTask implements Runnable {
+
+    private final int index;
+    private final CFANode initialLocation;
+
+    private InvariantGenerationTask(int pIndex, CFANode pInitialLocation) {
+      index = pIndex;
+      initialLocation = checkNotNull(pInitialLocation);
+    }
+
+    @Override
+    public void run() {
+      InvariantGenerator generator = generators.get(index);
+      try {
+        publish(index, generator.get());
+
+        if (generator instanceof AdjustableInvariantGenerator) {
+          AdjustableInvariantGenerator<?> adjustableGenerator = (AdjustableInvariantGenerator<?>) generator;
+          while (!shutdownNotifier.shouldShutdown()
+              && !adjustableGenerator.isProgramSafe()
+              && adjustableGenerator.adjustAndContinue(initialLocation)) {
+            publish(index, adjustableGenerator.get());
+          }
+        }
+
+      } catch (CPAException e) {
+        // the other generators may still succeed
+        logger.logUserException(Level.WARNING, e, "Invariant generation failed");
+        stats.failedGenerators.incrementAndGet();
+      } catch (InterruptedException | CancellationException e) {
+        logger.log(Level.FINE, "Invariant generation was cancelled.");
+        logger.logDebugException(e);
+      }
+    }
+  }
+}
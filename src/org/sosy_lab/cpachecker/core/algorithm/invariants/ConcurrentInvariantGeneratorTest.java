@@ -0,0 +1,108 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.algorithm.bmc.BMCAlgorithmTest;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Checks that k-induction uses the invariants of concurrently running generators
+ * with different abstract domains.
+ */
+public class ConcurrentInvariantGeneratorTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/induction/induction1.c";
+  private static final String SAFE_PROGRAM_WITH_INVARIANT = "test/programs/induction/induction-mod2.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/bmc/loop-bound_false-unreach-label.c";
+
+  private static final String GENERATOR_CONFIGS =
+      "test/config/invariantGeneration/interval.properties, test/config/invariantGeneration/octagon.properties";
+
+  /**
+   * k-induction with the interval and the octagon generator on two threads,
+   * and optionally the default generators of BMC.
+   */
+  private static ImmutableMap.Builder<String, String> concurrentKInduction(boolean pWithDefaultGenerators) {
+    return BMCAlgorithmTest.kInductionOptions()
+        .put("bmc.addInvariantsByAI", Boolean.toString(pWithDefaultGenerators))
+        .put("bmc.addInvariantsByInduction", Boolean.toString(pWithDefaultGenerators))
+        .put("bmc.addInvariantsConcurrently", "true")
+        .put("invariantGeneration.config", "config/invariantGeneration-no-out.properties")
+        .put("invariantGeneration.concurrent.configs", GENERATOR_CONFIGS)
+        .put("invariantGeneration.concurrent.threads", "2");
+  }
+
+  private static String statistics(TestResults results) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    results.getCheckerResult().printStatistics(new PrintStream(out));
+    return out.toString();
+  }
+
+  private static int statisticsValue(String statistics, String name) {
+    Matcher matcher = Pattern.compile(Pattern.quote(name) + ":\\s+(\\d+)").matcher(statistics);
+    assertThat(matcher.find()).isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  @Test
+  public void testInvariantsReachInductionCheck() throws Exception {
+    TestResults results = CPATestRunner.run(concurrentKInduction(false).build(), SAFE_PROGRAM_WITH_INVARIANT);
+
+    results.assertIsSafe();
+    String statistics = statistics(results);
+    assertThat(statisticsValue(statistics, "Number of invariant generators")).isEqualTo(2);
+    assertThat(statisticsValue(statistics, "Number of failed invariant generators")).isEqualTo(0);
+    assertThat(statisticsValue(statistics, "Number of published invariant updates")).isGreaterThan(0);
+    // the interval and octagon invariants are the only ones available to the induction check
+    assertThat(statisticsValue(statistics, "Induction checks with invariants")).isGreaterThan(0);
+  }
+
+  @Test
+  public void testWithDefaultGenerators() throws Exception {
+    TestResults results = CPATestRunner.run(concurrentKInduction(true).build(), SAFE_PROGRAM);
+
+    results.assertIsSafe();
+    // the default CPA-based generator and k-induction in addition to interval and octagon
+    assertThat(statisticsValue(statistics(results), "Number of invariant generators")).isEqualTo(4);
+  }
+
+  @Test
+  public void testUnsafeProgram() throws Exception {
+    TestResults results = CPATestRunner.run(concurrentKInduction(false).build(), UNSAFE_PROGRAM);
+
+    results.assertIsUnsafe();
+    assertThat(results.getLog()).contains("Error found, creating error path");
+  }
+}
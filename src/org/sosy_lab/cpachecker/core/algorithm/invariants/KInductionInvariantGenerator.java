@@ -64,7 +64,10 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
@@ -126,6 +129,7 @@ public class KInductionInvariantGenerator implements InvariantGenerator, Statist
             pCFA,
             pReachedSetFactory,
             true,
+            true,
             Optional.<CandidateGenerator>absent());
   }
 
@@ -141,12 +145,37 @@ public class KInductionInvariantGenerator implements InvariantGenerator, Statist
             pCFA,
             pReachedSetFactory,
             true,
+            true,
             Optional.of(candidateGenerator));
   }
 
+  /**
+   * Creates a k-induction invariant generator that runs in the thread
+   * that first calls {@link #get()} instead of starting its own thread.
+   * Its intermediate invariants are nevertheless available
+   * to other threads via {@link #getCurrentInvariants()},
+   * so the same restrictions on the solver apply as for asynchronous execution.
+   */
+  static KInductionInvariantGenerator createForConcurrentUse(final Configuration pConfig,
+      final LogManager pLogger, final ShutdownNotifier pShutdownNotifier,
+      final CFA pCFA, final ReachedSetFactory pReachedSetFactory)
+          throws InvalidConfigurationException, CPAException {
+
+    return new KInductionInvariantGenerator(
+            pConfig,
+            pLogger.withComponentName("KInductionInvariantGenerator"),
+            pShutdownNotifier,
+            pCFA,
+            pReachedSetFactory,
+            false,
+            true,
+            Optional.<CandidateGenerator>absent());
+  }
+
   private KInductionInvariantGenerator(final Configuration config, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier, final CFA cfa,
       final ReachedSetFactory pReachedSetFactory, final boolean pAsync,
+      final boolean pConcurrent,
       final Optional<CandidateGenerator> pCandidateGenerator)
           throws InvalidConfigurationException, CPAException {
     logger = pLogger;
@@ -166,7 +195,7 @@ public class KInductionInvariantGenerator implements InvariantGenerator, Statist
     if (predicateCPA == null) {
       throw new InvalidConfigurationException("Predicate CPA required");
     }
-    if (async && !predicateCPA.getSolver().getFormulaManager().getVersion().toLowerCase().contains("smtinterpol")) {
+    if (pConcurrent && !predicateCPA.getSolver().getFormulaManager().getVersion().toLowerCase().contains("smtinterpol")) {
       throw new InvalidConfigurationException("Solver does not support concurrent execution, use SMTInterpol instead.");
     }
   }
@@ -218,6 +247,21 @@ public class KInductionInvariantGenerator implements InvariantGenerator, Statist
     }
   }
 
+  /**
+   * Return a view of the invariants that were proven so far.
+   * This is cheap, never blocks, and can be called concurrently
+   * to the invariant generation, even before it was started.
+   */
+  InvariantSupplier getCurrentInvariants() {
+    return new InvariantSupplier() {
+
+      @Override
+      public BooleanFormula getInvariantFor(CFANode pNode, FormulaManagerView pFmgr, PathFormulaManager pPfmgr) {
+        return algorithm.getCurrentInvariants().getInvariantFor(pNode, pFmgr, pPfmgr);
+      }
+    };
+  }
+
   @Override
   public boolean isProgramSafe() {
     return algorithm.isProgramSafe();
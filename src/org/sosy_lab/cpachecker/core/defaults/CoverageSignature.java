@@ -0,0 +1,80 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.defaults;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
+
+/**
+ * Helper class for implementing {@link AbstractStateWithCoverageSignature}.
+ * It provides the bits of a signature and allows to cache a signature
+ * for an immutable representation of the state (e.g., a persistent map),
+ * such that mutable states can check whether their cached signature is still valid.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class CoverageSignature {
+
+  private final Object source;
+  private final long bits;
+
+  private CoverageSignature(Object pSource, long pBits) {
+    source = pSource;
+    bits = pBits;
+  }
+
+  /**
+   * Create a signature that was computed from the given object.
+   */
+  public static CoverageSignature of(Object pSource, long pBits) {
+    return new CoverageSignature(pSource, pBits);
+  }
+
+  /**
+   * Check whether this signature was computed from the given object (by identity).
+   */
+  public boolean isFor(Object pSource) {
+    return source == pSource;
+  }
+
+  public long getBits() {
+    return bits;
+  }
+
+  /**
+   * Get a signature with exactly one bit set, determined by the given hash code.
+   */
+  public static long bitFor(int hash) {
+    // mix the hash code, otherwise similar hash codes (e.g. of strings) would often collide
+    int h = hash * 0x9E3779B9;
+    return 1L << (h >>> 26);
+  }
+
+  /**
+   * Check whether a state with signature <code>pSignature</code>
+   * may be less or equal than a state with signature <code>pOtherSignature</code>.
+   * If this method returns false, it is not.
+   */
+  public static boolean mayBeLessOrEqual(long pSignature, long pOtherSignature) {
+    return (pOtherSignature & ~pSignature) == 0;
+  }
+}
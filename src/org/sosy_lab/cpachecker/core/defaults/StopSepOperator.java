@@ -27,29 +27,55 @@ import java.util.Collection;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 /**
  * Standard stop-sep operator
+ *
+ * If the states implement {@link AbstractStateWithCoverageSignature}
+ * and the domain uses the partial order of the states,
+ * the signatures are compared first and reached states that cannot cover
+ * the given state are skipped.
  */
 public class StopSepOperator implements StopOperator {
 
   private final AbstractDomain domain;
 
+  /** the signatures are only consistent with the partial order of the states themselves */
+  private final boolean useCoverageSignatures;
+
   /**
    * Creates a stop-sep operator based on the given
    * partial order
    */
   public StopSepOperator(AbstractDomain d) {
     domain = d;
+    useCoverageSignatures = d instanceof DelegateAbstractDomain;
   }
 
   @Override
   public boolean stop(AbstractState el, Collection<AbstractState> reached, Precision precision)
     throws CPAException, InterruptedException {
 
+    if (useCoverageSignatures && el instanceof AbstractStateWithCoverageSignature) {
+      long signature = ((AbstractStateWithCoverageSignature)el).getCoverageSignature();
+
+      for (AbstractState reachedState : reached) {
+        if (reachedState instanceof AbstractStateWithCoverageSignature
+            && !CoverageSignature.mayBeLessOrEqual(signature,
+                ((AbstractStateWithCoverageSignature)reachedState).getCoverageSignature())) {
+          continue;
+        }
+        if (domain.isLessOrEqual(el, reachedState)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
     for (AbstractState reachedState : reached) {
       if (domain.isLessOrEqual(el, reachedState)) {
         return true;
@@ -57,4 +83,19 @@ public class StopSepOperator implements StopOperator {
     }
     return false;
   }
+
+  /**
+   * Cheap check whether the given state may be covered by the given reached state.
+   * If this method returns false,
+   * {@link #stop(AbstractState, Collection, Precision)} would return false
+   * for this pair of states.
+   */
+  public boolean mayStop(AbstractState el, AbstractState reachedState) {
+    return !useCoverageSignatures
+        || !(el instanceof AbstractStateWithCoverageSignature)
+        || !(reachedState instanceof AbstractStateWithCoverageSignature)
+        || CoverageSignature.mayBeLessOrEqual(
+            ((AbstractStateWithCoverageSignature)el).getCoverageSignature(),
+            ((AbstractStateWithCoverageSignature)reachedState).getCoverageSignature());
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.defaults;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
+import org.sosy_lab.cpachecker.cpa.interval.Interval;
+import org.sosy_lab.cpachecker.cpa.interval.IntervalAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Checks that coverage signatures never let {@link StopSepOperator}
+ * skip a reached state that covers the new state.
+ */
+public class StopSepOperatorTest {
+
+  private static final String[] VARIABLES = { "x", "y", "z", "main::i" };
+  private static final int STATES = 200;
+
+  private static final Interval[] INTERVALS = {
+      new Interval(0L),
+      new Interval(0L, 1L),
+      new Interval(1L, 2L),
+      Interval.createLowerBoundedInterval(0L),
+      Interval.createUpperBoundedInterval(1L),
+      new Interval((Long)null, (Long)null), // empty
+  };
+
+  private final Random random = new Random(0);
+
+  private List<AbstractState> createValueStates() {
+    List<AbstractState> states = new ArrayList<>(STATES);
+    for (int i = 0; i < STATES; i++) {
+      ValueAnalysisState state = new ValueAnalysisState();
+      for (String variable : VARIABLES) {
+        // most variables get one of few values, such that many states cover each other
+        int value = random.nextInt(4);
+        if (value < 3) {
+          state.assignConstant(MemoryLocation.valueOf(variable), new NumericValue(value), CNumericTypes.INT);
+        }
+      }
+      states.add(state);
+    }
+    return states;
+  }
+
+  private List<AbstractState> createIntervalStates() {
+    List<AbstractState> states = new ArrayList<>(STATES);
+    for (int i = 0; i < STATES; i++) {
+      IntervalAnalysisState state = new IntervalAnalysisState();
+      for (String variable : VARIABLES) {
+        int interval = random.nextInt(INTERVALS.length + 1);
+        if (interval < INTERVALS.length) {
+          state.addInterval(variable, INTERVALS[interval], -1);
+        }
+      }
+      states.add(state);
+    }
+    return states;
+  }
+
+  /**
+   * Check that for each pair of states where one covers the other,
+   * the signatures allow this, and that the stop operator gives
+   * the same answer as checking all reached states.
+   */
+  private void checkSignatures(DelegateAbstractDomain<?> pDomain, List<AbstractState> pStates)
+      throws Exception {
+    StopSepOperator stop = new StopSepOperator(pDomain);
+
+    int coveredPairs = 0;
+    for (AbstractState state : pStates) {
+      boolean covered = false;
+      for (AbstractState reachedState : pStates) {
+        if (pDomain.isLessOrEqual(state, reachedState)) {
+          coveredPairs++;
+          covered = true;
+          assertThat(CoverageSignature.mayBeLessOrEqual(
+              ((AbstractStateWithCoverageSignature)state).getCoverageSignature(),
+              ((AbstractStateWithCoverageSignature)reachedState).getCoverageSignature()))
+              .named(state + " <= " + reachedState)
+              .isTrue();
+          assertThat(stop.mayStop(state, reachedState)).isTrue();
+        }
+      }
+      assertThat(stop.stop(state, pStates, SingletonPrecision.getInstance())).isEqualTo(covered);
+    }
+    // every state covers itself, so there must be more pairs to make the test meaningful
+    assertThat(coveredPairs).isGreaterThan(pStates.size());
+  }
+
+  @Test
+  public void testValueAnalysisStates() throws Exception {
+    checkSignatures(DelegateAbstractDomain.<ValueAnalysisState>getInstance(), createValueStates());
+  }
+
+  @Test
+  public void testIntervalAnalysisStates() throws Exception {
+    checkSignatures(DelegateAbstractDomain.<IntervalAnalysisState>getInstance(), createIntervalStates());
+  }
+
+  @Test
+  public void testSignatureOfModifiedState() throws Exception {
+    StopSepOperator stop = new StopSepOperator(DelegateAbstractDomain.<ValueAnalysisState>getInstance());
+
+    ValueAnalysisState reached = new ValueAnalysisState();
+    reached.assignConstant(MemoryLocation.valueOf("x"), new NumericValue(1), CNumericTypes.INT);
+    reached.assignConstant(MemoryLocation.valueOf("y"), new NumericValue(2), CNumericTypes.INT);
+
+    ValueAnalysisState state = new ValueAnalysisState();
+    state.assignConstant(MemoryLocation.valueOf("x"), new NumericValue(1), CNumericTypes.INT);
+    assertThat(stop.stop(state, Collections.<AbstractState>singleton(reached),
+        SingletonPrecision.getInstance())).isFalse();
+
+    // the signature that was computed above must not be reused
+    state.assignConstant(MemoryLocation.valueOf("y"), new NumericValue(2), CNumericTypes.INT);
+    assertThat(stop.mayStop(state, reached)).isTrue();
+    assertThat(stop.stop(state, Collections.<AbstractState>singleton(reached),
+        SingletonPrecision.getInstance())).isTrue();
+  }
+}
@@ -330,9 +330,10 @@ public abstract class VariableTrackingPrecision implements Precision {
       if (!vc.isPresent()) {
         return true;
       }
-      VariableClassification varClass = vc.get();
+      // all classes of the variable with a single lookup
+      final int flags = vc.get().getVariableFlags(variableName);
 
-      final boolean varIsAddressed = varClass.getAddressedVariables().contains(variableName);
+      final boolean varIsAddressed = (flags & VariableClassification.ADDRESSED) != 0;
 
       // addressed variables do not belong to a specific type, so they have to
       // be handled extra. We want the precision to be as strict as possible,
@@ -346,9 +347,9 @@ public abstract class VariableTrackingPrecision implements Precision {
         // tracking variables and the rest of the variable classification is
         // the limiting factor
       } else {
-        final boolean varIsBoolean = varClass.getIntBoolVars().contains(variableName);
-        final boolean varIsIntEqual = varClass.getIntEqualVars().contains(variableName);
-        final boolean varIsIntAdd = varClass.getIntAddVars().contains(variableName);
+        final boolean varIsBoolean = (flags & VariableClassification.INT_BOOL) != 0;
+        final boolean varIsIntEqual = (flags & VariableClassification.INT_EQUAL) != 0;
+        final boolean varIsIntAdd = (flags & VariableClassification.INT_ADD) != 0;
 
         // if the variable is not in a matching classification we have to check
         // if other variables should be tracked
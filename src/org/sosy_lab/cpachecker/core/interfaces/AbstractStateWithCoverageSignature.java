@@ -0,0 +1,56 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.core.defaults.CoverageSignature;
+import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
+import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+
+/**
+ * This interface represents abstract states that provide a cheap
+ * necessary condition for being less or equal than another state.
+ * The {@link StopSepOperator} uses it to skip reached states
+ * that cannot cover a new state without calling the (expensive)
+ * less-or-equal check of the domain.
+ *
+ * The signature is a set of 64 bits (cf. a bloom filter) that needs to fulfill
+ * the following condition:
+ * If a state is less or equal than another state
+ * (according to {@link LatticeAbstractState#isLessOrEqual(AbstractState)}),
+ * then all bits of the signature of the other state
+ * are also set in the signature of this state.
+ * For example, if the less-or-equal check requires that the other state
+ * contains a subset of the variables of this state,
+ * a signature could contain one bit per variable.
+ *
+ * The method {@link CoverageSignature#bitFor(int)} can be used to compute the bits.
+ */
+public interface AbstractStateWithCoverageSignature extends AbstractState {
+
+  /**
+   * Get the signature of this state, see the description of this interface.
+   * This method is called often and should cache its result.
+   */
+  long getCoverageSignature();
+}
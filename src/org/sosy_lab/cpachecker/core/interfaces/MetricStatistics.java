@@ -0,0 +1,44 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
+
+/**
+ * Statistics that additionally provide their values as typed metrics,
+ * such that they can be exported in a machine-readable format.
+ */
+public interface MetricStatistics extends Statistics {
+
+  /**
+   * Register all metrics of this group of statistics.
+   * This is called once after the analysis has finished,
+   * immediately before the metrics are exported,
+   * so plain values like counters can be registered with their current value.
+   *
+   * @param registry the registry for this group of statistics
+   */
+  public void registerMetrics(StatisticsRegistry registry);
+
+}
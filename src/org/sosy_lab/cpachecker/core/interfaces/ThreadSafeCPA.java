@@ -0,0 +1,43 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * This is a marker interface that tells the algorithms that the operators
+ * of this CPA (transfer relation, precision adjustment, merge and stop)
+ * may be called concurrently from several threads,
+ * and that the abstract states it creates are not modified afterwards
+ * (or only while holding a lock that all its operators share, like in the ARGCPA).
+ *
+ * Only implement this after checking that the operators do not keep
+ * mutable state between calls (as, e.g., all transfer relations
+ * that extend {@link org.sosy_lab.cpachecker.core.defaults.ForwardingTransferRelation} do).
+ * Unless every CPA in the tree of wrapped CPAs implements this interface,
+ * parallel algorithms like the
+ * {@link org.sosy_lab.cpachecker.core.algorithm.ParallelCPAAlgorithm}
+ * fall back to sequential exploration.
+ */
+public interface ThreadSafeCPA extends ConfigurableProgramAnalysis {
+
+}
@@ -0,0 +1,55 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import java.util.concurrent.locks.Lock;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Interface for reached sets that may be accessed concurrently
+ * by several threads.
+ *
+ * All methods of {@link ReachedSet} have to be thread-safe,
+ * and all collections returned by them have to be either snapshots
+ * or safe for concurrent iteration.
+ * The only exception is {@link #getReached(AbstractState)}, whose result
+ * may be a view that can only be iterated while holding the lock
+ * returned by {@link #getPartitionLock(AbstractState)}.
+ * Compound operations (like merge and stop, which consist of a call to
+ * {@link #getReached(AbstractState)} followed by several calls to
+ * {@link #add(AbstractState, org.sosy_lab.cpachecker.core.interfaces.Precision)}
+ * and {@link #remove(AbstractState)}) are not atomic,
+ * callers need to hold the lock returned by
+ * {@link #getPartitionLock(AbstractState)} while executing them.
+ */
+public interface ConcurrentReachedSet extends ReachedSet {
+
+  /**
+   * Get the lock that guards the partition of the given state,
+   * i.e., the set of states returned by {@link #getReached(AbstractState)}.
+   * Different partitions may share the same lock.
+   */
+  public Lock getPartitionLock(AbstractState state);
+}
@@ -43,7 +43,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
 public class ReachedSetFactory {
 
   private static enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED
+    NORMAL, LOCATIONMAPPED, PARTITIONED, SYNCHRONIZED, STRIPED
   }
 
   @Option(secure=true, name="traversal.order",
@@ -92,7 +92,10 @@ public class ReachedSetFactory {
       + "\nNORMAL: just a simple set"
       + "\nLOCATIONMAPPED: a different set per location "
       + "(faster, states with different locations cannot be merged)"
-      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)")
+      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
+      + "\nSYNCHRONIZED: thread-safe variant of PARTITIONED (needed for cpa.parallel.threads > 1)"
+      + "\nSTRIPED: thread-safe partitioning that stores each state only once, "
+      + "with striped locks for the partitions (less memory and contention than SYNCHRONIZED)")
   ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
   public ReachedSetFactory(Configuration config, LogManager logger) throws InvalidConfigurationException {
@@ -132,6 +135,12 @@ public class ReachedSetFactory {
     case PARTITIONED:
       return new PartitionedReachedSet(waitlistFactory);
 
+    case SYNCHRONIZED:
+      return new SynchronizedPartitionedReachedSet(waitlistFactory);
+
+    case STRIPED:
+      return new StripedPartitionedReachedSet(waitlistFactory);
+
     case LOCATIONMAPPED:
       return new LocationMappedReachedSet(waitlistFactory);
 
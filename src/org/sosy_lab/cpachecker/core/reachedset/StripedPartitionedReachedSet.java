@@ -0,0 +1,545 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Implementation of a partitioned reached set (like {@link PartitionedReachedSet})
+ * that stores each state only once, in the bucket of its partition,
+ * and that is safe for concurrent use.
+ *
+ * The buckets are guarded by a fixed number of locks (lock striping),
+ * the lock of a bucket is also the lock returned by
+ * {@link #getPartitionLock(AbstractState)}, so operations on different
+ * partitions rarely contend with each other.
+ * Because the lock of a partition does not belong to its bucket,
+ * buckets are removed as soon as they become empty.
+ * Each state is stored together with a global insertion index.
+ * Iterating over all states (and precisions) takes a snapshot of all buckets
+ * and sorts it by this index, such that the iteration order is the insertion order
+ * like in the other reached sets.
+ * This is more expensive than for the other reached sets,
+ * but the algorithms rarely iterate over the whole reached set
+ * and a second, ordered store of all states would double the memory of the reached set.
+ *
+ * The collections returned by {@link #getReached(AbstractState)} are views
+ * of the partitions, they may be iterated concurrently to other operations
+ * only while holding the lock of the respective partition.
+ * All other returned collections are snapshots or may be iterated concurrently.
+ * Because taking a snapshot acquires the locks of all partitions one after another,
+ * callers must not iterate over all states while holding the lock of a partition.
+ */
+public class StripedPartitionedReachedSet implements ConcurrentReachedSet {
+
+  // Partitionable.getPartitionKey() may return null
+  private static final Object NULL_KEY = new Object();
+
+  private static final int STRIPES = 16 * Runtime.getRuntime().availableProcessors();
+
+  private static final class ReachedEntry {
+    private final AbstractState state;
+    private final long index;
+    private volatile Precision precision;
+
+    private ReachedEntry(AbstractState pState, Precision pPrecision, long pIndex) {
+      state = pState;
+      precision = pPrecision;
+      index = pIndex;
+    }
+  }
+
+  private static final Function<ReachedEntry, AbstractState> GET_STATE = new Function<ReachedEntry, AbstractState>() {
+    @Override
+    public AbstractState apply(ReachedEntry pEntry) {
+      return pEntry.state;
+    }
+  };
+
+  private static final Comparator<ReachedEntry> BY_INDEX = new Comparator<ReachedEntry>() {
+    @Override
+    public int compare(ReachedEntry pEntry1, ReachedEntry pEntry2) {
+      return Long.compare(pEntry1.index, pEntry2.index);
+    }
+  };
+
+  private static final Function<ReachedEntry, Precision> GET_PRECISION = new Function<ReachedEntry, Precision>() {
+    @Override
+    public Precision apply(ReachedEntry pEntry) {
+      return pEntry.precision;
+    }
+  };
+
+  // Each bucket is guarded by the lock of its partition key,
+  // the same lock guards adding and removing the bucket in the map of buckets.
+  private final ConcurrentMap<Object, Map<AbstractState, ReachedEntry>> buckets = new ConcurrentHashMap<>();
+  private final Striped<Lock> locks = Striped.lock(STRIPES);
+
+  private final AtomicLong nextIndex = new AtomicLong();
+  private final AtomicInteger size = new AtomicInteger();
+
+  // guarded by itself
+  private final Waitlist waitlist;
+
+  private volatile AbstractState firstState = null;
+  private volatile AbstractState lastState = null;
+
+  private final Set<AbstractState> asCollection = new AbstractSet<AbstractState>() {
+
+    @Override
+    public Iterator<AbstractState> iterator() {
+      return Iterators.unmodifiableIterator(Iterators.transform(entriesInOrder().iterator(), GET_STATE));
+    }
+
+    @Override
+    public boolean contains(Object pObj) {
+      return (pObj instanceof AbstractState) && StripedPartitionedReachedSet.this.contains((AbstractState)pObj);
+    }
+
+    @Override
+    public int size() {
+      return size.get();
+    }
+  };
+
+  private final Collection<Precision> precisions = new AbstractCollection<Precision>() {
+
+    @Override
+    public Iterator<Precision> iterator() {
+      return Iterators.unmodifiableIterator(Iterators.transform(entriesInOrder().iterator(), GET_PRECISION));
+    }
+
+    @Override
+    public int size() {
+      return size.get();
+    }
+  };
+
+  public StripedPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    waitlist = waitlistFactory.createWaitlistInstance();
+  }
+
+  protected Object getPartitionKey(AbstractState pState) {
+    assert pState instanceof Partitionable : "Partitionable states necessary for StripedPartitionedReachedSet";
+    Object key = ((Partitionable)pState).getPartitionKey();
+    return key == null ? NULL_KEY : key;
+  }
+
+  /**
+   * Return a snapshot of all entries, sorted by their insertion index.
+   */
+  private List<ReachedEntry> entriesInOrder() {
+    List<ReachedEntry> entries = new ArrayList<>(size.get());
+    for (Object key : buckets.keySet()) {
+      Lock lock = locks.get(key);
+      lock.lock();
+      try {
+        Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+        if (bucket != null) {
+          entries.addAll(bucket.values());
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    Collections.sort(entries, BY_INDEX);
+    return entries;
+  }
+
+  /**
+   * Get the bucket for the given partition key, creating it if necessary.
+   * The caller needs to hold the lock of the key.
+   */
+  private Map<AbstractState, ReachedEntry> getOrCreateBucket(Object pKey) {
+    Map<AbstractState, ReachedEntry> bucket = buckets.get(pKey);
+    if (bucket == null) {
+      bucket = new LinkedHashMap<>();
+      buckets.put(pKey, bucket);
+    }
+    return bucket;
+  }
+
+  @Override
+  public Lock getPartitionLock(AbstractState pState) {
+    return locks.get(getPartitionKey(pState));
+  }
+
+  @Override
+  public void add(AbstractState pState, Precision pPrecision) throws IllegalArgumentException {
+    checkNotNull(pState);
+    checkNotNull(pPrecision);
+
+    Object key = getPartitionKey(pState);
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      Map<AbstractState, ReachedEntry> bucket = getOrCreateBucket(key);
+      ReachedEntry previous = bucket.get(pState);
+
+      if (previous == null) {
+        ReachedEntry entry = new ReachedEntry(pState, pPrecision, nextIndex.getAndIncrement());
+        bucket.put(pState, entry);
+        if (size.getAndIncrement() == 0) {
+          firstState = pState;
+        }
+        synchronized (waitlist) {
+          waitlist.add(pState);
+        }
+        lastState = pState;
+
+      } else {
+        // State was already in the reached set (cf. DefaultReachedSet#add).
+        if (!pPrecision.equals(previous.precision)) {
+          throw new IllegalArgumentException("State added to reached set which is already contained, but with a different precision");
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> pToAdd) {
+    for (Pair<AbstractState, Precision> pair : pToAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState pState) {
+    checkNotNull(pState);
+    Preconditions.checkArgument(contains(pState), "State has to be in the reached set");
+
+    synchronized (waitlist) {
+      if (!waitlist.contains(pState)) {
+        waitlist.add(pState);
+      }
+    }
+  }
+
+  @Override
+  public void updatePrecision(AbstractState pState, Precision pNewPrecision) {
+    checkNotNull(pState);
+    checkNotNull(pNewPrecision);
+
+    Object key = getPartitionKey(pState);
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+      ReachedEntry entry = (bucket == null) ? null : bucket.get(pState);
+      if (entry == null) {
+        throw new IllegalArgumentException("State needs to be in the reached set in order to change the precision.");
+      }
+      entry.precision = pNewPrecision;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove(AbstractState pState) {
+    checkNotNull(pState);
+
+    Object key = getPartitionKey(pState);
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+      if (bucket != null) {
+        ReachedEntry entry = bucket.remove(pState);
+        if (entry != null) {
+          size.decrementAndGet();
+          if (bucket.isEmpty()) {
+            buckets.remove(key);
+          }
+        }
+      }
+      synchronized (waitlist) {
+        waitlist.remove(pState);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    AbstractState first = firstState;
+    if (first != null && pState.equals(first)) {
+      firstState = null;
+    }
+    AbstractState last = lastState;
+    if (last != null && pState.equals(last)) {
+      lastState = null;
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> pToRemove) {
+    for (AbstractState state : pToRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState pState) {
+    checkNotNull(pState);
+    synchronized (waitlist) {
+      waitlist.remove(pState);
+    }
+  }
+
+  /**
+   * Remove all states. This method must not be called concurrently
+   * with other modifications of this reached set.
+   */
+  @Override
+  public void clear() {
+    buckets.clear();
+    synchronized (waitlist) {
+      waitlist.clear();
+    }
+    size.set(0);
+    nextIndex.set(0);
+    firstState = null;
+    lastState = null;
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    synchronized (waitlist) {
+      return waitlist.pop();
+    }
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return asCollection;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return asCollection.iterator();
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return precisions;
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState pState) {
+    final Object key = getPartitionKey(pState);
+
+    // The bucket of the partition may be removed and re-created
+    // while the caller works with the result, so we look it up on each access.
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+        if (bucket == null) {
+          return Collections.emptyIterator();
+        }
+        return Iterators.unmodifiableIterator(bucket.keySet().iterator());
+      }
+
+      @Override
+      public boolean contains(Object pObj) {
+        Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+        return bucket != null && bucket.containsKey(pObj);
+      }
+
+      @Override
+      public int size() {
+        Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.size();
+      }
+    };
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode pLocation) {
+    return asCollection();
+  }
+
+  @Override
+  public AbstractState getFirstState() {
+    AbstractState first = firstState;
+    Preconditions.checkState(first != null);
+    return first;
+  }
+
+  @Override
+  public AbstractState getLastState() {
+    return lastState;
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    synchronized (waitlist) {
+      return !waitlist.isEmpty();
+    }
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    final List<AbstractState> snapshot;
+    synchronized (waitlist) {
+      snapshot = ImmutableList.copyOf(waitlist.iterator());
+    }
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        return snapshot.iterator();
+      }
+
+      @Override
+      public boolean contains(Object pObj) {
+        if (!(pObj instanceof AbstractState)) {
+          return false;
+        }
+        synchronized (waitlist) {
+          return waitlist.contains((AbstractState)pObj);
+        }
+      }
+
+      @Override
+      public int size() {
+        return snapshot.size();
+      }
+    };
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState pState) {
+    checkNotNull(pState);
+    Object key = getPartitionKey(pState);
+    ReachedEntry entry = null;
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+      if (bucket != null) {
+        entry = bucket.get(pState);
+      }
+    } finally {
+      lock.unlock();
+    }
+    Preconditions.checkArgument(entry != null, "State not in reached set:\n%s", pState);
+    return entry.precision;
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    checkNotNull(pState);
+    Object key = getPartitionKey(pState);
+    Lock lock = locks.get(key);
+    lock.lock();
+    try {
+      Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+      return bucket != null && bucket.containsKey(pState);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    return size.get();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Return the number of non-empty partitions.
+   * Buckets are removed as soon as they become empty,
+   * so this is the number of buckets.
+   */
+  public int getNumberOfPartitions() {
+    return buckets.size();
+  }
+
+  public Map.Entry<Object, Collection<AbstractState>> getMaxPartition() {
+    int max = 0;
+    Map.Entry<Object, Collection<AbstractState>> maxPartition = null;
+
+    for (Object key : buckets.keySet()) {
+      Lock lock = locks.get(key);
+      lock.lock();
+      try {
+        Map<AbstractState, ReachedEntry> bucket = buckets.get(key);
+        int bucketSize = (bucket == null) ? 0 : bucket.size();
+        if (bucketSize > max) {
+          max = bucketSize;
+          Object partitionKey = key == NULL_KEY ? null : key;
+          Collection<AbstractState> states = ImmutableList.copyOf(bucket.keySet());
+          maxPartition = Maps.immutableEntry(partitionKey, states);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return maxPartition;
+  }
+
+  @Override
+  public String toString() {
+    return asCollection.toString();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+import com.google.common.collect.ImmutableList;
+
+public class StripedPartitionedReachedSetTest {
+
+  private static final Precision PRECISION = SingletonPrecision.getInstance();
+
+  private static class TestState implements AbstractState, Partitionable {
+
+    private final Object partition;
+    private final int id;
+
+    private TestState(Object pPartition, int pId) {
+      partition = pPartition;
+      id = pId;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+
+    @Override
+    public String toString() {
+      return partition + ":" + id;
+    }
+  }
+
+  private StripedPartitionedReachedSet reached;
+
+  @Before
+  public void setUp() {
+    reached = new StripedPartitionedReachedSet(TraversalMethod.BFS);
+  }
+
+  @Test
+  public void testIterationInInsertionOrder() {
+    List<AbstractState> states = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      states.add(new TestState(i % 3, i));
+    }
+    for (AbstractState state : states) {
+      reached.add(state, PRECISION);
+    }
+    assertThat(reached.asCollection()).containsExactlyElementsIn(states).inOrder();
+
+    reached.remove(states.get(4));
+    reached.remove(states.get(0));
+    AbstractState newState = new TestState(4, 20);
+    reached.add(newState, PRECISION);
+
+    List<AbstractState> expected = new ArrayList<>(states);
+    expected.remove(4);
+    expected.remove(0);
+    expected.add(newState);
+    assertThat(ImmutableList.copyOf(reached)).containsExactlyElementsIn(expected).inOrder();
+    assertThat(reached.getPrecisions()).hasSize(expected.size());
+    assertThat(reached.size()).isEqualTo(expected.size());
+  }
+
+  @Test
+  public void testEmptyPartitionsAreRemoved() {
+    AbstractState a1 = new TestState("a", 1);
+    AbstractState a2 = new TestState("a", 2);
+    AbstractState b1 = new TestState(null, 1);
+    reached.add(a1, PRECISION);
+    reached.add(a2, PRECISION);
+    reached.add(b1, PRECISION);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(2);
+
+    reached.remove(a1);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(2);
+    reached.remove(a2);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(1);
+    reached.remove(b1);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(0);
+    assertThat(reached.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testPartitionViewSurvivesRemovalOfBucket() {
+    AbstractState a1 = new TestState("a", 1);
+    AbstractState a2 = new TestState("a", 2);
+    reached.add(a1, PRECISION);
+
+    // like merge in CPAAlgorithm: the view is kept while states are replaced
+    Collection<AbstractState> partition = reached.getReached(a2);
+    assertThat(partition).containsExactly(a1);
+
+    reached.remove(a1);
+    assertThat(partition).isEmpty();
+
+    reached.add(a2, PRECISION);
+    assertThat(partition).containsExactly(a2);
+    assertThat(partition.contains(a2)).isTrue();
+    assertThat(reached.getPartitionLock(a1)).isSameAs(reached.getPartitionLock(a2));
+  }
+
+  @Test
+  public void testConcurrentModifications() throws Exception {
+    final int threads = 4;
+    final int statesPerThread = 2000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<AbstractState>>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        results.add(executor.submit(new Callable<List<AbstractState>>() {
+            @Override
+            public List<AbstractState> call() {
+              List<AbstractState> kept = new ArrayList<>();
+              for (int i = 0; i < statesPerThread; i++) {
+                AbstractState state = new TestState(i % 7, thread * statesPerThread + i);
+                reached.add(state, PRECISION);
+                if (i % 2 == 0) {
+                  reached.remove(state);
+                } else {
+                  kept.add(state);
+                }
+              }
+              return kept;
+            }
+          }));
+      }
+
+      List<AbstractState> kept = new ArrayList<>();
+      for (Future<List<AbstractState>> result : results) {
+        List<AbstractState> keptByThread = result.get();
+        kept.addAll(keptByThread);
+
+        // each thread added its states in order, and this order is preserved
+        List<AbstractState> iterationOrder = ImmutableList.copyOf(reached);
+        int last = -1;
+        for (AbstractState state : keptByThread) {
+          int position = iterationOrder.indexOf(state);
+          assertThat(position).isGreaterThan(last);
+          last = position;
+        }
+      }
+
+      assertThat(reached.asCollection()).containsExactlyElementsIn(kept);
+      assertThat(reached.size()).isEqualTo(kept.size());
+      assertThat(reached.getNumberOfPartitions()).isEqualTo(7);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.Pair;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Thread-safe variant of {@link PartitionedReachedSet}.
+ *
+ * All operations are synchronized on this object,
+ * and all returned collections are immutable snapshots
+ * (in contrast to the views returned by the other implementations).
+ * Merge and stop have to be serialized per partition
+ * with the lock returned by {@link #getPartitionLock(AbstractState)}.
+ */
+public class SynchronizedPartitionedReachedSet extends PartitionedReachedSet implements ConcurrentReachedSet {
+
+  private static final int LOCK_STRIPES = 64;
+
+  // Partitionable.getPartitionKey() may return null
+  private static final Object NULL_KEY = new Object();
+
+  private final Striped<Lock> partitionLocks = Striped.lock(LOCK_STRIPES);
+
+  public SynchronizedPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    super(waitlistFactory);
+  }
+
+  @Override
+  public Lock getPartitionLock(AbstractState pState) {
+    Object key = getPartitionKey(pState);
+    return partitionLocks.get(key == null ? NULL_KEY : key);
+  }
+
+  @Override
+  public synchronized void add(AbstractState pState, Precision pPrecision) {
+    super.add(pState, pPrecision);
+  }
+
+  @Override
+  public synchronized void addAll(Iterable<Pair<AbstractState, Precision>> pToAdd) {
+    super.addAll(pToAdd);
+  }
+
+  @Override
+  public synchronized void reAddToWaitlist(AbstractState pState) {
+    super.reAddToWaitlist(pState);
+  }
+
+  @Override
+  public synchronized void updatePrecision(AbstractState pState, Precision pNewPrecision) {
+    super.updatePrecision(pState, pNewPrecision);
+  }
+
+  @Override
+  public synchronized void remove(AbstractState pState) {
+    super.remove(pState);
+  }
+
+  @Override
+  public synchronized void removeAll(Iterable<? extends AbstractState> pToRemove) {
+    super.removeAll(pToRemove);
+  }
+
+  @Override
+  public synchronized void removeOnlyFromWaitlist(AbstractState pState) {
+    super.removeOnlyFromWaitlist(pState);
+  }
+
+  @Override
+  public synchronized void clear() {
+    super.clear();
+  }
+
+  @Override
+  public synchronized AbstractState popFromWaitlist() {
+    return super.popFromWaitlist();
+  }
+
+  @Override
+  public synchronized Set<AbstractState> asCollection() {
+    return ImmutableSet.copyOf(super.asCollection());
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return asCollection().iterator();
+  }
+
+  @Override
+  public synchronized Collection<Precision> getPrecisions() {
+    return ImmutableList.copyOf(super.getPrecisions());
+  }
+
+  @Override
+  public synchronized Collection<AbstractState> getReached(AbstractState pState) {
+    return ImmutableList.copyOf(super.getReached(pState));
+  }
+
+  @Override
+  public synchronized Collection<AbstractState> getReached(CFANode pLocation) {
+    return ImmutableList.copyOf(super.getReached(pLocation));
+  }
+
+  @Override
+  public synchronized AbstractState getFirstState() {
+    return super.getFirstState();
+  }
+
+  @Override
+  public synchronized AbstractState getLastState() {
+    return super.getLastState();
+  }
+
+  @Override
+  public synchronized boolean hasWaitingState() {
+    return super.hasWaitingState();
+  }
+
+  @Override
+  public synchronized Collection<AbstractState> getWaitlist() {
+    return ImmutableList.copyOf(super.getWaitlist());
+  }
+
+  @Override
+  public synchronized Precision getPrecision(AbstractState pState) {
+    return super.getPrecision(pState);
+  }
+
+  @Override
+  public synchronized boolean contains(AbstractState pState) {
+    return super.contains(pState);
+  }
+
+  @Override
+  public synchronized int size() {
+    return super.size();
+  }
+
+  @Override
+  public synchronized int getNumberOfPartitions() {
+    return super.getNumberOfPartitions();
+  }
+
+  @Override
+  public synchronized Map.Entry<Object, Collection<AbstractState>> getMaxPartition() {
+    Map.Entry<Object, Collection<AbstractState>> maxPartition = super.getMaxPartition();
+    if (maxPartition == null) {
+      return null;
+    }
+    Collection<AbstractState> partition = ImmutableList.copyOf(maxPartition.getValue());
+    return Maps.immutableEntry(maxPartition.getKey(), partition);
+  }
+
+  @Override
+  protected synchronized Collection<AbstractState> getReachedForKey(Object pKey) {
+    return ImmutableList.copyOf(super.getReachedForKey(pKey));
+  }
+
+  @Override
+  protected synchronized Set<?> getKeySet() {
+    // partition keys may be null, so ImmutableSet cannot be used here
+    return Collections.unmodifiableSet(new LinkedHashSet<>(super.getKeySet()));
+  }
+
+  @Override
+  public synchronized String toString() {
+    return super.toString();
+  }
+}
@@ -62,6 +62,7 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.CEXExporter;
@@ -77,7 +78,7 @@ import com.google.common.collect.ImmutableList;
 
 @Options(prefix="cpa.arg")
 public class ARGCPA extends AbstractSingleWrapperCPA implements
-    ConfigurableProgramAnalysisWithBAM, ProofChecker {
+    ConfigurableProgramAnalysisWithBAM, ProofChecker, ThreadSafeCPA {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ARGCPA.class);
@@ -109,6 +110,15 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
 
   private final LogManager logger;
 
+  /**
+   * The operators of this CPA modify the parent, child, and coverage relations
+   * of ARG states, which are not thread-safe.
+   * They do so only while holding this lock,
+   * such that they can be called concurrently
+   * (the wrapped operators are called outside of it where possible).
+   */
+  private final Object argLock = new Object();
+
   private final AbstractDomain abstractDomain;
   private final ARGTransferRelation transferRelation;
   private final MergeOperator mergeOperator;
@@ -127,13 +137,13 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
     config.inject(this);
     this.logger = logger;
     abstractDomain = new FlatLatticeDomain();
-    transferRelation = new ARGTransferRelation(cpa.getTransferRelation());
+    transferRelation = new ARGTransferRelation(cpa.getTransferRelation(), argLock);
 
     PrecisionAdjustment wrappedPrec = cpa.getPrecisionAdjustment();
     if (wrappedPrec instanceof SimplePrecisionAdjustment) {
       precisionAdjustment = new ARGSimplePrecisionAdjustment((SimplePrecisionAdjustment) wrappedPrec);
     } else {
-      precisionAdjustment = new ARGPrecisionAdjustment(cpa.getPrecisionAdjustment(), inCPAEnabledAnalysis);
+      precisionAdjustment = new ARGPrecisionAdjustment(cpa.getPrecisionAdjustment(), inCPAEnabledAnalysis, argLock);
     }
 
     if (cpa instanceof ConfigurableProgramAnalysisWithBAM) {
@@ -160,10 +170,10 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
       if (inCPAEnabledAnalysis) {
         mergeOperator = new ARGMergeJoinCPAEnabledAnalysis(wrappedMerge, deleteInCPAEnabledAnalysis);
       } else {
-        mergeOperator = new ARGMergeJoin(wrappedMerge);
+        mergeOperator = new ARGMergeJoin(wrappedMerge, argLock);
       }
     }
-    stopOperator = new ARGStopSep(getWrappedCpa().getStopOperator(), logger, config);
+    stopOperator = new ARGStopSep(getWrappedCpa().getStopOperator(), logger, config, argLock);
     cexFilter = createCounterexampleFilter(config, logger, cpa);
     ARGPathExporter argPathExporter = new ARGPathExporter(config, logger, cfa.getMachineModel(), cfa.getLanguage());
     cexExporter = new CEXExporter(config, logger, argPathExporter);
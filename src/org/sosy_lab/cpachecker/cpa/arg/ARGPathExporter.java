@@ -48,6 +48,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -97,6 +98,7 @@ import org.sosy_lab.cpachecker.util.SourceLocationMapper;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlStreamWriter;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphType;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
@@ -162,6 +164,17 @@ public class ARGPathExporter {
   @Option(secure=true, description="Verification witness: Include the offset within the file?")
   boolean exportOffset = true;
 
+  @Option(secure=true, description="Verification witness: Write the witness incrementally "
+      + "instead of building the whole graph in memory first? "
+      + "Redundant edges are then only merged within a bounded window of edges, "
+      + "so the witness may contain more nodes and edges.")
+  boolean streamingExport = false;
+
+  @Option(secure=true, description="Verification witness: Number of edges that are kept in memory "
+      + "for merging redundant edges if the witness is written incrementally.")
+  @IntegerOption(min=1)
+  int streamingLookAhead = 100;
+
   private final LogManager logger;
 
   private final MachineModel machineModel;
@@ -387,13 +400,16 @@ public class ARGPathExporter {
     private final String defaultSourcefileName;
     private boolean isFunctionScope = false;
 
+    /** only used for the streaming export, the edges are then not stored in the maps above */
+    private @Nullable StreamingEdgeWriter streamingEdgeWriter = null;
+
     public WitnessWriter(@Nullable String pDefaultSourcefileName) {
       this.defaultSourcefileName = pDefaultSourcefileName;
     }
 
     @Override
-    public void appendNewEdge(final GraphMlBuilder pDoc, String pFrom,
-        final String pTo, final CFAEdge pEdge) {
+    public void appendNewEdge(String pFrom,
+        final String pTo, final CFAEdge pEdge) throws IOException {
 
       attemptSwitchToFunctionScope(pEdge);
 
@@ -401,13 +417,13 @@ public class ARGPathExporter {
 
       Edge edge = new Edge(pFrom, pTo, desc);
 
-      putEdge(edge);
+      addEdge(edge);
     }
 
     @Override
-    public void appendNewEdge(final GraphMlBuilder pDoc, String pFrom,
+    public void appendNewEdge(String pFrom,
         final String pTo, final CFAEdge pEdge, final ARGState pFromState,
-        final Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
+        final Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException {
 
       attemptSwitchToFunctionScope(pEdge);
 
@@ -415,18 +431,45 @@ public class ARGPathExporter {
 
       Edge edge = new Edge(pFrom, pTo, desc);
 
-      putEdge(edge);
+      addEdge(edge);
+    }
+
+    @Override
+    public void appendNewEdgeToSink(String pFrom, CFAEdge pEdge, ARGState pFromState,
+        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException {
+      appendNewEdge(pFrom, SINK_NODE_ID, pEdge, pFromState, pValueMap);
     }
 
     @Override
-    public void appendNewEdgeToSink(GraphMlBuilder pDoc, String pFrom, CFAEdge pEdge, ARGState pFromState,
-        Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
-      appendNewEdge(pDoc, pFrom, SINK_NODE_ID, pEdge, pFromState, pValueMap);
+    public void appendNewEdgeToSink(String pFrom, CFAEdge pEdge) throws IOException {
+      appendNewEdge(pFrom, SINK_NODE_ID, pEdge);
     }
 
     @Override
-    public void appendNewEdgeToSink(GraphMlBuilder pDoc, String pFrom, CFAEdge pEdge) {
-      appendNewEdge(pDoc, pFrom, SINK_NODE_ID, pEdge);
+    public void onlyEnteringEdgeAppended(String pNode) {
+      if (streamingEdgeWriter != null) {
+        streamingEdgeWriter.onlyEnteringEdgeAppended(pNode);
+      }
+    }
+
+    @Override
+    public void leavingEdgesAppended(String pNode, Iterable<ARGState> pStates) throws IOException {
+      if (streamingEdgeWriter != null) {
+        streamingEdgeWriter.leavingEdgesAppended(pNode, pStates);
+      } else {
+        for (ARGState state : pStates) {
+          nodeFlags.putAll(pNode, extractNodeFlags(state));
+          violatedProperties.putAll(pNode, extractViolatedProperties(state));
+        }
+      }
+    }
+
+    private void addEdge(Edge pEdge) throws IOException {
+      if (streamingEdgeWriter != null) {
+        streamingEdgeWriter.add(pEdge);
+      } else {
+        putEdge(pEdge);
+      }
     }
 
     private void attemptSwitchToFunctionScope(CFAEdge pEdge) {
@@ -616,46 +659,45 @@ public class ARGPathExporter {
       return result;
     }
 
-    private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) {
+    /**
+     * Get the key definitions of the witness with their default values (which may be null).
+     */
+    private List<Pair<KeyDef, String>> getKeyDefinitions(GraphType pGraphType) {
+      List<Pair<KeyDef, String>> keyDefs = new ArrayList<>();
       if (pGraphType == GraphType.CONDITION) {
-        pDoc.appendNewKeyDef(KeyDef.INVARIANT, null);
-        pDoc.appendNewKeyDef(KeyDef.NAMED, null);
-      }
-      pDoc.appendNewKeyDef(KeyDef.ASSUMPTION, null);
-      pDoc.appendNewKeyDef(KeyDef.SOURCECODE, null);
-      pDoc.appendNewKeyDef(KeyDef.SOURCECODELANGUAGE, null);
-      pDoc.appendNewKeyDef(KeyDef.CONTROLCASE, null);
-      pDoc.appendNewKeyDef(KeyDef.ORIGINLINE, null);
-      pDoc.appendNewKeyDef(KeyDef.ORIGINFILE, defaultSourcefileName);
-      pDoc.appendNewKeyDef(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text);
+        keyDefs.add(Pair.<KeyDef, String>of(KeyDef.INVARIANT, null));
+        keyDefs.add(Pair.<KeyDef, String>of(KeyDef.NAMED, null));
+      }
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.ASSUMPTION, null));
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.SOURCECODE, null));
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.SOURCECODELANGUAGE, null));
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.CONTROLCASE, null));
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.ORIGINLINE, null));
+      keyDefs.add(Pair.of(KeyDef.ORIGINFILE, defaultSourcefileName));
+      keyDefs.add(Pair.of(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text));
       for (NodeFlag f : NodeFlag.values()) {
-        pDoc.appendNewKeyDef(f.key, "false");
+        keyDefs.add(Pair.of(f.key, "false"));
       }
 
-      pDoc.appendNewKeyDef(KeyDef.FUNCTIONENTRY, null);
-      pDoc.appendNewKeyDef(KeyDef.FUNCTIONEXIT, null);
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.FUNCTIONENTRY, null));
+      keyDefs.add(Pair.<KeyDef, String>of(KeyDef.FUNCTIONEXIT, null));
+      return keyDefs;
     }
 
-    /**
-     * Starting from the given initial ARG state, collects that state and all
-     * transitive successors (as defined by the successor function) that are
-     * children of their direct predecessor and are accepted by the path state
-     * predicate.
-     *
-     * @param pInitialState the initial ARG state.
-     * @param pSuccessorFunction the function defining the successors of a
-     * state.
-     * @param pPathStates a filter on the nodes.
-     *
-     * @return the parents with their children.
-     */
-    private Iterable<ARGState> collectPathNodes(
-        final ARGState pInitialState,
-        final Function<? super ARGState, ? extends Iterable<ARGState>> pSuccessorFunction,
-        final Predicate<? super ARGState> pPathStates) {
-      return FluentIterable
-          .from(collectPathEdges(pInitialState, pSuccessorFunction, pPathStates))
-          .transform(Pair.<ARGState>getProjectionToFirst());
+    private Iterable<String> getSpecifications() {
+      return FluentIterable.from(hackyOptions.propertyFiles).transform(new Function<Path, String>() {
+
+        @Override
+        public String apply(Path pArg0) {
+          try {
+            return pArg0.asCharSource(Charsets.UTF_8).read().trim();
+          } catch (IOException e) {
+            logger.logUserException(Level.WARNING, e, "Could not export specification to witness.");
+            return "Unknown specification";
+          }
+        }
+
+      });
     }
 
     /**
@@ -760,6 +802,12 @@ public class ARGPathExporter {
 
       GraphType graphType = GraphType.PROGRAMPATH;
 
+      if (streamingExport) {
+        writePathIncrementally(pTarget, pRootState, pIsRelevantState, pIsRelevantEdge,
+            valueMap, pGraphBuilder, graphType);
+        return;
+      }
+
       GraphMlBuilder doc;
       try {
         doc = new GraphMlBuilder(pTarget);
@@ -775,43 +823,23 @@ public class ARGPathExporter {
       String entryStateNodeId = pGraphBuilder.getId(pRootState);
 
       doc.appendDocHeader();
-      appendKeyDefinitions(doc, graphType);
+      for (Pair<KeyDef, String> keyDef : getKeyDefinitions(graphType)) {
+        doc.appendNewKeyDef(keyDef.getFirst(), keyDef.getSecond());
+      }
       doc.appendGraphHeader(
           graphType,
           language,
-          FluentIterable.from(hackyOptions.propertyFiles).transform(new Function<Path, String>() {
-
-            @Override
-            public String apply(Path pArg0) {
-              try {
-                return pArg0.asCharSource(Charsets.UTF_8).read().trim();
-              } catch (IOException e) {
-                logger.logUserException(Level.WARNING, e, "Could not export specification to witness.");
-                return "Unknown specification";
-              }
-            }
-
-          }),
+          getSpecifications(),
           hackyOptions.programs,
           hackyOptions.handlePointerAliasing ? "precise" : "simple",
           machineModel);
 
-      // Collect node flags in advance
-      for (ARGState s : collectPathNodes(pRootState, successorFunction, pIsRelevantState)) {
-        String sourceStateNodeId = pGraphBuilder.getId(s);
-        EnumSet<NodeFlag> sourceNodeFlags = EnumSet.noneOf(NodeFlag.class);
-        if (sourceStateNodeId.equals(entryStateNodeId)) {
-          sourceNodeFlags = EnumSet.of(NodeFlag.ISENTRY);
-        }
-        sourceNodeFlags.addAll(extractNodeFlags(s));
-        nodeFlags.putAll(sourceStateNodeId, sourceNodeFlags);
-        violatedProperties.putAll(sourceStateNodeId, extractViolatedProperties(s));
-      }
-      // Write the sink node
+      // The flags of the other nodes are added while the graph is built
+      nodeFlags.put(entryStateNodeId, NodeFlag.ISENTRY);
       nodeFlags.put(SINK_NODE_ID, NodeFlag.ISSINKNODE);
 
       // Build the actual graph
-      pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, doc, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
+      pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
 
       // Remove edges that lead to the sink but have a sibling edge that has the same label
       Collection<Edge> toRemove = FluentIterable.from(leavingEdges.values()).filter(new Predicate<Edge>() {
@@ -897,6 +925,392 @@ public class ARGPathExporter {
       doc.appendFooter();
     }
 
+    /**
+     * Write the witness like {@link #writePath}, but write the nodes and edges
+     * while the graph is built instead of keeping the whole graph in memory.
+     * The graph is built only once, and the graph builder signals
+     * when a node has no further entering or leaving edges,
+     * which is necessary to decide whether an edge is redundant and when a node can be written.
+     */
+    private void writePathIncrementally(Appendable pTarget,
+        final ARGState pRootState,
+        final Predicate<? super ARGState> pIsRelevantState,
+        final Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
+        Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
+        GraphBuilder pGraphBuilder,
+        GraphType pGraphType)
+        throws IOException {
+
+      final Function<? super ARGState, ? extends Iterable<ARGState>> successorFunction = ARGUtils.CHILDREN_OF_STATE;
+
+      GraphMlStreamWriter doc = new GraphMlStreamWriter(pTarget);
+      doc.appendDocHeader();
+      for (Pair<KeyDef, String> keyDef : getKeyDefinitions(pGraphType)) {
+        doc.appendNewKeyDef(keyDef.getFirst(), keyDef.getSecond());
+      }
+      doc.appendGraphHeader(
+          pGraphType,
+          language,
+          getSpecifications(),
+          hackyOptions.programs,
+          hackyOptions.handlePointerAliasing ? "precise" : "simple",
+          machineModel);
+
+      // Build the graph, the nodes and edges are written by the edge writer
+      streamingEdgeWriter = new StreamingEdgeWriter(doc, streamingLookAhead, pGraphBuilder.getId(pRootState));
+      try {
+        pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, pValueMap,
+            collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
+        streamingEdgeWriter.finish();
+      } finally {
+        streamingEdgeWriter = null;
+      }
+
+      doc.appendFooter();
+    }
+
+    /**
+     * Writes the nodes and edges of a witness incrementally.
+     * Each edge is kept in a window of bounded size before it is written,
+     * such that redundant edges can be merged like in {@link #writePath}
+     * as far as this is possible with the edges in this window.
+     * Information is only kept about the nodes that are referenced by edges in the window,
+     * the nodes whose leaving edges are currently appended,
+     * and the nodes with a single entering edge whose leaving edges were not appended yet
+     * (which are in the waitlist of the graph builder).
+     * Thus, a node with a single entering edge may be merged into its predecessor,
+     * and later edges from it are redirected.
+     * A node is written once all its leaving edges were appended
+     * and no edge in the window references it any more.
+     */
+    private class StreamingEdgeWriter {
+
+      private final GraphMlStreamWriter doc;
+      private final int lookAhead;
+      private final String entryStateNodeId;
+
+      private final Map<String, StreamingNodeInfo> nodes = Maps.newHashMap();
+      private final Deque<Edge> window = new ArrayDeque<>();
+
+      private boolean isSinkReferenced = false;
+
+      private StreamingEdgeWriter(GraphMlStreamWriter pDoc, int pLookAhead, String pEntryStateNodeId) {
+        doc = pDoc;
+        lookAhead = pLookAhead;
+        entryStateNodeId = pEntryStateNodeId;
+      }
+
+      private StreamingNodeInfo getInfo(String pNodeId) {
+        StreamingNodeInfo info = nodes.get(pNodeId);
+        if (info == null) {
+          info = new StreamingNodeInfo();
+          nodes.put(pNodeId, info);
+        }
+        return info;
+      }
+
+      void add(Edge pEdge) throws IOException {
+        Edge edge = resolve(pEdge);
+        StreamingNodeInfo sourceInfo = getInfo(edge.source);
+        sourceInfo.hasAppendedLeavingEdge = true;
+
+        if (window.contains(edge)
+            || (edge.target.equals(SINK_NODE_ID) && sourceInfo.writtenLeavingLabels != null
+                && sourceInfo.writtenLeavingLabels.contains(edge.label))) {
+          return;
+        }
+        enqueue(edge);
+        while (window.size() > lookAhead) {
+          Edge first = window.peekFirst();
+          dequeue(first);
+          flush(first);
+          update(first.source);
+          update(first.target);
+        }
+      }
+
+      void onlyEnteringEdgeAppended(String pNodeId) {
+        getInfo(pNodeId).hasOnlyEnteringEdge = true;
+      }
+
+      void leavingEdgesAppended(String pNodeId, Iterable<ARGState> pStates) throws IOException {
+        StreamingNodeInfo info = getInfo(pNodeId);
+        info.areLeavingEdgesAppended = true;
+
+        // The flags of a merged node are added to the node it was merged into
+        String representative = getRepresentative(pNodeId);
+        StreamingNodeInfo representativeInfo = getInfo(representative);
+        representativeInfo.pendingNodes--;
+        if (representativeInfo.pendingNodes == 0) {
+          // no further sink edges can be added for this node
+          representativeInfo.writtenLeavingLabels = null;
+        }
+        if (pNodeId.equals(entryStateNodeId)) {
+          representativeInfo.nodeFlags.add(NodeFlag.ISENTRY);
+        }
+        for (ARGState state : pStates) {
+          representativeInfo.nodeFlags.addAll(extractNodeFlags(state));
+          representativeInfo.violatedProperties.addAll(extractViolatedProperties(state));
+        }
+
+        update(representative);
+        update(pNodeId);
+      }
+
+      void finish() throws IOException {
+        while (!window.isEmpty()) {
+          Edge first = window.peekFirst();
+          dequeue(first);
+          flush(first);
+          update(first.source);
+          update(first.target);
+        }
+        // Write the nodes whose leaving edges were never signalled, if they are referenced
+        for (Map.Entry<String, StreamingNodeInfo> entry : ImmutableList.copyOf(nodes.entrySet())) {
+          StreamingNodeInfo info = entry.getValue();
+          if (info.mergedInto == null && !info.isWritten
+              && (info.isReferenced || entry.getKey().equals(entryStateNodeId))) {
+            writeNode(entry.getKey(), info);
+          }
+        }
+        nodes.clear();
+        if (isSinkReferenced) {
+          StreamingNodeInfo sinkInfo = new StreamingNodeInfo();
+          sinkInfo.nodeFlags.add(NodeFlag.ISSINKNODE);
+          writeNode(SINK_NODE_ID, sinkInfo);
+        }
+      }
+
+      /**
+       * Write the given node if all its leaving edges were appended
+       * and no edge in the window references it,
+       * and forget about it if the information is not needed any more.
+       */
+      private void update(String pNodeId) throws IOException {
+        StreamingNodeInfo info = nodes.get(pNodeId);
+        if (info == null) {
+          return;
+        }
+        if (info.mergedInto == null && !info.isWritten
+            && info.pendingNodes == 0 && info.windowReferences == 0) {
+          writeNode(pNodeId, info);
+        }
+        if (!info.isNeeded()) {
+          nodes.remove(pNodeId);
+        }
+      }
+
+      private void enqueue(Edge pEdge) {
+        window.addLast(pEdge);
+        getInfo(pEdge.source).windowReferences++;
+        getInfo(pEdge.target).windowReferences++;
+      }
+
+      private void dequeue(Edge pEdge) {
+        boolean removed = window.remove(pEdge);
+        assert removed;
+        getInfo(pEdge.source).windowReferences--;
+        getInfo(pEdge.target).windowReferences--;
+      }
+
+      private String getRepresentative(String pNodeId) {
+        String node = pNodeId;
+        StreamingNodeInfo info;
+        while ((info = nodes.get(node)) != null && info.mergedInto != null) {
+          node = info.mergedInto;
+        }
+        return node;
+      }
+
+      /** Replace all nodes of an edge that were merged into other nodes. */
+      private Edge resolve(Edge pEdge) {
+        String source = pEdge.source;
+        String target = pEdge.target;
+        TransitionCondition label = pEdge.label;
+        StreamingNodeInfo info;
+        while ((info = nodes.get(source)) != null && info.mergedInto != null) {
+          label = concat(info.mergeLabel, label);
+          source = info.mergedInto;
+        }
+        while ((info = nodes.get(target)) != null && info.mergedInto != null) {
+          label = concat(info.mergeLabel, label);
+          target = info.mergedInto;
+        }
+        return label == pEdge.label ? pEdge : new Edge(source, target, label);
+      }
+
+      private TransitionCondition concat(TransitionCondition pFirst, TransitionCondition pSecond) {
+        if (!pFirst.hasTransitionRestrictions()) {
+          return pSecond;
+        }
+        TransitionCondition label = new TransitionCondition();
+        label.keyValues.putAll(pFirst.keyValues);
+        label.keyValues.putAll(pSecond.keyValues);
+        return label;
+      }
+
+      /** Check whether an edge leads to the sink and has a sibling edge with the same label. */
+      private boolean isDuplicateSinkEdge(Edge pEdge, Edge pSibling) {
+        return pEdge.target.equals(SINK_NODE_ID)
+            && pEdge.source.equals(pSibling.source)
+            && !pEdge.equals(pSibling)
+            && pEdge.label.equals(pSibling.label);
+      }
+
+      /** Remove the edges from the window that are duplicates of the given edge to the sink. */
+      private void removeDuplicateSinkEdges(Edge pSibling) throws IOException {
+        for (Edge edge : ImmutableList.copyOf(window)) {
+          if (isDuplicateSinkEdge(edge, pSibling)) {
+            dequeue(edge);
+          }
+        }
+        update(SINK_NODE_ID);
+      }
+
+      private void flush(Edge pEdge) throws IOException {
+        // Remove edges that lead to the sink but have a sibling edge that has the same label
+        if (pEdge.target.equals(SINK_NODE_ID)) {
+          for (Edge sibling : window) {
+            if (isDuplicateSinkEdge(pEdge, sibling)) {
+              return;
+            }
+          }
+        }
+
+        if (isRedundant(pEdge)) {
+          merge(pEdge);
+        } else {
+          write(pEdge);
+        }
+      }
+
+      /**
+       * An edge is redundant if it is the only leaving edge of a node and
+       * it is empty or all its non-assumption contents are summarized by a preceding edge.
+       * Additionally, the edge must be the only edge that references its target node
+       * apart from the leaving edges of the target node that were not written yet.
+       */
+      private boolean isRedundant(final Edge pEdge) {
+        if (pEdge.source.equals(pEdge.target)) {
+          return false;
+        }
+        StreamingNodeInfo sourceInfo = getInfo(pEdge.source);
+        StreamingNodeInfo targetInfo = getInfo(pEdge.target);
+        if (sourceInfo.pendingNodes > 0 || sourceInfo.hasWrittenLeavingEdge
+            || !targetInfo.hasOnlyEnteringEdge || targetInfo.isReferenced || targetInfo.isWritten) {
+          return false;
+        }
+        for (Edge other : window) {
+          // duplicate sink edges are removed before merging, like in writePath
+          if (other.source.equals(pEdge.source) && !isDuplicateSinkEdge(other, pEdge)) {
+            return false;
+          }
+        }
+        if (!pEdge.label.hasTransitionRestrictions()
+            || pEdge.label.keyValues.size() == 1 && pEdge.label.keyValues.containsKey(KeyDef.FUNCTIONEXIT)) {
+          return true;
+        }
+        Predicate<TransitionCondition> summarizesEdge = new Predicate<TransitionCondition>() {
+
+          @Override
+          public boolean apply(TransitionCondition pPrecedingLabel) {
+            return pPrecedingLabel.summarizes(pEdge.label);
+          }
+
+        };
+        if (sourceInfo.writtenEnteringLabels != null
+            && FluentIterable.from(sourceInfo.writtenEnteringLabels).anyMatch(summarizesEdge)) {
+          return true;
+        }
+        for (Edge preceding : window) {
+          if (preceding.target.equals(pEdge.source) && summarizesEdge.apply(preceding.label)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      /** Merge the target of an edge into its source, cf. {@link WitnessWriter#mergeNodes(Edge)}. */
+      private void merge(Edge pEdge) throws IOException {
+        String source = pEdge.source;
+        String target = pEdge.target;
+        StreamingNodeInfo sourceInfo = getInfo(source);
+        StreamingNodeInfo targetInfo = getInfo(target);
+
+        removeDuplicateSinkEdges(pEdge);
+
+        targetInfo.mergedInto = source;
+        targetInfo.mergeLabel = pEdge.label;
+        sourceInfo.pendingNodes += targetInfo.pendingNodes;
+        targetInfo.pendingNodes = 0;
+
+        // Merge the flags and the violated properties
+        sourceInfo.nodeFlags.addAll(targetInfo.nodeFlags);
+        sourceInfo.violatedProperties.addAll(targetInfo.violatedProperties);
+        targetInfo.nodeFlags.clear();
+        targetInfo.violatedProperties.clear();
+
+        // Redirect the edges in the window
+        for (Edge edge : ImmutableList.copyOf(window)) {
+          Edge resolved = resolve(edge);
+          if (resolved != edge) {
+            dequeue(edge);
+            enqueue(resolved);
+          }
+        }
+      }
+
+      private void write(Edge pEdge) throws IOException {
+        StreamingNodeInfo sourceInfo = getInfo(pEdge.source);
+        StreamingNodeInfo targetInfo = getInfo(pEdge.target);
+
+        // Nothing can be merged into the source any more
+        sourceInfo.hasWrittenLeavingEdge = true;
+        sourceInfo.isReferenced = true;
+        sourceInfo.writtenEnteringLabels = null;
+
+        targetInfo.isReferenced = true;
+        if (!targetInfo.hasWrittenLeavingEdge && !targetInfo.isWritten) {
+          if (targetInfo.writtenEnteringLabels == null) {
+            targetInfo.writtenEnteringLabels = Lists.newArrayList();
+          }
+          targetInfo.writtenEnteringLabels.add(pEdge.label);
+        }
+
+        if (pEdge.target.equals(SINK_NODE_ID)) {
+          isSinkReferenced = true;
+        } else {
+          removeDuplicateSinkEdges(pEdge);
+          if (sourceInfo.pendingNodes > 0) {
+            if (sourceInfo.writtenLeavingLabels == null) {
+              sourceInfo.writtenLeavingLabels = Sets.newHashSet();
+            }
+            sourceInfo.writtenLeavingLabels.add(pEdge.label);
+          }
+        }
+
+        doc.startEdge(pEdge.source, pEdge.target);
+        for (Map.Entry<KeyDef, String> entry : pEdge.label.keyValues.entrySet()) {
+          doc.appendDataElement(entry.getKey(), entry.getValue());
+        }
+        doc.endElement();
+      }
+
+      private void writeNode(String pNodeId, StreamingNodeInfo pInfo) throws IOException {
+        pInfo.isWritten = true;
+        doc.startNode(pNodeId, NodeType.ONPATH);
+        for (NodeFlag f : pInfo.nodeFlags) {
+          doc.appendDataElement(f.key, "true");
+        }
+        for (Property violation : pInfo.violatedProperties) {
+          doc.appendDataElement(KeyDef.VIOLATEDPROPERTY, violation.toString());
+        }
+        doc.endElement();
+        pInfo.nodeFlags.clear();
+        pInfo.violatedProperties.clear();
+      }
+    }
+
     private void mergeNodes(final Edge pEdge) {
       final String source = pEdge.source;
       final String target = pEdge.target;
@@ -1028,6 +1442,61 @@ public class ARGPathExporter {
     }
   }
 
+  /** The information about a node that is necessary for writing a witness incrementally. */
+  private static class StreamingNodeInfo {
+
+    /**
+     * the number of nodes merged into this node (including itself)
+     * whose leaving edges were not appended completely yet
+     */
+    private int pendingNodes = 1;
+
+    /** the number of edges in the window that start or end at this node */
+    private int windowReferences = 0;
+
+    /** whether the leaving edges of this node itself were appended completely */
+    private boolean areLeavingEdgesAppended = false;
+
+    private boolean hasAppendedLeavingEdge = false;
+    private boolean hasOnlyEnteringEdge = false;
+    private boolean hasWrittenLeavingEdge = false;
+    private boolean isWritten = false;
+
+    /** whether a written edge starts or ends at this node, it cannot be merged away then */
+    private boolean isReferenced = false;
+
+    private final Set<NodeFlag> nodeFlags = EnumSet.noneOf(NodeFlag.class);
+    private final List<Property> violatedProperties = Lists.newArrayList();
+
+    /** the labels of the written entering edges, as long as no leaving edge was written */
+    private @Nullable List<TransitionCondition> writtenEnteringLabels = null;
+
+    /** the labels of the written leaving edges, as long as further leaving edges may be added */
+    private @Nullable Set<TransitionCondition> writtenLeavingLabels = null;
+
+    /** the node this node was merged into, and the label of the removed edge between them */
+    private @Nullable String mergedInto = null;
+    private @Nullable TransitionCondition mergeLabel = null;
+
+    /**
+     * Check whether this information is still needed:
+     * Edges in the window reference the node,
+     * or further edges from a merged node need to be redirected,
+     * or the node was not written yet and may still be merged or receive further leaving edges.
+     * The information about other nodes is dropped,
+     * even if further edges entering them are appended later.
+     */
+    private boolean isNeeded() {
+      if (windowReferences > 0) {
+        return true;
+      }
+      if (mergedInto != null) {
+        return !areLeavingEdgesAppended;
+      }
+      return !isWritten && (hasOnlyEnteringEdge || hasAppendedLeavingEdge || areLeavingEdgesAppended);
+    }
+  }
+
   private static class DelayedAssignmentsKey {
 
     private final String from;
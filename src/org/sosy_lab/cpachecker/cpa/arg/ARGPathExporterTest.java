@@ -0,0 +1,177 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.Language;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+
+/**
+ * Checks that the streaming witness export produces a well-formed witness
+ * that contains the same paths as the in-memory export,
+ * although it may merge fewer nodes.
+ */
+public class ARGPathExporterTest {
+
+  private static final Map<String, String> ANALYSIS_OPTIONS = ImmutableMap.of(
+      "cpa", "cpa.arg.ARGCPA",
+      "ARGCPA.cpa", "cpa.composite.CompositeCPA",
+      "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+      "specification", "config/specification/default.spc");
+
+  private static final String ENTRY_DATA = KeyDef.ISENTRYNODE.id + "=true";
+
+  @Test
+  public void testStreamingExportOfSafeProgram() throws Exception {
+    checkStreamingExport("test/programs/bmc/loop-bound_true-unreach-label.c");
+  }
+
+  @Test
+  public void testStreamingExportOfUnsafeProgram() throws Exception {
+    checkStreamingExport("test/programs/bmc/loop-bound_false-unreach-label.c");
+  }
+
+  @Test
+  public void testStreamingExportWithFunctionCalls() throws Exception {
+    checkStreamingExport("test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+  }
+
+  private void checkStreamingExport(String pProgram) throws Exception {
+    ARGState root = (ARGState) CPATestRunner.run(ANALYSIS_OPTIONS, pProgram)
+        .getCheckerResult().getReached().getFirstState();
+
+    Document inMemory = parse(exportWitness(root, false, Integer.MAX_VALUE));
+    Document streamed = parse(exportWitness(root, true, Integer.MAX_VALUE));
+    Document streamedWithSmallWindow = parse(exportWitness(root, true, 1));
+
+    checkWellFormed(inMemory);
+    checkWellFormed(streamed);
+    checkWellFormed(streamedWithSmallWindow);
+
+    // the entry node is never merged away
+    assertThat(getEntryNode(streamed)).isEqualTo(getEntryNode(inMemory));
+    assertThat(getEntryNode(streamedWithSmallWindow)).isEqualTo(getEntryNode(inMemory));
+
+    // the streaming export merges nodes only if they have a single entering edge
+    assertThat(countElements(streamed, "node")).isAtLeast(countElements(inMemory, "node"));
+    assertThat(countElements(streamedWithSmallWindow, "node"))
+        .isAtLeast(countElements(inMemory, "node"));
+  }
+
+  private static String exportWitness(ARGState pRoot, boolean pStreaming, int pLookAhead)
+      throws Exception {
+    Configuration config = TestDataTools.configurationForTest()
+        .setOption("cpa.arg.witness.streamingExport", Boolean.toString(pStreaming))
+        .setOption("cpa.arg.witness.streamingLookAhead", Integer.toString(pLookAhead))
+        .build();
+    ARGPathExporter exporter = new ARGPathExporter(
+        config, TestLogManager.getInstance(), MachineModel.LINUX32, Language.C);
+
+    StringBuilder result = new StringBuilder();
+    exporter.writeProofWitness(result, pRoot,
+        Predicates.alwaysTrue(), Predicates.<Pair<ARGState, ARGState>>alwaysTrue());
+    return result.toString();
+  }
+
+  private static Document parse(String pWitness) throws Exception {
+    return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+        .parse(new InputSource(new StringReader(pWitness)));
+  }
+
+  /**
+   * Check that each node is written exactly once,
+   * that each edge references written nodes,
+   * and that there is exactly one entry node.
+   */
+  private static void checkWellFormed(Document pWitness) {
+    Multiset<String> nodeIds = HashMultiset.create();
+    int entryNodes = 0;
+    NodeList nodes = pWitness.getElementsByTagName("node");
+    for (int i = 0; i < nodes.getLength(); i++) {
+      Element node = (Element) nodes.item(i);
+      nodeIds.add(node.getAttribute("id"));
+      if (getData(node).contains(ENTRY_DATA)) {
+        entryNodes++;
+      }
+    }
+    assertThat(nodeIds.entrySet().size()).isEqualTo(nodeIds.size());
+    assertThat(entryNodes).isEqualTo(1);
+
+    NodeList edges = pWitness.getElementsByTagName("edge");
+    for (int i = 0; i < edges.getLength(); i++) {
+      Element edge = (Element) edges.item(i);
+      assertThat(nodeIds).contains(edge.getAttribute("source"));
+      assertThat(nodeIds).contains(edge.getAttribute("target"));
+    }
+  }
+
+  private static int countElements(Document pWitness, String pTagName) {
+    return pWitness.getElementsByTagName(pTagName).getLength();
+  }
+
+  private static String getEntryNode(Document pWitness) {
+    NodeList nodes = pWitness.getElementsByTagName("node");
+    for (int i = 0; i < nodes.getLength(); i++) {
+      Element node = (Element) nodes.item(i);
+      if (getData(node).contains(ENTRY_DATA)) {
+        return node.getAttribute("id");
+      }
+    }
+    return null;
+  }
+
+  private static Set<String> getData(Element pElement) {
+    NodeList data = pElement.getElementsByTagName("data");
+    Set<String> result = Sets.newTreeSet();
+    for (int i = 0; i < data.getLength(); i++) {
+      Element element = (Element) data.item(i);
+      result.add(element.getAttribute("key") + "=" + element.getTextContent());
+    }
+    return result;
+  }
+}
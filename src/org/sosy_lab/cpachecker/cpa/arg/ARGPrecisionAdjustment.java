@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.cpa.arg;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -39,17 +40,21 @@ import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 public class ARGPrecisionAdjustment implements PrecisionAdjustment {
 
   private final PrecisionAdjustment wrappedPrecAdjustment;
   protected final boolean inCPAEnabledAnalysis;
+  private final Object argLock;
 
 
-  public ARGPrecisionAdjustment(PrecisionAdjustment pWrappedPrecAdjustment, boolean pInCPAEnabledAnalysis) {
+  public ARGPrecisionAdjustment(PrecisionAdjustment pWrappedPrecAdjustment, boolean pInCPAEnabledAnalysis,
+      Object pArgLock) {
     wrappedPrecAdjustment = pWrappedPrecAdjustment;
     inCPAEnabledAnalysis = pInCPAEnabledAnalysis;
+    argLock = pArgLock;
   }
 
   @Override
@@ -64,9 +69,7 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
     ARGState element = (ARGState)pElement;
 
     if (inCPAEnabledAnalysis && element.isTarget()) {
-      if (elementHasSiblings(element)) {
-        removeUnreachedSiblingsFromARG(element, pElements);
-      }
+      removeUnreachedSiblingsFromARG(element, pElements);
       // strengthening of PredicateCPA already proved if path is infeasible and removed infeasible element
       // thus path is feasible here
       throw new CPAEnabledAnalysisPropertyViolationException("Property violated during successor computation", element, false);
@@ -86,14 +89,16 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
         );
 
     if (!optionalUnwrappedResult.isPresent()) {
-      element.removeFromARG();
+      synchronized (argLock) {
+        element.removeFromARG();
+      }
       return Optional.absent();
     }
 
     PrecisionAdjustmentResult unwrappedResult = optionalUnwrappedResult.get();
 
     // ensure that ARG and reached set are consistent if BREAK is signaled for a state with multiple children
-    if (unwrappedResult.action() == Action.BREAK && elementHasSiblings(element)) {
+    if (unwrappedResult.action() == Action.BREAK) {
       removeUnreachedSiblingsFromARG(element, pElements);
     }
 
@@ -108,7 +113,9 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
 
     ARGState resultElement = new ARGState(newElement, null);
 
-    element.replaceInARGWith(resultElement); // this completely eliminates element
+    synchronized (argLock) {
+      element.replaceInARGWith(resultElement); // this completely eliminates element
+    }
 
     return Optional.of(PrecisionAdjustmentResult.create(resultElement, newPrecision, action));
   }
@@ -121,20 +128,33 @@ public class ARGPrecisionAdjustment implements PrecisionAdjustment {
    * children would be in the reached set, however, are already in the ARG (as children of their parent). To avoid this
    * inconsistency, all children not yet contained in the reached set are removed from the ARG.
    *
+   * The reached set is queried without holding the ARG lock,
+   * because concurrent reached sets acquire their partition locks in this query,
+   * while the merge and stop operators acquire the ARG lock under a partition lock.
+   *
    * @param element the element for which to remove the siblings
    * @param pReachedSet the current reached set
    */
   private void removeUnreachedSiblingsFromARG(ARGState element, UnmodifiableReachedSet pReachedSet) {
-    Set<ARGState> scheduledForDeletion = new HashSet<>();
+    List<ARGState> siblings;
+    synchronized (argLock) {
+      if (!elementHasSiblings(element)) {
+        return;
+      }
+      siblings = ImmutableList.copyOf(Iterables.getOnlyElement(element.getParents()).getChildren());
+    }
 
-    for (ARGState sibling : Iterables.getOnlyElement(element.getParents()).getChildren()) {
+    Set<ARGState> scheduledForDeletion = new HashSet<>();
+    for (ARGState sibling : siblings) {
       if (sibling != element && !pReachedSet.contains(sibling)) {
         scheduledForDeletion.add(sibling);
       }
     }
 
-    for (ARGState sibling : scheduledForDeletion) {
-      sibling.removeFromARG();
+    synchronized (argLock) {
+      for (ARGState sibling : scheduledForDeletion) {
+        sibling.removeFromARG();
+      }
     }
   }
 
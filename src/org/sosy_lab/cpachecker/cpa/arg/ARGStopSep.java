@@ -52,16 +52,26 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
   private final StopOperator wrappedStop;
   private final LogManager logger;
+  private final Object argLock;
 
-  public ARGStopSep(StopOperator pWrappedStop, LogManager pLogger, Configuration config) throws InvalidConfigurationException {
+  public ARGStopSep(StopOperator pWrappedStop, LogManager pLogger, Configuration config,
+      Object pArgLock) throws InvalidConfigurationException {
     config.inject(this);
     wrappedStop = pWrappedStop;
     logger = pLogger;
+    argLock = pArgLock;
   }
 
   @Override
   public boolean stop(AbstractState pElement,
       Collection<AbstractState> pReached, Precision pPrecision) throws CPAException, InterruptedException {
+    synchronized (argLock) {
+      return stop0(pElement, pReached, pPrecision);
+    }
+  }
+
+  private boolean stop0(AbstractState pElement,
+      Collection<AbstractState> pReached, Precision pPrecision) throws CPAException, InterruptedException {
 
     ARGState argElement = (ARGState)pElement;
     assert !argElement.isCovered() : "Passing element to stop which is already covered: " + argElement;
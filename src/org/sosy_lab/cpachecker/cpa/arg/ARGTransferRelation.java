@@ -46,9 +46,11 @@ import com.google.common.collect.Multimap;
 public class ARGTransferRelation implements TransferRelation {
 
   private final TransferRelation transferRelation;
+  private final Object argLock;
 
-  public ARGTransferRelation(TransferRelation tr) {
+  public ARGTransferRelation(TransferRelation tr, Object pArgLock) {
     transferRelation = tr;
+    argLock = pArgLock;
   }
 
   @Override
@@ -57,12 +59,14 @@ public class ARGTransferRelation implements TransferRelation {
       throws CPATransferException, InterruptedException {
     ARGState element = (ARGState)pElement;
 
-    // covered elements may be in the reached set, but should always be ignored
-    if (element.isCovered()) {
-      return Collections.emptySet();
-    }
+    synchronized (argLock) {
+      // covered elements may be in the reached set, but should always be ignored
+      if (element.isCovered()) {
+        return Collections.emptySet();
+      }
 
-    element.markExpanded();
+      element.markExpanded();
+    }
 
     AbstractState wrappedState = element.getWrappedState();
     Collection<? extends AbstractState> successors = transferRelation.getAbstractSuccessors(wrappedState, pPrecision);
@@ -71,9 +75,11 @@ public class ARGTransferRelation implements TransferRelation {
     }
 
     Collection<ARGState> wrappedSuccessors = new ArrayList<>();
-    for (AbstractState absElement : successors) {
-      ARGState successorElem = new ARGState(absElement, element);
-      wrappedSuccessors.add(successorElem);
+    synchronized (argLock) {
+      for (AbstractState absElement : successors) {
+        ARGState successorElem = new ARGState(absElement, element);
+        wrappedSuccessors.add(successorElem);
+      }
     }
 
     return wrappedSuccessors;
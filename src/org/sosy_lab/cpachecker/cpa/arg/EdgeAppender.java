@@ -23,28 +23,40 @@
  */
 package org.sosy_lab.cpachecker.cpa.arg;
 
+import java.io.IOException;
 import java.util.Map;
 
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.counterexample.CFAEdgeWithAssumptions;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
 
 interface EdgeAppender {
 
-  void appendNewEdge(GraphMlBuilder pDoc, String pFrom, String pTo, CFAEdge pEdge);
+  void appendNewEdge(String pFrom, String pTo, CFAEdge pEdge) throws IOException;
 
-  void appendNewEdge(final GraphMlBuilder pDoc,
-      String pFrom, String pTo,
+  void appendNewEdge(String pFrom, String pTo,
       CFAEdge pEdge,
       ARGState pFromState,
-      Map<ARGState, CFAEdgeWithAssumptions> pValueMap);
+      Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException;
 
-  void appendNewEdgeToSink(GraphMlBuilder pDoc, String pFrom, CFAEdge pEdge);
+  void appendNewEdgeToSink(String pFrom, CFAEdge pEdge) throws IOException;
 
-  void appendNewEdgeToSink(final GraphMlBuilder pDoc,
-      String pFrom,
+  void appendNewEdgeToSink(String pFrom,
       CFAEdge pEdge,
       ARGState pFromState,
-      Map<ARGState, CFAEdgeWithAssumptions> pValueMap);
-
-}
\ No newline at end of file
+      Map<ARGState, CFAEdgeWithAssumptions> pValueMap) throws IOException;
+
+  /**
+   * Signal that the edge entering the given node that was appended last
+   * is the only edge entering this node.
+   */
+  void onlyEnteringEdgeAppended(String pNode) throws IOException;
+
+  /**
+   * Signal that all edges leaving the given node were appended.
+   *
+   * @param pNode the node.
+   * @param pStates the ARG states that are represented by the node.
+   */
+  void leavingEdgesAppended(String pNode, Iterable<ARGState> pStates) throws IOException;
+
+}
@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.arg;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -38,11 +40,12 @@ import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.core.counterexample.CFAEdgeWithAssumptions;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CFAUtils;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
 
 enum GraphBuilder {
 
@@ -66,9 +69,8 @@ enum GraphBuilder {
         Predicate<? super ARGState> pPathStates,
         Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-        GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-        EdgeAppender pEdgeAppender) {
+        EdgeAppender pEdgeAppender) throws IOException {
       int multiEdgeCount = 0;
       for (Pair<ARGState, Iterable<ARGState>> argEdges : pARGEdges) {
         ARGState s = argEdges.getFirst();
@@ -99,7 +101,11 @@ enum GraphBuilder {
 
               assert (!(innerEdge instanceof AssumeEdge));
 
-              pEdgeAppender.appendNewEdge(pDocument, prevStateId, pseudoStateId, innerEdge, null, pValueMap);
+              pEdgeAppender.appendNewEdge(prevStateId, pseudoStateId, innerEdge, null, pValueMap);
+              pEdgeAppender.onlyEnteringEdgeAppended(pseudoStateId);
+              if (i > 0) {
+                pEdgeAppender.leavingEdgesAppended(prevStateId, Collections.<ARGState>emptySet());
+              }
               prevStateId = pseudoStateId;
             }
 
@@ -110,12 +116,19 @@ enum GraphBuilder {
           // Only proceed with this state if the path states contain the child
           if (pPathStates.apply(child) && pIsRelevantEdge.apply(Pair.of(s, child))) {
             // Child belongs to the path!
-            pEdgeAppender.appendNewEdge(pDocument, prevStateId, childStateId, edgeToNextState, s, pValueMap);
+            pEdgeAppender.appendNewEdge(prevStateId, childStateId, edgeToNextState, s, pValueMap);
+            if (child.getParents().size() == 1) {
+              pEdgeAppender.onlyEnteringEdgeAppended(childStateId);
+            }
           } else {
             // Child does not belong to the path --> add a branch to the SINK node!
-            pEdgeAppender.appendNewEdgeToSink(pDocument, prevStateId, edgeToNextState, s, pValueMap);
+            pEdgeAppender.appendNewEdgeToSink(prevStateId, edgeToNextState, s, pValueMap);
+          }
+          if (!prevStateId.equals(sourceStateNodeId)) {
+            pEdgeAppender.leavingEdgesAppended(prevStateId, Collections.<ARGState>emptySet());
           }
         }
+        pEdgeAppender.leavingEdgesAppended(sourceStateNodeId, Collections.singleton(s));
       }
     }
   },
@@ -132,17 +145,18 @@ enum GraphBuilder {
         final Predicate<? super ARGState> pPathStates,
         final Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-        GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-        EdgeAppender pEdgeAppender) {
+        EdgeAppender pEdgeAppender) throws IOException {
 
       // normally there is only one node per state, thus we assume that there is only one root-node
       final CFANode rootNode = Iterables.getOnlyElement(AbstractStates.extractLocations(pRootState));
 
       // Get all successor nodes of edges
       final Set<CFANode> subProgramNodes = new HashSet<>();
+      final Multimap<String, ARGState> statesOfNodes = ArrayListMultimap.create();
       subProgramNodes.add(rootNode);
       for (final Pair<ARGState, Iterable<ARGState>> edge : pARGEdges) {
+        statesOfNodes.put(getId(edge.getFirst()), edge.getFirst());
         for (ARGState target : edge.getSecond()) {
           // where the successor ARG node is in the set of target path states AND the edge is relevant
           if (pPathStates.apply(target) && pIsRelevantEdge.apply(Pair.of(edge.getFirst(), target))) {
@@ -160,27 +174,42 @@ enum GraphBuilder {
         for (CFAEdge leavingEdge : CFAUtils.leavingEdges(current)) {
           CFANode successor = leavingEdge.getSuccessor();
           if (subProgramNodes.contains(successor)) {
-            appendEdge(pDocument, pEdgeAppender, leavingEdge);
+            appendEdge(pEdgeAppender, leavingEdge);
             if (visited.add(successor)) {
               waitlist.offer(successor);
             }
           } else {
             String sourceId = current.toString();
-            pEdgeAppender.appendNewEdgeToSink(pDocument, sourceId, leavingEdge);
+            pEdgeAppender.appendNewEdgeToSink(sourceId, leavingEdge);
           }
         }
+        String currentId = current.toString();
+        pEdgeAppender.leavingEdgesAppended(currentId, statesOfNodes.get(currentId));
       }
     }
 
-    private void appendEdge(GraphMlBuilder pDocument, EdgeAppender pEdgeAppender, CFAEdge pEdge) {
+    private void appendEdge(EdgeAppender pEdgeAppender, CFAEdge pEdge) throws IOException {
       if (pEdge instanceof MultiEdge) {
-        for (CFAEdge edge : (MultiEdge) pEdge) {
-          appendEdge(pDocument, pEdgeAppender, edge);
+        // The inner nodes of a MultiEdge have exactly one entering and one leaving edge
+        List<CFAEdge> edges = ((MultiEdge) pEdge).getEdges();
+        for (int i = 0; i < edges.size(); i++) {
+          CFAEdge edge = edges.get(i);
+          appendEdge(pEdgeAppender, edge);
+          if (i < edges.size() - 1) {
+            pEdgeAppender.onlyEnteringEdgeAppended(edge.getSuccessor().toString());
+          }
+          if (i > 0) {
+            pEdgeAppender.leavingEdgesAppended(edge.getPredecessor().toString(),
+                Collections.<ARGState>emptySet());
+          }
         }
       } else {
         String sourceId = pEdge.getPredecessor().toString();
         String targetId = pEdge.getSuccessor().toString();
-        pEdgeAppender.appendNewEdge(pDocument, sourceId, targetId, pEdge);
+        pEdgeAppender.appendNewEdge(sourceId, targetId, pEdge);
+        if (CFAUtils.enteringEdges(pEdge.getSuccessor()).size() == 1) {
+          pEdgeAppender.onlyEnteringEdgeAppended(targetId);
+        }
       }
     }
 
@@ -192,8 +221,7 @@ enum GraphBuilder {
       Predicate<? super ARGState> pPathStates,
       Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
       Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-      GraphMlBuilder pDocument,
       Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
-      EdgeAppender pEdgeAppender);
+      EdgeAppender pEdgeAppender) throws IOException;
 
 }
\ No newline at end of file
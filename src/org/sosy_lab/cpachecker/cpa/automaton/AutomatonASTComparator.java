@@ -33,6 +33,8 @@ import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.cpachecker.cfa.CParser;
@@ -203,6 +205,43 @@ class AutomatonASTComparator {
   }
 
 
+  /**
+   * Returns the most specific class of AST nodes that the given pattern can match
+   * at its root (CAstNode if nothing more specific is known).
+   * This can be used to rule out a pattern without running its matcher.
+   */
+  static Class<? extends CAstNode> getMatchedASTClass(ASTMatcher pMatcher) {
+    if (pMatcher instanceof CheckedExpressionMatcher) {
+      return ((CheckedExpressionMatcher<?>)pMatcher).cls;
+    } else if (pMatcher instanceof AssignmentMatcher) {
+      return CAssignment.class;
+    }
+    return CAstNode.class;
+  }
+
+  /**
+   * Returns the name of a function if the given pattern matches only calls
+   * of a function with this name (like "foo($?);" or "$1 = foo($2);"),
+   * and null otherwise.
+   */
+  static @Nullable String getCalledFunctionName(ASTMatcher pMatcher) {
+    ASTMatcher call = pMatcher;
+    if (call instanceof AssignmentMatcher) {
+      call = ((AssignmentMatcher)call).rightHandSide;
+    } else if (call instanceof OneOperandExpressionMatcher
+        && ((CheckedExpressionMatcher<?>)call).cls.equals(CFunctionCallStatement.class)) {
+      call = ((OneOperandExpressionMatcher<?, ?>)call).operand;
+    }
+
+    if (call instanceof FunctionCallWildcardExpressionMatcher) {
+      ASTMatcher functionName = ((OneOperandExpressionMatcher<?, ?>)call).operand;
+      if (functionName instanceof CIdExpressionMatcher) {
+        return (String)((ExpressionWithFieldMatcher<?, ?>)functionName).field;
+      }
+    }
+    return null;
+  }
+
   /**
    * The interface for a pre-compiled AST pattern.
    */
@@ -371,47 +410,7 @@ class AutomatonASTComparator {
       final ASTMatcher leftHandSide = stmt.getLeftHandSide().accept(this);
       final ASTMatcher rightHandSide = stmt.getRightHandSide().accept(this);
 
-      if (rightHandSide == JokerMatcher.INSTANCE) {
-        // we don't care about right-hand side, it may be an expression or an assignment
-
-        return new ASTMatcher() {
-          @Override
-          public boolean matches(CAstNode pSource, AutomatonExpressionArguments pArgs) {
-            if (pSource instanceof CAssignment) {
-              CAssignment source = (CAssignment)pSource;
-
-              return leftHandSide.matches(source.getLeftHandSide(), pArgs);
-            } else {
-              return false;
-            }
-          }
-
-          @Override
-          public String toString() {
-            return stmt.toASTString();
-          }
-        };
-
-      } else {
-        return new ASTMatcher() {
-          @Override
-          public boolean matches(CAstNode pSource, AutomatonExpressionArguments pArgs) {
-            if (pSource instanceof CAssignment) {
-              CAssignment source = (CAssignment)pSource;
-
-              return leftHandSide.matches(source.getLeftHandSide(), pArgs)
-                  && rightHandSide.matches(source.getRightHandSide(), pArgs);
-            } else {
-              return false;
-            }
-          }
-
-          @Override
-          public String toString() {
-            return stmt.toASTString();
-          }
-        };
-      }
+      return new AssignmentMatcher(stmt, leftHandSide, rightHandSide);
     }
 
     @Override
@@ -572,6 +571,39 @@ class AutomatonASTComparator {
 
   // several concrete implementations of ASTMatcher
 
+  private static class AssignmentMatcher implements ASTMatcher {
+
+    private final String rawSignature;
+    private final ASTMatcher leftHandSide;
+    private final ASTMatcher rightHandSide;
+
+    private AssignmentMatcher(CAssignment pPattern, ASTMatcher pLeftHandSide, ASTMatcher pRightHandSide) {
+      rawSignature = pPattern.toASTString();
+      leftHandSide = pLeftHandSide;
+      rightHandSide = pRightHandSide;
+    }
+
+    @Override
+    public boolean matches(CAstNode pSource, AutomatonExpressionArguments pArgs) {
+      if (pSource instanceof CAssignment) {
+        CAssignment source = (CAssignment)pSource;
+
+        // if the right-hand side is a joker, we don't care about it,
+        // it may be an expression or a function call
+        return leftHandSide.matches(source.getLeftHandSide(), pArgs)
+            && (rightHandSide == JokerMatcher.INSTANCE
+                || rightHandSide.matches(source.getRightHandSide(), pArgs));
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return rawSignature;
+    }
+  }
+
   private static enum JokerMatcher implements ASTMatcher {
     INSTANCE;
 
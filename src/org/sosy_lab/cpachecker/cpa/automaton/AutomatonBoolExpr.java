@@ -197,6 +197,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
     public String toString() {
       return "MATCH {" + patternAST + "}";
     }
+
+    ASTMatcher getPatternAST() {
+      return patternAST;
+    }
   }
 
 
@@ -48,6 +48,10 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -94,6 +98,9 @@ import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -129,6 +136,11 @@ public class AutomatonGraphmlParser {
   @Option(secure=true, description="Do not try to \"catch up\" with witness guards: If they do not match, go to the sink.")
   private boolean strictMatching = false;
 
+  @Option(secure=true, description="Read the witness with a streaming (StAX) parser"
+      + " instead of building a DOM of the whole document."
+      + " This needs considerably less memory for large witnesses.")
+  private boolean streamingParser = false;
+
   @Option(secure=true, description="File for exporting the path automaton in DOT format.")
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path automatonDumpFile = null;
@@ -162,53 +174,44 @@ public class AutomatonGraphmlParser {
   public List<Automaton> parseAutomatonFile(ByteSource pInputFile) throws InvalidConfigurationException {
     CParser cparser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machine);
     try (InputStream input = pInputFile.openStream()) {
-      // Parse the XML document ----
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(input);
-      doc.getDocumentElement().normalize();
-
-      GraphMlDocumentData docDat = new GraphMlDocumentData(doc);
+      // Read the XML document ----
+      final WitnessGraph graph;
+      if (streamingParser) {
+        graph = WitnessGraph.readStream(input);
+      } else {
+        graph = WitnessGraph.readDocument(input);
+      }
 
       // (The one) root node of the graph ----
-      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
-      Preconditions.checkArgument(graphs.getLength() == 1, "The graph file must describe exactly one automaton.");
-      Node graphNode = graphs.item(0);
+      Preconditions.checkArgument(graph.graphCount == 1, "The graph file must describe exactly one automaton.");
 
       // Extract the information on the automaton ----
-      Node nameAttribute = graphNode.getAttributes().getNamedItem("name");
       String automatonName = WITNESS_AUTOMATON_NAME;
-      if (nameAttribute != null) {
-        automatonName += "_" + nameAttribute.getTextContent();
+      if (graph.name != null) {
+        automatonName += "_" + graph.name;
       }
       String initialStateName = null;
 
       // Create transitions ----
       //AutomatonBoolExpr epsilonTrigger = new SubsetMatchEdgeTokens(Collections.<Comparable<Integer>>emptySet());
-      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
       Map<String, LinkedList<AutomatonTransition>> stateTransitions = Maps.newHashMap();
       Map<String, Deque<String>> stacks = Maps.newHashMap();
 
       // Create graph
-      Multimap<String, Node> leavingEdges = HashMultimap.create();
-      Multimap<String, Node> enteringEdges = HashMultimap.create();
+      Multimap<String, WitnessEdge> leavingEdges = HashMultimap.create();
+      Multimap<String, WitnessEdge> enteringEdges = HashMultimap.create();
       String entryNodeId = null;
 
       Set<String> violationStates = Sets.newHashSet();
 
-      for (int i = 0; i < edges.getLength(); i++) {
-        Node stateTransitionEdge = edges.item(i);
-
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+      for (WitnessEdge stateTransitionEdge : graph.edges) {
+        String sourceStateId = stateTransitionEdge.source;
+        String targetStateId = stateTransitionEdge.target;
         leavingEdges.put(sourceStateId, stateTransitionEdge);
         enteringEdges.put(targetStateId, stateTransitionEdge);
 
-        Element sourceStateNode = docDat.getNodeWithId(sourceStateId);
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceStateNode);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        EnumSet<NodeFlag> sourceNodeFlags = graph.getNodeFlags(sourceStateId);
+        EnumSet<NodeFlag> targetNodeFlags = graph.getNodeFlags(targetStateId);
         if (targetNodeFlags.contains(NodeFlag.ISVIOLATION)) {
           violationStates.add(targetStateId);
         }
@@ -218,10 +221,9 @@ public class AutomatonGraphmlParser {
       }
 
       // Find entry
-      for (int i = 0; i < nodes.getLength(); ++i) {
-        Node node = nodes.item(i);
-        if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node, KeyDef.ISENTRYNODE, "false"))) {
-          entryNodeId = GraphMlDocumentData.getAttributeValue(node, "id", "Every node needs an id!");
+      for (String nodeId : graph.nodeFlags.keySet()) {
+        if (Boolean.parseBoolean(graph.getDataValueWithDefault(nodeId, KeyDef.ISENTRYNODE, "false"))) {
+          entryNodeId = nodeId;
           break;
         }
       }
@@ -237,8 +239,8 @@ public class AutomatonGraphmlParser {
       while (!waitlist.isEmpty()) {
         String current = waitlist.poll();
         int newDistance = distances.get(current) + 1;
-        for (Node enteringEdge : enteringEdges.get(current)) {
-          String sourceStateId = GraphMlDocumentData.getAttributeValue(enteringEdge, "source", "Every transition needs a source!");
+        for (WitnessEdge enteringEdge : enteringEdges.get(current)) {
+          String sourceStateId = enteringEdge.source;
           Integer oldDistance = distances.get(sourceStateId);
           if (oldDistance == null || oldDistance > newDistance) {
             distances.put(sourceStateId, newDistance);
@@ -249,24 +251,23 @@ public class AutomatonGraphmlParser {
       // Sink nodes have infinite distance to the target location, encoded as -1
       distances.put(AutomatonGraphmlCommon.SINK_NODE_ID, -1);
 
-      Set<Node> visitedEdges = new HashSet<>();
-      Queue<Node> waitingEdges = new ArrayDeque<>();
+      Set<WitnessEdge> visitedEdges = new HashSet<>();
+      Queue<WitnessEdge> waitingEdges = new ArrayDeque<>();
       waitingEdges.addAll(leavingEdges.get(entryNodeId));
       visitedEdges.addAll(waitingEdges);
       while (!waitingEdges.isEmpty()) {
-        Node stateTransitionEdge = waitingEdges.poll();
+        WitnessEdge stateTransitionEdge = waitingEdges.poll();
 
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+        String sourceStateId = stateTransitionEdge.source;
+        String targetStateId = stateTransitionEdge.target;
 
-        for (Node successorEdge : leavingEdges.get(targetStateId)) {
+        for (WitnessEdge successorEdge : leavingEdges.get(targetStateId)) {
           if (visitedEdges.add(successorEdge)) {
             waitingEdges.add(successorEdge);
           }
         }
 
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        EnumSet<NodeFlag> targetNodeFlags = graph.getNodeFlags(targetStateId);
 
         final List<AutomatonBoolExpr> assertions = Collections.emptyList();
         boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
@@ -299,9 +300,9 @@ public class AutomatonGraphmlParser {
           stacks.put(sourceStateId, currentStack);
         }
         Deque<String> newStack = currentStack;
-        Set<String> functionEntries = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.FUNCTIONENTRY);
+        Set<String> functionEntries = stateTransitionEdge.getData(KeyDef.FUNCTIONENTRY);
         String functionEntry = Iterables.getOnlyElement(functionEntries, null);
-        Set<String> functionExits = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.FUNCTIONEXIT);
+        Set<String> functionExits = stateTransitionEdge.getData(KeyDef.FUNCTIONEXIT);
         String functionExit = Iterables.getOnlyElement(functionEntries, null);
 
         // If the same function is entered and exited, the stack remains unchanged.
@@ -338,8 +339,8 @@ public class AutomatonGraphmlParser {
 
         // Add assumptions to the transition
         if (considerAssumptions) {
-          Set<String> transAssumes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTION);
-          Set<String> assumptionScopes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTIONSCOPE);
+          Set<String> transAssumes = stateTransitionEdge.getData(KeyDef.ASSUMPTION);
+          Set<String> assumptionScopes = stateTransitionEdge.getData(KeyDef.ASSUMPTIONSCOPE);
           Preconditions.checkArgument(assumptionScopes.size() < 2, "At most one assumption scope must be provided for an edge.");
           if (!transAssumes.isEmpty()) {
             Scope scope = this.scope;
@@ -364,10 +365,10 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchOriginLine) {
-          Set<String> originFileTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINFILE);
+          Set<String> originFileTags = stateTransitionEdge.getData(KeyDef.ORIGINFILE);
           Preconditions.checkArgument(originFileTags.size() < 2, "At most one origin-file data tag must be provided for an edge.");
 
-          Set<String> originLineTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINLINE);
+          Set<String> originLineTags = stateTransitionEdge.getData(KeyDef.ORIGINLINE);
           Preconditions.checkArgument(originLineTags.size() <  2, "At most one origin-line data tag must be provided for each edge.");
 
           int matchOriginLineNumber = -1;
@@ -385,10 +386,10 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchOffset) {
-          Set<String> originFileTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINFILE);
+          Set<String> originFileTags = stateTransitionEdge.getData(KeyDef.ORIGINFILE);
           Preconditions.checkArgument(originFileTags.size() < 2, "At most one origin-file data tag must be provided for an edge.");
 
-          Set<String> offsetTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.OFFSET);
+          Set<String> offsetTags = stateTransitionEdge.getData(KeyDef.OFFSET);
           Preconditions.checkArgument(offsetTags.size() <  2, "At most one offset data tag must be provided for each edge.");
 
           int offset = -1;
@@ -407,7 +408,7 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchSourcecodeData) {
-          Set<String> sourceCodeDataTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.SOURCECODE);
+          Set<String> sourceCodeDataTags = stateTransitionEdge.getData(KeyDef.SOURCECODE);
           Preconditions.checkArgument(sourceCodeDataTags.size() < 2, "At most one source-code data tag must be provided.");
           final String sourceCode;
           if (sourceCodeDataTags.isEmpty()) {
@@ -442,7 +443,7 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchAssumeCase) {
-          Set<String> assumeCaseTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.CONTROLCASE);
+          Set<String> assumeCaseTags = stateTransitionEdge.getData(KeyDef.CONTROLCASE);
 
           if (assumeCaseTags.size() > 0) {
             Preconditions.checkArgument(assumeCaseTags.size() <  2, "At most one assume case tag must be provided for each edge.");
@@ -477,8 +478,7 @@ public class AutomatonGraphmlParser {
         // Multiple CFA edges in a sequence might match the triggers,
         // so in that case we ALSO need a transition back to the source state
         if (strictMatching || !assumptions.isEmpty() || !actions.isEmpty() || leadsToViolationNode) {
-          Element sourceNode = docDat.getNodeWithId(sourceStateId);
-          Set<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceNode);
+          Set<NodeFlag> sourceNodeFlags = graph.getNodeFlags(sourceStateId);
           boolean sourceIsViolationNode = sourceNodeFlags.contains(NodeFlag.ISVIOLATION);
           matchingTransitions.add(createAutomatonTransition(
               and(conjunctedTriggers,
@@ -495,9 +495,8 @@ public class AutomatonGraphmlParser {
 
       // Create states ----
       List<AutomatonInternalState> automatonStates = Lists.newArrayList();
-      for (String stateId : docDat.getIdToNodeMap().keySet()) {
-        Element stateNode = docDat.getIdToNodeMap().get(stateId);
-        EnumSet<NodeFlag> nodeFlags = docDat.getNodeFlags(stateNode);
+      for (String stateId : graph.nodeFlags.keySet()) {
+        EnumSet<NodeFlag> nodeFlags = graph.getNodeFlags(stateId);
 
         List<AutomatonTransition> transitions = stateTransitions.get(stateId);
         if (transitions == null) {
@@ -557,7 +556,7 @@ public class AutomatonGraphmlParser {
 
       return result;
 
-    } catch (IOException | ParserConfigurationException | SAXException e) {
+    } catch (IOException | ParserConfigurationException | SAXException | XMLStreamException e) {
       throw new InvalidConfigurationException("Error while accessing automaton file!", e);
     } catch (InvalidAutomatonException e) {
       throw new InvalidConfigurationException("The automaton provided is invalid!", e);
@@ -777,137 +776,251 @@ public class AutomatonGraphmlParser {
     return pAssumeCode;
   }
 
-  private static class GraphMlDocumentData {
+  /**
+   * The parts of a witness graph that are needed to build the automaton:
+   * the flags of every node, the default values of the keys,
+   * and the source, target and data of every edge.
+   * All strings that are stored are interned, because node ids,
+   * function names and source-code snippets repeat heavily in large witnesses.
+   */
+  private static class WitnessGraph {
 
-    private final HashMap<String, Optional<String>> defaultDataValues = Maps.newHashMap();
-    private final Document doc;
+    private final Interner<String> strings = Interners.newStrongInterner();
+    private final Map<String, Optional<String>> defaultDataValues = Maps.newHashMap();
+    private final Map<String, EnumSet<NodeFlag>> nodeFlags = Maps.newLinkedHashMap();
+    private final Map<String, String> entryNodeData = Maps.newHashMap();
+    private final List<WitnessEdge> edges = Lists.newArrayList();
 
-    private Map<String, Element> idToNodeMap = null;
+    private int graphCount = 0;
+    private String name = null;
 
-    public GraphMlDocumentData(Document doc) {
-      this.doc = doc;
+    private String intern(String pString) {
+      return strings.intern(pString);
     }
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+    private void addGraph(String pName) {
+      graphCount++;
+      if (graphCount == 1) {
+        name = pName;
+      }
+    }
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMlTag.DATA.toString());
+    private void addKey(String pKeyId, Optional<String> pDefaultValue) {
+      if (!defaultDataValues.containsKey(pKeyId)) {
+        defaultDataValues.put(pKeyId, pDefaultValue);
+      }
+    }
 
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
+    private void addNode(String pNodeId, ImmutableSetMultimap<String, String> pData) {
+      EnumSet<NodeFlag> flags = EnumSet.noneOf(NodeFlag.class);
+      for (String key : pData.keySet()) {
         NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
         if (flag != null) {
-          result.add(flag);
+          flags.add(flag);
         }
       }
+      nodeFlags.put(pNodeId, flags);
 
+      Set<String> entryValues = pData.get(KeyDef.ISENTRYNODE.id);
+      if (!entryValues.isEmpty()) {
+        entryNodeData.put(pNodeId, entryValues.iterator().next());
+      }
+    }
+
+    private void addEdge(String pSource, String pTarget, ImmutableSetMultimap<String, String> pData) {
+      edges.add(new WitnessEdge(pSource, pTarget, pData));
+    }
+
+    private EnumSet<NodeFlag> getNodeFlags(String pNodeId) {
+      EnumSet<NodeFlag> result = nodeFlags.get(pNodeId);
+      Preconditions.checkNotNull(result, "Node not found. Id: " + pNodeId);
       return result;
     }
 
-    public Map<String, Element> getIdToNodeMap() {
-      if (idToNodeMap != null) {
-        return idToNodeMap;
+    private String getDataValueWithDefault(String pNodeId, KeyDef pDataKey, final String pDefaultValue) {
+      // Only the entry-node data is kept for nodes, all other node data is reflected in the flags
+      Preconditions.checkArgument(pDataKey == KeyDef.ISENTRYNODE);
+      String value = entryNodeData.get(pNodeId);
+      if (value != null) {
+        return value;
+      }
+      Optional<String> dataDefault = defaultDataValues.get(pDataKey.id);
+      if (dataDefault != null && dataDefault.isPresent()) {
+        return dataDefault.get();
       }
+      return pDefaultValue;
+    }
 
-      idToNodeMap = Maps.newHashMap();
+    /**
+     * Reads the witness into a DOM first and extracts the graph from it.
+     */
+    private static WitnessGraph readDocument(InputStream pInput)
+        throws IOException, ParserConfigurationException, SAXException {
+      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+      Document doc = docBuilder.parse(pInput);
+      doc.getDocumentElement().normalize();
+
+      WitnessGraph result = new WitnessGraph();
+
+      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
+      for (int i = 0; i < keyDefs.getLength(); i++) {
+        Element keyDef = (Element) keyDefs.item(i);
+        NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
+        Optional<String> defaultValue = Optional.absent();
+        if (defaultTags.getLength() > 0) {
+          Preconditions.checkArgument(defaultTags.getLength() == 1);
+          defaultValue = Optional.of(defaultTags.item(0).getTextContent());
+        }
+        result.addKey(getAttributeValue(keyDef, "id", "Every key needs an id!"), defaultValue);
+      }
+
+      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
+      for (int i = 0; i < graphs.getLength(); i++) {
+        Node nameAttribute = graphs.item(i).getAttributes().getNamedItem("name");
+        result.addGraph(nameAttribute == null ? null : nameAttribute.getTextContent());
+      }
 
       NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
-      for (int i=0; i<nodes.getLength(); i++) {
+      for (int i = 0; i < nodes.getLength(); i++) {
         Element stateNode = (Element) nodes.item(i);
-        String stateId = getNodeId(stateNode);
-
-        idToNodeMap.put(stateId, stateNode);
+        String stateId = result.intern(getAttributeValue(stateNode, "id", "Every state needs an ID!"));
+        result.addNode(stateId, result.getData(stateNode));
       }
 
-      return idToNodeMap;
-    }
+      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
+      for (int i = 0; i < edges.getLength(); i++) {
+        Element edge = (Element) edges.item(i);
+        String source = result.intern(getAttributeValue(edge, "source", "Every transition needs a source!"));
+        String target = result.intern(getAttributeValue(edge, "target", "Every transition needs a target!"));
+        result.addEdge(source, target, result.getData(edge));
+      }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
-      Preconditions.checkNotNull(attribute, exceptionMessage);
-      return attribute.getTextContent();
+      return result;
     }
 
-    private Optional<String> getDataDefault(KeyDef dataKey) {
-      Optional<String> result = defaultDataValues.get(dataKey.id);
-      if (result != null) {
-        return result;
-      }
+    /**
+     * Reads the graph directly from a stream of XML events,
+     * without materializing the document.
+     * Only the data of the node or edge that is currently read is kept
+     * in addition to the compact graph.
+     */
+    private static WitnessGraph readStream(InputStream pInput) throws XMLStreamException {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+      WitnessGraph result = new WitnessGraph();
+      XMLStreamReader reader = factory.createXMLStreamReader(pInput);
+      try {
+        String currentKey = null;
+        Optional<String> currentKeyDefault = null;
+        String currentNode = null;
+        String currentSource = null;
+        String currentTarget = null;
+        ImmutableSetMultimap.Builder<String, String> currentData = null;
+
+        while (reader.hasNext()) {
+          int event = reader.next();
+
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            String tag = reader.getLocalName();
+            if (tag.equals(GraphMlTag.KEY.text)) {
+              currentKey = getAttributeValue(reader, "id", "Every key needs an id!");
+              currentKeyDefault = Optional.absent();
+
+            } else if (tag.equals(GraphMlTag.DEFAULT.text) && currentKey != null) {
+              Preconditions.checkArgument(!currentKeyDefault.isPresent());
+              currentKeyDefault = Optional.of(reader.getElementText());
+
+            } else if (tag.equals(GraphMlTag.GRAPH.text)) {
+              result.addGraph(reader.getAttributeValue(null, "name"));
+
+            } else if (tag.equals(GraphMlTag.NODE.text)) {
+              currentNode = result.intern(getAttributeValue(reader, "id", "Every state needs an ID!"));
+              currentData = ImmutableSetMultimap.builder();
+
+            } else if (tag.equals(GraphMlTag.EDGE.text)) {
+              currentSource = result.intern(getAttributeValue(reader, "source", "Every transition needs a source!"));
+              currentTarget = result.intern(getAttributeValue(reader, "target", "Every transition needs a target!"));
+              currentData = ImmutableSetMultimap.builder();
+
+            } else if (tag.equals(GraphMlTag.DATA.text) && currentData != null) {
+              String key = getAttributeValue(reader, "key", "Every data element must have a key attribute!");
+              currentData.put(result.intern(key), result.intern(reader.getElementText()));
+            }
 
-      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
-      for (int i=0; i<keyDefs.getLength(); i++) {
-        Element keyDef = (Element) keyDefs.item(i);
-        Node id = keyDef.getAttributes().getNamedItem("id");
-        if (dataKey.id.equals(id.getTextContent())) {
-          NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
-          result = Optional.absent();
-          if (defaultTags.getLength() > 0) {
-            Preconditions.checkArgument(defaultTags.getLength() == 1);
-            result = Optional.of(defaultTags.item(0).getTextContent());
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            String tag = reader.getLocalName();
+            if (tag.equals(GraphMlTag.KEY.text)) {
+              // like in readDocument, the first definition of a key wins
+              result.addKey(currentKey, currentKeyDefault);
+              currentKey = null;
+              currentKeyDefault = null;
+
+            } else if (tag.equals(GraphMlTag.NODE.text) && currentNode != null) {
+              result.addNode(currentNode, currentData.build());
+              currentNode = null;
+              currentData = null;
+
+            } else if (tag.equals(GraphMlTag.EDGE.text) && currentSource != null) {
+              result.addEdge(currentSource, currentTarget, currentData.build());
+              currentSource = null;
+              currentTarget = null;
+              currentData = null;
+            }
           }
-          defaultDataValues.put(dataKey.id, result);
-          return result;
         }
+      } finally {
+        reader.close();
       }
-      return Optional.absent();
+      return result;
     }
 
-    private static String getNodeId(Node stateNode) {
-      return getAttributeValue(stateNode, "id", "Every state needs an ID!");
+    private ImmutableSetMultimap<String, String> getData(Element pElement) {
+      ImmutableSetMultimap.Builder<String, String> result = ImmutableSetMultimap.builder();
+      NodeList dataChilds = pElement.getElementsByTagName(GraphMlTag.DATA.toString());
+      for (int i = 0; i < dataChilds.getLength(); i++) {
+        Node dataChild = dataChilds.item(i);
+        String key = getAttributeValue(dataChild, "key", "Every data element must have a key attribute!");
+        result.put(intern(key), intern(dataChild.getTextContent()));
+      }
+      return result.build();
     }
 
-    private Element getNodeWithId(String nodeId) {
-      Element result = getIdToNodeMap().get(nodeId);
-      Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
-      return result;
+    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
+      Node attribute = of.getAttributes().getNamedItem(attributeName);
+      Preconditions.checkNotNull(attribute, exceptionMessage);
+      return attribute.getTextContent();
     }
 
-    private String getDataValueWithDefault(Node dataOnNode, KeyDef dataKey, final String defaultValue) {
-      Set<String> values = getDataOnNode(dataOnNode, dataKey);
-      if (values.size() == 0) {
-        Optional<String> dataDefault = getDataDefault(dataKey);
-        if (dataDefault.isPresent()) {
-          return dataDefault.get();
-        } else {
-          return defaultValue;
-        }
-      } else {
-        return values.iterator().next();
-      }
+    private static String getAttributeValue(XMLStreamReader of, String attributeName, String exceptionMessage) {
+      String attribute = of.getAttributeValue(null, attributeName);
+      Preconditions.checkNotNull(attribute, exceptionMessage);
+      return attribute;
     }
+  }
 
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
-      Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
+  private static class WitnessEdge {
 
-      Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
-      }
+    private final String source;
+    private final String target;
+    private final ImmutableSetMultimap<String, String> data;
 
-      return result;
+    private WitnessEdge(String pSource, String pTarget, ImmutableSetMultimap<String, String> pData) {
+      source = pSource;
+      target = pTarget;
+      data = pData;
     }
 
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      NodeList dataChilds = of.getElementsByTagName(GraphMlTag.DATA.toString());
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        if (attribute.getTextContent().equals(dataKey.id)) {
-          result.add(dataChild);
-        }
-      }
-      return result;
+    private Set<String> getData(KeyDef pDataKey) {
+      return data.get(pDataKey.id);
     }
 
+    @Override
+    public String toString() {
+      return source + " -> " + target;
+    }
   }
 
   public static boolean isGraphmlAutomaton(Path pPath, LogManager pLogger) throws InvalidConfigurationException {
@@ -0,0 +1,116 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * Checks that the streaming and the DOM-based reader of witnesses
+ * produce the same automata.
+ */
+public class AutomatonGraphmlParserTest {
+
+  private static final String WITNESS_DIRECTORY = "test/witnesses";
+
+  @Test
+  public void testReadersProduceSameAutomata() throws Exception {
+    File[] witnesses = new File(WITNESS_DIRECTORY).listFiles(new FilenameFilter() {
+
+      @Override
+      public boolean accept(File pDir, String pName) {
+        return pName.endsWith(".graphml");
+      }
+    });
+    assertThat(witnesses.length).isGreaterThan(0);
+
+    for (File witness : witnesses) {
+      Path path = Paths.get(witness.getPath());
+      assertThat(describe(parse(path, true))).named(witness.getName())
+          .isEqualTo(describe(parse(path, false)));
+    }
+  }
+
+  @Test
+  public void testRepeatedKeyDefinition() throws Exception {
+    Path witness = Paths.get(WITNESS_DIRECTORY + "/repeated-key-definition.graphml");
+
+    // the default of the second definition of the entry key would make B1 the entry node
+    assertThat(Iterables.getOnlyElement(parse(witness, false)).getInitialState().getName())
+        .isEqualTo("B0");
+    assertThat(Iterables.getOnlyElement(parse(witness, true)).getInitialState().getName())
+        .isEqualTo("B0");
+  }
+
+  private static List<Automaton> parse(Path pWitness, boolean pStreaming) throws Exception {
+    Configuration config = TestDataTools.configurationForTest()
+        .setOption("spec.streamingParser", Boolean.toString(pStreaming))
+        .build();
+    AutomatonGraphmlParser parser = new AutomatonGraphmlParser(
+        config, TestLogManager.getInstance(), MachineModel.LINUX32, CProgramScope.empty());
+    return parser.parseAutomatonFile(pWitness);
+  }
+
+  /**
+   * Describe the automata independently of the ids of their states.
+   */
+  private static List<String> describe(List<Automaton> pAutomata) {
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (Automaton automaton : pAutomata) {
+      result.add(automaton.getName()
+          + " init " + automaton.getInitialState().getName()
+          + " vars " + automaton.getInitialVariables().keySet());
+
+      List<String> states = Lists.newArrayList();
+      for (AutomatonInternalState state : automaton.getStates()) {
+        List<String> transitions = Lists.newArrayList();
+        for (AutomatonTransition transition : state.getTransitions()) {
+          transitions.add(transition + " => " + transition.getFollowState().getName());
+        }
+        states.add(state.getName() + " " + state.getDoesMatchAll() + " " + transitions);
+      }
+      // the order of the states is not relevant
+      Collections.sort(states);
+      result.addAll(states);
+    }
+    return result.build();
+  }
+}
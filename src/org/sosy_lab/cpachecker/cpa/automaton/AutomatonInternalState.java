@@ -66,6 +66,8 @@ public class AutomatonInternalState {
   private final String name;
   /** Outgoing transitions of this state.  */
   private final List<AutomatonTransition> transitions;
+  /** Index of the outgoing transitions by the edges they may match on. */
+  private final AutomatonTransitionDispatch transitionDispatch;
 
   private final boolean mIsTarget;
 
@@ -77,6 +79,7 @@ public class AutomatonInternalState {
   public AutomatonInternalState(String pName, List<AutomatonTransition> pTransitions, boolean pIsTarget, boolean pAllTransitions) {
     this.name = pName;
     this.transitions = pTransitions;
+    this.transitionDispatch = new AutomatonTransitionDispatch(pTransitions);
     this.mIsTarget = pIsTarget;
     this.mAllTransitions = pAllTransitions;
   }
@@ -134,6 +137,10 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  AutomatonTransitionDispatch getTransitionDispatch() {
+    return transitionDispatch;
+  }
+
   @Override
   public String toString() {
     return this.name;
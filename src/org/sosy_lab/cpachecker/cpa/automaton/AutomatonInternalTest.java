@@ -45,7 +45,9 @@ import org.sosy_lab.common.log.TestLogManager;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CParser.ParserOptions;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAssignment;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallStatement;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonASTComparator.ASTMatcher;
@@ -246,6 +248,21 @@ public class AutomatonInternalTest {
    assert_().about(astMatcher).that("f(x, $?);").doesNotMatch("f(x, y, z);");
   }
 
+  @Test
+  public void testPatternHead() throws InvalidAutomatonException, InvalidConfigurationException {
+    ASTMatcher call = AutomatonASTComparator.generatePatternAST("init($?);", parser, CProgramScope.empty());
+    assertThat(AutomatonASTComparator.getMatchedASTClass(call)).isEqualTo(CFunctionCallStatement.class);
+    assertThat(AutomatonASTComparator.getCalledFunctionName(call)).isEqualTo("init");
+
+    ASTMatcher callAssignment = AutomatonASTComparator.generatePatternAST("$1 = malloc($2);", parser, CProgramScope.empty());
+    assertThat(AutomatonASTComparator.getMatchedASTClass(callAssignment)).isEqualTo(CAssignment.class);
+    assertThat(AutomatonASTComparator.getCalledFunctionName(callAssignment)).isEqualTo("malloc");
+
+    ASTMatcher assignment = AutomatonASTComparator.generatePatternAST("x = $?;", parser, CProgramScope.empty());
+    assertThat(AutomatonASTComparator.getMatchedASTClass(assignment)).isEqualTo(CAssignment.class);
+    assertThat(AutomatonASTComparator.getCalledFunctionName(assignment)).isNull();
+  }
+
   private final SubjectFactory<ASTMatcherSubject, String> astMatcher =
       new SubjectFactory<ASTMatcherSubject, String>() {
         @Override
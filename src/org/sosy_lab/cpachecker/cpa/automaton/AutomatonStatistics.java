@@ -27,10 +27,12 @@ import java.io.PrintStream;
 
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 
-class AutomatonStatistics extends AbstractStatistics {
+class AutomatonStatistics extends AbstractStatistics implements MetricStatistics {
 
   private final ControlAutomatonCPA mCpa;
 
@@ -57,6 +59,7 @@ class AutomatonStatistics extends AbstractStatistics {
       put(out, 1, "Time for transition assertions", trans.assertionsTime);
       put(out, 1, "Time for transition actions", trans.actionTime);
     }
+    put(out, 1, "Transitions skipped without match", trans.skippedTransitions);
 
     if (trans.totalStrengthenTime.getNumberOfIntervals() > 0) {
       put(out, 0, "Total time for strengthen operator", trans.totalStrengthenTime);
@@ -68,4 +71,9 @@ class AutomatonStatistics extends AbstractStatistics {
     put(out, 0, "Automaton transfers with branching", stateBranchings);
     put(out, 0, "Automaton transfer successors", trans.automatonSuccessors);
   }
+
+  @Override
+  public void registerMetrics(StatisticsRegistry pRegistry) {
+    pRegistry.register(mCpa.getTransferRelation().automatonSuccessors);
+  }
 }
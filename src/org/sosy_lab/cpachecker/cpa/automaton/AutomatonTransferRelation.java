@@ -73,6 +73,11 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   @Option(secure=true, description = "Collect information about matched (and traversed) tokens.")
   private boolean collectTokenInformation = false;
 
+  @Option(secure=true, description = "Skip transitions that cannot match a CFA edge "
+      + "because of its type, its kind of statement, or the called function, "
+      + "without evaluating their triggers.")
+  private boolean dispatchTransitionsByEdge = true;
+
   private final ControlAutomatonCPA cpa;
   private final LogManager logger;
 
@@ -82,6 +87,7 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   Timer actionTime = new Timer();
   Timer totalStrengthenTime = new Timer();
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  int skippedTransitions = 0;
 
   public AutomatonTransferRelation(ControlAutomatonCPA pCpa, Configuration config,
       LogManager pLogger) throws InvalidConfigurationException {
@@ -223,7 +229,20 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     // the list holds a Transition and the TransitionVariables generated during its match
     List<Pair<AutomatonTransition, Map<Integer, String>>> transitionsToBeTaken = new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    List<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    boolean[] applicableTransitions = null;
+    if (dispatchTransitionsByEdge) {
+      applicableTransitions = state.getInternalState().getTransitionDispatch().getApplicableTransitions(edge);
+    }
+
+    for (int i = 0; i < transitions.size(); i++) {
+      AutomatonTransition t = transitions.get(i);
+      if (applicableTransitions != null && !applicableTransitions[i]) {
+        // the trigger would evaluate to false on this edge
+        skippedTransitions++;
+        failedMatches++;
+        continue;
+      }
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
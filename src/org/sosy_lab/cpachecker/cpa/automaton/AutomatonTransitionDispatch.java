@@ -0,0 +1,176 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
+import org.sosy_lab.cpachecker.cfa.ast.AExpression;
+import org.sosy_lab.cpachecker.cfa.ast.AFunctionCall;
+import org.sosy_lab.cpachecker.cfa.ast.AIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonASTComparator.ASTMatcher;
+
+import com.google.common.base.Optional;
+
+/**
+ * Index of the outgoing transitions of an automaton state
+ * that may match on a CFA edge.
+ *
+ * Edges are classified by their type, the class of their AST,
+ * and the name of the called function (if any).
+ * For each such class of edges, it is determined once which transitions
+ * have a trigger that evaluates to false on all edges of this class,
+ * for example because the trigger is an AST pattern for a call of another function.
+ * Such transitions do not need to be evaluated by the transfer relation.
+ */
+final class AutomatonTransitionDispatch {
+
+  private final List<AutomatonTransition> transitions;
+
+  private final ConcurrentMap<EdgeKey, boolean[]> applicableTransitions = new ConcurrentHashMap<>();
+
+  AutomatonTransitionDispatch(List<AutomatonTransition> pTransitions) {
+    transitions = pTransitions;
+  }
+
+  /**
+   * Return for each transition (in the order of the transitions of the state)
+   * whether its trigger may match on the given edge.
+   * If the value for a transition is false, its trigger evaluates to false
+   * without side effects.
+   */
+  boolean[] getApplicableTransitions(CFAEdge pEdge) {
+    EdgeKey key = EdgeKey.of(pEdge);
+    boolean[] result = applicableTransitions.get(key);
+    if (result == null) {
+      result = new boolean[transitions.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = mayMatch(transitions.get(i).getTrigger(), key);
+      }
+      applicableTransitions.putIfAbsent(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Conservatively check whether the given expression may evaluate
+   * to something else than false on an edge with the given key.
+   */
+  private static boolean mayMatch(AutomatonBoolExpr pExpr, EdgeKey pKey) {
+    if (pExpr == AutomatonBoolExpr.FALSE) {
+      return false;
+
+    } else if (pExpr instanceof AutomatonBoolExpr.And) {
+      // false && _ and _ && false are both false, even if the other side cannot be evaluated
+      AutomatonBoolExpr.And and = (AutomatonBoolExpr.And)pExpr;
+      return mayMatch(and.getA(), pKey) && mayMatch(and.getB(), pKey);
+
+    } else if (pExpr instanceof AutomatonBoolExpr.Or) {
+      AutomatonBoolExpr.Or or = (AutomatonBoolExpr.Or)pExpr;
+      return mayMatch(or.getA(), pKey) || mayMatch(or.getB(), pKey);
+
+    } else if (pExpr == AutomatonBoolExpr.MatchAssumeEdge.INSTANCE
+        || pExpr instanceof AutomatonBoolExpr.MatchAssumeCase) {
+      return pKey.edgeType == CFAEdgeType.AssumeEdge;
+
+    } else if (pExpr instanceof AutomatonBoolExpr.MatchJavaAssert) {
+      return pKey.edgeType == CFAEdgeType.BlankEdge;
+
+    } else if (pExpr instanceof AutomatonBoolExpr.MatchCFAEdgeASTComparison) {
+      if (pKey.astClass == null) {
+        // edges without AST never match
+        return false;
+      }
+      if (!CAstNode.class.isAssignableFrom(pKey.astClass)) {
+        // the matcher throws an exception for such edges, which we must not hide
+        return true;
+      }
+      ASTMatcher pattern = ((AutomatonBoolExpr.MatchCFAEdgeASTComparison)pExpr).getPatternAST();
+      if (!AutomatonASTComparator.getMatchedASTClass(pattern).isAssignableFrom(pKey.astClass)) {
+        return false;
+      }
+      String functionName = AutomatonASTComparator.getCalledFunctionName(pattern);
+      return functionName == null || functionName.equals(pKey.functionName);
+    }
+
+    // no information about the expression
+    return true;
+  }
+
+  private static final class EdgeKey {
+
+    private final CFAEdgeType edgeType;
+    private final @Nullable Class<?> astClass;
+    private final @Nullable String functionName;
+
+    private EdgeKey(CFAEdgeType pEdgeType, @Nullable Class<?> pAstClass, @Nullable String pFunctionName) {
+      edgeType = pEdgeType;
+      astClass = pAstClass;
+      functionName = pFunctionName;
+    }
+
+    private static EdgeKey of(CFAEdge pEdge) {
+      Optional<? extends AAstNode> ast = pEdge.getRawAST();
+      if (!ast.isPresent()) {
+        return new EdgeKey(pEdge.getEdgeType(), null, null);
+      }
+
+      String functionName = null;
+      if (ast.get() instanceof AFunctionCall) {
+        AExpression name = ((AFunctionCall)ast.get()).getFunctionCallExpression().getFunctionNameExpression();
+        if (name instanceof AIdExpression) {
+          functionName = ((AIdExpression)name).getName();
+        }
+      }
+      return new EdgeKey(pEdge.getEdgeType(), ast.get().getClass(), functionName);
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (this == pObj) {
+        return true;
+      }
+      if (!(pObj instanceof EdgeKey)) {
+        return false;
+      }
+      EdgeKey other = (EdgeKey)pObj;
+      return edgeType == other.edgeType
+          && Objects.equals(astClass, other.astClass)
+          && Objects.equals(functionName, other.functionName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(edgeType, astClass, functionName);
+    }
+  }
+}
@@ -113,7 +113,7 @@ public class ARGSubtreeRemover {
     final ARGState lastRelevantNode = getReachedState(pPathElementToReachedState, Iterables.getLast(relevantCallNodes));
     final ARGState target = getReachedState(pPathElementToReachedState, element);
     for (final Entry<ARGState, ARGState> removeCachedSubtreeArguments : neededRemoveCachedSubtreeCalls.entries()) {
-      ReachedSet nextReachedSet = data.initialStateToReachedSet.get(removeCachedSubtreeArguments.getValue());
+      ReachedSet nextReachedSet = data.getReachedSetForInitialState(removeCachedSubtreeArguments.getValue());
       final List<Precision> newPrecisions;
       final List<Predicate<? super Precision>> newPrecisionTypes;
       if (doPrecisionRefinementForAllStates
@@ -196,7 +196,7 @@ public class ARGSubtreeRemover {
 
       CFANode rootNode = extractLocation(rootState);
       Block rootSubtree = partitioning.getBlockForCallNode(rootNode);
-      ReachedSet reachedSet = data.initialStateToReachedSet.get(rootState);
+      ReachedSet reachedSet = data.getReachedSetForInitialState(rootState);
       assert reachedSet.contains(removeElement) : "removing state from wrong reachedSet: " + removeElement;
       assert !removeElement.getParents().isEmpty();
 
@@ -274,7 +274,7 @@ public class ARGSubtreeRemover {
         // We ignore this here, because we just need the 'number' of block-exits.
       }
 
-      if (data.initialStateToReachedSet.containsKey(state)) {
+      if (data.hasReachedSetForInitialState(state)) {
         assert partitioning.isCallNode(extractLocation(state)) : "the mapping of initial state to reached-set should only exist for block-start-locations";
         // we start a new sub-reached-set, add state as start-state of a (possibly) open block.
         // if we are at lastState, we do not want to enter the block
@@ -309,7 +309,7 @@ public class ARGSubtreeRemover {
 
     while (!remainingPathElements.isEmpty()) {
       ARGState currentElement = remainingPathElements.pop();
-        if (data.initialStateToReachedSet.containsKey(pPathElementToReachedState.get(currentElement))) {
+        if (data.hasReachedSetForInitialState(pPathElementToReachedState.get(currentElement))) {
           ARGState currentReachedState = getReachedState(pPathElementToReachedState, currentElement);
           CFANode node = extractLocation(currentReachedState);
           Block currentBlock = partitioning.getBlockForCallNode(node);
@@ -345,9 +345,9 @@ public class ARGSubtreeRemover {
       // this line comes after handling returnStates --> returnStates from path are part of the outer-block-reachedSet
       pathElementToOuterReachedSet.put(pathState, openReachedSets.peek());
 
-      if (data.initialStateToReachedSet.containsKey(state)) {
+      if (data.hasReachedSetForInitialState(state)) {
         // the block can be equal, if this is a loop-block.
-          openReachedSets.push(data.initialStateToReachedSet.get(state));
+          openReachedSets.push(data.getReachedSetForInitialState(state));
       }
     }
 
@@ -371,7 +371,7 @@ public class ARGSubtreeRemover {
     while (!remainingPathElements.isEmpty()) {
       ARGState currentElement = remainingPathElements.pop();
 
-      if (data.initialStateToReachedSet.containsKey(pPathElementToReachedState.get(currentElement))) {
+      if (data.hasReachedSetForInitialState(pPathElementToReachedState.get(currentElement))) {
         ARGState currentReachedState = getReachedState(pPathElementToReachedState, currentElement);
         CFANode node = extractLocation(currentReachedState);
         Block currentBlock = partitioning.getBlockForCallNode(node);
@@ -415,7 +415,7 @@ public class ARGSubtreeRemover {
       bamCache.put(reducedRootState, reducedNewPrecision, context, reachedSet);
     }
 
-    UnmodifiableReachedSet innerReachedSet = data.initialStateToReachedSet.get(initialState);
+    UnmodifiableReachedSet innerReachedSet = data.getReachedSetForInitialState(initialState);
     Precision usedPrecision = innerReachedSet.getPrecision(innerReachedSet.getFirstState());
     boolean isNewPrecisionEntry = usedPrecision.equals(reducedNewPrecision);
     return isNewPrecisionEntry;
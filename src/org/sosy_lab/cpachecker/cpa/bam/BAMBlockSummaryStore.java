@@ -0,0 +1,460 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent storage for block summaries (finished reached-sets of blocks),
+ * which allows to re-use the analysis results for unchanged blocks
+ * in later runs of CPAchecker on the same or a slightly modified program.
+ *
+ * The summaries of a block are stored in a directory named by a fingerprint of the block.
+ * The fingerprint does not depend on node numbers or source positions,
+ * it hashes the edges of the block (type and description) in a canonical order of the nodes,
+ * and the fingerprints of all blocks that are called (transitively) from the block,
+ * such that a summary is not re-used if a callee changed.
+ * Each summary file also contains the reduced entry state and the reduced precision,
+ * which are compared with the current ones like in the {@link BAMCache}
+ * (by the hash object of the {@link Reducer}), instead of comparing serialized bytes.
+ *
+ * Abstract states refer to CFA nodes by their number, so each summary file stores
+ * the node numbers of the block in canonical order. When a summary is read,
+ * these numbers are translated to the nodes of the current CFA
+ * (cf. {@link CFAInfo#setNodeNumberTranslation(Map)}),
+ * and summaries that refer to nodes outside of the block are ignored.
+ *
+ * Summaries can only be stored for analyses whose states and precisions are serializable.
+ */
+@Options(prefix="cpa.bam.summaries")
+class BAMBlockSummaryStore {
+
+  @Option(secure=true, description="load block summaries from previous runs from the summary directory")
+  private boolean load = false;
+
+  @Option(secure=true, description="store summaries of analyzed blocks in the summary directory for later runs")
+  private boolean store = false;
+
+  @Option(secure=true, description="directory for block summaries that are re-used across runs")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path directory = Paths.get("BAMSummaries");
+
+  private static final String SUMMARY_SUFFIX = ".obj";
+
+  private final Reducer reducer;
+  private final ReachedSetFactory reachedSetFactory;
+  private final LogManager logger;
+  private final Map<Block, BlockFingerprint> blockFingerprints = new HashMap<>();
+  private @Nullable BlockPartitioning partitioning = null;
+
+  /** the summaries of each block in the summary directory, read once per block */
+  private final Map<HashCode, List<StoredSummary>> summaryIndex = new HashMap<>();
+
+  int loadedSummaries = 0;
+  int storedSummaries = 0;
+  int unserializableSummaries = 0;
+
+  BAMBlockSummaryStore(Configuration pConfig, Reducer pReducer,
+      ReachedSetFactory pReachedSetFactory, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    reducer = pReducer;
+    reachedSetFactory = pReachedSetFactory;
+    logger = pLogger;
+  }
+
+  /** Set the partitioning of the program, which is necessary to find the blocks called from a block. */
+  void setBlockPartitioning(BlockPartitioning pPartitioning) {
+    partitioning = pPartitioning;
+    blockFingerprints.clear();
+  }
+
+  boolean isEnabled() {
+    return (load || store) && directory != null;
+  }
+
+  /**
+   * Load the summary for a block with a given reduced entry state and precision.
+   * @return the reached-set and its return states, or null if there is no stored summary
+   */
+  @Nullable Pair<ReachedSet, Collection<AbstractState>> load(
+      AbstractState reducedState, Precision reducedPrecision, Block block) {
+    if (!load || directory == null) {
+      return null;
+    }
+
+    BlockFingerprint fingerprint = getFingerprint(block);
+    StoredSummary summary = findSummary(fingerprint, reducedState, reducedPrecision);
+    if (summary == null) {
+      return null;
+    }
+
+    StoredSummary result = readSummary(summary.file, fingerprint, true);
+    if (result == null) {
+      return null;
+    }
+    loadedSummaries++;
+    return result.contents;
+  }
+
+  /**
+   * Store the summary of a block, if it is finished and not yet stored.
+   */
+  void store(AbstractState reducedState, Precision reducedPrecision, Block block,
+      ReachedSet reached, Collection<AbstractState> returnStates) {
+    if (!store || directory == null || reached.hasWaitingState()) {
+      return;
+    }
+
+    BlockFingerprint fingerprint = getFingerprint(block);
+    if (findSummary(fingerprint, reducedState, reducedPrecision) != null) {
+      return;
+    }
+
+    File dir = getBlockDirectory(fingerprint);
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      logger.log(Level.WARNING, "Could not create directory", dir, "for BAM block summaries.");
+      return;
+    }
+
+    // write to a temporary file first such that concurrent runs never see partial summaries
+    File tmpFile;
+    try {
+      tmpFile = File.createTempFile("summary", ".tmp", dir);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write block summary");
+      return;
+    }
+    try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+      out.writeObject(fingerprint.nodeNumbers);
+      out.writeObject(reducedState);
+      out.writeObject(reducedPrecision);
+      BAMCacheSpillStore.writeReachedSet(out, reached, returnStates);
+    } catch (IOException e) {
+      logger.logDebugException(e, "Could not write block summary");
+      unserializableSummaries++;
+      tmpFile.delete();
+      return;
+    }
+
+    String name = tmpFile.getName();
+    File file = new File(dir, name.substring(0, name.length() - ".tmp".length()) + SUMMARY_SUFFIX);
+    if (tmpFile.renameTo(file)) {
+      storedSummaries++;
+      getStoredSummaries(fingerprint).add(new StoredSummary(file, reducedState, reducedPrecision));
+    } else {
+      tmpFile.delete();
+    }
+  }
+
+  private @Nullable StoredSummary findSummary(BlockFingerprint fingerprint,
+      AbstractState reducedState, Precision reducedPrecision) {
+    Object key = reducer.getHashCodeForState(reducedState, reducedPrecision);
+    for (StoredSummary summary : getStoredSummaries(fingerprint)) {
+      if (key.equals(reducer.getHashCodeForState(summary.state, summary.precision))) {
+        return summary;
+      }
+    }
+    return null;
+  }
+
+  private File getBlockDirectory(BlockFingerprint fingerprint) {
+    return new File(directory.toFile(), fingerprint.hash.toString());
+  }
+
+  /** Get the summaries of a block, reading their keys from disk on first use. */
+  private List<StoredSummary> getStoredSummaries(BlockFingerprint fingerprint) {
+    List<StoredSummary> summaries = summaryIndex.get(fingerprint.hash);
+    if (summaries == null) {
+      summaries = new ArrayList<>();
+      File[] files = load ? getBlockDirectory(fingerprint).listFiles() : null;
+      if (files != null) {
+        Arrays.sort(files);
+        for (File file : files) {
+          if (file.getName().endsWith(SUMMARY_SUFFIX)) {
+            StoredSummary summary = readSummary(file, fingerprint, false);
+            if (summary != null) {
+              summaries.add(summary);
+            }
+          }
+        }
+      }
+      summaryIndex.put(fingerprint.hash, summaries);
+    }
+    return summaries;
+  }
+
+  /**
+   * Read a summary file with the node numbers of the current CFA.
+   * @param withContents whether to read the reached-set (and the return states)
+   *     or only the key (the reduced state and precision)
+   * @return the summary, or null if the file cannot be read
+   */
+  private @Nullable StoredSummary readSummary(File file, BlockFingerprint fingerprint,
+      boolean withContents) {
+    Optional<CFAInfo> cfaInfo = GlobalInfo.getInstance().getCFAInfo();
+    if (!cfaInfo.isPresent()) {
+      return null;
+    }
+
+    try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      int[] oldNumbers = (int[]) in.readObject();
+      if (oldNumbers.length != fingerprint.nodes.size()) {
+        return null;
+      }
+      Map<Integer, CFANode> translation = new HashMap<>();
+      for (int i = 0; i < oldNumbers.length; i++) {
+        translation.put(oldNumbers[i], fingerprint.nodes.get(i));
+      }
+
+      cfaInfo.get().setNodeNumberTranslation(translation);
+      try {
+        AbstractState state = (AbstractState) in.readObject();
+        Precision precision = (Precision) in.readObject();
+        StoredSummary summary = new StoredSummary(file, state, precision);
+        if (withContents) {
+          summary.contents = BAMCacheSpillStore.readReachedSet(in, reachedSetFactory);
+        }
+        return summary;
+      } finally {
+        cfaInfo.get().setNodeNumberTranslation(null);
+      }
+
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logDebugException(e, "Could not read block summary from " + file);
+      return null;
+    } catch (IllegalArgumentException e) {
+      // the summary refers to nodes outside of the block
+      logger.logDebugException(e, "Could not translate block summary from " + file);
+      return null;
+    }
+  }
+
+  /**
+   * Compute a hash of all edges inside a block and inside the blocks called from it
+   * that is stable across runs, i.e., it does not depend on node numbers.
+   */
+  private BlockFingerprint getFingerprint(Block block) {
+    BlockFingerprint fingerprint = getLocalFingerprint(block);
+    if (fingerprint.hash == null) {
+      // Collect all blocks that are called transitively, until a fixpoint is reached.
+      // Each block is visited only once, so this terminates for recursive calls, too.
+      Set<Block> callees = new HashSet<>();
+      Queue<Block> waitlist = new ArrayDeque<>(fingerprint.callees);
+      while (!waitlist.isEmpty()) {
+        Block callee = waitlist.poll();
+        if (callees.add(callee)) {
+          waitlist.addAll(getLocalFingerprint(callee).callees);
+        }
+      }
+
+      // the local hashes of the callees in canonical order
+      List<HashCode> calleeHashes = new ArrayList<>();
+      for (Block callee : callees) {
+        calleeHashes.add(getLocalFingerprint(callee).localHash);
+      }
+      Collections.sort(calleeHashes, Ordering.usingToString());
+
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putBytes(fingerprint.localHash.asBytes());
+      hasher.putInt(calleeHashes.size());
+      for (HashCode calleeHash : calleeHashes) {
+        hasher.putBytes(calleeHash.asBytes());
+      }
+      fingerprint.hash = hasher.hash();
+    }
+    return fingerprint;
+  }
+
+  /** Get the fingerprint of a block without the blocks called from it. */
+  private BlockFingerprint getLocalFingerprint(Block block) {
+    BlockFingerprint fingerprint = blockFingerprints.get(block);
+    if (fingerprint == null) {
+      fingerprint = new BlockFingerprint(block, partitioning);
+      blockFingerprints.put(block, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /** The semantic content of an edge, without its source position. */
+  private static final Function<CFAEdge, String> EDGE_DESCRIPTION = new Function<CFAEdge, String>() {
+    @Override
+    public String apply(CFAEdge pEdge) {
+      return pEdge.getEdgeType() + " " + pEdge.getDescription();
+    }
+  };
+
+  /** The fingerprint of a block together with its nodes in canonical order. */
+  private static class BlockFingerprint {
+
+    /** the hash of the block itself, and the hash including all called blocks (computed lazily) */
+    private final HashCode localHash;
+    private @Nullable HashCode hash = null;
+
+    /** the blocks that are entered directly from this block */
+    private final ImmutableSet<Block> callees;
+
+    /** the nodes of the block in canonical order (breadth-first from the call nodes) */
+    private final ImmutableList<CFANode> nodes;
+    private final int[] nodeNumbers;
+
+    private BlockFingerprint(final Block block, @Nullable BlockPartitioning partitioning) {
+      // call nodes are ordered by their edges, all other nodes by their position in the block
+      List<CFANode> callNodes = Ordering.natural().onResultOf(new Function<CFANode, String>() {
+            @Override
+            public String apply(CFANode pNode) {
+              return pNode.getFunctionName() + " "
+                  + Joiner.on(", ").join(CFAUtils.leavingEdges(pNode).transform(EDGE_DESCRIPTION));
+            }
+          }).sortedCopy(block.getCallNodes());
+
+      Set<CFANode> order = new LinkedHashSet<>();
+      Queue<CFANode> waitlist = new ArrayDeque<>();
+      for (CFANode callNode : callNodes) {
+        if (order.add(callNode)) {
+          waitlist.add(callNode);
+        }
+      }
+      while (!waitlist.isEmpty()) {
+        for (CFANode successor : CFAUtils.successorsOf(waitlist.poll())) {
+          if (block.getNodes().contains(successor) && order.add(successor)) {
+            waitlist.add(successor);
+          }
+        }
+      }
+      nodes = ImmutableList.copyOf(order);
+
+      Map<CFANode, Integer> index = new HashMap<>();
+      nodeNumbers = new int[nodes.size()];
+      for (CFANode node : nodes) {
+        nodeNumbers[index.size()] = node.getNodeNumber();
+        index.put(node, index.size());
+      }
+
+      ImmutableSet.Builder<Block> calleeBlocks = ImmutableSet.builder();
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putInt(block.getNodes().size());
+      for (CFANode node : nodes) {
+        if (partitioning != null && partitioning.isCallNode(node)
+            && !block.isCallNode(node)) {
+          // a nested block
+          calleeBlocks.add(partitioning.getBlockForCallNode(node));
+        }
+
+        hasher.putString(node.getFunctionName(), StandardCharsets.UTF_8);
+        hasher.putBoolean(block.isCallNode(node));
+        hasher.putBoolean(block.isReturnNode(node));
+        hasher.putInt(node.getNumLeavingEdges());
+
+        for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+          hasher.putString(EDGE_DESCRIPTION.apply(edge), StandardCharsets.UTF_8);
+          Integer successor = index.get(edge.getSuccessor());
+          if (successor == null) {
+            // edge leaves the block
+            hasher.putInt(-1);
+            hasher.putString(edge.getSuccessor().getFunctionName(), StandardCharsets.UTF_8);
+            if (partitioning != null && partitioning.isCallNode(edge.getSuccessor())
+                && !block.isReturnNode(node)) {
+              // a called block, edges from return nodes lead back to the caller instead
+              calleeBlocks.add(partitioning.getBlockForCallNode(edge.getSuccessor()));
+            }
+          } else {
+            hasher.putInt(successor);
+          }
+        }
+      }
+      localHash = hasher.hash();
+      callees = calleeBlocks.build();
+    }
+  }
+
+  /** The key of a summary file, and optionally its contents. */
+  private static class StoredSummary {
+    private final File file;
+    private final AbstractState state;
+    private final Precision precision;
+    private @Nullable Pair<ReachedSet, Collection<AbstractState>> contents = null;
+
+    private StoredSummary(File pFile, AbstractState pState, Precision pPrecision) {
+      file = pFile;
+      state = pState;
+      precision = pPrecision;
+    }
+  }
+}
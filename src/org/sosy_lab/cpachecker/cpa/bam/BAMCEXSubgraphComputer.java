@@ -118,7 +118,7 @@ public class BAMCEXSubgraphComputer {
         final BackwardARGState newChild = finishedStates.get(child);
 
         if (data.expandedStateToReducedState.containsKey(child)) {
-          assert data.initialStateToReachedSet.containsKey(currentState) : "parent should be initial state of reached-set";
+          assert data.hasReachedSetForInitialState(currentState) : "parent should be initial state of reached-set";
           // If child-state is an expanded state, we are at the exit-location of a block.
           // In this case, we enter the block (backwards).
           // We must use a cached reachedSet to process further, because the block has its own reachedSet.
@@ -201,7 +201,7 @@ public class BAMCEXSubgraphComputer {
     }
 
     // TODO why do we use 'abstractStateToReachedSet' to get the reachedSet and not 'bamCache'?
-    final ReachedSet reachedSet = data.initialStateToReachedSet.get(expandedRoot);
+    final ReachedSet reachedSet = data.getReachedSetForInitialState(expandedRoot);
 
     // we found the reachedSet, corresponding to the root and precision.
     // now try to find the target in the reach set.
@@ -128,7 +128,7 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
       this.wrappedProofChecker = null;
     }
     reducer = new TimedReducer(wrappedReducer);
-    final BAMCache cache = new BAMCache(config, reducer, logger);
+    final BAMCache cache = new BAMCache(config, reducer, pReachedSetFactory, logger);
     data = new BAMDataManager(cache, pReachedSetFactory, pLogger);
 
     if (handleRecursiveProcedures) {
@@ -162,6 +162,7 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
       }
 
       transfer.setBlockPartitioning(blockPartitioning);
+      data.bamCache.summaryStore.setBlockPartitioning(blockPartitioning);
 
       BAMPredicateCPA predicateCpa = ((WrapperCPA) getWrappedCpa()).retrieveWrappedCpa(BAMPredicateCPA.class);
       if (predicateCpa != null) {
@@ -139,6 +139,19 @@ class BAMCPAStatistics implements Statistics {
       out.println("  Number of precision caused misses:                            " + data.bamCache.precisionCausedMisses + " (" + toPercent(data.bamCache.precisionCausedMisses, data.bamCache.cacheMisses) + " of all misses)");
       out.println("  Number of misses with no similar elements:                    " + data.bamCache.noSimilarCausedMisses + " (" + toPercent(data.bamCache.noSimilarCausedMisses, data.bamCache.cacheMisses) + " of all misses)");
     }
+    if (data.bamCache.summaryStore.isEnabled()) {
+      out.println("  Number of block summaries loaded from previous runs:          " + data.bamCache.summaryStore.loadedSummaries);
+      out.println("  Number of block summaries stored for later runs:              " + data.bamCache.summaryStore.storedSummaries);
+      out.println("  Number of block summaries that could not be serialized:       " + data.bamCache.summaryStore.unserializableSummaries);
+    }
+    if (data.bamCache.usesEviction()) {
+      out.println("  Number of evicted cache entries:                              " + data.bamCache.evictedEntries);
+      out.println("  Max number of states in cached reached-sets:                  " + data.bamCache.maxCachedStates);
+      if (data.bamCache.usesSpilling()) {
+        out.println("  Number of evicted entries written to disk:                    " + data.bamCache.spilledEntries + " (failed: " + data.bamCache.failedSpills + ")");
+        out.println("  Number of evicted entries reloaded from disk:                 " + data.bamCache.reloadedEntries);
+      }
+    }
     out.println("Time for reducing abstract states:                            " + reducer.reduceTime + " (Calls: " + reducer.reduceTime.getNumberOfIntervals() + ")");
     out.println("Time for expanding abstract states:                           " + reducer.expandTime + " (Calls: " + reducer.expandTime.getNumberOfIntervals() + ")");
     out.println("Time for checking equality of abstract states:                " + data.bamCache.equalsTimer + " (Calls: " + data.bamCache.equalsTimer.getNumberOfIntervals() + ")");
@@ -267,8 +280,8 @@ class BAMCPAStatistics implements Statistics {
       if (!finished.add(state)) {
         continue;
       }
-      if (data.initialStateToReachedSet.containsKey(state)) {
-        ReachedSet target = data.initialStateToReachedSet.get(state);
+      if (data.hasReachedSetForInitialState(state)) {
+        ReachedSet target = data.getReachedSetForInitialState(state);
         referencedReachedSets.add(target);
         ARGState targetState = (ARGState) target.getFirstState();
         connections.put(state, targetState);
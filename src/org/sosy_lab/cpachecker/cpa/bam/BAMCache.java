@@ -26,16 +26,26 @@ package org.sosy_lab.cpachecker.cpa.bam;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
@@ -43,19 +53,65 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 
 @Options(prefix = "cpa.bam")
 public class BAMCache {
 
+  /** Strategies for choosing the cache entry that is evicted if the cache is full. */
+  public static enum EvictionPolicy {
+    /** never evict entries, the cache is unbounded */
+    NONE,
+    /** evict the least recently used entry */
+    LRU,
+    /** evict the least frequently used entry */
+    LFU,
+    /** evict the entry with the largest reached-set */
+    SIZE,
+  }
+
   @Option(secure=true, description = "if enabled, cache queries also consider blocks with non-matching precision for reuse.")
   private boolean aggressiveCaching = true;
 
   @Option(secure=true, description = "if enabled, the reached set cache is analysed for each cache miss to find the cause of the miss.")
   boolean gatherCacheMissStatistics = false;
 
+  @Option(secure=true, name="cache.evictionPolicy",
+      description = "which entries to evict from the cache if it exceeds its limits "
+          + "(cpa.bam.cache.maxEntries and cpa.bam.cache.maxStates). "
+          + "Only entries with finished reached-sets that are currently not analyzed are evicted.")
+  private EvictionPolicy evictionPolicy = EvictionPolicy.NONE;
+
+  @Option(secure=true, name="cache.maxEntries",
+      description = "maximum number of cached reached-sets (0 for no limit)")
+  @IntegerOption(min=0)
+  private int maxEntries = 0;
+
+  @Option(secure=true, name="cache.maxStates",
+      description = "maximum number of abstract states in all cached reached-sets together "
+          + "(0 for no limit). Note that this limits the number of states, not the memory, "
+          + "which also depends on the size of each abstract state.")
+  @IntegerOption(min=0)
+  private int maxStates = 0;
+
+  @Option(secure=true, name="cache.spill",
+      description = "write evicted reached-sets to disk and reload them on a cache hit "
+          + "or when they are needed for refinement or counterexample reconstruction, "
+          + "this requires serializable abstract states and precisions. "
+          + "Without this option, blocks whose reached-sets were evicted "
+          + "cannot be used for refinement and counterexample reconstruction.")
+  private boolean spillEvictedEntries = false;
+
+  @Option(secure=true, name="cache.spillDirectory",
+      description = "directory for reached-sets evicted from the cache")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path spillDirectory = Paths.get("BAMCache");
+
   final Timer hashingTimer = new Timer();
   final Timer equalsTimer = new Timer();
   final Timer searchingTimer = new Timer();
@@ -68,21 +124,72 @@ public class BAMCache {
   int precisionCausedMisses = 0;
   int noSimilarCausedMisses = 0;
 
+  int evictedEntries = 0;
+  int spilledEntries = 0;
+  int failedSpills = 0;
+  int reloadedEntries = 0;
+  int maxCachedStates = 0;
+
   // we use LinkedHashMaps to avoid non-determinism
   private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new LinkedHashMap<>();
   private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
   private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
   private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
 
+  // data for eviction of cache entries, only used with an eviction policy
+  private final Map<AbstractStateHash, EntryUsage> entryUsage = new HashMap<>();
+  /** all entries of entryUsage, the first one is the best candidate for eviction */
+  private final NavigableSet<EntryUsage> evictionOrder;
+  private final Multiset<ReachedSet> reachedSetsInAnalysis = HashMultiset.create();
+  private long accessCounter = 0;
+  /** sum of the sizes of all cached reached-sets, as recorded in entryUsage */
+  private int cachedStates = 0;
+  private final @Nullable BAMCacheSpillStore<AbstractStateHash> spillStore;
+  final BAMBlockSummaryStore summaryStore;
+
   private ARGState lastAnalyzedBlock = null;
   private final Reducer reducer;
+  private @Nullable EntryListener entryListener = null;
 
   private final LogManager logger;
 
-  public BAMCache(Configuration config, Reducer reducer, LogManager logger) throws InvalidConfigurationException {
+  public BAMCache(Configuration config, Reducer reducer, ReachedSetFactory reachedSetFactory, LogManager logger)
+      throws InvalidConfigurationException {
     config.inject(this);
     this.reducer = reducer;
     this.logger = logger;
+
+    evictionOrder = new TreeSet<>(new Comparator<EntryUsage>() {
+      @Override
+      public int compare(EntryUsage pUsage1, EntryUsage pUsage2) {
+        return compareForEviction(pUsage1, pUsage2);
+      }
+    });
+
+    if (evictionPolicy != EvictionPolicy.NONE && spillEvictedEntries && spillDirectory != null) {
+      spillStore = new BAMCacheSpillStore<>(spillDirectory, reachedSetFactory, logger);
+    } else {
+      spillStore = null;
+    }
+    summaryStore = new BAMBlockSummaryStore(config, reducer, reachedSetFactory, logger);
+  }
+
+  /**
+   * Listener that is notified when a reached-set is evicted from the cache
+   * or reloaded into it, such that other references to the reached-set can be
+   * removed or replaced.
+   */
+  interface EntryListener {
+
+    /** The reached-set with the given key was removed from the cache. */
+    void evicted(Object pKey, ReachedSet pReached);
+
+    /** The reached-set with the given key was reloaded into the cache. */
+    void reloaded(Object pKey, ReachedSet pReached);
+  }
+
+  void setEntryListener(EntryListener pListener) {
+    entryListener = pListener;
   }
 
   public boolean doesAggressiveCaching() {
@@ -97,6 +204,7 @@ public class BAMCache {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     assert !preciseReachedCache.containsKey(hash);
     preciseReachedCache.put(hash, item);
+    recordAccess(hash);
   }
 
   public void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
@@ -107,6 +215,9 @@ public class BAMCache {
     returnCache.put(hash, item);
     blockARGCache.put(hash, rootOfBlock);
     setLastAnalyzedBlock(hash);
+    summaryStore.store(stateKey, precisionKey, context, preciseReachedCache.get(hash), item);
+    updateUsage(hash, false); // the reached-set is finished, update its size
+    evictIfNecessary();
   }
 
   private boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
@@ -159,15 +270,36 @@ public class BAMCache {
     ReachedSet result = preciseReachedCache.get(hash);
     if (result != null) {
       setLastAnalyzedBlock(hash);
+      recordAccess(hash);
       logger.log(Level.FINEST, "CACHE_ACCESS: precise entry");
       return Pair.of(result, returnCache.get(hash));
     }
 
+    Pair<ReachedSet, Collection<AbstractState>> reloaded = reloadSpilledEntry(hash);
+    if (reloaded != null) {
+      setLastAnalyzedBlock(hash);
+      logger.log(Level.FINEST, "CACHE_ACCESS: precise entry, reloaded from disk");
+      return reloaded;
+    }
+
+    Pair<ReachedSet, Collection<AbstractState>> summary = summaryStore.load(stateKey, precisionKey, context);
+    if (summary != null) {
+      preciseReachedCache.put(hash, summary.getFirst());
+      returnCache.put(hash, summary.getSecond());
+      restoreBlockARG(hash, summary.getFirst());
+      recordAccess(hash);
+      setLastAnalyzedBlock(hash);
+      logger.log(Level.FINEST, "CACHE_ACCESS: precise entry, loaded summary of previous run");
+      evictIfNecessary();
+      return summary;
+    }
+
     if (aggressiveCaching) {
       result = unpreciseReachedCache.get(hash);
       if (result != null) {
         AbstractStateHash unpreciseHash = getHashCode(stateKey, result.getPrecision(result.getFirstState()), context);
         setLastAnalyzedBlock(unpreciseHash);
+        recordAccess(unpreciseHash);
         logger.log(Level.FINEST, "CACHE_ACCESS: imprecise entry, directly from cache");
         return Pair.of(result, returnCache.get(unpreciseHash));
       }
@@ -189,6 +321,57 @@ public class BAMCache {
     return Pair.of(null, null);
   }
 
+  /**
+   * Get the reached-set of an entry that may have been evicted,
+   * reloading it from disk if necessary.
+   * @param pKey the key that was given to {@link EntryListener#evicted(Object, ReachedSet)}
+   * @return the reached-set, or null if it was evicted and not spilled
+   */
+  @Nullable ReachedSet getEvictedEntry(Object pKey) {
+    AbstractStateHash hash = (AbstractStateHash) pKey;
+    ReachedSet reached = preciseReachedCache.get(hash);
+    if (reached != null) {
+      return reached;
+    }
+    Pair<ReachedSet, Collection<AbstractState>> reloaded = reloadSpilledEntry(hash);
+    return reloaded == null ? null : reloaded.getFirst();
+  }
+
+  /** Reload an entry from disk and put it into the cache again. */
+  private @Nullable Pair<ReachedSet, Collection<AbstractState>> reloadSpilledEntry(AbstractStateHash hash) {
+    if (spillStore == null) {
+      return null;
+    }
+    Pair<ReachedSet, Collection<AbstractState>> reloaded = spillStore.reload(hash);
+    if (reloaded == null) {
+      return null;
+    }
+    reloadedEntries++;
+    preciseReachedCache.put(hash, reloaded.getFirst());
+    returnCache.put(hash, reloaded.getSecond());
+    restoreBlockARG(hash, reloaded.getFirst());
+    recordAccess(hash);
+    if (entryListener != null) {
+      entryListener.reloaded(hash, reloaded.getFirst());
+    }
+    // the reloaded entry is used now, so it is not evicted immediately
+    startAnalysis(reloaded.getFirst());
+    try {
+      evictIfNecessary();
+    } finally {
+      finishAnalysis(reloaded.getFirst());
+    }
+    return reloaded;
+  }
+
+  /** The ARG of a block is needed for PCC, but it is not part of reloaded or loaded data,
+   * so we rebuild it from the reached-set like in the transfer relation. */
+  private void restoreBlockARG(AbstractStateHash pHash, ReachedSet pReached) {
+    if (BAMTransferRelation.PCCInformation.isPCCEnabled()) {
+      blockARGCache.put(pHash, BAMARGUtils.copyARG((ARGState) pReached.getFirstState()));
+    }
+  }
+
   private void setLastAnalyzedBlock(AbstractStateHash pHash) {
     if (BAMTransferRelation.PCCInformation.isPCCEnabled()) {
       lastAnalyzedBlock = blockARGCache.get(pHash);
@@ -250,6 +433,158 @@ public class BAMCache {
     preciseReachedCache.clear();
     unpreciseReachedCache.clear();
     returnCache.clear();
+    entryUsage.clear();
+    evictionOrder.clear();
+    cachedStates = 0;
+    if (spillStore != null) {
+      spillStore.clear();
+    }
+  }
+
+  /** Mark a cached reached-set as being analyzed, such that it is not evicted.
+   * Each call has to be followed by a call to {@link #finishAnalysis(ReachedSet)}. */
+  void startAnalysis(ReachedSet reached) {
+    reachedSetsInAnalysis.add(reached);
+  }
+
+  void finishAnalysis(ReachedSet reached) {
+    boolean removed = reachedSetsInAnalysis.remove(reached);
+    assert removed : "reached-set was not analyzed";
+  }
+
+  private void recordAccess(AbstractStateHash hash) {
+    updateUsage(hash, true);
+  }
+
+  /** Update the usage data of an entry for the eviction policy.
+   * The size of the reached-set is only updated here,
+   * i.e., when the entry is accessed or its analysis is finished.
+   * This avoids iterating over all cached reached-sets. */
+  private void updateUsage(AbstractStateHash hash, boolean isAccess) {
+    if (evictionPolicy == EvictionPolicy.NONE) {
+      return;
+    }
+    EntryUsage usage = entryUsage.get(hash);
+    if (usage == null) {
+      usage = new EntryUsage(hash);
+      entryUsage.put(hash, usage);
+    } else {
+      // remove before the ordering changes
+      evictionOrder.remove(usage);
+    }
+    if (isAccess || usage.lastAccess < 0) {
+      usage.lastAccess = accessCounter++;
+    }
+    if (isAccess) {
+      usage.accesses++;
+    }
+    ReachedSet reached = preciseReachedCache.get(hash);
+    if (reached != null) {
+      cachedStates += reached.size() - usage.states;
+      usage.states = reached.size();
+    }
+    evictionOrder.add(usage);
+  }
+
+  /** Order of entries for the eviction policy, the smallest entry is evicted first.
+   * The last access is unique and makes the order total. */
+  private int compareForEviction(EntryUsage pUsage1, EntryUsage pUsage2) {
+    int result;
+    switch (evictionPolicy) {
+    case LRU:
+      result = 0;
+      break;
+    case LFU:
+      result = Integer.compare(pUsage1.accesses, pUsage2.accesses);
+      break;
+    case SIZE:
+      result = -Integer.compare(pUsage1.states, pUsage2.states);
+      break;
+    default:
+      throw new AssertionError("unhandled eviction policy " + evictionPolicy);
+    }
+    if (result == 0) {
+      result = Long.compare(pUsage1.lastAccess, pUsage2.lastAccess);
+    }
+    return result;
+  }
+
+  /** Evict entries according to the eviction policy until the cache is within its limits. */
+  private void evictIfNecessary() {
+    if (evictionPolicy == EvictionPolicy.NONE) {
+      return;
+    }
+
+    maxCachedStates = Math.max(maxCachedStates, cachedStates);
+
+    while ((maxEntries > 0 && preciseReachedCache.size() > maxEntries)
+        || (maxStates > 0 && cachedStates > maxStates)) {
+
+      AbstractStateHash victim = selectEntryForEviction();
+      if (victim == null) {
+        // all entries are in use
+        return;
+      }
+      evict(victim);
+    }
+  }
+
+  /** Return the first entry in eviction order that is not needed any more.
+   * Only entries that are currently analyzed are skipped, so this is usually fast. */
+  private @Nullable AbstractStateHash selectEntryForEviction() {
+    for (EntryUsage usage : evictionOrder) {
+      ReachedSet reached = preciseReachedCache.get(usage.hash);
+      if (reached == null
+          || reached.hasWaitingState()
+          || !returnCache.containsKey(usage.hash)
+          || reachedSetsInAnalysis.contains(reached)) {
+        // unfinished reached-sets are still needed
+        continue;
+      }
+      return usage.hash;
+    }
+    return null;
+  }
+
+  /** Remove an entry from all caches and return the number of states it contained. */
+  private int evict(AbstractStateHash hash) {
+    ReachedSet reached = preciseReachedCache.remove(hash);
+    Collection<AbstractState> returnStates = returnCache.remove(hash);
+    blockARGCache.remove(hash);
+    removeUsage(hash);
+    unpreciseReachedCache.values().removeAll(Collections.singleton(reached));
+    evictedEntries++;
+
+    logger.log(Level.FINEST, "CACHE_EVICTION: removing entry with", reached.size(), "states");
+    if (spillStore != null) {
+      if (spillStore.spill(hash, reached, returnStates)) {
+        spilledEntries++;
+      } else {
+        failedSpills++;
+      }
+    }
+    if (entryListener != null) {
+      // remove the remaining references to the reached-set, otherwise no memory is freed
+      entryListener.evicted(hash, reached);
+    }
+    return reached.size();
+  }
+
+  private @Nullable EntryUsage removeUsage(AbstractStateHash hash) {
+    EntryUsage usage = entryUsage.remove(hash);
+    if (usage != null) {
+      evictionOrder.remove(usage);
+      cachedStates -= usage.states;
+    }
+    return usage;
+  }
+
+  boolean usesEviction() {
+    return evictionPolicy != EvictionPolicy.NONE;
+  }
+
+  boolean usesSpilling() {
+    return spillStore != null;
   }
 
   public boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
@@ -263,7 +598,20 @@ public class BAMCache {
     ReachedSet reachedSet = preciseReachedCache.get(hash);
     if (reachedSet != null) {
       preciseReachedCache.remove(hash);
-      preciseReachedCache.put(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+      AbstractStateHash newHash = getHashCode(stateKey, newPrecisionKey, context);
+      preciseReachedCache.put(newHash, reachedSet);
+
+      // keep the usage data for the moved entry
+      EntryUsage oldUsage = removeUsage(hash);
+      if (oldUsage != null) {
+        EntryUsage newUsage = new EntryUsage(newHash);
+        newUsage.lastAccess = oldUsage.lastAccess;
+        newUsage.accesses = oldUsage.accesses;
+        newUsage.states = oldUsage.states;
+        entryUsage.put(newHash, newUsage);
+        evictionOrder.add(newUsage);
+        cachedStates += newUsage.states;
+      }
     }
   }
 
@@ -271,6 +619,17 @@ public class BAMCache {
     return preciseReachedCache.values();
   }
 
+  private class EntryUsage {
+    private final AbstractStateHash hash;
+    private long lastAccess = -1;
+    private int accesses = 0;
+    private int states = 0;
+
+    private EntryUsage(AbstractStateHash pHash) {
+      hash = pHash;
+    }
+  }
+
   private class AbstractStateHash {
 
     private final Object wrappedHash;
@@ -0,0 +1,169 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Storage for reached-sets that were evicted from the {@link BAMCache}.
+ * Each reached-set is serialized (together with its return states) into
+ * its own file and re-created as a new (finished) reached-set on request.
+ *
+ * Reloaded reached-sets contain copies of the original abstract states,
+ * thus this works only for analyses whose states and precisions are serializable
+ * and do not depend on object identity across blocks.
+ */
+class BAMCacheSpillStore<K> {
+
+  private final File directory;
+  private final ReachedSetFactory reachedSetFactory;
+  private final LogManager logger;
+
+  private final Map<K, File> spilledEntries = new HashMap<>();
+  private int nextFileId = 0;
+
+  BAMCacheSpillStore(Path pDirectory, ReachedSetFactory pReachedSetFactory, LogManager pLogger) {
+    directory = pDirectory.toFile();
+    reachedSetFactory = pReachedSetFactory;
+    logger = pLogger;
+  }
+
+  /**
+   * Write a finished reached-set and its return states to disk.
+   * @return whether the reached-set could be stored.
+   */
+  boolean spill(K key, ReachedSet reached, Collection<AbstractState> returnStates) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      logger.log(Level.WARNING, "Could not create directory", directory, "for BAM cache entries.");
+      return false;
+    }
+    File file = new File(directory, "block" + (nextFileId++) + ".obj");
+
+    try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      writeReachedSet(out, reached, returnStates);
+
+    } catch (IOException e) {
+      // most probably a NotSerializableException for some state or precision
+      logger.logDebugException(e, "Could not write evicted reached-set of BAM cache");
+      file.delete();
+      return false;
+    }
+
+    spilledEntries.put(key, file);
+    return true;
+  }
+
+  /**
+   * Re-create a reached-set that was written with {@link #spill(Object, ReachedSet, Collection)}
+   * and remove it from disk.
+   * @return the reached-set and its return states, or null if there is no such entry
+   */
+  @Nullable Pair<ReachedSet, Collection<AbstractState>> reload(K key) {
+    File file = spilledEntries.remove(key);
+    if (file == null) {
+      return null;
+    }
+
+    try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      return readReachedSet(in, reachedSetFactory);
+
+    } catch (IOException | ClassNotFoundException e) {
+      logger.logDebugException(e, "Could not read evicted reached-set of BAM cache");
+      return null;
+
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * Serialize a finished reached-set and its return states.
+   * Everything is written as one object graph to preserve the identity of states.
+   */
+  static void writeReachedSet(ObjectOutputStream out, ReachedSet reached,
+      Collection<AbstractState> returnStates) throws IOException {
+    List<AbstractState> states = new ArrayList<>(reached.asCollection());
+    List<Precision> precisions = new ArrayList<>(states.size());
+    for (AbstractState state : states) {
+      precisions.add(reached.getPrecision(state));
+    }
+    out.writeObject(states);
+    out.writeObject(precisions);
+    out.writeObject(new ArrayList<>(returnStates));
+  }
+
+  /**
+   * Re-create a reached-set written by {@link #writeReachedSet(ObjectOutputStream, ReachedSet, Collection)}.
+   * The returned reached-set has an empty waitlist.
+   */
+  static Pair<ReachedSet, Collection<AbstractState>> readReachedSet(ObjectInputStream in,
+      ReachedSetFactory reachedSetFactory) throws IOException, ClassNotFoundException {
+    @SuppressWarnings("unchecked")
+    List<AbstractState> states = (List<AbstractState>)in.readObject();
+    @SuppressWarnings("unchecked")
+    List<Precision> precisions = (List<Precision>)in.readObject();
+    @SuppressWarnings("unchecked")
+    List<AbstractState> returnStates = (List<AbstractState>)in.readObject();
+
+    ReachedSet reached = reachedSetFactory.create();
+    for (int i = 0; i < states.size(); i++) {
+      reached.add(states.get(i), precisions.get(i));
+    }
+    // the reached-set was finished when it was written
+    while (reached.hasWaitingState()) {
+      reached.popFromWaitlist();
+    }
+    return Pair.<ReachedSet, Collection<AbstractState>>of(reached, returnStates);
+  }
+
+  void clear() {
+    for (File file : spilledEntries.values()) {
+      file.delete();
+    }
+    spilledEntries.clear();
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.ReferencedVariable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.defaults.NoOpReducer;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class BAMCacheTest {
+
+  @Rule
+  public TemporaryFolder spillDir = new TemporaryFolder();
+
+  private static final Block BLOCK = new Block(ImmutableSet.<ReferencedVariable>of(),
+      ImmutableSet.<CFANode>of(), ImmutableSet.<CFANode>of(), ImmutableSet.<CFANode>of());
+
+  /** simple serializable state, such that reached-sets can be spilled to disk */
+  private static class TestState implements AbstractState, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+
+    private TestState(String pName) {
+      name = pName;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  private static enum TestPrecision implements Precision {
+    INSTANCE
+  }
+
+  private ReachedSetFactory reachedSetFactory;
+  private final LogManager logger = TestLogManager.getInstance();
+
+  private BAMCache createCache(String... pOptions) throws Exception {
+    ConfigurationBuilder builder = TestDataTools.configurationForTest()
+        .setOption("cpa.bam.cache.spillDirectory", spillDir.getRoot().getAbsolutePath());
+    for (int i = 0; i < pOptions.length; i += 2) {
+      builder.setOption(pOptions[i], pOptions[i+1]);
+    }
+    Configuration config = builder.build();
+    BAMTransferRelation.PCCInformation.instantiate(config);
+    reachedSetFactory = new ReachedSetFactory(config, logger);
+    return new BAMCache(config, NoOpReducer.getInstance(), reachedSetFactory, logger);
+  }
+
+  /** Add a finished entry for the given key whose reached-set has the given number of states. */
+  private ReachedSet addEntry(BAMCache cache, AbstractState key, int size) {
+    ReachedSet reached = reachedSetFactory.create();
+    ARGState root = new ARGState(new TestState(key + "_0"), null);
+    reached.add(root, TestPrecision.INSTANCE);
+    ARGState last = root;
+    for (int i = 1; i < size; i++) {
+      last = new ARGState(new TestState(key + "_" + i), root);
+      reached.add(last, TestPrecision.INSTANCE);
+    }
+    while (reached.hasWaitingState()) {
+      reached.popFromWaitlist();
+    }
+
+    cache.put(key, TestPrecision.INSTANCE, BLOCK, reached);
+    ARGState rootOfBlock = BAMTransferRelation.PCCInformation.isPCCEnabled()
+        ? BAMARGUtils.copyARG(root) : null;
+    cache.put(key, TestPrecision.INSTANCE, BLOCK, ImmutableList.<AbstractState>of(last), rootOfBlock);
+    return reached;
+  }
+
+  private static boolean contains(BAMCache cache, AbstractState key) {
+    return cache.containsPreciseKey(key, TestPrecision.INSTANCE, BLOCK);
+  }
+
+  private static void access(BAMCache cache, AbstractState key) {
+    assertThat(cache.get(key, TestPrecision.INSTANCE, BLOCK).getSecond()).isNotNull();
+  }
+
+  @Test
+  public void testLRUEviction() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LRU",
+        "cpa.bam.cache.maxEntries", "2");
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+    AbstractState c = new TestState("c");
+
+    addEntry(cache, a, 1);
+    addEntry(cache, b, 1);
+    access(cache, a);
+    addEntry(cache, c, 1);
+
+    assertThat(contains(cache, a)).isTrue();
+    assertThat(contains(cache, b)).isFalse();
+    assertThat(contains(cache, c)).isTrue();
+    assertThat(cache.evictedEntries).isEqualTo(1);
+  }
+
+  @Test
+  public void testLFUEviction() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LFU",
+        "cpa.bam.cache.maxEntries", "2");
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+    AbstractState c = new TestState("c");
+
+    addEntry(cache, a, 1);
+    access(cache, a); // a is used least recently, but most often
+    addEntry(cache, b, 1);
+    addEntry(cache, c, 1);
+
+    assertThat(contains(cache, a)).isTrue();
+    assertThat(contains(cache, b)).isFalse();
+    assertThat(contains(cache, c)).isTrue();
+  }
+
+  @Test
+  public void testSizeEvictionWithStateLimit() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "SIZE",
+        "cpa.bam.cache.maxStates", "8");
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+    AbstractState c = new TestState("c");
+
+    addEntry(cache, a, 3);
+    addEntry(cache, b, 5);
+    assertThat(cache.evictedEntries).isEqualTo(0);
+    addEntry(cache, c, 2);
+
+    assertThat(contains(cache, a)).isTrue();
+    assertThat(contains(cache, b)).isFalse();
+    assertThat(contains(cache, c)).isTrue();
+    assertThat(cache.maxCachedStates).isEqualTo(10);
+  }
+
+  @Test
+  public void testUnfinishedEntriesAreNotEvicted() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LRU",
+        "cpa.bam.cache.maxEntries", "1");
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+
+    ReachedSet unfinished = reachedSetFactory.create();
+    unfinished.add(new ARGState(new TestState("a_0"), null), TestPrecision.INSTANCE);
+    cache.put(a, TestPrecision.INSTANCE, BLOCK, unfinished);
+    addEntry(cache, b, 1);
+
+    assertThat(contains(cache, a)).isTrue();
+    assertThat(contains(cache, b)).isFalse();
+  }
+
+  @Test
+  public void testReloadRestoresBlockARG() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LRU",
+        "cpa.bam.cache.maxEntries", "1",
+        "cpa.bam.cache.spill", "true",
+        "pcc.proofgen.doPCC", "true");
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+
+    addEntry(cache, a, 3);
+    addEntry(cache, b, 2);
+    assertThat(contains(cache, a)).isFalse();
+    assertThat(cache.spilledEntries).isEqualTo(1);
+
+    Pair<ReachedSet, Collection<AbstractState>> reloaded = cache.get(a, TestPrecision.INSTANCE, BLOCK);
+    assertThat(cache.reloadedEntries).isEqualTo(1);
+    assertThat(reloaded.getFirst().size()).isEqualTo(3);
+    assertThat(reloaded.getSecond()).hasSize(1);
+
+    // the ARG of the block is needed for PCC and has to be restored
+    ARGState blockARG = cache.getLastAnalyzedBlock();
+    assertThat(blockARG).isNotNull();
+    assertThat(blockARG.getChildren()).hasSize(2);
+  }
+
+  @Test
+  public void testReloadReplacesReferenceOfDataManager() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LRU",
+        "cpa.bam.cache.maxEntries", "1",
+        "cpa.bam.cache.spill", "true");
+    BAMDataManager data = new BAMDataManager(cache, reachedSetFactory, logger);
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+    AbstractState initialState = new TestState("initial");
+
+    ReachedSet evicted = addEntry(cache, a, 3);
+    data.registerInitialState(initialState, evicted);
+    addEntry(cache, b, 1);
+    assertThat(contains(cache, a)).isFalse();
+    assertThat(data.hasReachedSetForInitialState(initialState)).isTrue();
+
+    // the data manager reloads the evicted reached-set instead of keeping the old copy
+    ReachedSet reloaded = data.getReachedSetForInitialState(initialState);
+    assertThat(reloaded).isNotSameAs(evicted);
+    assertThat(reloaded.size()).isEqualTo(3);
+    assertThat(cache.reloadedEntries).isEqualTo(1);
+    assertThat(cache.get(a, TestPrecision.INSTANCE, BLOCK).getFirst()).isSameAs(reloaded);
+    assertThat(data.getReachedSetForInitialState(initialState)).isSameAs(reloaded);
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testEvictedEntryWithoutSpillingIsNotReferenced() throws Exception {
+    BAMCache cache = createCache(
+        "cpa.bam.cache.evictionPolicy", "LRU",
+        "cpa.bam.cache.maxEntries", "1");
+    BAMDataManager data = new BAMDataManager(cache, reachedSetFactory, logger);
+    AbstractState a = new TestState("a");
+    AbstractState b = new TestState("b");
+    AbstractState initialState = new TestState("initial");
+
+    data.registerInitialState(initialState, addEntry(cache, a, 3));
+    addEntry(cache, b, 1);
+
+    // the reached-set was dropped completely, so it cannot be returned
+    data.getReachedSetForInitialState(initialState);
+  }
+}
@@ -26,6 +26,8 @@ package org.sosy_lab.cpachecker.cpa.bam;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -33,6 +35,9 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
 /** This class contains all additional data-structures needed to run BAM.
  * If possible, we should clear some data sometimes to avoid memory-leaks. */
 public class BAMDataManager {
@@ -47,7 +52,15 @@ public class BAMDataManager {
 
   /** abstractStateToReachedSet contains the mapping of non-reduced initial states
    *  to the reached-sets, where the root-state is the corresponding reduced state. */
-  final Map<AbstractState, ReachedSet> initialStateToReachedSet = new HashMap<>();
+  private final Map<AbstractState, ReachedSet> initialStateToReachedSet = new HashMap<>();
+
+  /** the reverse mapping of initialStateToReachedSet, needed for removing evicted reached-sets */
+  private final Multimap<ReachedSet, AbstractState> reachedSetToInitialStates = HashMultimap.create();
+
+  /** the non-reduced initial states whose reached-sets were evicted from the cache,
+   * mapped to the key of the evicted cache entry, and the reverse mapping */
+  private final Map<AbstractState, Object> initialStateToEvictedEntry = new HashMap<>();
+  private final Multimap<Object, AbstractState> evictedEntryToInitialStates = HashMultimap.create();
 
   /** expandedToReducedCache contains the mapping of an expanded state at a block-end towards
    * the corresponding reduced state, from which it was expanded. */
@@ -65,6 +78,65 @@ public class BAMDataManager {
     bamCache = pArgCache;
     reachedSetFactory = pReachedSetFactory;
     logger = pLogger;
+
+    bamCache.setEntryListener(new BAMCache.EntryListener() {
+
+      @Override
+      public void evicted(Object pKey, ReachedSet pReached) {
+        for (AbstractState initialState : reachedSetToInitialStates.removeAll(pReached)) {
+          initialStateToReachedSet.remove(initialState);
+          initialStateToEvictedEntry.put(initialState, pKey);
+          evictedEntryToInitialStates.put(pKey, initialState);
+        }
+      }
+
+      @Override
+      public void reloaded(Object pKey, ReachedSet pReached) {
+        // replace the stale references, such that only one copy of the reached-set exists
+        for (AbstractState initialState : evictedEntryToInitialStates.removeAll(pKey)) {
+          initialStateToEvictedEntry.remove(initialState);
+          registerInitialState(initialState, pReached);
+        }
+      }
+    });
+  }
+
+  /** Register the reached-set of a block for the non-reduced initial state of the block. */
+  void registerInitialState(AbstractState initialState, ReachedSet reached) {
+    ReachedSet oldReached = initialStateToReachedSet.put(initialState, reached);
+    if (oldReached != null) {
+      reachedSetToInitialStates.remove(oldReached, initialState);
+    }
+    reachedSetToInitialStates.put(reached, initialState);
+  }
+
+  /** Check whether there is a reached-set for the given non-reduced initial state,
+   * which may have been evicted from the cache. */
+  boolean hasReachedSetForInitialState(AbstractState initialState) {
+    return initialStateToReachedSet.containsKey(initialState)
+        || initialStateToEvictedEntry.containsKey(initialState);
+  }
+
+  /** Get the reached-set for the given non-reduced initial state,
+   * which is reloaded if it was evicted from the cache.
+   * @return the reached-set, or null if there is none
+   * @throws IllegalStateException if the reached-set was evicted and cannot be reloaded
+   */
+  @Nullable ReachedSet getReachedSetForInitialState(AbstractState initialState) {
+    ReachedSet reached = initialStateToReachedSet.get(initialState);
+    if (reached == null) {
+      Object evictedEntry = initialStateToEvictedEntry.get(initialState);
+      if (evictedEntry != null) {
+        reached = bamCache.getEvictedEntry(evictedEntry);
+        if (reached == null) {
+          throw new IllegalStateException("The reached-set of the block was evicted from the BAM cache "
+              + "and cannot be reloaded, enable cpa.bam.cache.spill for refinement with cache eviction.");
+        }
+        // the listener has replaced the reference
+        assert initialStateToReachedSet.get(initialState) == reached;
+      }
+    }
+    return reached;
   }
 
   void replaceStateInCaches(AbstractState oldState, AbstractState newState, boolean oldStateMustExist) {
@@ -88,6 +160,9 @@ public class BAMDataManager {
   void clearCaches() {
     bamCache.clear();
     initialStateToReachedSet.clear();
+    reachedSetToInitialStates.clear();
+    initialStateToEvictedEntry.clear();
+    evictedEntryToInitialStates.clear();
   }
 
   ReachedSet createInitialReachedSet(AbstractState initialState, Precision initialPredicatePrecision) {
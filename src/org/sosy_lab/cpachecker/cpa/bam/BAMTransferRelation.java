@@ -387,7 +387,12 @@ public class BAMTransferRelation implements TransferRelation {
         logger.log(Level.FINEST, "Partial cache hit: starting recursive CPAAlgorithm with partial reached-set with root", reached.getFirstState());
       }
 
-      reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached);
+      data.bamCache.startAnalysis(reached);
+      try {
+        reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached);
+      } finally {
+        data.bamCache.finishAnalysis(reached);
+      }
 
       assert reducedResult != null;
 
@@ -395,7 +400,7 @@ public class BAMTransferRelation implements TransferRelation {
     }
 
     assert reached != null;
-    data.initialStateToReachedSet.put(initialState, reached);
+    data.registerInitialState(initialState, reached);
 
     ARGState rootOfBlock = null;
     if (PCCInformation.isPCCEnabled()) {
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
@@ -67,6 +68,15 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
 
     List<Precision> compositePrecisions = compositePrecision.getPrecisions();
 
+    // first check the cheap necessary conditions of all components
+    for (int idx = 0; idx < compositeElements.size(); idx++) {
+      StopOperator stopOp = stopOperators.get(idx);
+      if (stopOp instanceof StopSepOperator
+          && !((StopSepOperator)stopOp).mayStop(compositeElements.get(idx), compositeReachedStates.get(idx))) {
+        return false;
+      }
+    }
+
     for (int idx = 0; idx < compositeElements.size(); idx++) {
       StopOperator stopOp = stopOperators.get(idx);
 
@@ -47,12 +47,13 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeCPA;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
-public class FunctionPointerCPA implements ConfigurableProgramAnalysisWithBAM, ProofChecker{
+public class FunctionPointerCPA implements ConfigurableProgramAnalysisWithBAM, ProofChecker, ThreadSafeCPA {
 
   private AbstractDomain abstractDomain;
   private MergeOperator mergeOperator;
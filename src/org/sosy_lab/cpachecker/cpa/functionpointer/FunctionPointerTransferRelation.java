@@ -122,6 +122,17 @@ class FunctionPointerTransferRelation extends SingleEdgeTransferRelation {
     }
   }
 
+  /**
+   * Log a message only once. This is synchronized because
+   * LogManagerWithoutDuplicates keeps the seen messages in an unsynchronized set,
+   * and this transfer relation may be used by several threads.
+   */
+  private void logfOnce(Level level, String format, Object... args) {
+    synchronized (logger) {
+      logger.logfOnce(level, format, args);
+    }
+  }
+
   @Override
   public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
       AbstractState pElement, Precision pPrecision, CFAEdge pCfaEdge)
@@ -142,12 +153,12 @@ class FunctionPointerTransferRelation extends SingleEdgeTransferRelation {
       FunctionPointerTarget target = oldState.getTarget(functionCallVariable);
       if (target instanceof NamedFunctionTarget) {
         String functionName = ((NamedFunctionTarget)target).getFunctionName();
-        logger.logfOnce(Level.WARNING, "%s: Function pointer %s points to %s,"
+        logfOnce(Level.WARNING, "%s: Function pointer %s points to %s,"
             + " but no corresponding call edge was created during preprocessing."
             + " Ignoring function pointer call: %s",
             pCfaEdge.getFileLocation(), functionCallVariable, functionName, pCfaEdge.getDescription());
       } else {
-        logger.logfOnce(Level.WARNING, "%s: Ignoring call via function pointer %s"
+        logfOnce(Level.WARNING, "%s: Ignoring call via function pointer %s"
             + " for which no suitable target was found in line: %s",
             pCfaEdge.getFileLocation(), functionCallVariable, pCfaEdge.getDescription());
       }
@@ -198,13 +209,13 @@ class FunctionPointerTransferRelation extends SingleEdgeTransferRelation {
 
             if (ignoreInvalidFunctionPointerCalls) {
               if (v1 instanceof InvalidTarget && v2 instanceof NamedFunctionTarget) {
-                logger.logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
+                logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
                     + " with invalid target does not point to %s.",
                     cfaEdge.getFileLocation(), e.getOperand1(), v2);
                 return false;
               }
               if (v2 instanceof InvalidTarget && v1 instanceof NamedFunctionTarget) {
-                logger.logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
+                logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
                     + " with invalid target does not point to %s.",
                     cfaEdge.getFileLocation(), e.getOperand2(), v1);
                 return false;
@@ -212,13 +223,13 @@ class FunctionPointerTransferRelation extends SingleEdgeTransferRelation {
             }
             if (ignoreUnknownFunctionPointerCalls) {
               if (v1 instanceof UnknownTarget && v2 instanceof NamedFunctionTarget) {
-                logger.logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
+                logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
                     + " with unknown target does not point to %s.",
                     cfaEdge.getFileLocation(), e.getOperand1(), v2);
                 return false;
               }
               if (v2 instanceof UnknownTarget && v1 instanceof NamedFunctionTarget) {
-                logger.logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
+                logfOnce(Level.WARNING, "%s: Assuming function pointer %s"
                     + " with unknown target does not point to %s.",
                     cfaEdge.getFileLocation(), e.getOperand2(), v1);
                 return false;
@@ -33,8 +33,10 @@ import java.util.Map.Entry;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.core.defaults.CoverageSignature;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.exceptions.InvalidQueryException;
@@ -49,7 +51,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.NumeralFormulaMan
 import com.google.common.base.Splitter;
 
 public class IntervalAnalysisState implements Serializable, LatticeAbstractState<IntervalAnalysisState>,
-    AbstractQueryableState, Graphable, FormulaReportingState {
+    AbstractQueryableState, Graphable, FormulaReportingState, AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -2030700797958100666L;
 
@@ -65,6 +67,11 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
    */
   private PersistentMap<String, Integer> referenceCounts;
 
+  /**
+   * the signature of the last intervals for which it was requested
+   */
+  private transient CoverageSignature coverageSignature = null;
+
   /**
    *  This method acts as the default constructor, which initializes the intervals and reference counts to empty maps and the previous element to null.
    */
@@ -260,6 +267,39 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
     return true;
   }
 
+  /**
+   * The signature contains one bit for each variable,
+   * and one bit for each finite lower and upper bound of a variable.
+   * This element can only be less or equal than another state, if it contains all variables
+   * of the other state and if its intervals are bounded wherever the other intervals are bounded.
+   */
+  @Override
+  public long getCoverageSignature() {
+    CoverageSignature signature = coverageSignature;
+    if (signature == null || !signature.isFor(intervals)) {
+      PersistentMap<String, Interval> map = intervals;
+      long bits = 0;
+      for (Entry<String, Interval> entry : map.entrySet()) {
+        int hash = entry.getKey().hashCode();
+        bits |= CoverageSignature.bitFor(hash);
+
+        // empty intervals are not contained in any other interval, so they need no bounds
+        Interval interval = entry.getValue();
+        if (!interval.isEmpty()) {
+          if (interval.getLow() != Long.MIN_VALUE) {
+            bits |= CoverageSignature.bitFor(31 * hash + 1);
+          }
+          if (interval.getHigh() != Long.MAX_VALUE) {
+            bits |= CoverageSignature.bitFor(31 * hash + 2);
+          }
+        }
+      }
+      signature = CoverageSignature.of(map, bits);
+      coverageSignature = signature;
+    }
+    return signature.getBits();
+  }
+
   public static IntervalAnalysisState copyOf(IntervalAnalysisState old) {
     return new IntervalAnalysisState(old.intervals, old.referenceCounts);
   }
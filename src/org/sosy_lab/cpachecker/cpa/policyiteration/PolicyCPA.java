@@ -108,7 +108,7 @@ public class PolicyCPA extends SingleEdgeTransferRelation
 
     if (useCachingPathFormulaManager) {
       pathFormulaManager = new CachingPathFormulaManager(
-          pathFormulaManager
+          pathFormulaManager, pConfig
       );
     }
 
@@ -36,11 +36,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -49,6 +52,7 @@ import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -87,12 +91,18 @@ import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 @Options(prefix = "cpa.predicate")
 public class PredicateAbstractionManager {
@@ -105,6 +115,7 @@ public class PredicateAbstractionManager {
     public int numSymbolicAbstractions = 0; // precision completely empty, no computation
     public int numSatCheckAbstractions = 0; // precision was {false}, only sat check
     public int numCallsAbstractionCached = 0; // result was cached, no computation
+    public int numCallsAbstractionSharedCached = 0; // result was in shared cache (included in numCallsAbstractionCached)
 
     public int numTotalPredicates = 0;
     public int maxPredicates = 0;
@@ -113,6 +124,9 @@ public class PredicateAbstractionManager {
     public int numCartesianAbsPredicates = 0;
     public int numCartesianAbsPredicatesCached = 0;
     public int numBooleanAbsPredicates = 0;
+    // updated by several threads, because each thread has its own incremental prover
+    public final AtomicInteger numIncrementalProverReuses = new AtomicInteger(); // predecessor abstraction was still on the prover stack
+    public final AtomicLong incrementalBytesSaved = new AtomicLong(); // size of formulas that did not need to be asserted again
     public final Timer abstractionReuseTime = new Timer();
     public final StatTimer abstractionReuseImplicationTime = new StatTimer("Time for checking reusability of abstractions");
     public final Timer trivialPredicatesTime = new Timer();
@@ -169,6 +183,19 @@ public class PredicateAbstractionManager {
   @Option(secure=true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @Option(secure=true, name = "abs.maxCacheSize",
+      description = "maximum number of entries in each of the abstraction caches "
+          + "(least-recently used entries are evicted first, 0 for no limit)")
+  @IntegerOption(min=0)
+  private int maxCacheSize = 0;
+
+  @Option(secure=true, name = "abs.shareCache",
+      description = "additionally use an abstraction cache that is shared "
+          + "with all other analyses in the same JVM that enable this option "
+          + "(e.g., the analyses of a restart algorithm), "
+          + "cf. cpa.predicate.abs.sharedCache.maxEntries")
+  private boolean shareCache = false;
+
   @Option(secure=true, name="refinement.splitItpAtoms",
       description="split each arithmetic equality into two inequalities when extracting predicates from interpolants")
   private boolean splitItpAtoms = false;
@@ -185,6 +212,13 @@ public class PredicateAbstractionManager {
       description="Eliminate propositions about dead variables in abstraction predicates by running a generalization procedure.")
   private boolean elimDeadVariablePredsByGeneralization = false;
 
+  @Option(secure=true, name = "abstraction.incremental",
+      description="Keep a long-lived prover environment per thread for abstraction computations. "
+          + "The instantiated predecessor abstraction stays on the prover stack "
+          + "and is reused by subsequent abstractions with the same predecessor, "
+          + "such that only the block formula needs to be asserted again.")
+  private boolean incrementalAbstraction = false;
+
   private boolean warnedOfCartesianAbstraction = false;
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
@@ -199,12 +233,30 @@ public class PredicateAbstractionManager {
   // 1: predicate is true
   private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
+  private final @Nullable SharedAbstractionCache sharedCache;
+  private final int sharedCacheOwner;
+
+  // dumps of predicates for computing keys of the shared cache
+  private final Map<AbstractionPredicate, String> predicateDumps = new HashMap<>();
+
   private final BooleanFormulaManagerView bfmgr;
 
   private final PredicateAbstractionsStorage abstractionStorage;
 
   private Optional<LiveVariables> liveVars;
 
+  /** all incremental provers of all threads, such that they can be closed in {@link #close()} */
+  private final Queue<IncrementalProver> allIncrementalProvers = new ConcurrentLinkedQueue<>();
+
+  private final ThreadLocal<IncrementalProver> incrementalProvers = new ThreadLocal<IncrementalProver>() {
+    @Override
+    protected IncrementalProver initialValue() {
+      IncrementalProver prover = new IncrementalProver();
+      allIncrementalProvers.add(prover);
+      return prover;
+    }
+  };
+
   public PredicateAbstractionManager(
       AbstractionManager pAmgr,
       FormulaManagerView pFmgr,
@@ -235,19 +287,27 @@ public class PredicateAbstractionManager {
     }
 
     if (useCache) {
-      abstractionCache = new HashMap<>();
-      unsatisfiabilityCache = new HashSet<>();
+      abstractionCache = newCache();
+      unsatisfiabilityCache = Collections.newSetFromMap(this.<BooleanFormula, Boolean>newCache());
     } else {
       abstractionCache = null;
       unsatisfiabilityCache = null;
     }
 
     if (useCache && (abstractionType != AbstractionType.BOOLEAN)) {
-      cartesianAbstractionCache = new HashMap<>();
+      cartesianAbstractionCache = newCache();
     } else {
       cartesianAbstractionCache = null;
     }
 
+    if (useCache && shareCache) {
+      sharedCache = SharedAbstractionCache.getInstance(config);
+      sharedCacheOwner = sharedCache.registerOwner();
+    } else {
+      sharedCache = null;
+      sharedCacheOwner = -1;
+    }
+
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
     SSAMap extractionSsa = SSAMap.emptySSAMap().withDefault(1);
     for (AbstractionNode an : abstractionStorage.getAbstractions().values()) {
@@ -256,6 +316,81 @@ public class PredicateAbstractionManager {
     }
   }
 
+  /**
+   * Compute the key for the shared abstraction cache,
+   * which needs to be independent of the formula manager that is used.
+   */
+  private HashCode computeSharedCacheKey(BooleanFormula f,
+      Collection<AbstractionPredicate> predicates) {
+    List<String> dumps = new ArrayList<>(predicates.size());
+    for (AbstractionPredicate predicate : predicates) {
+      String dump = predicateDumps.get(predicate);
+      if (dump == null) {
+        dump = fmgr.dumpFormula(predicate.getSymbolicAtom()).toString();
+        predicateDumps.put(predicate, dump);
+      }
+      dumps.add(dump);
+    }
+    Collections.sort(dumps);
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putUnencodedChars(abstractionType.name());
+    String formulaDump = fmgr.dumpFormula(f).toString();
+    hasher.putInt(formulaDump.length()).putUnencodedChars(formulaDump);
+    for (String dump : dumps) {
+      hasher.putInt(dump.length()).putUnencodedChars(dump);
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Look up an abstraction in the shared cache and convert it
+   * to the formula and region managers of this instance.
+   * @return the abstraction, or null if there is no usable entry
+   */
+  private @Nullable AbstractionFormula getFromSharedCache(HashCode sharedKey,
+      BooleanFormula f, PathFormula pathFormula) {
+    SharedAbstractionCache.Entry entry = sharedCache.get(sharedKey, sharedCacheOwner);
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.isUnsatisfiable()) {
+      unsatisfiabilityCache.add(f);
+      return new AbstractionFormula(fmgr, rmgr.makeFalse(),
+          bfmgr.makeBoolean(false), bfmgr.makeBoolean(false),
+          pathFormula, noAbstractionReuse);
+    }
+
+    BooleanFormula stateFormula;
+    try {
+      stateFormula = fmgr.parse(entry.getAbstractionDump());
+    } catch (IllegalArgumentException e) {
+      logger.logDebugException(e, "Could not parse abstraction from shared cache");
+      return null;
+    }
+    Region region = amgr.buildRegionFromFormulaWithUnknownAtoms(stateFormula);
+    BooleanFormula instantiatedFormula = fmgr.instantiate(stateFormula, pathFormula.getSsa());
+    return new AbstractionFormula(fmgr, region, stateFormula,
+        instantiatedFormula, pathFormula, noAbstractionReuse);
+  }
+
+  /**
+   * Create a concurrent map for caching that respects the configured size limit.
+   */
+  private <K, V> Map<K, V> newCache() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+    if (maxCacheSize > 0) {
+      builder.maximumSize(maxCacheSize);
+    }
+    Cache<K, V> cache = builder.build();
+    return cache.asMap();
+  }
+
+  @Nullable SharedAbstractionCache getSharedCache() {
+    return sharedCache;
+  }
+
   /**
    * Compute an abstraction of the conjunction of an AbstractionFormula and
    * a PathFormula. The AbstractionFormula will be used in its instantiated form,
@@ -304,6 +439,7 @@ public class PredicateAbstractionManager {
 
     // caching
     Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>> absKey = null;
+    HashCode sharedKey = null;
     if (useCache) {
       absKey = Pair.of(f, predicates);
       AbstractionFormula result = abstractionCache.get(absKey);
@@ -333,6 +469,19 @@ public class PredicateAbstractionManager {
             bfmgr.makeBoolean(false), bfmgr.makeBoolean(false),
             pathFormula, noAbstractionReuse);
       }
+
+      if (sharedCache != null) {
+        sharedKey = computeSharedCacheKey(f, predicates);
+        AbstractionFormula result = getFromSharedCache(sharedKey, f, pathFormula);
+        if (result != null) {
+          abstractionCache.put(absKey, result);
+          logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was in shared cache");
+          logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+          stats.numCallsAbstractionCached++;
+          stats.numCallsAbstractionSharedCached++;
+          return result;
+        }
+      }
     }
 
 
@@ -357,8 +506,16 @@ public class PredicateAbstractionManager {
       stats.trivialPredicatesTime.stop();
     }
 
-    try (ProverEnvironment thmProver = solver.newProverEnvironment()) {
+    final IncrementalProver incProver = incrementalAbstraction ? incrementalProvers.get() : null;
+    final ProverEnvironment thmProver;
+    if (incProver != null) {
+      thmProver = incProver.enter(absFormula, symbFormula);
+    } else {
+      thmProver = solver.newProverEnvironment();
       thmProver.push(f);
+    }
+    boolean proverClean = false;
+    try {
 
       if (predicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
         stats.numSatCheckAbstractions++;
@@ -418,6 +575,17 @@ public class PredicateAbstractionManager {
           // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
         }
       }
+      proverClean = true;
+
+    } finally {
+      if (incProver == null) {
+        thmProver.close();
+      } else if (proverClean) {
+        incProver.leave();
+      } else {
+        // the state of the prover stack is unknown after an exception
+        incProver.reset();
+      }
     }
 
     AbstractionFormula result = makeAbstractionFormula(abs, ssa, pathFormula);
@@ -428,6 +596,20 @@ public class PredicateAbstractionManager {
       if (result.isFalse()) {
         unsatisfiabilityCache.add(f);
       }
+
+      if (sharedCache != null) {
+        if (result.isFalse()) {
+          sharedCache.putUnsatisfiable(sharedKey, sharedCacheOwner);
+        } else {
+          final BooleanFormula abstractionFormula = result.asFormula();
+          sharedCache.putAbstraction(sharedKey, new Supplier<String>() {
+                @Override
+                public String get() {
+                  return fmgr.dumpFormula(abstractionFormula).toString();
+                }
+              }, sharedCacheOwner);
+        }
+      }
     }
 
     long abstractionTime = TimeSpan.sum(stats.abstractionSolveTime.getLengthOfLastInterval(),
@@ -941,7 +1123,10 @@ public class PredicateAbstractionManager {
     Region result = thmProver.allSat(callback, predVars);
 
     // pop() is actually costly sometimes, and we delete the environment anyway
-    // thmProver.pop();
+    // (except in incremental mode, where the prover is reused)
+    if (incrementalAbstraction) {
+      thmProver.pop();
+    }
 
     // update statistics
     int numModels = callback.getCount();
@@ -953,6 +1138,70 @@ public class PredicateAbstractionManager {
     return result;
   }
 
+  /**
+   * Close all prover environments that are kept for incremental abstraction computations
+   * (cf. option cpa.predicate.abstraction.incremental).
+   * This must only be called after all abstraction computations have finished.
+   */
+  public void close() {
+    IncrementalProver prover;
+    while ((prover = allIncrementalProvers.poll()) != null) {
+      prover.reset();
+    }
+  }
+
+  /**
+   * A long-lived prover environment for abstraction computations of one thread.
+   * The stack has two levels while an abstraction is computed:
+   * the instantiated predecessor abstraction at the bottom,
+   * and the block formula on top of it.
+   * Only the block formula is popped after an abstraction computation,
+   * such that the next abstraction with the same predecessor can reuse
+   * the context that the solver has built for the predecessor abstraction.
+   */
+  private class IncrementalProver {
+
+    private @Nullable ProverEnvironment prover = null;
+    private @Nullable BooleanFormula base = null;
+    private int baseSize = -1; // computed lazily when base is reused
+
+    ProverEnvironment enter(BooleanFormula absFormula, BooleanFormula blockFormula) {
+      if (prover != null && absFormula.equals(base)) {
+        stats.numIncrementalProverReuses.incrementAndGet();
+        if (baseSize < 0) {
+          baseSize = fmgr.dumpFormula(base).toString().length();
+        }
+        stats.incrementalBytesSaved.addAndGet(baseSize);
+
+      } else {
+        if (prover == null) {
+          prover = solver.newProverEnvironment();
+        } else {
+          prover.pop(); // old predecessor abstraction
+        }
+        prover.push(absFormula);
+        base = absFormula;
+        baseSize = -1;
+      }
+
+      prover.push(blockFormula);
+      return prover;
+    }
+
+    void leave() {
+      prover.pop(); // block formula
+    }
+
+    void reset() {
+      if (prover != null) {
+        prover.close();
+      }
+      prover = null;
+      base = null;
+      baseSize = -1;
+    }
+  }
+
   private class AllSatCallbackImpl
       extends DefaultBooleanFormulaVisitor<BooleanFormula>
       implements AllSatCallback<Region> {
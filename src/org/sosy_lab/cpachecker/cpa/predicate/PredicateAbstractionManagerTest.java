@@ -0,0 +1,131 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for the incremental abstraction computation of {@link PredicateAbstractionManager}
+ * (option cpa.predicate.abstraction.incremental).
+ */
+public class PredicateAbstractionManagerTest {
+
+  private static Map<String, String> predicateAnalysis(boolean incremental) {
+    return ImmutableMap.<String, String>builder()
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.predicate.PredicateCPA")
+        .put("specification", "config/specification/default.spc")
+        .put("analysis.algorithm.CEGAR", "true")
+        .put("cegar.refiner", "cpa.predicate.PredicateRefiner")
+        .put("cpa.predicate.blk.alwaysAtFunctions", "false")
+        .put("cpa.predicate.blk.alwaysAtLoops", "true")
+        .put("cpa.predicate.abstraction.incremental", Boolean.toString(incremental))
+        .build();
+  }
+
+  private static void checkSameVerdict(String program, Result expected) throws Exception {
+    Result normal = CPATestRunner.run(predicateAnalysis(false), program).getCheckerResult().getResult();
+    Result incremental = CPATestRunner.run(predicateAnalysis(true), program).getCheckerResult().getResult();
+    assertThat(normal).isEqualTo(expected);
+    assertThat(incremental).isEqualTo(normal);
+  }
+
+  @Test
+  public void testIncrementalSameVerdictSafe() throws Exception {
+    checkSameVerdict("test/programs/simple/incrementalAbstraction_true-unreach-label.c", Result.TRUE);
+  }
+
+  @Test
+  public void testIncrementalSameVerdictUnsafe() throws Exception {
+    checkSameVerdict("test/programs/simple/SSAMap-bug_false-unreach-label.c", Result.FALSE);
+  }
+
+  private static PredicateCPA createIncrementalCPA() throws Exception {
+    Configuration config = TestDataTools.configurationForTest()
+        .setOption("cpa.predicate.abstraction.incremental", "true")
+        .setOption("cpa.predicate.abs.useCache", "false")
+        .build();
+    LogManager logger = TestLogManager.getInstance();
+
+    CPAFactory factory = PredicateCPA.factory();
+    factory.setConfiguration(config);
+    factory.setLogger(logger);
+    factory.setShutdownNotifier(ShutdownNotifier.create());
+    factory.set(TestDataTools.makeCFA("void main() { }", config), CFA.class);
+    factory.set(new ReachedSetFactory(config, logger), ReachedSetFactory.class);
+    return (PredicateCPA)factory.createInstance();
+  }
+
+  @Test
+  public void testIncrementalProverIsReusedAndClosed() throws Exception {
+    PredicateCPA cpa = createIncrementalCPA();
+    try {
+      PredicateAbstractionManager amgr = cpa.getPredicateManager();
+      BooleanFormulaManagerView bfmgr = cpa.getSolver().getFormulaManager().getBooleanFormulaManager();
+      PathFormula empty = cpa.getPathFormulaManager().makeEmptyPathFormula();
+      Collection<AbstractionPredicate> predicates = ImmutableList.of(
+          cpa.getAbstractionManager().makePredicate(bfmgr.makeVariable("q")));
+
+      // all abstractions have the same (true) predecessor abstraction,
+      // so the prover stack can be reused after the first one
+      for (int i = 1; i <= 3; i++) {
+        amgr.buildAbstraction(TestDataTools.DUMMY_CFA_NODE, bfmgr.makeVariable("p", i), empty, predicates);
+      }
+      assertThat(amgr.stats.numIncrementalProverReuses.get()).isEqualTo(2);
+
+      // after closing, a new prover needs to be created
+      amgr.close();
+      amgr.buildAbstraction(TestDataTools.DUMMY_CFA_NODE, bfmgr.makeVariable("p", 4), empty, predicates);
+      assertThat(amgr.stats.numIncrementalProverReuses.get()).isEqualTo(2);
+
+      amgr.buildAbstraction(TestDataTools.DUMMY_CFA_NODE, bfmgr.makeVariable("p", 5), empty, predicates);
+      assertThat(amgr.stats.numIncrementalProverReuses.get()).isEqualTo(3);
+
+    } finally {
+      cpa.close();
+    }
+  }
+}
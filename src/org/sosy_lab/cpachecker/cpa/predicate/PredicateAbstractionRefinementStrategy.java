@@ -56,6 +56,7 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -80,6 +81,7 @@ import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.solver.api.BooleanFormula;
@@ -190,7 +192,7 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy {
   private StatInt simplifyVariablesBefore = new StatInt(StatKind.SUM, "Variables Before");
   private StatInt simplifyVariablesAfter = new StatInt(StatKind.SUM, "Variables After");
 
-  private class Stats implements Statistics {
+  private class Stats implements MetricStatistics {
     @Override
     public String getName() {
       return "Predicate-Abstraction Refiner";
@@ -223,6 +225,17 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy {
         .ifUpdatedAtLeastOnce(itpSimplification)
           .put(irrelevantPredsInItp);
     }
+
+    @Override
+    public void registerMetrics(StatisticsRegistry pRegistry) {
+      pRegistry.register(predicateCreation)
+          .register(itpSimplification)
+          .register(precisionUpdate)
+          .register(argUpdate)
+          .register(numberOfRefinementsWithStrategy2)
+          .register(irrelevantPredsInItp);
+      registerBasicRefinementMetrics(pRegistry);
+    }
   }
 
   public PredicateAbstractionRefinementStrategy(final Configuration config,
@@ -53,6 +53,7 @@ import org.sosy_lab.cpachecker.core.counterexample.CFAPathWithAssumptions;
 import org.sosy_lab.cpachecker.core.counterexample.RichModel;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -84,6 +85,7 @@ import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.solver.AssignableTerm;
 import org.sosy_lab.solver.SolverException;
@@ -548,7 +550,7 @@ public class PredicateCPARefiner extends AbstractARGBasedRefiner implements Stat
     pStatsCollection.add(new Stats());
   }
 
-  class Stats extends AbstractStatistics {
+  class Stats extends AbstractStatistics implements MetricStatistics {
 
     private final Statistics statistics = strategy.getStatistics();
 
@@ -576,6 +578,22 @@ public class PredicateCPARefiner extends AbstractARGBasedRefiner implements Stat
       statistics.printStatistics(out, result, reached);
     }
 
+    @Override
+    public void registerMetrics(StatisticsRegistry pRegistry) {
+      pRegistry.register(totalRefinement)
+          .register(totalPathLength)
+          .register(totalPrefixes)
+          .register(errorPathProcessing)
+          .register(getFormulasForPathTime)
+          .register(buildCounterexampeTraceTime)
+          .register(preciseCouterexampleTime)
+          .register(prefixExtractionTime)
+          .register(prefixSelectionTime);
+      if (statistics instanceof MetricStatistics) {
+        ((MetricStatistics) statistics).registerMetrics(pRegistry);
+      }
+    }
+
     @Override
     public String getName() {
       return strategy.getStatistics().getName();
@@ -49,6 +49,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -63,6 +64,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.RegionManager;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaManager;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.MultimapBuilder;
@@ -70,7 +72,7 @@ import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 @Options(prefix="cpa.predicate")
-class PredicateCPAStatistics extends AbstractStatistics {
+class PredicateCPAStatistics extends AbstractStatistics implements MetricStatistics {
 
   @Option(secure=true, description="generate statistics about precisions (may be slow)")
   private boolean precisionStatistics = true;
@@ -160,6 +162,39 @@ class PredicateCPAStatistics extends AbstractStatistics {
     return "PredicateCPA";
   }
 
+  @Override
+  public void registerMetrics(StatisticsRegistry pRegistry) {
+    PredicateAbstractionManager.Stats as = cpa.getPredicateManager().stats;
+    PredicateAbstractDomain domain = cpa.getAbstractDomain();
+    PredicateTransferRelation trans = cpa.getTransferRelation();
+    PredicatePrecisionAdjustment prec = cpa.getPrecisionAdjustment();
+    Solver solver = cpa.getSolver();
+
+    pRegistry.register("Number of abstractions", prec.numAbstractions)
+        .register("Times abstraction result was false", prec.numAbstractionsFalse)
+        .register("Times abstraction was reused", as.numAbstractionReuses)
+        .register("Times abstraction result was cached", as.numCallsAbstractionCached)
+        .register("Number of predicates discovered", absmgr.getNumberOfPredicates())
+        .register("Total predicates per abstraction", as.numTotalPredicates)
+        .register("Max number of predicates per abstraction", as.maxPredicates)
+        .register("Number of SMT sat checks", solver.satChecks.get())
+        .register("Number of cached SMT sat checks", solver.cachedSatChecks.get())
+        .register("Time for post operator", trans.postTimer)
+        .register("Time for path formula creation", trans.pathFormulaTimer)
+        .register("Time for satisfiability checks", trans.satCheckTimer)
+        .register("Time for strengthen operator", trans.strengthenTimer)
+        .register("Time for prec operator", prec.totalPrecTime)
+        .register("Time for abstraction", prec.computingAbstractionTime)
+        .register("Time for abstraction solving", as.abstractionSolveTime)
+        .register("Time for coverage check", domain.coverageCheckTimer)
+        .register("Time for SMT solver", solver.solverTime);
+
+    MergeOperator merge = cpa.getMergeOperator();
+    if (merge instanceof PredicateMergeOperator) {
+      pRegistry.register("Time for merge operator", ((PredicateMergeOperator)merge).totalMergeTime);
+    }
+  }
+
   /**
    * TreeMap to sort output for the user and sets for no duplication.
    */
@@ -276,8 +311,15 @@ class PredicateCPAStatistics extends AbstractStatistics {
       out.println("  Times precision was empty:       " + valueWithPercentage(as.numSymbolicAbstractions, as.numCallsAbstraction));
       out.println("  Times precision was {false}:     " + valueWithPercentage(as.numSatCheckAbstractions, as.numCallsAbstraction));
       out.println("  Times result was cached:         " + valueWithPercentage(as.numCallsAbstractionCached, as.numCallsAbstraction));
+      if (amgr.getSharedCache() != null) {
+        out.println("    from shared cache:             " + valueWithPercentage(as.numCallsAbstractionSharedCached, as.numCallsAbstraction));
+      }
       out.println("  Times cartesian abs was used:    " + valueWithPercentage(as.cartesianAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times boolean abs was used:      " + valueWithPercentage(as.booleanAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
+      if (as.numIncrementalProverReuses.get() > 0) {
+        out.println("  Times prover stack was reused:   " + valueWithPercentage(as.numIncrementalProverReuses.get(), as.numCallsAbstraction));
+        out.println("    asserted bytes saved:          " + as.incrementalBytesSaved.get());
+      }
       out.println("  Times result was 'false':        " + valueWithPercentage(prec.numAbstractionsFalse, prec.numAbstractions));
     }
 
@@ -299,9 +341,11 @@ class PredicateCPAStatistics extends AbstractStatistics {
     if (domain.symbolicCoverageCheckTimer.getNumberOfIntervals() > 0) {
       out.println("  Symbolic coverage check:         " + domain.symbolicCoverageCheckTimer.getNumberOfIntervals());
     }
-    out.println("Number of SMT sat checks:          " + solver.satChecks);
-    out.println("  trivial:                         " + solver.trivialSatChecks);
-    out.println("  cached:                          " + solver.cachedSatChecks);
+    out.println("Number of SMT sat checks:          " + solver.satChecks.get());
+    out.println("  trivial:                         " + solver.trivialSatChecks.get());
+    out.println("  cached:                          " + solver.cachedSatChecks.get());
+    out.println("  cache misses:                    " + solver.uncachedSatChecks.get());
+    out.println("  cache evictions:                 " + solver.getSatCheckCacheEvictions());
     out.println();
     out.println("Max ABE block size:                       " + prec.maxBlockSize);
     out.println("Number of predicates discovered:          " + allDistinctPreds);
@@ -333,9 +377,10 @@ class PredicateCPAStatistics extends AbstractStatistics {
     }
     out.println();
     if (pfMgr != null) {
-      int pathFormulaCacheHits = pfMgr.pathFormulaCacheHits;
+      int pathFormulaCacheHits = pfMgr.getPathFormulaCacheHits();
       int totalPathFormulaComputations = pfMgr.pathFormulaComputationTimer.getNumberOfIntervals() + pathFormulaCacheHits;
       out.println("Number of path formula cache hits:   " + pathFormulaCacheHits + " (" + toPercent(pathFormulaCacheHits, totalPathFormulaComputations) + ")");
+      pfMgr.printCacheStatistics(out);
     }
 
     out.println();
@@ -398,5 +443,10 @@ class PredicateCPAStatistics extends AbstractStatistics {
     }
     out.println();
     rmgr.printStatistics(out);
+
+    if (amgr.getSharedCache() != null) {
+      out.println();
+      amgr.getSharedCache().printStatistics(out);
+    }
   }
 }
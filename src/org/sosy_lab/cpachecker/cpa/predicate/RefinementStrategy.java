@@ -48,6 +48,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaMan
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 
 import com.google.errorprone.annotations.ForOverride;
 
@@ -92,6 +93,22 @@ public abstract class RefinementStrategy {
     }
   };
 
+  /**
+   * Register the statistics that are shown by {@link #basicRefinementStatistics}
+   * as metrics, such that subclasses can include them in their own metrics.
+   */
+  protected void registerBasicRefinementMetrics(StatisticsRegistry pRegistry) {
+    pRegistry.register(totalPathLengthToInfeasibility)
+        .register(numberOfAffectedStates)
+        .register(truePathPrefixStates)
+        .register(nonTrivialPathStates)
+        .register(falsePathSuffixStates)
+        .register(differentNontrivialInterpolants)
+        .register(equalNontrivialInterpolants)
+        .register(differentPrecisionsOnPaths)
+        .register(equalPrecisionsOnPaths);
+  }
+
   private final BooleanFormulaManagerView bfmgr;
   private final Solver solver;
 
@@ -0,0 +1,190 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+
+/**
+ * Cache for abstraction results that is shared by all
+ * {@link PredicateAbstractionManager} instances in this JVM that enable it,
+ * e.g., by the analyses of a {@link org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm}
+ * or by invariant generators.
+ *
+ * Because these managers typically use different solver instances,
+ * this cache does not store formulas but their dumps:
+ * the key is a hash over the dumped input formula and predicates,
+ * and the value is the dumped (uninstantiated) abstraction formula,
+ * which each manager parses with its own formula manager.
+ *
+ * This class is thread-safe.
+ */
+@Options(prefix="cpa.predicate.abs.sharedCache")
+public final class SharedAbstractionCache {
+
+  @Option(secure=true, description="maximum number of entries in the abstraction cache "
+      + "that is shared by several analyses (cf. option cpa.predicate.abs.shareCache)")
+  @IntegerOption(min=1)
+  private int maxEntries = 100000;
+
+  private static SharedAbstractionCache instance = null;
+
+  /**
+   * Get the cache instance of this JVM.
+   * The configuration of the first caller determines the size of the cache.
+   */
+  public static synchronized SharedAbstractionCache getInstance(Configuration config)
+      throws InvalidConfigurationException {
+    if (instance == null) {
+      instance = new SharedAbstractionCache(config);
+    }
+    return instance;
+  }
+
+  /**
+   * A cached abstraction result.
+   */
+  static final class Entry {
+
+    // dump of the uninstantiated abstraction formula, or null if the block was unsatisfiable
+    private final @Nullable String abstractionDump;
+
+    // id of the manager that computed the result
+    private final int owner;
+
+    private Entry(@Nullable String pAbstractionDump, int pOwner) {
+      abstractionDump = pAbstractionDump;
+      owner = pOwner;
+    }
+
+    boolean isUnsatisfiable() {
+      return abstractionDump == null;
+    }
+
+    @Nullable String getAbstractionDump() {
+      return abstractionDump;
+    }
+  }
+
+  private final Cache<HashCode, Entry> cache;
+
+  private final AtomicInteger nextOwner = new AtomicInteger();
+
+  private final AtomicInteger lookups = new AtomicInteger();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger crossComponentHits = new AtomicInteger();
+  private final AtomicInteger stores = new AtomicInteger();
+
+  private SharedAbstractionCache(Configuration config) throws InvalidConfigurationException {
+    config.inject(this);
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get a new id for a component that uses this cache,
+   * which is used to identify hits for results that were computed by other components.
+   */
+  int registerOwner() {
+    return nextOwner.getAndIncrement();
+  }
+
+  @Nullable Entry get(HashCode key, int owner) {
+    lookups.incrementAndGet();
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      hits.incrementAndGet();
+      if (entry.owner != owner) {
+        crossComponentHits.incrementAndGet();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Store an abstraction unless there is already an entry for the key,
+   * e.g., because another analysis computed the same abstraction meanwhile.
+   * The abstraction is dumped only if the entry is actually written.
+   */
+  void putAbstraction(HashCode key, final Supplier<String> abstractionDump, final int owner) {
+    putIfAbsent(key, new Callable<Entry>() {
+        @Override
+        public Entry call() {
+          return new Entry(abstractionDump.get(), owner);
+        }
+      });
+  }
+
+  void putUnsatisfiable(HashCode key, final int owner) {
+    putIfAbsent(key, new Callable<Entry>() {
+        @Override
+        public Entry call() {
+          return new Entry(null, owner);
+        }
+      });
+  }
+
+  private void putIfAbsent(HashCode key, final Callable<Entry> entryCreator) {
+    try {
+      cache.get(key, new Callable<Entry>() {
+          @Override
+          public Entry call() throws Exception {
+            Entry entry = entryCreator.call();
+            stores.incrementAndGet();
+            return entry;
+          }
+        });
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  void printStatistics(PrintStream out) {
+    out.println("Shared abstraction cache:");
+    out.println("  Number of lookups:               " + lookups.get());
+    out.println("  Number of hits:                  " + hits.get());
+    out.println("  Hits of other analyses' results: " + crossComponentHits.get());
+    out.println("  Number of stored results:        " + stores.get());
+    out.println("  Number of evicted results:       " + cache.stats().evictionCount());
+    out.println("  Current size:                    " + cache.size());
+  }
+}
@@ -48,6 +48,13 @@ public class SMGEdgeHasValueFilter {
   private Integer offset = null;
   private CType type = null;
 
+  /**
+   * Returns the object the edges are restricted to, or null if there is no such restriction.
+   */
+  public SMGObject getObject() {
+    return object;
+  }
+
   public SMGEdgeHasValueFilter filterByObject(SMGObject pObject) {
     object = pObject;
     return this;
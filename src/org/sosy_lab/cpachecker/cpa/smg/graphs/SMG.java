@@ -23,15 +23,19 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.graphs;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
@@ -40,13 +44,31 @@ import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
 
+/**
+ * Symbolic memory graph.
+ *
+ * Objects, values and edges are stored in persistent maps
+ * that are shared between an SMG and its copies,
+ * so copying an SMG takes constant time,
+ * and a modification copies only the path to the modified entry.
+ * Objects are identified by their ids (cf. {@link SMGObject#getId()}),
+ * and Has-Value edges are indexed by the id of their object,
+ * such that queries for the edges of a single object do not need
+ * to look at all edges.
+ */
 public class SMG {
-  final private Set<SMGObject> objects = new HashSet<>();
-  final private Set<Integer> values = new HashSet<>();
-  final private Set<SMGEdgeHasValue> hv_edges = new HashSet<>();
-  final private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
-  final private Map<SMGObject, Boolean> object_validity = new HashMap<>();
+  private PersistentSortedMap<Integer, SMGObject> objects = PathCopyingPersistentTreeMap.of();
+  // the values are the keys of this map, the map values are irrelevant
+  private PersistentSortedMap<Integer, Boolean> values = PathCopyingPersistentTreeMap.of();
+  private PersistentSortedMap<Integer, ImmutableSet<SMGEdgeHasValue>> hv_edges = PathCopyingPersistentTreeMap.of();
+  private int hv_edges_count = 0;
+  private PersistentSortedMap<Integer, SMGEdgePointsTo> pt_edges = PathCopyingPersistentTreeMap.of();
+  private PersistentSortedMap<Integer, Boolean> object_validity = PathCopyingPersistentTreeMap.of();
   final private NeqRelation neq = new NeqRelation();
 
   final private MachineModel machine_model;
@@ -72,8 +94,7 @@ public class SMG {
   public SMG(final MachineModel pMachineModel) {
     SMGEdgePointsTo nullPointer = new SMGEdgePointsTo(nullAddress, nullObject, 0);
 
-    addObject(nullObject);
-    object_validity.put(nullObject, false);
+    addObject(nullObject, false);
 
     addValue(nullAddress);
     addPointsToEdge(nullPointer);
@@ -90,12 +111,13 @@ public class SMG {
    */
   public SMG(final SMG pHeap) {
     machine_model = pHeap.machine_model;
-    hv_edges.addAll(pHeap.hv_edges);
+    hv_edges = pHeap.hv_edges;
+    hv_edges_count = pHeap.hv_edges_count;
     neq.putAll(pHeap.neq);
-    object_validity.putAll(pHeap.object_validity);
-    objects.addAll(pHeap.objects);
-    pt_edges.putAll(pHeap.pt_edges);
-    values.addAll(pHeap.values);
+    object_validity = pHeap.object_validity;
+    objects = pHeap.objects;
+    pt_edges = pHeap.pt_edges;
+    values = pHeap.values;
   }
 
   @Override
@@ -152,7 +174,7 @@ public class SMG {
    * @param pValue Value to remove
    */
   final public void removeValue(final Integer pValue) {
-    values.remove(pValue);
+    values = values.removeAndCopy(pValue);
     neq.removeValue(pValue);
   }
   /**
@@ -165,8 +187,10 @@ public class SMG {
    */
   @VisibleForTesting
   final public void removeObject(final SMGObject pObj) {
-    objects.remove(pObj);
-    object_validity.remove(pObj);
+    if (containsObject(pObj)) {
+      objects = objects.removeAndCopy(pObj.getId());
+      object_validity = object_validity.removeAndCopy(pObj.getId());
+    }
   }
 
   /**
@@ -178,19 +202,22 @@ public class SMG {
    */
   final public void removeObjectAndEdges(final SMGObject pObj) {
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hv_iter = hv_edges.iterator();
-    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
-    while (hv_iter.hasNext()) {
-      if (hv_iter.next().getObject() == pObj) {
-        hv_iter.remove();
-      }
+
+    ImmutableSet<SMGEdgeHasValue> objectEdges = getHVEdgesOfObject(pObj);
+    if (!objectEdges.isEmpty()) {
+      hv_edges = hv_edges.removeAndCopy(pObj.getId());
+      hv_edges_count -= objectEdges.size();
     }
 
-    while (pt_iter.hasNext()) {
-      if (pt_iter.next().getObject() == pObj) {
-        pt_iter.remove();
+    List<Integer> pointers = new ArrayList<>();
+    for (SMGEdgePointsTo pt : pt_edges.values()) {
+      if (pt.getObject() == pObj) {
+        pointers.add(pt.getValue());
       }
     }
+    for (Integer pointer : pointers) {
+      pt_edges = pt_edges.removeAndCopy(pointer);
+    }
   }
 
   /**
@@ -203,8 +230,8 @@ public class SMG {
    *
    */
   final public void addObject(final SMGObject pObj, final boolean pValidity) {
-    objects.add(pObj);
-    object_validity.put(pObj, pValidity);
+    objects = objects.putAndCopy(pObj.getId(), pObj);
+    object_validity = object_validity.putAndCopy(pObj.getId(), pValidity);
   }
 
   /**
@@ -215,7 +242,7 @@ public class SMG {
    * @param pValue  Value to add.
    */
   final public void addValue(Integer pValue) {
-    values.add(pValue);
+    values = values.putAndCopy(pValue, Boolean.TRUE);
   }
 
   /**
@@ -226,7 +253,7 @@ public class SMG {
    * @param pEdge Points-To edge to add.
    */
   final public void addPointsToEdge(SMGEdgePointsTo pEdge) {
-    pt_edges.put(pEdge.getValue(), pEdge);
+    pt_edges = pt_edges.putAndCopy(pEdge.getValue(), pEdge);
   }
 
   /**
@@ -237,7 +264,12 @@ public class SMG {
    * @param pEdge Has-Value edge to add
    */
   final public void addHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.add(pEdge);
+    ImmutableSet<SMGEdgeHasValue> objectEdges = getHVEdgesOfObject(pEdge.getObject());
+    if (!objectEdges.contains(pEdge)) {
+      objectEdges = ImmutableSet.<SMGEdgeHasValue>builder().addAll(objectEdges).add(pEdge).build();
+      hv_edges = hv_edges.putAndCopy(pEdge.getObject().getId(), objectEdges);
+      hv_edges_count++;
+    }
   }
 
   /**
@@ -248,7 +280,17 @@ public class SMG {
    * @param pEdge Has-Value edge to remove
    */
   final public void removeHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.remove(pEdge);
+    ImmutableSet<SMGEdgeHasValue> objectEdges = getHVEdgesOfObject(pEdge.getObject());
+    if (objectEdges.contains(pEdge)) {
+      int id = pEdge.getObject().getId();
+      if (objectEdges.size() == 1) {
+        hv_edges = hv_edges.removeAndCopy(id);
+      } else {
+        objectEdges = ImmutableSet.copyOf(Sets.difference(objectEdges, ImmutableSet.of(pEdge)));
+        hv_edges = hv_edges.putAndCopy(id, objectEdges);
+      }
+      hv_edges_count--;
+    }
   }
 
   /**
@@ -259,7 +301,7 @@ public class SMG {
    * @param pValue the Source of the Points-To edge to be removed
    */
   final public void removePointsToEdge(int pValue) {
-    pt_edges.remove(pValue);
+    pt_edges = pt_edges.removeAndCopy(pValue);
   }
 
   /**
@@ -273,11 +315,11 @@ public class SMG {
    * @param pValidity Validity to set.
    */
   public void setValidity(SMGObject pObject, boolean pValidity) {
-    if (! objects.contains(pObject)) {
+    if (! containsObject(pObject)) {
       throw new IllegalArgumentException("Object [" + pObject + "] not in SMG");
     }
 
-    object_validity.put(pObject, pValidity);
+    object_validity = object_validity.putAndCopy(pObject.getId(), pValidity);
   }
 
   /**
@@ -287,8 +329,22 @@ public class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(Set<SMGEdgeHasValue> pNewHV) {
-    hv_edges.clear();
-    hv_edges.addAll(pNewHV);
+    Map<SMGObject, ImmutableSet.Builder<SMGEdgeHasValue>> edgesByObject = new HashMap<>();
+    for (SMGEdgeHasValue edge : pNewHV) {
+      ImmutableSet.Builder<SMGEdgeHasValue> objectEdges = edgesByObject.get(edge.getObject());
+      if (objectEdges == null) {
+        objectEdges = ImmutableSet.builder();
+        edgesByObject.put(edge.getObject(), objectEdges);
+      }
+      objectEdges.add(edge);
+    }
+
+    PersistentSortedMap<Integer, ImmutableSet<SMGEdgeHasValue>> newEdges = PathCopyingPersistentTreeMap.of();
+    for (Map.Entry<SMGObject, ImmutableSet.Builder<SMGEdgeHasValue>> entry : edgesByObject.entrySet()) {
+      newEdges = newEdges.putAndCopy(entry.getKey().getId(), entry.getValue().build());
+    }
+    hv_edges = newEdges;
+    hv_edges_count = pNewHV.size();
   }
 
   /**
@@ -328,7 +384,7 @@ public class SMG {
    * @return String representation of values set
    */
   final public String valuesToString() {
-    return "values=" + values.toString();
+    return "values=" + values.keySet().toString();
   }
 
   /**
@@ -336,7 +392,7 @@ public class SMG {
    * @return String representation of has-value edges set
    */
   final public String hvToString() {
-    return "hasValue=" + hv_edges.toString();
+    return "hasValue=" + getHVEdges().toString();
   }
 
   /**
@@ -349,44 +405,125 @@ public class SMG {
 
   /**
    * Getter for obtaining unmodifiable view on values set. Constant.
+   * The view reflects the state of the SMG at the time of the call.
    * @return Unmodifiable view on values set.
    */
   final public Set<Integer> getValues() {
-    return Collections.unmodifiableSet(values);
+    return values.keySet();
   }
 
   /**
    * Getter for obtaining unmodifiable view on objects set. Constant.
+   * The view reflects the state of the SMG at the time of the call.
    * @return Unmodifiable view on objects set.
    */
   final public Set<SMGObject> getObjects() {
-    return Collections.unmodifiableSet(objects);
+    return new ObjectSet(objects);
   }
 
   /**
    * Getter for obtaining unmodifiable view on Has-Value edges set. Constant.
+   * The view reflects the state of the SMG at the time of the call.
    * @return Unmodifiable view on Has-Value edges set.
    */
   final public Set<SMGEdgeHasValue> getHVEdges() {
-    return Collections.unmodifiableSet(hv_edges);
+    return new HasValueEdgeSet(hv_edges, hv_edges_count);
   }
 
   /**
    * Getter for obtaining unmodifiable view on Has-Value edges set, filtered by
-   * a certain set of criteria.
+   * a certain set of criteria. If the filter restricts the object,
+   * only the edges of this object are looked at.
    * @param pFilter Filtering object
    * @return A set of Has-Value edges for which the criteria in p hold
    */
   final public Set<SMGEdgeHasValue> getHVEdges(SMGEdgeHasValueFilter pFilter) {
-    return Collections.unmodifiableSet(pFilter.filterSet(hv_edges));
+    SMGObject object = pFilter.getObject();
+    if (object != null) {
+      return pFilter.filterSet(getHVEdgesOfObject(object));
+    }
+    return pFilter.filterSet(getHVEdges());
+  }
+
+  private ImmutableSet<SMGEdgeHasValue> getHVEdgesOfObject(SMGObject pObject) {
+    ImmutableSet<SMGEdgeHasValue> objectEdges = hv_edges.get(pObject.getId());
+    return (objectEdges == null) ? ImmutableSet.<SMGEdgeHasValue>of() : objectEdges;
   }
 
   /**
    * Getter for obtaining unmodifiable view on Points-To edges set. Constant.
+   * The view reflects the state of the SMG at the time of the call.
    * @return Unmodifiable view on Points-To edges set.
    */
   final public Map<Integer, SMGEdgePointsTo> getPTEdges() {
-    return Collections.unmodifiableMap(pt_edges );
+    return Collections.unmodifiableMap(pt_edges);
+  }
+
+  private boolean containsObject(SMGObject pObject) {
+    return objects.get(pObject.getId()) == pObject;
+  }
+
+  /**
+   * Set view on the objects of an SMG.
+   */
+  private static class ObjectSet extends AbstractSet<SMGObject> {
+
+    private final PersistentSortedMap<Integer, SMGObject> objects;
+
+    private ObjectSet(PersistentSortedMap<Integer, SMGObject> pObjects) {
+      objects = pObjects;
+    }
+
+    @Override
+    public boolean contains(Object pO) {
+      return pO instanceof SMGObject
+          && objects.get(((SMGObject)pO).getId()) == pO;
+    }
+
+    @Override
+    public Iterator<SMGObject> iterator() {
+      return Iterators.unmodifiableIterator(objects.values().iterator());
+    }
+
+    @Override
+    public int size() {
+      return objects.size();
+    }
+  }
+
+  /**
+   * Set view on the Has-Value edges of an SMG.
+   */
+  private static class HasValueEdgeSet extends AbstractSet<SMGEdgeHasValue> {
+
+    private final PersistentSortedMap<Integer, ImmutableSet<SMGEdgeHasValue>> edges;
+    private final int size;
+
+    private HasValueEdgeSet(PersistentSortedMap<Integer, ImmutableSet<SMGEdgeHasValue>> pEdges,
+        int pSize) {
+      edges = pEdges;
+      size = pSize;
+    }
+
+    @Override
+    public boolean contains(Object pO) {
+      if (!(pO instanceof SMGEdgeHasValue)) {
+        return false;
+      }
+      SMGEdgeHasValue edge = (SMGEdgeHasValue)pO;
+      ImmutableSet<SMGEdgeHasValue> objectEdges = edges.get(edge.getObject().getId());
+      return objectEdges != null && objectEdges.contains(edge);
+    }
+
+    @Override
+    public Iterator<SMGEdgeHasValue> iterator() {
+      return Iterables.concat(edges.values()).iterator();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
   }
 
   /**
@@ -404,7 +541,7 @@ public class SMG {
    * TODO: Consistency check: no value can point to more objects
    */
   final public SMGObject getObjectPointedBy(Integer pValue) {
-    if ( ! values.contains(pValue)) {
+    if ( ! values.containsKey(pValue)) {
       throw new IllegalArgumentException("Value [" + pValue + "] not in SMG");
     }
 
@@ -424,11 +561,11 @@ public class SMG {
    * @return True if {@link pObject} is valid, False if it is invalid.
    */
   final public boolean isObjectValid(SMGObject pObject) {
-    if ( ! objects.contains(pObject)) {
+    if ( ! containsObject(pObject)) {
       throw new IllegalArgumentException("Object [" + pObject + "] not in SMG");
     }
 
-    return object_validity.get(pObject);
+    return object_validity.get(pObject.getId());
   }
 
   /**
@@ -513,16 +650,13 @@ public class SMG {
 
     neq.mergeValues(pV1, pV2);
     removeValue(pV2);
-    Set<SMGEdgeHasValue> new_hv_edges = new HashSet<>();
-    for (SMGEdgeHasValue hv : hv_edges) {
-      if (hv.getValue() != pV2) {
-        new_hv_edges.add(hv);
-      } else {
-        new_hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
+    // iterates over the edges of the SMG before the modifications
+    for (SMGEdgeHasValue hv : getHVEdges()) {
+      if (hv.getValue() == pV2) {
+        removeHasValueEdge(hv);
+        addHasValueEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
       }
     }
-    hv_edges.clear();
-    hv_edges.addAll(new_hv_edges);
     // TODO: Handle PT Edges: I'm not entirely sure how they should be handled
   }
 
@@ -36,6 +36,7 @@ import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.AnonymousTypes;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.SMGValueFactory;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
@@ -112,6 +113,45 @@ public class SMGTest {
     Assert.assertTrue(hvSet.equals(newHVSet));
   }
 
+  @Test
+  public void copyIsIndependentTest() {
+    SMG copy = new SMG(smg);
+    SMGEdgeHasValue hv = new SMGEdgeHasValue(mockType, 0, obj1, val2.intValue());
+    copy.addHasValueEdge(hv);
+    copy.removeHasValueEdge(hv2has2at0);
+    copy.setValidity(obj1, false);
+
+    Assert.assertTrue(copy.getHVEdges().contains(hv));
+    Assert.assertFalse(copy.getHVEdges().contains(hv2has2at0));
+    Assert.assertEquals(2, copy.getHVEdges().size());
+    Assert.assertFalse(copy.isObjectValid(obj1));
+
+    Assert.assertFalse(smg.getHVEdges().contains(hv));
+    Assert.assertTrue(smg.getHVEdges().contains(hv2has2at0));
+    Assert.assertEquals(2, smg.getHVEdges().size());
+    Assert.assertTrue(smg.isObjectValid(obj1));
+    Assert.assertNotEquals(smg, copy);
+  }
+
+  @Test
+  public void getHVEdgesByObjectTest() {
+    SMGEdgeHasValue hv = new SMGEdgeHasValue(mockType, 0, obj1, val2.intValue());
+    smg.addHasValueEdge(hv);
+
+    Set<SMGEdgeHasValue> obj2Edges = smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(obj2));
+    Assert.assertEquals(2, obj2Edges.size());
+    Assert.assertTrue(obj2Edges.contains(hv2has2at0));
+    Assert.assertTrue(obj2Edges.contains(hv2has1at4));
+
+    Set<SMGEdgeHasValue> val2Edges = smg.getHVEdges(new SMGEdgeHasValueFilter().filterHavingValue(val2));
+    Assert.assertEquals(2, val2Edges.size());
+    Assert.assertTrue(val2Edges.contains(hv));
+
+    smg.removeObjectAndEdges(obj2);
+    Assert.assertTrue(smg.getHVEdges(SMGEdgeHasValueFilter.objectFilter(obj2)).isEmpty());
+    Assert.assertEquals(1, smg.getHVEdges().size());
+  }
+
   @Test
   public void SMGConstructorTest() {
     SMG smg = getNewSMG64();
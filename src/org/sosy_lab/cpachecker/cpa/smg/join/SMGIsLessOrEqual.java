@@ -182,8 +182,8 @@ public class SMGIsLessOrEqual {
     SMGEdgeHasValueFilter filterForSMG1 = SMGEdgeHasValueFilter.objectFilter(pSMGObject1);
     SMGEdgeHasValueFilter filterForSMG2 = SMGEdgeHasValueFilter.objectFilter(pSMGObject2);
 
-    Set<SMGEdgeHasValue> HVE1 = filterForSMG1.filterSet(pSMG1.getHVEdges());
-    Set<SMGEdgeHasValue> HVE2 = filterForSMG2.filterSet(pSMG2.getHVEdges());
+    Set<SMGEdgeHasValue> HVE1 = pSMG1.getHVEdges(filterForSMG1);
+    Set<SMGEdgeHasValue> HVE2 = pSMG2.getHVEdges(filterForSMG2);
 
     //TODO Merge Zero.
     for (SMGEdgeHasValue edge1 : HVE1) {
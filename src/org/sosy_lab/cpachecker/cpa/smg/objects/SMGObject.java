@@ -23,9 +23,13 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.objects;
 
-
+import org.sosy_lab.common.UniqueIdGenerator;
 
 public abstract class SMGObject {
+  // needs to be initialized before nullObject
+  static private final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+
+  final private int id = idGenerator.getFreshId();
   final private int size;
   final private String label;
 
@@ -50,6 +54,14 @@ public abstract class SMGObject {
     label = pOther.label;
   }
 
+  /**
+   * Returns a number that identifies this object uniquely,
+   * which is used as key for indexing objects in an SMG.
+   */
+  public int getId() {
+    return id;
+  }
+
   public String getLabel() {
     return label;
   }
@@ -40,8 +40,10 @@ import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.defaults.CoverageSignature;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
@@ -67,7 +69,7 @@ import com.google.common.collect.Multimap;
 
 public class ValueAnalysisState implements AbstractQueryableState, FormulaReportingState,
     ForgetfulState<ValueAnalysisInformation>, Serializable, Graphable,
-    LatticeAbstractState<ValueAnalysisState> {
+    LatticeAbstractState<ValueAnalysisState>, AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -3152134511524554357L;
 
@@ -84,17 +86,54 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
   private transient PersistentMap<MemoryLocation, Type> memLocToType = PathCopyingPersistentTreeMap.of();
 
+  /**
+   * the sum of the hashes of all entries of the constants map, see {@link #entryHash(MemoryLocation, Value)}.
+   * This hash is updated with each change of the map, such that comparisons of states
+   * with different content do not need to walk over the maps.
+   */
+  private transient long contentHash;
+
+  /** the signature of the last constantsMap for which it was requested */
+  private transient CoverageSignature coverageSignature = null;
+
   public ValueAnalysisState() {
     constantsMap = PathCopyingPersistentTreeMap.of();
+    contentHash = 0;
   }
 
   public ValueAnalysisState(PersistentMap<MemoryLocation, Value> pConstantsMap, PersistentMap<MemoryLocation, Type> pLocToTypeMap) {
+    this(pConstantsMap, pLocToTypeMap, computeContentHash(pConstantsMap));
+  }
+
+  private ValueAnalysisState(PersistentMap<MemoryLocation, Value> pConstantsMap,
+      PersistentMap<MemoryLocation, Type> pLocToTypeMap, long pContentHash) {
     this.constantsMap = pConstantsMap;
     this.memLocToType = pLocToTypeMap;
+    this.contentHash = pContentHash;
   }
 
   public static ValueAnalysisState copyOf(ValueAnalysisState state) {
-    return new ValueAnalysisState(state.constantsMap, state.memLocToType);
+    return new ValueAnalysisState(state.constantsMap, state.memLocToType, state.contentHash);
+  }
+
+  private static long computeContentHash(Map<MemoryLocation, Value> pConstantsMap) {
+    long hash = 0;
+    for (Map.Entry<MemoryLocation, Value> entry : pConstantsMap.entrySet()) {
+      hash += entryHash(entry.getKey(), entry.getValue());
+    }
+    return hash;
+  }
+
+  /**
+   * The hash of a single assignment. The hashes are well distributed,
+   * such that the sum of them identifies the content of a map with high probability.
+   */
+  private static long entryHash(MemoryLocation pMemLoc, Value pValue) {
+    long hash = pMemLoc.hashCode() * 0x9E3779B97F4A7C15L + pValue.hashCode();
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    return hash;
   }
 
   /**
@@ -118,7 +157,12 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
+    Value oldValue = constantsMap.get(pMemLoc);
+    if (oldValue != null) {
+      contentHash -= entryHash(pMemLoc, oldValue);
+    }
     constantsMap = constantsMap.putAndCopy(pMemLoc, checkNotNull(valueToAdd));
+    contentHash += entryHash(pMemLoc, valueToAdd);
   }
 
   /**
@@ -186,6 +230,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     Value value = constantsMap.get(pMemoryLocation);
     Type type = memLocToType.get(pMemoryLocation);
     constantsMap = constantsMap.removeAndCopy(pMemoryLocation);
+    contentHash -= entryHash(pMemoryLocation, value);
     memLocToType = memLocToType.removeAndCopy(pMemoryLocation);
 
     Map<MemoryLocation, Type> typeAssignment;
@@ -330,8 +375,15 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
+    // the reached state is already the join of equal states,
+    // this is cheap to check for shared maps or maps with different content
+    if (hasEqualConstants(reachedState)) {
+      return reachedState;
+    }
+
     PersistentMap<MemoryLocation, Value> newConstantsMap = PathCopyingPersistentTreeMap.of();
     PersistentMap<MemoryLocation, Type> newlocToTypeMap = PathCopyingPersistentTreeMap.of();
+    long newContentHash = 0;
 
     for (Map.Entry<MemoryLocation, Value> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
@@ -339,6 +391,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       if (Objects.equals(otherEntry.getValue(), constantsMap.get(key))) {
         newConstantsMap = newConstantsMap.putAndCopy(key, otherEntry.getValue());
         newlocToTypeMap = newlocToTypeMap.putAndCopy(key, memLocToType.get(key));
+        newContentHash += entryHash(key, otherEntry.getValue());
       }
     }
 
@@ -346,10 +399,25 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     if (newConstantsMap.size() == reachedState.constantsMap.size()) {
       return reachedState;
     } else {
-      return new ValueAnalysisState(newConstantsMap, newlocToTypeMap);
+      return new ValueAnalysisState(newConstantsMap, newlocToTypeMap, newContentHash);
     }
   }
 
+  /**
+   * Check whether both states contain the same assignments.
+   * Maps with different content are rejected by their size and content hash,
+   * only maps with (probably) equal content are compared entry by entry.
+   */
+  private boolean hasEqualConstants(ValueAnalysisState other) {
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+    if (contentHash != other.contentHash || constantsMap.size() != other.constantsMap.size()) {
+      return false;
+    }
+    return constantsMap.equals(other.constantsMap);
+  }
+
   /**
    * This method decides if this element is less or equal than the other element, based on the order imposed by the lattice.
    *
@@ -359,11 +427,21 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // this element is less or equal than the other element, if both share their map
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
     }
 
+    // with the same number of elements, both maps need to be equal
+    if (constantsMap.size() == other.constantsMap.size()) {
+      return hasEqualConstants(other);
+    }
+
     // also, this element is not less or equal than the other element,
     // if any one constant's value of the other element differs from the constant's value in this
     // element
@@ -380,6 +458,26 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     return true;
   }
 
+  /**
+   * The signature contains one bit for each assignment in the constants map.
+   * This state can only be less or equal than another state,
+   * if all assignments of the other state are also contained in this state.
+   */
+  @Override
+  public long getCoverageSignature() {
+    CoverageSignature signature = coverageSignature;
+    if (signature == null || !signature.isFor(constantsMap)) {
+      PersistentMap<MemoryLocation, Value> map = constantsMap;
+      long bits = 0;
+      for (Map.Entry<MemoryLocation, Value> entry : map.entrySet()) {
+        bits |= CoverageSignature.bitFor(31 * entry.getKey().hashCode() + entry.getValue().hashCode());
+      }
+      signature = CoverageSignature.of(map, bits);
+      coverageSignature = signature;
+    }
+    return signature.getBits();
+  }
+
   @Override
   public boolean equals(Object other) {
     if (this == other) {
@@ -396,12 +494,12 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
 
-    return otherElement.constantsMap.equals(constantsMap) && Objects.equals(memLocToType, otherElement.memLocToType);
+    return hasEqualConstants(otherElement) && Objects.equals(memLocToType, otherElement.memLocToType);
   }
 
   @Override
   public int hashCode() {
-    return constantsMap.hashCode();
+    return (int)(contentHash ^ (contentHash >>> 32));
   }
 
   @Override
@@ -688,6 +786,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   public void forgetValuesWithIdentifier(String pIdentifier) {
     for (MemoryLocation memoryLocation : constantsMap.keySet()) {
       if (memoryLocation.getIdentifier().equals(pIdentifier)) {
+        contentHash -= entryHash(memoryLocation, constantsMap.get(memoryLocation));
         constantsMap = constantsMap.removeAndCopy(memoryLocation);
         memLocToType = memLocToType.removeAndCopy(memoryLocation);
       }
@@ -740,5 +839,6 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       throw new IOException("",e);
     }
     memLocToType = PathCopyingPersistentTreeMap.of();
+    contentHash = computeContentHash(constantsMap);
   }
 }
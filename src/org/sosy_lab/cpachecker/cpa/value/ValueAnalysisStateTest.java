@@ -0,0 +1,95 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ValueAnalysisStateTest {
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("main", "x", 0);
+  private static final MemoryLocation Y = MemoryLocation.valueOf("main", "y", 0);
+  private static final MemoryLocation Z = MemoryLocation.valueOf("z");
+
+  private static void assign(ValueAnalysisState pState, MemoryLocation pLoc, long pValue) {
+    pState.assignConstant(pLoc, new NumericValue(pValue), CNumericTypes.INT);
+  }
+
+  @Test
+  public void testEqualContentWithDifferentHistory() {
+    ValueAnalysisState state1 = new ValueAnalysisState();
+    assign(state1, X, 1);
+    assign(state1, Y, 2);
+
+    ValueAnalysisState state2 = new ValueAnalysisState();
+    assign(state2, Y, 5);
+    assign(state2, Z, 3);
+    assign(state2, X, 1);
+    assign(state2, Y, 2);
+    state2.forget(Z);
+
+    assertThat(state1).isEqualTo(state2);
+    assertThat(state1.hashCode()).isEqualTo(state2.hashCode());
+    assertThat(state1.isLessOrEqual(state2)).isTrue();
+    assertThat(state2.isLessOrEqual(state1)).isTrue();
+    assertThat(state1.join(state2)).isSameAs(state2);
+  }
+
+  @Test
+  public void testDifferentContent() {
+    ValueAnalysisState state1 = new ValueAnalysisState();
+    assign(state1, X, 1);
+    assign(state1, Y, 2);
+
+    ValueAnalysisState state2 = ValueAnalysisState.copyOf(state1);
+    assign(state2, Y, 3);
+
+    assertThat(state1).isNotEqualTo(state2);
+    assertThat(state1.isLessOrEqual(state2)).isFalse();
+    assertThat(state2.isLessOrEqual(state1)).isFalse();
+
+    ValueAnalysisState joined = state1.join(state2);
+    assertThat(joined.getSize()).isEqualTo(1);
+    assertThat(joined.getValueFor(X)).isEqualTo(new NumericValue(1L));
+    assertThat(state1.isLessOrEqual(joined)).isTrue();
+    assertThat(state2.isLessOrEqual(joined)).isTrue();
+  }
+
+  @Test
+  public void testLessOrEqualWithSubset() {
+    ValueAnalysisState state1 = new ValueAnalysisState();
+    assign(state1, X, 1);
+
+    ValueAnalysisState state2 = ValueAnalysisState.copyOf(state1);
+    assign(state2, Y, 2);
+
+    assertThat(state2.isLessOrEqual(state1)).isTrue();
+    assertThat(state1.isLessOrEqual(state2)).isFalse();
+    assertThat(state2.join(state1)).isSameAs(state1);
+  }
+}
@@ -38,7 +38,6 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
-import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.IntegerOption;
@@ -55,6 +54,8 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PCCStrategy;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateReader;
+import org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -77,6 +78,21 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @IntegerOption(min=1)
   protected int numThreads = 1;
 
+  public enum CertificateFormat {
+    /** single compressed ZIP file, needs to be read sequentially */
+    ZIP,
+    /** uncompressed sections with an index that are memory-mapped and read independently */
+    INDEXED
+  }
+
+  @Option(secure=true,
+      name = "certificateFormat",
+      description = "format of the file in which the proof is stored. INDEXED does not compress the proof,"
+          + " but allows to read (partitions of) the proof independently and in parallel via memory-mapped I/O")
+  protected CertificateFormat certificateFormat = CertificateFormat.ZIP;
+
+  private IndexedCertificateReader certificateReader = null;
+
   public AbstractStrategy(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
     pConfig.inject(this, AbstractStrategy.class);
     numThreads = Math.max(1, numThreads);
@@ -87,9 +103,32 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   }
 
   @Override
-  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
   public void writeProof(UnmodifiableReachedSet pReached) {
+    try {
+      switch (certificateFormat) {
+      case INDEXED:
+        writeIndexedProof(pReached);
+        break;
+      case ZIP:
+        writeZippedProof(pReached);
+        break;
+      default:
+        throw new AssertionError("Unhandled certificate format " + certificateFormat);
+      }
+    } catch (NotSerializableException eS) {
+      logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage() + " does not implement Serializable interface");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (InvalidConfigurationException e) {
+      logger.log(Level.SEVERE, "Proof cannot be constructed due to conflicting configuration.", e.getMessage());
+    } catch (InterruptedException e) {
+      logger.log(Level.SEVERE, "Proof cannot be written due to time out during proof construction");
+    }
+  }
 
+  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
+  private void writeZippedProof(UnmodifiableReachedSet pReached)
+      throws IOException, InvalidConfigurationException, InterruptedException {
     try (final OutputStream fos = file.asByteSink().openStream();
         final ZipOutputStream zos = new ZipOutputStream(fos)) {
       zos.setLevel(9);
@@ -115,15 +154,23 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
         zos.closeEntry();
         index++;
       }while (continueWriting);
+    }
+  }
 
-    } catch (NotSerializableException eS) {
-      logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage() + " does not implement Serializable interface");
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    } catch (InvalidConfigurationException e) {
-      logger.log(Level.SEVERE, "Proof cannot be constructed due to conflicting configuration.", e.getMessage());
-    } catch (InterruptedException e) {
-      logger.log(Level.SEVERE, "Proof cannot be written due to time out during proof construction");
+  private void writeIndexedProof(UnmodifiableReachedSet pReached)
+      throws IOException, InvalidConfigurationException, InterruptedException {
+    // section 0 contains the proof, section i+1 the additional proof information with index i
+    try (IndexedCertificateWriter writer = new IndexedCertificateWriter(file)) {
+      writeProofToStream(writer.startSection(), pReached);
+      writer.endSection();
+
+      boolean continueWriting;
+      do {
+        continueWriting = writeAdditionalProofStream(writer.startSection());
+        writer.endSection();
+      } while (continueWriting);
+
+      writer.finish();
     }
   }
 
@@ -133,28 +180,42 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> proofStream = openProofStream();
-    readProofFromStream(proofStream.getThird());
-    proofStream.getThird().close();
-    proofStream.getSecond().close();
-    proofStream.getFirst().close();
+    try (ObjectInputStream in = openProofStream()) {
+      readProofFromStream(in);
+    }
   }
 
   protected boolean writeAdditionalProofStream(final ObjectOutputStream pOut) throws IOException {
     return false;
   }
 
-  protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
+  /**
+   * Open the stream from which the proof written by
+   * {@link #writeProofToStream(ObjectOutputStream, UnmodifiableReachedSet)} is read.
+   * Closing the returned stream releases all underlying resources.
+   */
+  protected ObjectInputStream openProofStream() throws IOException {
+    if (certificateFormat == CertificateFormat.INDEXED) {
+      return getCertificateReader().openSection(0);
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = zis.getNextEntry();
     assert entry.getName().equals("Proof");
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+    return new ObjectInputStream(zis);
   }
 
-  public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
-      throws IOException {
+  /**
+   * Open the stream from which the additional proof information with the given index
+   * written by {@link #writeAdditionalProofStream(ObjectOutputStream)} is read.
+   * Closing the returned stream releases all underlying resources.
+   * This method may be called concurrently.
+   */
+  public ObjectInputStream openAdditionalProofStream(final int index) throws IOException {
     if (index < 0) { throw new IllegalArgumentException("Not a valid index. Indices must be at least zero."); }
+    if (certificateFormat == CertificateFormat.INDEXED) {
+      return getCertificateReader().openSection(1 + index);
+    }
     InputStream fis = file.asByteSource().openStream();
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = null;
@@ -163,7 +224,14 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     }
 
     assert entry.getName().equals("Additional " + index);
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+    return new ObjectInputStream(zis);
+  }
+
+  private synchronized IndexedCertificateReader getCertificateReader() throws IOException {
+    if (certificateReader == null) {
+      certificateReader = new IndexedCertificateReader(file);
+    }
+    return certificateReader;
   }
 
   protected abstract void readProofFromStream(ObjectInputStream in) throws ClassNotFoundException, InvalidConfigurationException, IOException;
@@ -214,7 +282,8 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       return propertyCheckingTimer;
     }
 
-    public void increaseIteration() {
+    // synchronized because parallel strategies count iterations from several threads
+    public synchronized void increaseIteration() {
       countIterations++;
     }
 
@@ -26,7 +26,6 @@ package org.sosy_lab.cpachecker.pcc.strategy.arg;
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
@@ -35,10 +34,8 @@ import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
-import java.util.zip.ZipInputStream;
 
 import org.sosy_lab.common.ShutdownNotifier;
-import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
@@ -155,10 +152,9 @@ public class ARG_CMCStrategy extends AbstractStrategy {
       List<ARGState> incompleteStates = new ArrayList<>();
       ConfigurableProgramAnalysis cpa;
 
-      Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+      ObjectInputStream o = null;
       try {
-        streams = openProofStream();
-        ObjectInputStream o = streams.getThird();
+        o = openProofStream();
         o.readInt();
 
         Object readARG;
@@ -204,11 +200,9 @@ public class ARG_CMCStrategy extends AbstractStrategy {
         return false;
       } finally {
         logger.log(Level.INFO, "Stop checking partial ARGs");
-        if (streams != null) {
+        if (o != null) {
           try {
-            streams.getThird().close();
-            streams.getSecond().close();
-            streams.getFirst().close();
+            o.close();
           } catch (IOException e) {
           }
         }
@@ -235,10 +229,9 @@ public class ARG_CMCStrategy extends AbstractStrategy {
 
         @Override
         public void run() {
-          Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+          ObjectInputStream o = null;
           try {
-            streams = openProofStream();
-            ObjectInputStream o = streams.getThird();
+            o = openProofStream();
             o.readInt();
 
             Object readARG;
@@ -266,11 +259,9 @@ public class ARG_CMCStrategy extends AbstractStrategy {
             logger.logException(Level.SEVERE, e2, "Unexpected failure during proof reading");
             abortPreparation();
           } finally {
-            if (streams != null) {
+            if (o != null) {
               try {
-                streams.getThird().close();
-                streams.getSecond().close();
-                streams.getFirst().close();
+                o.close();
               } catch (IOException e) {
               }
             }
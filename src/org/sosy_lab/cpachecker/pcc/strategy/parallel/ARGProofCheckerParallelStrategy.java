@@ -28,17 +28,15 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Stack;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
 import java.util.logging.Level;
 
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
-import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Options;
@@ -57,6 +55,7 @@ import org.sosy_lab.cpachecker.cpa.bam.BAMCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.propertychecker.NoTargetStateChecker;
 import org.sosy_lab.cpachecker.pcc.strategy.SequentialReadStrategy;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelCheckingScheduler.ElementCheck;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
 /**
@@ -69,17 +68,20 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 public class ARGProofCheckerParallelStrategy extends SequentialReadStrategy {
 
   private ARGState[] args;
-  private ProofChecker checker;
-  private PropertyChecker propChecker;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ProofChecker checker;
+  private final PropertyChecker propChecker;
 
   public ARGProofCheckerParallelStrategy(Configuration pConfig, LogManager pLogger,
       ShutdownNotifier pShutdownNotifier, ProofChecker pChecker)
       throws InvalidConfigurationException {
     super(pConfig, pLogger);
+    shutdownNotifier = pShutdownNotifier;
     checker = pChecker;
-    propChecker = new NoTargetStateChecker();
     if (pChecker instanceof PropertyCheckerCPA) {
       propChecker = ((PropertyCheckerCPA) pChecker).getPropChecker();
+    } else {
+      propChecker = new NoTargetStateChecker();
     }
   }
 
@@ -97,54 +99,25 @@ public class ARGProofCheckerParallelStrategy extends SequentialReadStrategy {
     // TODO if ARG too small avoid parallel checking, check with less threads
 
     logger.log(Level.INFO, "Proof check algorithm started");
-    try {
-
-      StateCheckingHelper helper[] = new StateCheckingHelper[numThreads - 1];
-      Thread helperThreads[] = new Thread[numThreads - 1];
-      CyclicBarrier barrier = new CyclicBarrier(numThreads);
-      CommonResult result = new CommonResult(numThreads);
 
-      for (int i = 0; i < helper.length; i++) {
-        helper[i] = new StateCheckingHelper(barrier, result, propChecker, checker);
-        helperThreads[i] = Threads.newThread(helper[i]);
-        helperThreads[i].start();
-      }
+    try (ParallelCheckingScheduler scheduler = new ParallelCheckingScheduler(numThreads, shutdownNotifier)) {
 
       //check BAMARG blocks
-      Block block;
-      BAMARGBlockStartState bamState;
-      Collection<ARGState> returnNodes;
-      ArrayList<ARGState> partialReturnNodes = new ArrayList<>();
-      List<ARGState> argStates;
-      int numElems;
       for (int i = 0; i < args.length - 2; i++) {
-        bamState = (BAMARGBlockStartState) args[i];
-        block =
+        BAMARGBlockStartState bamState = (BAMARGBlockStartState) args[i];
+        final Block block =
             ((BAMCPA) checker).getTransferRelation().getBlockPartitioning()
                 .getBlockForCallNode(AbstractStates.extractLocation(bamState));
+        final Collection<ARGState> returnNodes = Collections.synchronizedList(new ArrayList<ARGState>());
 
-        // traverse
-        argStates = getARGElements(bamState.getAnalyzedBlock());
-
-        // init checking
-        numElems = argStates.size() / numThreads;
-        for (int j = 0; j < helper.length; j++) {
-          helper[j].setCheckingInfo(j * numElems, numElems, argStates, block);
-        }
-        barrier.await();
-
-        // check
-        for (int j = helper.length * numElems; j < argStates.size(); j++) {
-          if (!checkInnerElement(propChecker, checker, argStates.get(j), block, partialReturnNodes)) { return false; }
-        }
-
-        result.addReturnNodes(partialReturnNodes);
-        partialReturnNodes.clear();
-
-        // wait for every Thread to finish
-        returnNodes = result.getResult();
-        if (returnNodes == null) {
-          // checking failed
+        boolean success = scheduler.checkAll(getARGElements(bamState.getAnalyzedBlock()),
+            new ElementCheck<ARGState>() {
+              @Override
+              public boolean check(ARGState pState) {
+                return checkInnerElement(propChecker, checker, pState, block, returnNodes);
+              }
+            });
+        if (!success) {
           return false;
         }
 
@@ -163,37 +136,13 @@ public class ARGProofCheckerParallelStrategy extends SequentialReadStrategy {
 
       if (!(checker.isCoveredBy(initialState, root) && checker.isCoveredBy(root, initialState))) { return false; }
 
-      // traverse
-      argStates = getARGElements(root);
-
-      // init checking
-      numElems = argStates.size() / numThreads;
-      for (int j = 0; j < helper.length; j++) {
-        helper[j].setCheckingInfo(j * numElems, numElems, argStates);
-      }
-
-      barrier.await();
-
-      // check
-      for (int j = helper.length * numElems; j < argStates.size(); j++) {
-        if (!checkElement(propChecker, checker, argStates.get(j))) { return false; }
-      }
-
-      // wait for every Thread to finish
-      for (int j = 0; j < helper.length; j++) {
-        helperThreads[j].join();
-        if (!result.isSuccess()) { return false; }
-      }
-      returnNodes = result.getResult();
-      if (returnNodes == null) {
-        // checking failed
-        return false;
-      }
-    } catch (BrokenBarrierException e) {
-      logger.log(Level.SEVERE, "Synchronization with barrier faild.");
-      return false;
+      return scheduler.checkAll(getARGElements(root), new ElementCheck<ARGState>() {
+        @Override
+        public boolean check(ARGState pState) {
+          return checkElement(propChecker, checker, pState);
+        }
+      });
     }
-    return true;
   }
 
   private List<ARGState> getARGElements(ARGState pRoot) {
@@ -415,133 +364,4 @@ public class ARGProofCheckerParallelStrategy extends SequentialReadStrategy {
 
     return result;
   }
-
-  private static class StateCheckingHelper implements Runnable {
-
-    private boolean lastRound;
-    private int startCheck;
-    private int numElemsToCheck;
-    private CyclicBarrier barrier;
-    private List<ARGState> states;
-    private CommonResult result;
-    private PropertyChecker propC;
-    private ProofChecker proofC;
-    private Block currentB;
-
-    public StateCheckingHelper(CyclicBarrier pBarrier, CommonResult pResult, PropertyChecker pPropCheck,
-        ProofChecker pProofCheck) {
-      this.barrier = pBarrier;
-      result = pResult;
-      propC = pPropCheck;
-      proofC = pProofCheck;
-    }
-
-
-    public void setCheckingInfo(int pStartIndex, int pNumberElems, List<ARGState> argStates) {
-      lastRound = true;
-      startCheck = pStartIndex;
-      numElemsToCheck = pNumberElems;
-      states = argStates;
-    }
-
-    public void setCheckingInfo(int pStartIndex, int pNumberElems, List<ARGState> argStates, Block block) {
-      lastRound = false;
-      startCheck = pStartIndex;
-      numElemsToCheck = pNumberElems;
-      currentB = block;
-      states = argStates;
-    }
-
-    @Override
-    public void run() {
-      int end;
-      ArrayList<ARGState> returnNodes = new ArrayList<>();
-      boolean fail = false;
-      try {
-        do {
-          barrier.await();
-
-          end = startCheck + numElemsToCheck;
-          for (int i = startCheck; i < end; i++) {
-            if (lastRound) {
-              if (!checkElement(propC, proofC, states.get(i))) {
-                fail = true;
-                break;
-              }
-            } else {
-              if (!checkInnerElement(propC, proofC, states.get(i), currentB, returnNodes)) {
-                fail = true;
-                break;
-              }
-            }
-          }
-
-          if (!fail) {
-            if (!lastRound) {
-              result.addReturnNodes(returnNodes);
-              returnNodes.clear();
-            }
-          } else {
-            result.setFailure();
-          }
-
-        } while (!lastRound && !fail);
-      } catch (BrokenBarrierException | InterruptedException e) {
-        result.setFailure();
-      }
-    }
-
-  }
-
-  private static class CommonResult {
-
-    private boolean success = true;
-    private int max;
-    private int numSetResults;
-    private ArrayList<ARGState> returnNodes;
-
-    public CommonResult(int maxParticipants) {
-      max = maxParticipants;
-      numSetResults = 0;
-      returnNodes = new ArrayList<>();
-    }
-
-    public boolean isSuccess() {
-      return success;
-    }
-
-    public synchronized void setFailure() {
-      success = false;
-      increaseSetResults();
-    }
-
-    public synchronized void addReturnNodes(Collection<ARGState> partialReturnNodes) {
-      returnNodes.addAll(partialReturnNodes);
-      increaseSetResults();
-    }
-
-    public synchronized Collection<ARGState> getResult() throws InterruptedException {
-      try {
-        if (numSetResults != max) {
-          wait();
-        }
-        if (!success) {
-          return null;
-        } else {
-          return returnNodes;
-        }
-      } finally {
-        numSetResults = 0;
-        returnNodes = new ArrayList<>();
-      }
-    }
-
-    public void increaseSetResults() {
-      numSetResults++;
-      if (numSetResults == max) {
-        notify();
-      }
-    }
-  }
-
 }
@@ -0,0 +1,170 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.parallel;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Scheduler for checking the elements of a certificate (states, partitions, ...)
+ * in parallel. The elements are distributed over the threads by
+ * recursively splitting the range of elements into fork/join tasks,
+ * such that idle threads steal work from busy ones
+ * and a few expensive elements do not leave the other threads idle.
+ * Checking stops as soon as one element fails the check
+ * or a shutdown is requested.
+ *
+ * An instance owns a thread pool and needs to be closed after use.
+ */
+public final class ParallelCheckingScheduler implements AutoCloseable {
+
+  /**
+   * The check that is executed for each element.
+   * Implementations need to be thread-safe.
+   */
+  public interface ElementCheck<E> {
+
+    /**
+     * Check one element.
+     * @return whether the element passed the check
+     */
+    boolean check(E pElement) throws CPAException, InterruptedException;
+  }
+
+  // Number of tasks per thread that are created at least,
+  // smaller tasks give better load balancing but more overhead.
+  private static final int TASKS_PER_THREAD = 16;
+
+  private final ForkJoinPool pool;
+  private final ShutdownNotifier shutdownNotifier;
+
+  public ParallelCheckingScheduler(int pNumThreads, ShutdownNotifier pShutdownNotifier) {
+    pool = new ForkJoinPool(pNumThreads);
+    shutdownNotifier = pShutdownNotifier;
+  }
+
+  /**
+   * Check all elements in parallel.
+   * @return true if all elements passed the check, false if at least one did not
+   * @throws CPAException if a check threw this exception
+   * @throws InterruptedException if a check was interrupted or a shutdown was requested
+   */
+  public <E> boolean checkAll(List<? extends E> pElements, ElementCheck<? super E> pCheck)
+      throws CPAException, InterruptedException {
+    if (pElements.isEmpty()) {
+      return true;
+    }
+
+    int granularity = Math.max(1, pElements.size() / (TASKS_PER_THREAD * pool.getParallelism()));
+    CheckingRun<E> run = new CheckingRun<>(pElements, pCheck, granularity);
+    pool.invoke(new RangeCheck<>(run, 0, pElements.size()));
+
+    Throwable failure = run.failure.get();
+    if (failure != null) {
+      Throwables.propagateIfPossible(failure, CPAException.class, InterruptedException.class);
+      throw new AssertionError(failure);
+    }
+    shutdownNotifier.shutdownIfNecessary();
+    return !run.failed.get();
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * The shared data of all tasks of one call to {@link #checkAll(List, ElementCheck)}.
+   */
+  private class CheckingRun<E> {
+
+    private final List<? extends E> elements;
+    private final ElementCheck<? super E> check;
+    private final int granularity;
+
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private CheckingRun(List<? extends E> pElements, ElementCheck<? super E> pCheck, int pGranularity) {
+      elements = pElements;
+      check = pCheck;
+      granularity = pGranularity;
+    }
+
+    private boolean shouldStop() {
+      return failed.get() || shutdownNotifier.shouldShutdown();
+    }
+
+    private void fail(Throwable pFailure) {
+      failure.compareAndSet(null, pFailure);
+      failed.set(true);
+    }
+  }
+
+  private static class RangeCheck<E> extends RecursiveAction {
+
+    private static final long serialVersionUID = -3219428915468276521L;
+
+    private final ParallelCheckingScheduler.CheckingRun<E> run;
+    private final int from;
+    private final int to;
+
+    private RangeCheck(ParallelCheckingScheduler.CheckingRun<E> pRun, int pFrom, int pTo) {
+      run = pRun;
+      from = pFrom;
+      to = pTo;
+    }
+
+    @Override
+    protected void compute() {
+      if (run.shouldStop()) {
+        return;
+      }
+
+      if (to - from > run.granularity) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeCheck<>(run, from, middle), new RangeCheck<>(run, middle, to));
+        return;
+      }
+
+      for (int i = from; i < to && !run.shouldStop(); i++) {
+        try {
+          if (!run.check.check(run.elements.get(i))) {
+            run.failed.set(true);
+          }
+        } catch (CPAException | InterruptedException | RuntimeException e) {
+          run.fail(e);
+        }
+      }
+    }
+  }
+}
@@ -24,18 +24,14 @@
 package org.sosy_lab.cpachecker.pcc.strategy.parallel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
-import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -45,169 +41,99 @@ import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.pcc.strategy.PartialReachedSetStrategy;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelCheckingScheduler.ElementCheck;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
-@Options(prefix = "pcc.partial")
+@Options
 public class PartialReachedSetParallelStrategy extends PartialReachedSetStrategy {
 
-  @Option(secure=true,
-      description = "If enabled, distributes checking of partial elements depending on actual checking costs, else uses the number of elements")
-  private boolean enableLoadDistribution = false;
-
   public PartialReachedSetParallelStrategy(Configuration pConfig, LogManager pLogger,
       ShutdownNotifier pShutdownNotifier, PropertyCheckerCPA pCpa) throws InvalidConfigurationException {
     super(pConfig, pLogger, pShutdownNotifier, pCpa);
-    pConfig.inject(this);
   }
 
   @Override
   public boolean checkCertificate(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
 
-    List<AbstractState> certificate = new ArrayList<>(savedReachedSetSize);
-    Precision initialPrec = pReachedSet.getPrecision(pReachedSet.getFirstState());
-
-    AtomicBoolean result = new AtomicBoolean(true);
-    AtomicInteger nextElement = new AtomicInteger(0);
-    Lock lock = new ReentrantLock();
-    Semaphore waitForThreads = new Semaphore(0);
-
-    PartialChecker[] transitiveClosureThreads = new PartialChecker[numThreads];
-    for (int i = 0; i < transitiveClosureThreads.length; i++) {
-      transitiveClosureThreads[i] =
-          enableLoadDistribution ? new PartialChecker(nextElement, certificate, initialPrec, result, lock,
-              waitForThreads) :
-              new PartialChecker(i, certificate, initialPrec, result, lock, waitForThreads);
-      transitiveClosureThreads[i].start();
-    }
+    final List<AbstractState> certificate =
+        Collections.synchronizedList(new ArrayList<AbstractState>(savedReachedSetSize));
+    final Precision initialPrec = pReachedSet.getPrecision(pReachedSet.getFirstState());
 
-    try {
-      waitForThreads.acquire(numThreads);
+    try (ParallelCheckingScheduler scheduler = new ParallelCheckingScheduler(numThreads, shutdownNotifier)) {
+      boolean result = scheduler.checkAll(Arrays.asList(reachedSet), new ElementCheck<AbstractState>() {
+        @Override
+        public boolean check(AbstractState pState) throws InterruptedException {
+          return checkPartialElement(pState, certificate, initialPrec);
+        }
+      });
 
-      if (!result.get()) {
+      if (!result) {
         logger.log(Level.FINE, "Checking failed");
         return false;
       }
+    }
 
-      // check initial element
-      AbstractState initialState = pReachedSet.popFromWaitlist();
-      assert (initialState == pReachedSet.getFirstState() && pReachedSet.size() == 1);
+    // check initial element
+    AbstractState initialState = pReachedSet.popFromWaitlist();
+    assert (initialState == pReachedSet.getFirstState() && pReachedSet.size() == 1);
 
-      try {
-        stats.getStopTimer().start();
-        if (!cpa.getStopOperator().stop(initialState,
-            statesPerLocation.get(AbstractStates.extractLocation(initialState)), initialPrec)) {
-          logger.log(Level.FINE, "Initial element not in partial reached set.");
-          return false;
-        }
-      } catch (CPAException e) {
-        logger.logException(Level.FINE, e, "Stop check failed for initial element.");
+    try {
+      stats.getStopTimer().start();
+      if (!cpa.getStopOperator().stop(initialState,
+          statesPerLocation.get(AbstractStates.extractLocation(initialState)), initialPrec)) {
+        logger.log(Level.FINE, "Initial element not in partial reached set.");
         return false;
-      } finally {
-        stats.getStopTimer().stop();
-      }
-
-
-      stats.getPropertyCheckingTimer().start();
-      try {
-        return cpa.getPropChecker().satisfiesProperty(certificate);
-      } finally {
-        stats.getPropertyCheckingTimer().stop();
       }
+    } catch (CPAException e) {
+      logger.logException(Level.FINE, e, "Stop check failed for initial element.");
+      return false;
     } finally {
-      for (Thread t : transitiveClosureThreads) {
-        t.interrupt();
-      }
+      stats.getStopTimer().stop();
     }
-  }
-
-  private class PartialChecker extends Thread {
 
-    private final int startIndex;
-    private final List<AbstractState> certificate;
-    private final Precision initPrec;
 
-    private final AtomicInteger indexProvider;
-    private final AtomicBoolean result;
-    private final Lock mutex;
-    private final Semaphore coordination;
-
-    public PartialChecker(final int pStartIndex, final List<AbstractState> pCertificate, final Precision pInitPrec,
-        final AtomicBoolean pResult, final Lock pMutex, final Semaphore pCoordinate) {
-      startIndex = pStartIndex;
-      certificate = pCertificate;
-      initPrec = pInitPrec;
-      result = pResult;
-      mutex = pMutex;
-      coordination = pCoordinate;
-      assert (!enableLoadDistribution);
-      indexProvider = null;
-    }
-
-    public PartialChecker(final AtomicInteger pIndexProvider, final List<AbstractState> pCertificate, final Precision pInitPrec,
-        final AtomicBoolean pResult, final Lock pMutex, final Semaphore pCoordinate) {
-      assert (enableLoadDistribution);
-      startIndex = 0;
-      certificate = pCertificate;
-      initPrec = pInitPrec;
-      result = pResult;
-      mutex = pMutex;
-      coordination = pCoordinate;
-      indexProvider = pIndexProvider;
+    stats.getPropertyCheckingTimer().start();
+    try {
+      return cpa.getPropChecker().satisfiesProperty(certificate);
+    } finally {
+      stats.getPropertyCheckingTimer().stop();
     }
+  }
 
-    @Override
-    public void run() {
-      List<AbstractState> currentStates = new ArrayList<>(savedReachedSetSize / numThreads);
-      try {
-        int index = 0;
-
-        for (int i = enableLoadDistribution ? indexProvider.getAndIncrement() : startIndex; i < reachedSet.length
-            && result.get(); i = enableLoadDistribution ? indexProvider.getAndIncrement() : i + numThreads) {
-          shutdownNotifier.shutdownIfNecessary();
-          currentStates.add(reachedSet[i]);
-
-          while (index < currentStates.size() && result.get()) {
-            shutdownNotifier.shutdownIfNecessary();
-
-            for (AbstractState succ : cpa.getTransferRelation().getAbstractSuccessors(currentStates.get(index++),
-                initPrec)) {
-              if (!cpa.getStopOperator().stop(succ, statesPerLocation.get(AbstractStates.extractLocation(succ)),
-                  initPrec)) {
-                if (stopAddingAtReachedSetSize && savedReachedSetSize <= certificate.size() + currentStates.size()) {
-                  logger.log(Level.FINE, "Too many states recomputed");
-                  abort();
-                  return;
-                }
-                currentStates.add(succ);
-              }
-
+  /**
+   * Recompute all states reachable from the given element of the partial reached set
+   * that are not covered by it and add them to the certificate.
+   */
+  private boolean checkPartialElement(AbstractState pElement, List<AbstractState> pCertificate,
+      Precision pInitPrec) throws InterruptedException {
+    List<AbstractState> currentStates = new ArrayList<>();
+    currentStates.add(pElement);
+    try {
+      int index = 0;
+      while (index < currentStates.size()) {
+        shutdownNotifier.shutdownIfNecessary();
+
+        for (AbstractState succ : cpa.getTransferRelation().getAbstractSuccessors(currentStates.get(index++),
+            pInitPrec)) {
+          if (!cpa.getStopOperator().stop(succ, statesPerLocation.get(AbstractStates.extractLocation(succ)),
+              pInitPrec)) {
+            if (stopAddingAtReachedSetSize && savedReachedSetSize <= pCertificate.size() + currentStates.size()) {
+              logger.log(Level.FINE, "Too many states recomputed");
+              return false;
             }
+            currentStates.add(succ);
           }
         }
-
-        mutex.lock();
-        try {
-          certificate.addAll(currentStates);
-        } finally {
-          mutex.unlock();
-        }
-        coordination.release();
-
-      } catch (CPATransferException e) {
-        logger.logUserException(Level.FINE, e, "Computation of successors failed.");
-        abort();
-      } catch (CPAException e) {
-        logger.logUserException(Level.FINE, e, "Stop check failed for successor.");
-        abort();
-      } catch (Exception e) {
-        logger.logException(Level.WARNING, e, "Unknown problem");
-        abort();
       }
+    } catch (CPATransferException e) {
+      logger.logUserException(Level.FINE, e, "Computation of successors failed.");
+      return false;
+    } catch (CPAException e) {
+      logger.logUserException(Level.FINE, e, "Stop check failed for successor.");
+      return false;
     }
 
-    private void abort() {
-      result.set(false);
-      coordination.release(numThreads);
-    }
+    pCertificate.addAll(currentStates);
+    return true;
   }
 }
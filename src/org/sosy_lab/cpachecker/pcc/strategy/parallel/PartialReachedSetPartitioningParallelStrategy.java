@@ -28,11 +28,8 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -45,11 +42,14 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.PartitioningCheckingHelper;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelCheckingScheduler.ElementCheck;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitionChecker;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningUtils;
 
@@ -63,6 +63,8 @@ public class PartialReachedSetPartitioningParallelStrategy extends AbstractStrat
   private final PartitioningIOHelper ioHelper;
   private final PropertyCheckerCPA cpa;
   private final ShutdownNotifier shutdownNotifier;
+  private final Lock lock = new ReentrantLock();
+  private int nextPartition;
 
   public PartialReachedSetPartitioningParallelStrategy(final Configuration pConfig, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier, final PropertyCheckerCPA pCpa)
@@ -82,71 +84,149 @@ public class PartialReachedSetPartitioningParallelStrategy extends AbstractStrat
 
   @Override
   public boolean checkCertificate(ReachedSet pReachedSet) throws CPAException, InterruptedException {
-    AtomicBoolean checkResult = new AtomicBoolean(true);
-    AtomicInteger availablePartitions = new AtomicInteger(0);
-    AtomicInteger nextId = new AtomicInteger(0);
-    Semaphore partitionChecked = new Semaphore(0);
-    Semaphore readButUnprocessed =new Semaphore(ioHelper.getNumPartitions());
-    Lock lock = new ReentrantLock();
-
-    Collection<AbstractState> certificate = Sets.newHashSetWithExpectedSize(ioHelper.getNumPartitions());
-    Multimap<CFANode, AbstractState> partitionNodes = HashMultimap.create();
-    Collection<AbstractState> inOtherPartition = new ArrayList<>();
+    final Collection<AbstractState> certificate = Sets.newHashSetWithExpectedSize(ioHelper.getNumPartitions());
+    final Multimap<CFANode, AbstractState> partitionNodes = HashMultimap.create();
+    final Collection<AbstractState> inOtherPartition = new ArrayList<>();
     AbstractState initialState = pReachedSet.popFromWaitlist();
-    Precision initPrec = pReachedSet.getPrecision(initialState);
-
-    logger.log(Level.INFO, "Create and start threads");
-    ExecutorService executor = Executors.newFixedThreadPool(numThreads );
-    try {
-      for (int i = 0; i < numThreads; i++) {
-        executor.execute(new ParallelPartitionChecker(availablePartitions, nextId, checkResult, readButUnprocessed,
-            partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec,
-            cpa.getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger));
-      }
-
-      partitionChecked.acquire(ioHelper.getNumPartitions());
+    final Precision initPrec = pReachedSet.getPrecision(initialState);
+
+    logger.log(Level.INFO, "Check partitions in parallel");
+    try (ParallelCheckingScheduler scheduler = new ParallelCheckingScheduler(numThreads, shutdownNotifier)) {
+      boolean result = scheduler.checkAll(getPartitionIndices(), new ElementCheck<Integer>() {
+        @Override
+        public boolean check(Integer pPartition) {
+          return checkPartition(pPartition, initPrec, certificate, partitionNodes, inOtherPartition);
+        }
+      });
+      if (!result) { return false; }
+    }
 
-      if (!checkResult.get()) { return false; }
+    logger.log(Level.INFO, "Add initial state to elements for which it will be checked if they are covered by partition nodes of certificate.");
+    inOtherPartition.add(initialState);
 
-      logger.log(Level.INFO, "Add initial state to elements for which it will be checked if they are covered by partition nodes of certificate.");
-      inOtherPartition.add(initialState);
+    logger.log(Level.INFO,
+            "Check if initial state and all nodes which should be contained in different partition are covered by certificate (partition node).");
+    if (!PartitioningUtils.areElementsCoveredByPartitionElement(inOtherPartition, partitionNodes, cpa.getStopOperator(),
+        initPrec)) {
+      logger.log(Level.SEVERE,
+          "Initial state or a state which should be in other partition is not covered by certificate.");
+      return false;
+    }
 
-      logger.log(Level.INFO,
-              "Check if initial state and all nodes which should be contained in different partition are covered by certificate (partition node).");
-      if (!PartitioningUtils.areElementsCoveredByPartitionElement(inOtherPartition, partitionNodes, cpa.getStopOperator(),
-          initPrec)) {
-        logger.log(Level.SEVERE,
-            "Initial state or a state which should be in other partition is not covered by certificate.");
+    logger.log(Level.INFO, "Check property.");
+    stats.getPropertyCheckingTimer().start();
+    try {
+      if (!cpa.getPropChecker().satisfiesProperty(certificate)) {
+        logger.log(Level.SEVERE, "Property violated");
         return false;
       }
+    } finally {
+      stats.getPropertyCheckingTimer().stop();
+    }
 
-      logger.log(Level.INFO, "Check property.");
-      stats.getPropertyCheckingTimer().start();
-      try {
-        if (!cpa.getPropChecker().satisfiesProperty(certificate)) {
-          logger.log(Level.SEVERE, "Property violated");
-          return false;
-        }
-      } finally {
-        stats.getPropertyCheckingTimer().stop();
-      }
+    return true;
+  }
 
-      return true;
-    } finally {
-      executor.shutdown();
+  /**
+   * Check a single partition and add its results to the given (shared) collections.
+   * Access to the shared collections is synchronized on the certificate.
+   */
+  private boolean checkPartition(int pPartition, Precision pInitPrec, final Collection<AbstractState> pCertificate,
+      Multimap<CFANode, AbstractState> pPartitionNodes, Collection<AbstractState> pInOtherPartition) {
+    final AtomicBoolean aborted = new AtomicBoolean(false);
+    PartitionChecker checker = new PartitionChecker(pInitPrec, cpa.getStopOperator(), cpa.getTransferRelation(),
+        ioHelper, new PartitioningCheckingHelper() {
+
+          @Override
+          public void abortCheckingPreparation() {
+            aborted.set(true);
+          }
+
+          @Override
+          public int getCurrentCertificateSize() {
+            synchronized (pCertificate) {
+              return pCertificate.size();
+            }
+          }
+        }, shutdownNotifier, logger);
+
+    checker.checkPartition(pPartition);
+    if (aborted.get()) {
+      return false;
+    }
+
+    synchronized (pCertificate) {
+      checker.addCertificatePartsToCertificate(pCertificate);
+      checker.addPartitionElements(pPartitionNodes);
+      checker.addElementsCheckedInOtherPartitions(pInOtherPartition);
     }
+    return true;
+  }
+
+  private List<Integer> getPartitionIndices() {
+    List<Integer> partitions = new ArrayList<>(ioHelper.getNumPartitions());
+    for (int i = 0; i < ioHelper.getNumPartitions(); i++) {
+      partitions.add(i);
+    }
+    return partitions;
   }
 
   @Override
   protected void writeProofToStream(ObjectOutputStream pOut, UnmodifiableReachedSet pReached) throws IOException,
       InvalidConfigurationException, InterruptedException {
-    ioHelper.writeProof(pOut,pReached);
+    if (certificateFormat == CertificateFormat.INDEXED) {
+      // only write metadata, every partition is written to its own section
+      ioHelper.constructInternalProofRepresentation(pReached);
+      ioHelper.writeMetadata(pOut, pReached.size(), ioHelper.getNumPartitions());
+      nextPartition = 0;
+    } else {
+      ioHelper.writeProof(pOut,pReached);
+    }
+  }
+
+  @Override
+  protected boolean writeAdditionalProofStream(final ObjectOutputStream pOut) throws IOException {
+    if (certificateFormat != CertificateFormat.INDEXED) {
+      return false;
+    }
+    if (nextPartition < ioHelper.getNumPartitions()) {
+      ioHelper.writePartition(pOut, ioHelper.getPartition(nextPartition));
+      nextPartition++;
+    }
+    return nextPartition < ioHelper.getNumPartitions();
   }
 
   @Override
   protected void readProofFromStream(ObjectInputStream pIn) throws ClassNotFoundException,
       InvalidConfigurationException, IOException {
-    ioHelper.readProof(pIn, stats);
+    if (certificateFormat != CertificateFormat.INDEXED) {
+      ioHelper.readProof(pIn, stats);
+      return;
+    }
+
+    ioHelper.readMetadata(pIn, true);
+    // read partitions in parallel from their sections
+    boolean success;
+    try (ParallelCheckingScheduler scheduler = new ParallelCheckingScheduler(numThreads, shutdownNotifier)) {
+      success = scheduler.checkAll(getPartitionIndices(), new ElementCheck<Integer>() {
+        @Override
+        public boolean check(Integer pPartition) {
+          try (ObjectInputStream in = openAdditionalProofStream(pPartition)) {
+            ioHelper.readPartition(in, stats, lock);
+            return true;
+          } catch (IOException | ClassNotFoundException e) {
+            logger.logUserException(Level.SEVERE, e, "Partition reading failed.");
+            return false;
+          }
+        }
+      });
+    } catch (CPAException | InterruptedException e) {
+      throw new IOException("Proof reading failed.", e);
+    }
+
+    if (!success) {
+      throw new IOException("Reading one of the partitions failed");
+    }
   }
 
   @Override
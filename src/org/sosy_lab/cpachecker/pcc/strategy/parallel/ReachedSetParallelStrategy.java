@@ -28,7 +28,6 @@ import java.util.Collection;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
-import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Options;
@@ -41,6 +40,7 @@ import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.pcc.strategy.ReachedSetStrategy;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelCheckingScheduler.ElementCheck;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
 @Options
@@ -54,8 +54,8 @@ public class ReachedSetParallelStrategy extends ReachedSetStrategy{
   @Override
   public boolean checkCertificate(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
     /*also restrict stop to elements of same location as analysis does*/
-    StopOperator stop = cpa.getStopOperator();
-    Precision initialPrec = pReachedSet.getPrecision(pReachedSet.getFirstState());
+    final StopOperator stop = cpa.getStopOperator();
+    final Precision initialPrec = pReachedSet.getPrecision(pReachedSet.getFirstState());
 
     // check if initial element covered
     AbstractState initialState = pReachedSet.popFromWaitlist();
@@ -71,47 +71,18 @@ public class ReachedSetParallelStrategy extends ReachedSetStrategy{
       return false;
     }
 
-    // instantiate parallel threads and check if elements form transitive closure
-    //TODO possibly instantiate (and start) threads earlier in constructor
-    CheckingHelper[] helper = new CheckingHelper[numThreads-1];
-    Thread[] helperThreads = new Thread[numThreads-1];
-    int length = reachedSet.length/numThreads;
-
-    for (int i = 0; i < helper.length; i++) {
-      shutdownNotifier.shutdownIfNecessary();
-      helper[i] = new CheckingHelper(i * length, length, initialPrec);
-      helperThreads[i] = Threads.newThread(helper[i]);
-      helperThreads[i].start();
-    }
-
-    Collection<? extends AbstractState> successors;
-    for (int i = length * helper.length; i < reachedSet.length; i++) {
-
-      shutdownNotifier.shutdownIfNecessary();
-      stats.increaseIteration();
-
-      try {
-        successors = cpa.getTransferRelation().getAbstractSuccessors(reachedSet[i], initialPrec);
-
-        for (AbstractState succ : successors) {
-            if (!stop.stop(succ, statesPerLocation.get(AbstractStates.extractLocation(succ)), initialPrec)) {
-              logger.log(Level.FINE, "Cannot check that result is transitive closure.", "Successor ", succ,
-                  "of element ", reachedSet[i], "not covered by result.");
-              return false;
-            }
+    // check in parallel if elements form transitive closure
+    boolean result;
+    try (ParallelCheckingScheduler scheduler = new ParallelCheckingScheduler(numThreads, shutdownNotifier)) {
+      result = scheduler.checkAll(Arrays.asList(reachedSet), new ElementCheck<AbstractState>() {
+        @Override
+        public boolean check(AbstractState pState) throws InterruptedException {
+          return checkSuccessorsCovered(pState, stop, initialPrec);
         }
-      } catch (CPATransferException e) {
-        logger.logException(Level.FINE, e, "Computation of successors failed.");
-        return false;
-      } catch (CPAException e) {
-        logger.logException(Level.FINE, e, "Stop check failed for successor.");
-        return false;
-      }
+      });
     }
-
-    for (int i = 0; i < helper.length; i++) {
-      helperThreads[i].join();
-      if (!helper[i].result) { return false; }
+    if (!result) {
+      return false;
     }
 
     stats.getPropertyCheckingTimer().start();
@@ -122,51 +93,28 @@ public class ReachedSetParallelStrategy extends ReachedSetStrategy{
     }
   }
 
-  protected class CheckingHelper implements Runnable {
-
-    private int start;
-    private int numElem;
-    private Precision initialPrec;
-    private boolean result = true;
+  private boolean checkSuccessorsCovered(AbstractState pState, StopOperator pStop, Precision pInitialPrec)
+      throws InterruptedException {
+    stats.increaseIteration();
 
-
-    protected CheckingHelper(int startIndex, int pNumElem, Precision pInitialPrec) {
-      if (startIndex < 0 || pNumElem < 1) {
-        throw new NumberFormatException(
-            "Start index must be postive or 0 and number of elements to check must be positive.");
-      }
-      start = startIndex;
-      numElem = pNumElem;
-      initialPrec = pInitialPrec;
-    }
-
-    @Override
-    public void run() {// TODO how to integrate shutdown notifier in here, unprotected access to stats
-      // ExecutorService one possibility
-      StopOperator stop = cpa.getStopOperator();
-      Collection<? extends AbstractState> successors;
-      for (int i=start;i<start+numElem;i++) {
-
-        try {
-          successors = cpa.getTransferRelation().getAbstractSuccessors(reachedSet[i], initialPrec);
-
-          for (AbstractState succ : successors) {
-
-              if (!stop.stop(succ, statesPerLocation.get(AbstractStates.extractLocation(succ)), initialPrec)) {
-                logger.log(Level.FINE, "Cannot check that result is transitive closure.", "Successor ", succ,
-                    "of element ", reachedSet[i], "not covered by result.");
-                result = false;
-              }
-          }
-        } catch (CPATransferException | InterruptedException e) {// TODO how to deal with interrupted exception
-          logger.logException(Level.FINE, e, "Computation of successors failed.");
-          result = false;
-        } catch (CPAException e) {
-          logger.logException(Level.FINE, e, "Stop check failed for successor.");
-          result = false;
+    try {
+      Collection<? extends AbstractState> successors =
+          cpa.getTransferRelation().getAbstractSuccessors(pState, pInitialPrec);
+
+      for (AbstractState succ : successors) {
+        if (!pStop.stop(succ, statesPerLocation.get(AbstractStates.extractLocation(succ)), pInitialPrec)) {
+          logger.log(Level.FINE, "Cannot check that result is transitive closure.", "Successor ", succ,
+              "of element ", pState, "not covered by result.");
+          return false;
         }
       }
+    } catch (CPATransferException e) {
+      logger.logException(Level.FINE, e, "Computation of successors failed.");
+      return false;
+    } catch (CPAException e) {
+      logger.logException(Level.FINE, e, "Stop check failed for successor.");
+      return false;
     }
+    return true;
   }
-
 }
@@ -0,0 +1,148 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.util;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter.HEADER_SIZE;
+import static org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter.INDEX_ENTRY_SIZE;
+import static org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter.LENGTH_PREFIX_SIZE;
+import static org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter.MAGIC;
+import static org.sosy_lab.cpachecker.pcc.strategy.util.IndexedCertificateWriter.VERSION;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.util.ByteBufferInputStream;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Reads certificates written by {@link IndexedCertificateWriter}.
+ *
+ * Header and index are read and validated when the reader is created.
+ * Afterwards, every section can be opened independently and in any order,
+ * also concurrently from several threads.
+ * Sections are read via memory-mapped I/O such that reading a section
+ * does not require copying the file content.
+ */
+public class IndexedCertificateReader {
+
+  private final java.nio.file.Path file;
+  private final long[] sectionOffsets;
+  private final long[] sectionLengths;
+
+  public IndexedCertificateReader(Path pFile) throws IOException {
+    file = pFile.toFile().toPath();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("Certificate " + file + " is too short for a certificate in indexed format.");
+      }
+
+      ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Certificate " + file + " is not a complete certificate in indexed format.");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Certificate " + file + " has unsupported format version " + version + ".");
+      }
+      int numSections = header.getInt();
+      long indexOffset = header.getLong();
+      if (numSections < 0 || indexOffset < HEADER_SIZE
+          || indexOffset + (long) numSections * INDEX_ENTRY_SIZE != fileSize) {
+        throw new IOException("Certificate " + file + " has a corrupted header.");
+      }
+
+      sectionOffsets = new long[numSections];
+      sectionLengths = new long[numSections];
+      ByteBuffer index = readFully(channel, indexOffset, numSections * INDEX_ENTRY_SIZE);
+      for (int i = 0; i < numSections; i++) {
+        sectionOffsets[i] = index.getLong();
+        sectionLengths[i] = index.getLong();
+        if (sectionOffsets[i] < HEADER_SIZE + LENGTH_PREFIX_SIZE || sectionLengths[i] < 0
+            || sectionOffsets[i] + sectionLengths[i] > indexOffset) {
+          throw new IOException("Certificate " + file + " has a corrupted index entry for section " + i + ".");
+        }
+      }
+    }
+  }
+
+  public int getNumberOfSections() {
+    return sectionOffsets.length;
+  }
+
+  /**
+   * Open the section with the given index for reading.
+   * The length prefix of the section is checked against the index,
+   * the returned stream reads exactly the content of the section.
+   */
+  public ObjectInputStream openSection(int pIndex) throws IOException {
+    checkElementIndex(pIndex, sectionOffsets.length);
+    long offset = sectionOffsets[pIndex];
+    long length = sectionLengths[pIndex];
+
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      if (readFully(channel, offset - LENGTH_PREFIX_SIZE, LENGTH_PREFIX_SIZE).getLong() != length) {
+        throw new IOException("Certificate " + file + " is corrupted, length of section " + pIndex
+            + " does not match the index.");
+      }
+
+      if (length <= Integer.MAX_VALUE) {
+        // mapping stays valid after the channel is closed
+        ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        channel.close();
+        return new ObjectInputStream(new ByteBufferInputStream(content));
+      }
+
+      // too large to be mapped at once, stream section from the channel
+      channel.position(offset);
+      return new ObjectInputStream(
+          ByteStreams.limit(new BufferedInputStream(Channels.newInputStream(channel)), length));
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static ByteBuffer readFully(FileChannel pChannel, long pPosition, int pSize) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(pSize);
+    while (buffer.hasRemaining()) {
+      if (pChannel.read(buffer, pPosition + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of certificate file.");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
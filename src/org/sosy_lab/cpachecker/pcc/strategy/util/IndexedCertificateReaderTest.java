@@ -0,0 +1,183 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+import com.google.common.collect.ImmutableList;
+
+public class IndexedCertificateReaderTest {
+
+  private static final ImmutableList<String> SECTION_0 = ImmutableList.of("a", "b", "c");
+  private static final String SECTION_1 = "second section";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+  private Path path;
+
+  @Before
+  public void setUp() {
+    file = new File(folder.getRoot(), "certificate");
+    path = Paths.get(file.getPath());
+  }
+
+  private void writeCertificate(boolean pFinish) throws IOException {
+    try (IndexedCertificateWriter writer = new IndexedCertificateWriter(path)) {
+      ObjectOutputStream out = writer.startSection();
+      out.writeObject(SECTION_0);
+      writer.endSection();
+
+      out = writer.startSection();
+      out.writeObject(SECTION_1);
+      out.writeInt(42);
+      writer.endSection();
+
+      // empty section
+      writer.startSection();
+      writer.endSection();
+
+      assertThat(writer.getNumberOfSections()).isEqualTo(3);
+      if (pFinish) {
+        writer.finish();
+      }
+    }
+  }
+
+  private void overwriteLong(long pPosition, long pValue) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(pPosition);
+      raf.writeLong(pValue);
+    }
+  }
+
+  private void truncate(long pLength) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(pLength);
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    writeCertificate(true);
+
+    IndexedCertificateReader reader = new IndexedCertificateReader(path);
+    assertThat(reader.getNumberOfSections()).isEqualTo(3);
+
+    // sections can be read in any order
+    try (ObjectInputStream in = reader.openSection(1)) {
+      assertThat(in.readObject()).isEqualTo(SECTION_1);
+      assertThat(in.readInt()).isEqualTo(42);
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    try (ObjectInputStream in = reader.openSection(0)) {
+      assertThat(in.readObject()).isEqualTo(SECTION_0);
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    try (ObjectInputStream in = reader.openSection(2)) {
+      assertThat(in.read()).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  public void testEmptyCertificate() throws Exception {
+    try (IndexedCertificateWriter writer = new IndexedCertificateWriter(path)) {
+      writer.finish();
+    }
+    assertThat(new IndexedCertificateReader(path).getNumberOfSections()).isEqualTo(0);
+  }
+
+  @Test(expected=IOException.class)
+  public void testUnfinishedCertificate() throws Exception {
+    writeCertificate(false);
+    new IndexedCertificateReader(path);
+  }
+
+  @Test(expected=IOException.class)
+  public void testTruncatedIndex() throws Exception {
+    writeCertificate(true);
+    truncate(file.length() - 1);
+    new IndexedCertificateReader(path);
+  }
+
+  @Test(expected=IOException.class)
+  public void testTruncatedHeader() throws Exception {
+    writeCertificate(true);
+    truncate(IndexedCertificateWriter.HEADER_SIZE - 1);
+    new IndexedCertificateReader(path);
+  }
+
+  @Test(expected=IOException.class)
+  public void testCorruptedVersion() throws Exception {
+    writeCertificate(true);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(4);
+      raf.writeInt(IndexedCertificateWriter.VERSION + 1);
+    }
+    new IndexedCertificateReader(path);
+  }
+
+  @Test(expected=IOException.class)
+  public void testCorruptedIndexEntry() throws Exception {
+    writeCertificate(true);
+    long indexOffset = file.length() - 3 * IndexedCertificateWriter.INDEX_ENTRY_SIZE;
+    // length of the first section exceeds the file
+    overwriteLong(indexOffset + 8, file.length());
+    new IndexedCertificateReader(path);
+  }
+
+  @Test
+  public void testCorruptedLengthPrefix() throws Exception {
+    writeCertificate(true);
+    // the first section starts directly after the header
+    overwriteLong(IndexedCertificateWriter.HEADER_SIZE, 1);
+
+    IndexedCertificateReader reader = new IndexedCertificateReader(path);
+    try {
+      reader.openSection(0).close();
+      throw new AssertionError("corrupted section was not rejected");
+    } catch (IOException e) {
+      assertThat(e.getMessage()).contains("does not match the index");
+    }
+
+    // the other sections are still readable
+    try (ObjectInputStream in = reader.openSection(1)) {
+      assertThat(in.readObject()).isEqualTo(SECTION_1);
+    }
+  }
+}
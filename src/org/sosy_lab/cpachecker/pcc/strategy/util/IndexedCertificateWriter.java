@@ -0,0 +1,169 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.util;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.io.Path;
+
+import com.google.common.io.Files;
+
+/**
+ * Writes a certificate in the indexed format, which consists of
+ * independently readable sections.
+ *
+ * The file starts with a header (magic number, format version,
+ * number of sections, position of the index). It is followed by the sections,
+ * each of them is prefixed by its length in bytes and contains
+ * the data of one Java serialization stream.
+ * The index at the end of the file stores position and length of every section.
+ * The header is written only by {@link #finish()}, thus certificates whose
+ * writing failed are rejected by the {@link IndexedCertificateReader}.
+ */
+public class IndexedCertificateWriter implements AutoCloseable {
+
+  static final int MAGIC = 0x43504343; // "CPCC"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+  static final int LENGTH_PREFIX_SIZE = 8;
+  static final int INDEX_ENTRY_SIZE = 8 + 8;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final List<Long> sectionOffsets = new ArrayList<>();
+  private final List<Long> sectionLengths = new ArrayList<>();
+
+  private @Nullable ObjectOutputStream currentSection = null;
+  private long currentSectionOffset;
+
+  public IndexedCertificateWriter(Path pFile) throws IOException {
+    Files.createParentDirs(pFile.toFile());
+    channel = FileChannel.open(pFile.toFile().toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    // placeholder for header, written in finish()
+    writeFully(ByteBuffer.allocate(HEADER_SIZE));
+  }
+
+  /**
+   * Start a new section and return the stream to which its content is written.
+   * The stream must not be closed, the section is completed by {@link #endSection()}.
+   */
+  public ObjectOutputStream startSection() throws IOException {
+    checkState(currentSection == null, "Previous section was not ended.");
+    currentSectionOffset = channel.position() + LENGTH_PREFIX_SIZE;
+    channel.position(currentSectionOffset);
+    currentSection = new ObjectOutputStream(new BufferedOutputStream(new SectionOutputStream(), BUFFER_SIZE));
+    return currentSection;
+  }
+
+  /**
+   * Complete the current section and write its length prefix.
+   */
+  public void endSection() throws IOException {
+    checkState(currentSection != null, "No section was started.");
+    currentSection.flush();
+    currentSection = null;
+
+    long length = channel.position() - currentSectionOffset;
+    ByteBuffer prefix = ByteBuffer.allocate(LENGTH_PREFIX_SIZE);
+    prefix.putLong(length).flip();
+    while (prefix.hasRemaining()) {
+      channel.write(prefix, currentSectionOffset - LENGTH_PREFIX_SIZE + prefix.position());
+    }
+
+    sectionOffsets.add(currentSectionOffset);
+    sectionLengths.add(length);
+  }
+
+  public int getNumberOfSections() {
+    return sectionOffsets.size();
+  }
+
+  /**
+   * Write the index and the header.
+   * Only after this method was called, the certificate can be read.
+   */
+  public void finish() throws IOException {
+    checkState(currentSection == null, "Last section was not ended.");
+    long indexOffset = channel.position();
+
+    ByteBuffer index = ByteBuffer.allocate(INDEX_ENTRY_SIZE * sectionOffsets.size());
+    for (int i = 0; i < sectionOffsets.size(); i++) {
+      index.putLong(sectionOffsets.get(i));
+      index.putLong(sectionLengths.get(i));
+    }
+    index.flip();
+    writeFully(index);
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+    header.putInt(sectionOffsets.size());
+    header.putLong(indexOffset);
+    header.flip();
+    channel.position(0);
+    writeFully(header);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void writeFully(ByteBuffer pBuffer) throws IOException {
+    while (pBuffer.hasRemaining()) {
+      channel.write(pBuffer);
+    }
+  }
+
+  /**
+   * Stream that writes to the channel at its current position
+   * and does not close the channel when it is closed.
+   */
+  private class SectionOutputStream extends OutputStream {
+
+    @Override
+    public void write(int pByte) throws IOException {
+      write(new byte[] { (byte) pByte }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] pBytes, int pOffset, int pLength) throws IOException {
+      writeFully(ByteBuffer.wrap(pBytes, pOffset, pLength));
+    }
+  }
+}
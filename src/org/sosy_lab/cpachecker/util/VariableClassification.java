@@ -25,15 +25,23 @@ package org.sosy_lab.cpachecker.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -51,8 +59,18 @@ import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
+
+public class VariableClassification implements Serializable {
 
-public class VariableClassification {
+  private static final long serialVersionUID = 3264620217306539561L;
+
+  /** Flags for the classes of a variable, see {@link #getFlags(int)}. */
+  public static final int INT_BOOL = 1;
+  public static final int INT_EQUAL = 2;
+  public static final int INT_ADD = 4;
+  public static final int RELEVANT = 8;
+  public static final int ADDRESSED = 16;
 
   private final boolean hasRelevantNonIntAddVars;
 
@@ -84,7 +102,15 @@ public class VariableClassification {
 
   private final Map<Pair<CFAEdge, Integer>, Partition> edgeToPartitions;
 
-  private final LogManager logger;
+  /** index of each classified variable into {@link #variableFlags},
+   * not serialized because it can be rebuilt from the sets of variables.
+   * The index is still keyed by the scoped names of the variables,
+   * so it saves the lookups in the separate sets of each class,
+   * but not the hashing of the name itself. */
+  private transient ImmutableMap<String, Integer> variableIndex;
+  private transient byte[] variableFlags;
+
+  private transient @Nullable LogManager logger; // not available after deserialization
 
   VariableClassification(boolean pHasRelevantNonIntAddVars,
       Set<String> pIntBoolVars,
@@ -116,6 +142,39 @@ public class VariableClassification {
     assumedVariables = ImmutableMultiset.copyOf(pAssumedVariables);
     assignedVariables = ImmutableMultiset.copyOf(pAssignedVariables);
     logger = pLogger;
+
+    buildIndex();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    buildIndex();
+  }
+
+  /** build the index, such that all classes of a variable can be checked with a single lookup */
+  private void buildIndex() {
+    Map<String, Integer> index = new HashMap<>();
+    List<Byte> flags = new ArrayList<>();
+    addFlags(intBoolVars, INT_BOOL, index, flags);
+    addFlags(intEqualVars, INT_EQUAL, index, flags);
+    addFlags(intAddVars, INT_ADD, index, flags);
+    addFlags(relevantVariables, RELEVANT, index, flags);
+    addFlags(addressedVariables, ADDRESSED, index, flags);
+    variableIndex = ImmutableMap.copyOf(index);
+    variableFlags = Bytes.toArray(flags);
+  }
+
+  private static void addFlags(Set<String> vars, int flag,
+      Map<String, Integer> index, List<Byte> flags) {
+    for (String var : vars) {
+      Integer i = index.get(var);
+      if (i == null) {
+        index.put(var, flags.size());
+        flags.add((byte)flag);
+      } else {
+        flags.set(i, (byte)(flags.get(i) | flag));
+      }
+    }
   }
 
   @VisibleForTesting
@@ -137,6 +196,40 @@ public class VariableClassification {
         pLogger);
   }
 
+  /**
+   * This function returns the index of a variable (given by its scoped name)
+   * for {@link #getFlags(int)}, or -1 if the variable is not in any class.
+   * The index can be stored by clients that need to check the classes
+   * of a variable several times.
+   *
+   * Note that this method still looks up the name in a hash map,
+   * the index is not cached on the declaration of the variable.
+   * Only {@link #getFlags(int)} with a stored index avoids hashing.
+   */
+  public int getVariableIndex(String var) {
+    Integer index = variableIndex.get(var);
+    return (index == null) ? -1 : index;
+  }
+
+  /**
+   * This function returns the classes of a variable as combination of the flags
+   * {@link #INT_BOOL}, {@link #INT_EQUAL}, {@link #INT_ADD}, {@link #RELEVANT} and {@link #ADDRESSED}.
+   *
+   * @param index an index from {@link #getVariableIndex(String)}
+   */
+  public int getFlags(int index) {
+    return (index < 0) ? 0 : variableFlags[index];
+  }
+
+  /**
+   * This function returns the classes of a variable (given by its scoped name),
+   * i.e., it is a shortcut for {@link #getFlags(int)} and {@link #getVariableIndex(String)}
+   * and hashes the name on every call.
+   */
+  public int getVariableFlags(String var) {
+    return getFlags(getVariableIndex(var));
+  }
+
   public boolean hasRelevantNonIntAddVars() {
     return hasRelevantNonIntAddVars;
   }
@@ -324,12 +417,14 @@ public class VariableClassification {
 
       // check for overflow
       if(newScore < oldScore) {
-        logger.log(Level.WARNING,
-            "Highest possible value reached in score computation."
-                + " Error path prefix preference may not be applied reliably.");
-        logger.logf(Level.FINE,
-            "Overflow in score computation happened for variables %s.",
-            variableNames.toString());
+        if (logger != null) {
+          logger.log(Level.WARNING,
+              "Highest possible value reached in score computation."
+                  + " Error path prefix preference may not be applied reliably.");
+          logger.logf(Level.FINE,
+              "Overflow in score computation happened for variables %s.",
+              variableNames.toString());
+        }
 
         return Integer.MAX_VALUE - 1;
       }
@@ -350,7 +445,9 @@ public class VariableClassification {
 
   /** A Partition is a Wrapper for a Collection of vars, values and edges.
   * The Partitions are disjunct, so no variable and no edge is in 2 Partitions. */
-  public static class Partition {
+  public static class Partition implements Serializable {
+
+   private static final long serialVersionUID = -6812870524389226396L;
 
    private final Set<String> vars = new HashSet<>();
    private final Set<BigInteger> values = Sets.newTreeSet();
@@ -383,7 +480,7 @@ public class VariableClassification {
      varToPartition.put(var, this);
    }
 
-   void addValues(Set<BigInteger> newValues) {
+   void addValues(Collection<BigInteger> newValues) {
      values.addAll(newValues);
    }
 
@@ -31,6 +31,7 @@ import java.io.PrintWriter;
 import java.io.Writer;
 import java.math.BigInteger;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,6 +41,12 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
@@ -48,6 +55,7 @@ import javax.annotation.Nullable;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -56,6 +64,7 @@ import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFAFunctionTaskRunner;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.ast.AReturnStatement;
 import org.sosy_lab.cpachecker.cfa.ast.AVariableDeclaration;
@@ -116,14 +125,19 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCCodeException;
 import org.sosy_lab.cpachecker.util.VariableClassification.Partition;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 
@@ -145,6 +159,12 @@ public class VariableClassificationBuilder {
   @Option(secure=true, description = "Print some information about the variable classification.")
   private boolean printStatsOnStartup = false;
 
+  @Option(secure=true, description = "Number of threads for collecting the variables "
+      + "and their dependencies from the functions of the CFA (0 for number of processors). "
+      + "All functions are handled independently, the results are merged afterwards.")
+  @IntegerOption(min=0)
+  private int parallelThreads = 1;
+
   /**
    * Use {@link FunctionEntryNode#getReturnVariable()} and
    * {@link AReturnStatement#asAssignment()} instead.
@@ -166,7 +186,7 @@ public class VariableClassificationBuilder {
   private final Set<String> nonIntEqVars = new HashSet<>();
   private final Set<String> nonIntAddVars = new HashSet<>();
 
-  private final Dependencies dependencies = new Dependencies();
+  private final Dependencies dependencies;
 
   /** These sets contain all variables even ones of array, pointer or structure types.
    *  Such variables cannot be classified even as Int, so they are only kept in these sets in order
@@ -192,16 +212,38 @@ public class VariableClassificationBuilder {
   public VariableClassificationBuilder(Configuration config, LogManager pLogger) throws InvalidConfigurationException {
     logger = checkNotNull(pLogger);
     config.inject(this);
+    dependencies = new Dependencies();
+  }
+
+  /** Creates a builder that collects the variables of some functions
+   * for the given builder. The dependencies are shared. */
+  private VariableClassificationBuilder(VariableClassificationBuilder pParent, int pFunctionIndex) {
+    logger = pParent.logger;
+    allowOneAsBooleanValue = pParent.allowOneAsBooleanValue;
+    dependencies = pParent.dependencies.forFunction(pFunctionIndex);
   }
 
   /** This function does the whole work:
    * creating all maps, collecting vars, solving dependencies.
    * The function runs only once, after that it does nothing. */
-  public VariableClassification build(CFA cfa) throws UnrecognizedCCodeException {
+  public VariableClassification build(CFA cfa) throws UnrecognizedCCodeException, InterruptedException {
     checkArgument(cfa.getLanguage() == Language.C, "VariableClassification currently only supports C");
 
     // fill maps
-    collectVars(cfa);
+    CFAFunctionTaskRunner runner = new CFAFunctionTaskRunner(parallelThreads);
+    if (runner.isParallel()) {
+      collectVarsInParallel(cfa, runner);
+    } else {
+      collectVars(cfa);
+    }
+
+    // add last vars to dependencies,
+    // this allows to get partitions for all vars,
+    // otherwise only dependent vars are in the partitions
+    for (String var : allVars) {
+      dependencies.addVar(var);
+    }
+    dependencies.buildPartitions();
 
     // if a value is not boolean, all dependent vars are not boolean and viceversa
     dependencies.solve(nonIntBoolVars);
@@ -242,13 +284,6 @@ public class VariableClassificationBuilder {
 
     propagateRelevancy();
 
-    // add last vars to dependencies,
-    // this allows to get partitions for all vars,
-    // otherwise only dependent vars are in the partitions
-    for (String var : allVars) {
-      dependencies.addVar(var);
-    }
-
     boolean hasRelevantNonIntAddVars = !Sets.intersection(relevantVariables, nonIntAddVars).isEmpty();
 
     VariableClassification result = new VariableClassification(
@@ -404,6 +439,66 @@ public class VariableClassificationBuilder {
     }
   }
 
+  /** This function collects the vars like {@link #collectVars(CFA)},
+   * but handles each function with a separate builder in a separate thread.
+   * Only the dependencies are shared between the threads,
+   * all other facts are merged into this builder afterwards. */
+  private void collectVarsInParallel(final CFA cfa, CFAFunctionTaskRunner runner)
+      throws UnrecognizedCCodeException, InterruptedException {
+    final ImmutableListMultimap<String, CFANode> nodesPerFunction =
+        Multimaps.index(cfa.getAllNodes(), new Function<CFANode, String>() {
+          @Override
+          public String apply(CFANode pNode) {
+            return pNode.getFunctionName();
+          }
+        });
+
+    final List<String> functions = ImmutableList.copyOf(nodesPerFunction.keySet());
+    final Map<String, Integer> functionIndex = Maps.newHashMapWithExpectedSize(functions.size());
+    for (String function : functions) {
+      functionIndex.put(function, functionIndex.size());
+    }
+    final Map<String, VariableClassificationBuilder> workers = new ConcurrentHashMap<>();
+    final AtomicReference<UnrecognizedCCodeException> failure = new AtomicReference<>();
+
+    runner.processAll(functions, new CFAFunctionTaskRunner.FunctionTask<String>() {
+      @Override
+      public void process(String pFunction) {
+        VariableClassificationBuilder worker =
+            new VariableClassificationBuilder(VariableClassificationBuilder.this, functionIndex.get(pFunction));
+        try {
+          for (CFANode node : nodesPerFunction.get(pFunction)) {
+            for (CFAEdge edge : leavingEdges(node)) {
+              worker.handleEdge(edge, cfa);
+            }
+          }
+        } catch (UnrecognizedCCodeException e) {
+          failure.compareAndSet(null, e);
+          return;
+        }
+        workers.put(pFunction, worker);
+      }
+    });
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+
+    // merge in a fixed order, such that the result does not depend on the scheduling
+    for (String function : functions) {
+      VariableClassificationBuilder worker = workers.get(function);
+      allVars.addAll(worker.allVars);
+      nonIntBoolVars.addAll(worker.nonIntBoolVars);
+      nonIntEqVars.addAll(worker.nonIntEqVars);
+      nonIntAddVars.addAll(worker.nonIntAddVars);
+      relevantVariables.addAll(worker.relevantVariables);
+      addressedVariables.addAll(worker.addressedVariables);
+      assignments.putAll(worker.assignments);
+      relevantFields.putAll(worker.relevantFields);
+    }
+    dependencies.continueAfterFunctions(functions.size());
+  }
+
   /**
    * This method extracts all variables (i.e., their qualified name), that occur in an assumption.
    */
@@ -561,8 +656,7 @@ public class VariableClassificationBuilder {
       if (returnVar.isPresent()) {
         String scopedVarName = returnVar.get().getQualifiedName();
         dependencies.addVar(scopedVarName);
-        Partition partition = dependencies.getPartitionForVar(scopedVarName);
-        partition.addEdge(edge, 0);
+        dependencies.addEdge(scopedVarName, edge, 0);
       }
       break;
     }
@@ -673,8 +767,7 @@ public class VariableClassificationBuilder {
 
       } else {
         // external function
-        Partition partition = dependencies.getPartitionForVar(varName);
-        partition.addEdge(edge, -1); // negative value, because all positives are used for params
+        dependencies.addEdge(varName, edge, -1); // negative value, because all positives are used for params
       }
 
       rhs.accept(new CollectingRHSVisitor(lhsVariableOrField));
@@ -705,8 +798,7 @@ public class VariableClassificationBuilder {
         final String varName = id.getDeclaration().getQualifiedName();
 
         dependencies.addVar(varName);
-        Partition partition = dependencies.getPartitionForVar(varName);
-        partition.addEdge(edge, i);
+        dependencies.addEdge(varName, edge, i);
 
       } else {
         // "printf("%d", output);" or "assert(exp);"
@@ -1043,10 +1135,28 @@ public class VariableClassificationBuilder {
 
   /** This class stores dependencies between variables.
    * It sorts vars into partitions.
-   * Dependent vars are in the same partition. Partitions are independent. */
-  private static class Dependencies {
-
-    /** partitions, each of them contains vars */
+   * Dependent vars are in the same partition. Partitions are independent.
+   *
+   * While the facts are collected, the partitions are only represented
+   * as a union-find structure over the variables that can be updated concurrently
+   * (linking by id and compare-and-set, path halving).
+   * {@link #buildPartitions()} creates the actual partitions afterwards.
+   *
+   * The partitions are ordered by the first use of their vars.
+   * If functions are handled concurrently, each of them uses its own view
+   * (see {@link #forFunction(int)}) with a separate range of positions,
+   * such that the order is the same for every scheduling of the threads. */
+  @VisibleForTesting
+  static class Dependencies {
+
+    /** union-find nodes of all vars, these are only modified atomically */
+    private final ConcurrentMap<String, VarNode> nodes;
+    private final AtomicInteger nextId;
+
+    /** position of the next use of a var in this view, not thread-safe */
+    private long nextPosition;
+
+    /** partitions, each of them contains vars, available after buildPartitions() */
     private final List<Partition> partitions = Lists.newArrayList();
 
     /** map to get partition of a var */
@@ -1055,48 +1165,46 @@ public class VariableClassificationBuilder {
     /** table to get a partition for a edge. */
     private final Map<Pair<CFAEdge, Integer>, Partition> edgeToPartition = Maps.newHashMap();
 
-    /** This function returns a partition containing all vars,
-     * that are dependent with the given variable. */
-    public Partition getPartitionForVar(String var) {
-      return varToPartition.get(var);
+    Dependencies() {
+      this(new ConcurrentHashMap<String, VarNode>(), new AtomicInteger(), 0);
     }
 
-    /** This function creates a dependency between function1::var1 and function2::var2. */
-    public void add(String var1, String var2) {
+    private Dependencies(ConcurrentMap<String, VarNode> pNodes, AtomicInteger pNextId,
+        long pFirstPosition) {
+      nodes = pNodes;
+      nextId = pNextId;
+      nextPosition = pFirstPosition;
+    }
 
-      // if both vars exists in some dependencies,
-      // either ignore them or merge their partitions
-      Partition partition1 = varToPartition.get(var1);
-      Partition partition2 = varToPartition.get(var2);
-      if (partition1 != null && partition2 != null) {
-
-        // swap partitions, we create partitions in the order they are used
-        if (partitions.lastIndexOf(partition1) > partitions.lastIndexOf(partition2)) {
-          Partition tmp = partition2;
-          partition2 = partition1;
-          partition1 = tmp;
-        }
+    /** This function returns a view for collecting the dependencies of the function
+     * with the given index. The views share all vars and can be used concurrently,
+     * the uses of vars are positioned after all functions with lower index. */
+    public Dependencies forFunction(int index) {
+      return new Dependencies(nodes, nextId, (index + 1L) << 32);
+    }
 
-        if (!partition1.equals(partition2)) {
-          partition1.merge(partition2);
-          partitions.remove(partition2);
-        }
+    /** This function positions all further uses of vars in this view
+     * after the given number of functions (see {@link #forFunction(int)}). */
+    public void continueAfterFunctions(int numberOfFunctions) {
+      nextPosition = (numberOfFunctions + 1L) << 32;
+    }
 
-        // if only left side of dependency exists, add right side into same partition
-      } else if (partition1 != null) {
-        partition1.add(var2);
+    /** This function returns all partitions in the order of the first use of their vars.
+     * Can only be called after {@link #buildPartitions()}. */
+    public List<Partition> getPartitions() {
+      return Collections.unmodifiableList(partitions);
+    }
 
-        // if only right side of dependency exists, add left side into same partition
-      } else if (partition2 != null) {
-        partition2.add(var1);
+    /** This function returns a partition containing all vars,
+     * that are dependent with the given variable.
+     * Can only be called after {@link #buildPartitions()}. */
+    public Partition getPartitionForVar(String var) {
+      return varToPartition.get(var);
+    }
 
-        // if none side is in any existing partition, create new partition
-      } else {
-        Partition partition = new Partition(varToPartition, edgeToPartition);
-        partition.add(var1);
-        partition.add(var2);
-        partitions.add(partition);
-      }
+    /** This function creates a dependency between function1::var1 and function2::var2. */
+    public void add(String var1, String var2) {
+      union(getNode(var1), getNode(var2));
     }
 
     /** This function adds a group of vars to exactly one partition.
@@ -1115,30 +1223,99 @@ public class VariableClassificationBuilder {
       Iterator<String> iter = vars.iterator();
 
       // we use same varName for all other vars --> dependency
-      String var = iter.next();
-
-      // first add one single var
-      addVar(var);
+      VarNode var = getNode(iter.next());
 
       // then add all other vars, they are dependent from the first var
       while (iter.hasNext()) {
-        add(var, iter.next());
+        union(var, getNode(iter.next()));
       }
 
-      Partition partition = getPartitionForVar(var);
-      partition.addValues(values);
-      partition.addEdge(edge, index);
+      var.values.addAll(values);
+      var.edges.add(Pair.of(edge, index));
     }
 
     /** This function adds one single variable to the partitions.
      * This is the only method to create a partition with only one element. */
     public void addVar(String var) {
+      getNode(var);
+    }
+
+    /** This function "connects" the edge with the partition of the var. */
+    public void addEdge(String var, CFAEdge edge, int index) {
+      getNode(var).edges.add(Pair.of(edge, index));
+    }
+
+    private VarNode getNode(String var) {
+      long position = nextPosition++;
+      VarNode node = nodes.get(var);
+      if (node == null) {
+        node = new VarNode(var, nextId.getAndIncrement(), position);
+        VarNode existing = nodes.putIfAbsent(var, node);
+        if (existing != null) {
+          node = existing;
+        }
+      }
+      node.usedAt(position);
+      return node;
+    }
+
+    private static VarNode find(VarNode node) {
+      VarNode current = node;
+      while (true) {
+        VarNode parent = current.parent.get();
+        if (parent == current) {
+          return current;
+        }
+        // path halving, it does not matter if this fails because of a concurrent update
+        VarNode grandParent = parent.parent.get();
+        current.parent.compareAndSet(parent, grandParent);
+        current = grandParent;
+      }
+    }
 
-      // if var exists, we can ignore it, otherwise create new partition for var
-      if (!varToPartition.containsKey(var)) {
-        Partition partition = new Partition(varToPartition, edgeToPartition);
-        partition.add(var);
-        partitions.add(partition);
+    private static void union(VarNode node1, VarNode node2) {
+      while (true) {
+        VarNode root1 = find(node1);
+        VarNode root2 = find(node2);
+        if (root1 == root2) {
+          return;
+        }
+        // always link the root with the higher id, this prevents cycles
+        if (root1.id > root2.id) {
+          VarNode tmp = root1;
+          root1 = root2;
+          root2 = tmp;
+        }
+        if (root2.parent.compareAndSet(root2, root1)) {
+          return;
+        }
+        // root2 was linked concurrently, retry with the new roots
+      }
+    }
+
+    /** This function creates the partitions from the collected dependencies.
+     * It must be called after all dependencies were added
+     * and after all threads that added them have finished. */
+    public void buildPartitions() {
+      checkState(partitions.isEmpty());
+      List<VarNode> sortedNodes = new ArrayList<>(nodes.values());
+      // create partitions in the order the vars were first used
+      Collections.sort(sortedNodes);
+
+      Map<VarNode, Partition> rootToPartition = Maps.newHashMap();
+      for (VarNode node : sortedNodes) {
+        VarNode root = find(node);
+        Partition partition = rootToPartition.get(root);
+        if (partition == null) {
+          partition = new Partition(varToPartition, edgeToPartition);
+          rootToPartition.put(root, partition);
+          partitions.add(partition);
+        }
+        partition.add(node.name);
+        partition.addValues(node.values);
+        for (Pair<CFAEdge, Integer> edge : node.edges) {
+          partition.addEdge(edge.getFirst(), edge.getSecond());
+        }
       }
     }
 
@@ -1161,15 +1338,53 @@ public class VariableClassificationBuilder {
       StringBuilder str = new StringBuilder("[");
       Joiner.on(",\n").appendTo(str, partitions);
       str.append("]\n\n");
-
-      //      for (Pair<CFAEdge, Integer> edge : edgeToPartition.keySet()) {
-      //        str.append(edge.getFirst().getRawStatement() + " :: "
-      //            + edge.getSecond() + " --> " + edgeToPartition.get(edge) + "\n");
-      //      }
       return str.toString();
     }
   }
 
+  /** A node of the union-find structure in {@link Dependencies}. */
+  private static final class VarNode implements Comparable<VarNode> {
+
+    private final String name;
+
+    /** arbitrary unique id for linking the nodes */
+    private final int id;
+
+    /** first position where the var was used, only decreases */
+    private final AtomicLong firstUse;
+
+    /** the node itself if it is the representative of its partition */
+    private final AtomicReference<VarNode> parent = new AtomicReference<>();
+
+    /** values and edges are stored in an arbitrary node of their partition */
+    private final Queue<BigInteger> values = new ConcurrentLinkedQueue<>();
+    private final Queue<Pair<CFAEdge, Integer>> edges = new ConcurrentLinkedQueue<>();
+
+    private VarNode(String pName, int pId, long pPosition) {
+      name = pName;
+      id = pId;
+      firstUse = new AtomicLong(pPosition);
+      parent.set(this);
+    }
+
+    private void usedAt(long position) {
+      long current = firstUse.get();
+      while (position < current && !firstUse.compareAndSet(current, position)) {
+        current = firstUse.get();
+      }
+    }
+
+    @Override
+    public int compareTo(VarNode other) {
+      return Long.compare(firstUse.get(), other.firstUse.get());
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
 
   /** This Visitor evaluates an Expression. It also collects all variables.
    * Each visit-function returns
@@ -0,0 +1,139 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.VariableClassification.Partition;
+import org.sosy_lab.cpachecker.util.VariableClassificationBuilder.Dependencies;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Unit tests for the union-find structure of {@link VariableClassificationBuilder}.
+ */
+public class VariableClassificationBuilderTest {
+
+  private static final int FUNCTIONS = 8;
+  private static final int VARS = 1000;
+  private static final int CLASSES = 10;
+
+  /** Function f connects each var v with v % FUNCTIONS == f to the var v+CLASSES,
+   * so all vars with the same remainder modulo CLASSES end in the same partition,
+   * but each partition is built by several functions. */
+  private static void addDependencies(Dependencies view, int function) {
+    for (int v = function; v + CLASSES < VARS; v += FUNCTIONS) {
+      view.add("v" + v, "v" + (v + CLASSES));
+    }
+  }
+
+  private static List<Set<String>> partitionsOf(Dependencies dependencies) {
+    List<Set<String>> result = new ArrayList<>();
+    for (Partition partition : dependencies.getPartitions()) {
+      result.add(ImmutableSet.copyOf(partition.getVars()));
+    }
+    return result;
+  }
+
+  private static Dependencies runConcurrently() throws InterruptedException {
+    final Dependencies dependencies = new Dependencies();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int f = 0; f < FUNCTIONS; f++) {
+      final int function = f;
+      final Dependencies view = dependencies.forFunction(function);
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          addDependencies(view, function);
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    dependencies.buildPartitions();
+    return dependencies;
+  }
+
+  @Test
+  public void testConcurrentUnion() throws InterruptedException {
+    Dependencies dependencies = runConcurrently();
+
+    assertThat(dependencies.getPartitions()).hasSize(CLASSES);
+    for (int v = 0; v < VARS; v++) {
+      Partition partition = dependencies.getPartitionForVar("v" + v);
+      assertThat(partition.getVars()).hasSize(VARS / CLASSES);
+      assertThat(partition).isEqualTo(dependencies.getPartitionForVar("v" + (v % CLASSES)));
+    }
+  }
+
+  @Test
+  public void testOrderIndependentOfScheduling() throws InterruptedException {
+    // handle the functions sequentially in reverse order
+    Dependencies reverse = new Dependencies();
+    List<Integer> functions = new ArrayList<>();
+    for (int f = 0; f < FUNCTIONS; f++) {
+      functions.add(f);
+    }
+    Collections.reverse(functions);
+    for (int f : functions) {
+      addDependencies(reverse.forFunction(f), f);
+    }
+    reverse.buildPartitions();
+
+    List<Set<String>> expected = partitionsOf(reverse);
+    for (int i = 0; i < 5; i++) {
+      assertThat(partitionsOf(runConcurrently())).containsExactlyElementsIn(expected).inOrder();
+    }
+  }
+
+  @Test
+  public void testSingleVarPartitions() {
+    Dependencies dependencies = new Dependencies();
+    dependencies.addVar("b");
+    dependencies.add("a", "c");
+    dependencies.addVar("a");
+    dependencies.buildPartitions();
+
+    List<Set<String>> partitions = partitionsOf(dependencies);
+    assertThat(partitions).containsExactly(
+        ImmutableSet.of("b"), ImmutableSet.of("a", "c")).inOrder();
+  }
+}
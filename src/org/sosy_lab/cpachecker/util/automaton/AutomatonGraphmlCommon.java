@@ -31,6 +31,9 @@ import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -326,17 +329,7 @@ public class AutomatonGraphmlCommon {
       }
       appendDataElement(KeyDef.PROGRAMFILE, pProgramNames);
       appendDataElement(KeyDef.MEMORYMODEL, pMemoryModel);
-      switch (pMachineModel) {
-        case LINUX32:
-          appendDataElement(KeyDef.ARCHITECTURE, "32bit");
-          break;
-        case LINUX64:
-          appendDataElement(KeyDef.ARCHITECTURE, "64bit");
-          break;
-        default:
-          appendDataElement(KeyDef.ARCHITECTURE, pMachineModel.toString());
-          break;
-      }
+      appendDataElement(KeyDef.ARCHITECTURE, getArchitecture(pMachineModel));
     }
 
     public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) {
@@ -365,6 +358,157 @@ public class AutomatonGraphmlCommon {
 
   }
 
+  /**
+   * Writes a GraphML document incrementally with a {@link XMLStreamWriter}.
+   * In contrast to {@link GraphMlBuilder}, no part of the document is kept in memory,
+   * so the elements need to be written in document order.
+   */
+  public static class GraphMlStreamWriter {
+
+    private final XMLStreamWriter out;
+
+    public GraphMlStreamWriter(Appendable target) throws IOException {
+      try {
+        out = XMLOutputFactory.newInstance().createXMLStreamWriter(CharStreams.asWriter(target));
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    public void appendDocHeader() throws IOException {
+      try {
+        out.writeStartDocument("UTF-8", "1.0");
+        out.writeCharacters("\n");
+        out.writeStartElement("graphml");
+        out.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        out.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+        out.writeCharacters("\n");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) throws IOException {
+      try {
+        out.writeStartElement(GraphMlTag.KEY.text);
+        out.writeAttribute("id", keyDef.id);
+        out.writeAttribute("for", keyDef.keyFor);
+        out.writeAttribute("attr.name", keyDef.attrName);
+        out.writeAttribute("attr.type", keyDef.attrType);
+        if (defaultValue != null) {
+          out.writeStartElement(GraphMlTag.DEFAULT.text);
+          out.writeCharacters(defaultValue);
+          out.writeEndElement();
+        }
+        out.writeEndElement();
+        out.writeCharacters("\n");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    public void appendGraphHeader(GraphType pGraphType,
+        Language pLanguage,
+        Iterable<String> pSpecifications,
+        String pProgramNames,
+        String pMemoryModel,
+        MachineModel pMachineModel) throws IOException {
+      try {
+        out.writeStartElement(GraphMlTag.GRAPH.text);
+        out.writeAttribute("edgedefault", "directed");
+        out.writeCharacters("\n");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+      appendDataElement(KeyDef.SOURCECODELANGUAGE, pLanguage.toString());
+      appendDataElement(KeyDef.PRODUCER, "CPAchecker " + CPAchecker.getCPAcheckerVersion());
+      for (String specification : pSpecifications) {
+        appendDataElement(KeyDef.SPECIFICATION, specification);
+      }
+      appendDataElement(KeyDef.PROGRAMFILE, pProgramNames);
+      appendDataElement(KeyDef.MEMORYMODEL, pMemoryModel);
+      appendDataElement(KeyDef.ARCHITECTURE, getArchitecture(pMachineModel));
+    }
+
+    /**
+     * Start a node element, it needs to be closed with {@link #endElement()}
+     * after its data elements were written.
+     */
+    public void startNode(String nodeId, NodeType nodeType) throws IOException {
+      try {
+        out.writeStartElement(GraphMlTag.NODE.text);
+        out.writeAttribute("id", nodeId);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+      if (nodeType != defaultNodeType) {
+        appendDataElement(KeyDef.NODETYPE, nodeType.toString());
+      }
+    }
+
+    /**
+     * Start an edge element, it needs to be closed with {@link #endElement()}
+     * after its data elements were written.
+     */
+    public void startEdge(String from, String to) throws IOException {
+      try {
+        out.writeStartElement(GraphMlTag.EDGE.text);
+        out.writeAttribute("source", from);
+        out.writeAttribute("target", to);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    public void appendDataElement(KeyDef key, String value) throws IOException {
+      try {
+        out.writeStartElement(GraphMlTag.DATA.text);
+        out.writeAttribute("key", key.id);
+        out.writeCharacters(value);
+        out.writeEndElement();
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    public void endElement() throws IOException {
+      try {
+        out.writeEndElement();
+        out.writeCharacters("\n");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+
+    /**
+     * Close the graph and the document and flush the output.
+     * The underlying target is not closed.
+     */
+    public void appendFooter() throws IOException {
+      try {
+        out.writeEndElement(); // graph
+        out.writeCharacters("\n");
+        out.writeEndElement(); // graphml
+        out.writeCharacters("\n");
+        out.writeEndDocument();
+        out.flush();
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  private static String getArchitecture(MachineModel pMachineModel) {
+    switch (pMachineModel) {
+      case LINUX32:
+        return "32bit";
+      case LINUX64:
+        return "64bit";
+      default:
+        return pMachineModel.toString();
+    }
+  }
+
   public static boolean handleAsEpsilonEdge(CFAEdge edge) {
     if (handleAsEpsilonEdge0(edge)) {
       if (edge.getSuccessor().getNumLeavingEdges() <= 0) {
@@ -26,6 +26,8 @@ package org.sosy_lab.cpachecker.util.globalinfo;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cpa.location.LocationState.LocationStateFactory;
@@ -35,6 +37,9 @@ public class CFAInfo {
   private final Map<Integer, CFANode> nodeNumberToNode;
   private LocationStateFactory locationStateFactory;
 
+  /** node numbers of a previous run, used while deserializing data of that run */
+  private final ThreadLocal<Map<Integer, CFANode>> nodeNumberTranslation = new ThreadLocal<>();
+
   CFAInfo(CFA cfa) {
     HashMap<Integer, CFANode> nodeNumberToNode = new HashMap<>();
     for (CFANode node : cfa.getAllNodes()) {
@@ -44,9 +49,33 @@ public class CFAInfo {
   }
 
   public CFANode getNodeByNodeNumber(int nodeNumber) {
+    Map<Integer, CFANode> translation = nodeNumberTranslation.get();
+    if (translation != null) {
+      CFANode node = translation.get(nodeNumber);
+      if (node == null) {
+        throw new IllegalArgumentException("No translation for node number " + nodeNumber);
+      }
+      return node;
+    }
     return nodeNumberToNode.get(nodeNumber);
   }
 
+  /**
+   * Set a translation of node numbers for the current thread,
+   * such that data with node numbers of a previous run (with a different numbering)
+   * can be deserialized. While a translation is set, {@link #getNodeByNodeNumber(int)}
+   * throws an {@link IllegalArgumentException} for node numbers without translation.
+   *
+   * @param pTranslation the translation, or null to reset the translation
+   */
+  public void setNodeNumberTranslation(@Nullable Map<Integer, CFANode> pTranslation) {
+    if (pTranslation == null) {
+      nodeNumberTranslation.remove();
+    } else {
+      nodeNumberTranslation.set(pTranslation);
+    }
+  }
+
   public void storeLocationStateFactory(LocationStateFactory pElementFactory) {
     locationStateFactory = pElementFactory;
   }
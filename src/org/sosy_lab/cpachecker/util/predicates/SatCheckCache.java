@@ -0,0 +1,108 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.FormulaManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Bounded cache for the results of satisfiability checks of {@link Solver}.
+ * The cache is thread-safe and is shared between all solvers
+ * that use the same {@link FormulaManager} for solving,
+ * e.g., all solvers created from the same {@link org.sosy_lab.solver.FormulaManagerFactory}
+ * (formulas of different formula managers cannot be compared).
+ * Formulas are hash-consed by the formula manager,
+ * so lookups are cheap and do not need to traverse the formula.
+ */
+final class SatCheckCache {
+
+  /**
+   * The shared caches, one per formula manager.
+   * Keys and values are weak, such that a cache can be garbage collected
+   * together with the solvers that use it.
+   */
+  private static final Cache<FormulaManager, SatCheckCache> sharedCaches =
+      CacheBuilder.newBuilder().weakKeys().weakValues().build();
+
+  private final Cache<BooleanFormula, Boolean> cache;
+
+  private SatCheckCache(int pMaxSize) {
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(pMaxSize)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Create a new cache that is used only by one solver.
+   */
+  static SatCheckCache create(int pMaxSize) {
+    return new SatCheckCache(pMaxSize);
+  }
+
+  /**
+   * Get the cache that is shared by all solvers using the given formula manager.
+   * The maximum size is determined by the solver that creates the cache.
+   */
+  static SatCheckCache getSharedInstance(FormulaManager pFormulaManager, final int pMaxSize) {
+    try {
+      return sharedCaches.get(pFormulaManager, new Callable<SatCheckCache>() {
+        @Override
+        public SatCheckCache call() {
+          return new SatCheckCache(pMaxSize);
+        }
+      });
+    } catch (ExecutionException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Return whether the given formula is known to be unsatisfiable,
+   * or null if it is not in the cache.
+   */
+  @Nullable Boolean isUnsat(BooleanFormula f) {
+    return cache.getIfPresent(f);
+  }
+
+  void put(BooleanFormula f, boolean unsat) {
+    cache.put(f, unsat);
+  }
+
+  boolean contains(BooleanFormula f) {
+    return cache.asMap().containsKey(f);
+  }
+
+  long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+}
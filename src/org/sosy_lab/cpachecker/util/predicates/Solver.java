@@ -24,10 +24,13 @@
 package org.sosy_lab.cpachecker.util.predicates;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -59,7 +62,6 @@ import org.sosy_lab.solver.logging.LoggingProverEnvironment;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
-import com.google.common.collect.Maps;
 
 /**
  * Encapsulation of an SMT solver.
@@ -84,21 +86,33 @@ public final class Solver implements AutoCloseable {
   private boolean checkUFs = false;
   private final UFCheckingProverOptions ufCheckingProverOptions;
 
+  @Option(secure=true, name="satCheckCache.size",
+      description="maximum number of formulas for which the result of a satisfiability check is cached "
+          + "(0 disables the cache)")
+  @IntegerOption(min=0)
+  private int satCheckCacheSize = 100000;
+
+  @Option(secure=true, name="satCheckCache.share",
+      description="share the cache for satisfiability checks between all solver instances "
+          + "that use the same formula manager (not possible with solver.checkUFs)")
+  private boolean shareSatCheckCache = true;
+
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
 
   private final FormulaManager solvingFormulaManager;
   private final FormulaManager interpolationFormulaManager;
 
-  private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
+  private final @Nullable SatCheckCache unsatCache;
 
   private final LogManager logger;
 
-  // stats
+  // stats, the counters are atomic such that they can be read while another thread uses the solver
   public final Timer solverTime = new Timer();
-  public int satChecks = 0;
-  public int trivialSatChecks = 0;
-  public int cachedSatChecks = 0;
+  public final AtomicInteger satChecks = new AtomicInteger();
+  public final AtomicInteger trivialSatChecks = new AtomicInteger();
+  public final AtomicInteger cachedSatChecks = new AtomicInteger();
+  public final AtomicInteger uncachedSatChecks = new AtomicInteger();
 
   /**
    * Please use {@link #create(Configuration, LogManager, ShutdownNotifier)} in normal code.
@@ -122,6 +136,14 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    if (satCheckCacheSize == 0) {
+      unsatCache = null;
+    } else if (shareSatCheckCache && !checkUFs) {
+      unsatCache = SatCheckCache.getSharedInstance(solvingFormulaManager, satCheckCacheSize);
+    } else {
+      unsatCache = SatCheckCache.create(satCheckCacheSize);
+    }
   }
 
   /**
@@ -250,27 +272,32 @@ public final class Solver implements AutoCloseable {
    * Checks whether a formula is unsat.
    */
   public boolean isUnsat(BooleanFormula f) throws SolverException, InterruptedException {
-    satChecks++;
+    satChecks.incrementAndGet();
 
     if (bfmgr.isTrue(f)) {
-      trivialSatChecks++;
+      trivialSatChecks.incrementAndGet();
       return false;
     }
     if (bfmgr.isFalse(f)) {
-      trivialSatChecks++;
+      trivialSatChecks.incrementAndGet();
       return true;
     }
-    Boolean result = unsatCache.get(f);
-    if (result != null) {
-      cachedSatChecks++;
-      return result;
+    if (unsatCache != null) {
+      Boolean result = unsatCache.isUnsat(f);
+      if (result != null) {
+        cachedSatChecks.incrementAndGet();
+        return result;
+      }
+      uncachedSatChecks.incrementAndGet();
     }
 
     solverTime.start();
     try {
-      result = isUnsatUncached(f);
+      boolean result = isUnsatUncached(f);
 
-      unsatCache.put(f, result);
+      if (unsatCache != null) {
+        unsatCache.put(f, result);
+      }
       return result;
 
     } finally {
@@ -331,13 +358,13 @@ public final class Solver implements AutoCloseable {
    */
   public boolean implies(BooleanFormula a, BooleanFormula b) throws SolverException, InterruptedException {
     if (bfmgr.isFalse(a) || bfmgr.isTrue(b)) {
-      satChecks++;
-      trivialSatChecks++;
+      satChecks.incrementAndGet();
+      trivialSatChecks.incrementAndGet();
       return true;
     }
     if (a.equals(b)) {
-      satChecks++;
-      trivialSatChecks++;
+      satChecks.incrementAndGet();
+      trivialSatChecks.incrementAndGet();
       return true;
     }
 
@@ -388,7 +415,7 @@ public final class Solver implements AutoCloseable {
    * @param unsat An unsatisfiable formula.
    */
   public void addUnsatisfiableFormulaToCache(BooleanFormula unsat) {
-    if (unsatCache.containsKey(unsat) || bfmgr.isFalse(unsat)) {
+    if (unsatCache == null || unsatCache.contains(unsat) || bfmgr.isFalse(unsat)) {
       return;
     }
     try {
@@ -402,6 +429,16 @@ public final class Solver implements AutoCloseable {
     unsatCache.put(unsat, true);
   }
 
+  /**
+   * Return the number of entries that were evicted from the cache for satisfiability checks
+   * that this solver uses.
+   * If this cache is shared with other solvers (cf. solver.satCheckCache.share),
+   * the count includes evictions caused by their checks.
+   */
+  public long getSatCheckCacheEvictions() {
+    return unsatCache == null ? 0 : unsatCache.getEvictionCount();
+  }
+
   public SmtAstMatcher getSmtAstMatcher() {
     return new SmtAstMatcherImpl(
         solvingFormulaManager.getUnsafeFormulaManager(),
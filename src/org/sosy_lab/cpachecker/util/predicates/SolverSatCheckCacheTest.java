@@ -0,0 +1,141 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
+import org.sosy_lab.solver.FormulaManagerFactory.Solvers;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.test.SolverBasedTest0;
+
+@RunWith(Parameterized.class)
+public class SolverSatCheckCacheTest extends SolverBasedTest0 {
+
+  @Parameters(name="{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solverUnderTest;
+
+  private FormulaManagerView mgrv;
+  private BooleanFormulaManagerView bfm;
+
+  private BooleanFormula sat;
+  private BooleanFormula unsat;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solverUnderTest;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mgrv = new FormulaManagerView(factory, config, TestLogManager.getInstance());
+    bfm = mgrv.getBooleanFormulaManager();
+
+    BooleanFormula a = bfm.makeVariable("a");
+    BooleanFormula b = bfm.makeVariable("b");
+    sat = bfm.and(a, b);
+    unsat = bfm.and(sat, bfm.not(a));
+  }
+
+  private Solver createSolver(Configuration pConfig) throws Exception {
+    return new Solver(mgrv, factory, pConfig, TestLogManager.getInstance());
+  }
+
+  @Test
+  public void testRepeatedCheckIsCached() throws Exception {
+    Solver solver = createSolver(config);
+
+    assertThat(solver.isUnsat(unsat)).isTrue();
+    assertThat(solver.isUnsat(sat)).isFalse();
+    assertThat(solver.isUnsat(unsat)).isTrue();
+    assertThat(solver.isUnsat(sat)).isFalse();
+
+    assertThat(solver.uncachedSatChecks.get()).isEqualTo(2);
+    assertThat(solver.cachedSatChecks.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCacheIsShared() throws Exception {
+    // both solvers use the formula manager of the same factory
+    Solver solver1 = createSolver(config);
+    Solver solver2 = createSolver(config);
+
+    assertThat(solver1.isUnsat(unsat)).isTrue();
+    assertThat(solver2.isUnsat(unsat)).isTrue();
+    assertThat(solver2.isUnsat(sat)).isFalse();
+    assertThat(solver1.isUnsat(sat)).isFalse();
+
+    assertThat(solver1.uncachedSatChecks.get()).isEqualTo(1);
+    assertThat(solver1.cachedSatChecks.get()).isEqualTo(1);
+    assertThat(solver2.uncachedSatChecks.get()).isEqualTo(1);
+    assertThat(solver2.cachedSatChecks.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCacheIsNotShared() throws Exception {
+    Configuration unsharedConfig = Configuration.builder()
+        .copyFrom(config)
+        .setOption("solver.satCheckCache.share", "false")
+        .build();
+    Solver solver1 = createSolver(unsharedConfig);
+    Solver solver2 = createSolver(unsharedConfig);
+
+    assertThat(solver1.isUnsat(unsat)).isTrue();
+    assertThat(solver2.isUnsat(unsat)).isTrue();
+
+    assertThat(solver2.uncachedSatChecks.get()).isEqualTo(1);
+    assertThat(solver2.cachedSatChecks.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCacheIsBounded() throws Exception {
+    Configuration boundedConfig = Configuration.builder()
+        .copyFrom(config)
+        .setOption("solver.satCheckCache.size", "1")
+        .setOption("solver.satCheckCache.share", "false")
+        .build();
+    Solver solver = createSolver(boundedConfig);
+
+    assertThat(solver.isUnsat(unsat)).isTrue();
+    assertThat(solver.isUnsat(sat)).isFalse();
+    assertThat(solver.isUnsat(unsat)).isTrue();
+
+    assertThat(solver.cachedSatChecks.get()).isEqualTo(0);
+    assertThat(solver.getSatCheckCacheEvictions()).isAtLeast(1L);
+  }
+}
@@ -35,14 +35,19 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -92,6 +97,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
 
 
 @Options(prefix="cpa.predicate.refinement")
@@ -102,6 +109,8 @@ public final class InterpolationManager {
   private final Timer getInterpolantTimer = new Timer();
   private final Timer cexAnalysisGetUsefulBlocksTimer = new Timer();
   private final Timer interpolantVerificationTimer = new Timer();
+  private final Timer racingTimer = new Timer();
+  private final Multiset<String> racingWinners = LinkedHashMultiset.create();
   private int reusedFormulasOnSolverStack = 0;
 
   public void printStatistics(PrintStream out, Result result, ReachedSet reached) {
@@ -117,6 +126,13 @@ public final class InterpolationManager {
     if (interpolantVerificationTimer.getNumberOfIntervals() > 0) {
       out.println("    Interpolant verification:         " + interpolantVerificationTimer);
     }
+    if (racingTimer.getNumberOfIntervals() > 0) {
+      out.println("    Interpolation races:              " + racingTimer + " (Calls: " + racingTimer.getNumberOfIntervals() + ")");
+      for (Multiset.Entry<String> winner : racingWinners.entrySet()) {
+        out.println("      Won by " + winner.getElement() + ": " + winner.getCount());
+      }
+      out.println("      Without winner:                 " + (racingTimer.getNumberOfIntervals() - racingWinners.size()));
+    }
   }
 
 
@@ -124,7 +140,7 @@ public final class InterpolationManager {
   private final ShutdownNotifier shutdownNotifier;
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
-  private final PathFormulaManager pmgr;
+  private final @Nullable PathFormulaManager pmgr; // null only for racing competitors
   private final Solver solver;
 
   private final Interpolator<?> interpolator;
@@ -178,7 +194,23 @@ public final class InterpolationManager {
   @Option(secure=true, description="Use a single SMT solver environment for several interpolation queries")
   private boolean reuseInterpolationEnvironment = false;
 
+  @Option(secure=true, name="racing.strategies",
+      description="Interpolation strategies that are raced against each other in each refinement. "
+        + "Every combination of these strategies and the directions in racing.directions "
+        + "runs concurrently on its own solver instance, the first sequence of interpolants "
+        + "is used and the other competitors are cancelled. "
+        + "If empty, only the strategy from cpa.predicate.refinement.strategy is used.")
+  private List<InterpolationStrategy> racingStrategies = ImmutableList.of();
+
+  @Option(secure=true, name="racing.directions",
+      description="Directions for counterexample analysis that are raced against each other "
+        + "in each refinement (see racing.strategies). "
+        + "If empty, only the direction from cpa.predicate.refinement.cexTraceCheckDirection is used.")
+  private List<CexTraceAnalysisDirection> racingDirections = ImmutableList.of();
+
   private final ExecutorService executor;
+  private final ImmutableList<RacingCompetitor> racingCompetitors;
+  private final @Nullable ExecutorService racingExecutor;
   private final LoopStructure loopStructure;
   private final VariableClassification variableClassification;
 
@@ -190,6 +222,21 @@ public final class InterpolationManager {
       Configuration config,
       ShutdownNotifier pShutdownNotifier,
       LogManager pLogger) throws InvalidConfigurationException {
+    this(checkNotNull(pPmgr), pSolver, pLoopStructure.orNull(), pVarClassification.orNull(),
+        config, pShutdownNotifier, pLogger);
+  }
+
+  /**
+   * Constructor for all instances, racing competitors pass null as path-formula manager.
+   */
+  private InterpolationManager(
+      @Nullable PathFormulaManager pPmgr,
+      Solver pSolver,
+      @Nullable LoopStructure pLoopStructure,
+      @Nullable VariableClassification pVarClassification,
+      Configuration config,
+      ShutdownNotifier pShutdownNotifier,
+      LogManager pLogger) throws InvalidConfigurationException {
     config.inject(this, InterpolationManager.class);
 
     logger = pLogger;
@@ -198,8 +245,8 @@ public final class InterpolationManager {
     bfmgr = fmgr.getBooleanFormulaManager();
     pmgr = pPmgr;
     solver = pSolver;
-    loopStructure = pLoopStructure.orNull();
-    variableClassification = pVarClassification.orNull();
+    loopStructure = pLoopStructure;
+    variableClassification = pVarClassification;
 
     if (itpTimeLimit.isEmpty()) {
       executor = null;
@@ -213,6 +260,44 @@ public final class InterpolationManager {
     } else {
       interpolator = null;
     }
+
+    racingCompetitors = createRacingCompetitors(config);
+    if (racingCompetitors.isEmpty()) {
+      racingExecutor = null;
+    } else {
+      // Cancelled competitors may need some time until they notice the shutdown request,
+      // so we do not limit the number of threads to avoid waiting for them in the next race.
+      racingExecutor = Executors.newCachedThreadPool(
+          Threads.threadFactoryBuilder().setNameFormat("Interpolation race %d").setDaemon(true).build());
+    }
+  }
+
+  private ImmutableList<RacingCompetitor> createRacingCompetitors(Configuration config)
+      throws InvalidConfigurationException {
+    List<InterpolationStrategy> strategies =
+        racingStrategies.isEmpty() ? ImmutableList.of(strategy) : racingStrategies;
+    List<CexTraceAnalysisDirection> directions =
+        racingDirections.isEmpty() ? ImmutableList.of(direction) : racingDirections;
+    if (strategies.size() * directions.size() <= 1) {
+      return ImmutableList.of();
+    }
+
+    ImmutableList.Builder<RacingCompetitor> result = ImmutableList.builder();
+    for (InterpolationStrategy competitorStrategy : strategies) {
+      for (CexTraceAnalysisDirection competitorDirection : directions) {
+        Configuration competitorConfig = Configuration.builder()
+            .copyFrom(config)
+            .setOption("cpa.predicate.refinement.strategy", competitorStrategy.name())
+            .setOption("cpa.predicate.refinement.cexTraceCheckDirection", competitorDirection.name())
+            .setOption("cpa.predicate.refinement.racing.strategies", "")
+            .setOption("cpa.predicate.refinement.racing.directions", "")
+            .setOption("cpa.predicate.refinement.reuseInterpolationEnvironment", "false")
+            .setOption("cpa.predicate.refinement.timelimit", "0") // enforced by the main instance
+            .build();
+        result.add(new RacingCompetitor(competitorStrategy + "/" + competitorDirection, competitorConfig));
+      }
+    }
+    return result.build();
   }
 
   public Appender dumpCounterexample(CounterexampleTraceInfo cex) {
@@ -319,6 +404,15 @@ public final class InterpolationManager {
         }
       }
 
+      if (computeInterpolants && !racingCompetitors.isEmpty()) {
+        CounterexampleTraceInfo raceResult = raceInterpolation(f, pAbstractionStates);
+        if (raceResult != null) {
+          return raceResult;
+        }
+        // no competitor found interpolants (probably the trace is feasible),
+        // so do the analysis again on our own solver to get the error path
+      }
+
       final Interpolator<?> currentInterpolator;
       if (reuseInterpolationEnvironment) {
         currentInterpolator = checkNotNull(interpolator);
@@ -357,6 +451,153 @@ public final class InterpolationManager {
     }
   }
 
+  /**
+   * Run the counterexample analysis with all {@link #racingCompetitors} concurrently,
+   * each on its own solver instance, and return the interpolants of the first competitor
+   * that finds some. The other competitors are cancelled.
+   * Formulas are transferred between the solver instances by dumping and parsing them.
+   *
+   * @return The interpolants converted to our own formula manager,
+   *         or null if no competitor found interpolants.
+   */
+  private @Nullable CounterexampleTraceInfo raceInterpolation(
+      final List<BooleanFormula> f, final List<AbstractState> pAbstractionStates)
+      throws InterruptedException {
+
+    racingTimer.start();
+    List<String> formulaDumps = new ArrayList<>(f.size());
+    for (BooleanFormula block : f) {
+      formulaDumps.add(fmgr.dumpFormula(block).toString());
+    }
+
+    CompletionService<List<String>> completionService = new ExecutorCompletionService<>(racingExecutor);
+    List<Future<List<String>>> futures = new ArrayList<>(racingCompetitors.size());
+    List<ShutdownNotifier> shutdownNotifiers = new ArrayList<>(racingCompetitors.size());
+    List<String> names = new ArrayList<>(racingCompetitors.size());
+    try {
+      for (RacingCompetitor competitor : racingCompetitors) {
+        if (competitor.isBusy()) {
+          // still finishing a solver query of a previous race
+          continue;
+        }
+        ShutdownNotifier competitorShutdownNotifier = ShutdownNotifier.createWithParent(shutdownNotifier);
+        shutdownNotifiers.add(competitorShutdownNotifier);
+        names.add(competitor.name);
+        futures.add(completionService.submit(
+            competitor.newTask(formulaDumps, pAbstractionStates, competitorShutdownNotifier)));
+      }
+
+      for (int i = 0; i < futures.size(); i++) {
+        Future<List<String>> future = completionService.take();
+        String name = names.get(futures.indexOf(future));
+
+        List<String> interpolantDumps;
+        try {
+          interpolantDumps = future.get();
+        } catch (ExecutionException e) {
+          logger.logDebugException(e.getCause(), "Interpolation with " + name + " failed");
+          continue;
+        }
+
+        if (interpolantDumps == null) {
+          // trace is feasible, the other competitors will not find interpolants either
+          logger.log(Level.FINEST, "Interpolation race stopped because trace is feasible according to", name);
+          return null;
+        }
+
+        List<BooleanFormula> interpolants = new ArrayList<>(interpolantDumps.size());
+        for (String dump : interpolantDumps) {
+          interpolants.add(fmgr.parse(dump));
+        }
+        logger.log(Level.FINE, "Interpolation race was won by", name);
+        racingWinners.add(name);
+        return CounterexampleTraceInfo.infeasible(interpolants);
+      }
+      return null;
+
+    } finally {
+      for (ShutdownNotifier competitorShutdownNotifier : shutdownNotifiers) {
+        competitorShutdownNotifier.requestShutdown("Interpolation race is finished");
+      }
+      for (Future<List<String>> future : futures) {
+        future.cancel(true);
+      }
+      racingTimer.stop();
+    }
+  }
+
+  /**
+   * One combination of interpolation strategy and analysis direction
+   * that takes part in an interpolation race.
+   * Each competitor creates its solver in its first race and keeps it for the whole analysis
+   * (like {@link #executor}, it is never closed).
+   * The solver is bound to the shutdown notifier of the analysis,
+   * so a cancelled competitor stops only between two solver queries.
+   * A competitor that is still busy with a previous race does not take part in the next one.
+   */
+  private class RacingCompetitor {
+
+    private final String name;
+    private final Configuration config;
+
+    // held while a task of this competitor runs, such that the solver is never used concurrently
+    private final ReentrantLock lock = new ReentrantLock();
+    private @Nullable Solver competitorSolver = null; // guarded by lock
+
+    private RacingCompetitor(String pName, Configuration pConfig) {
+      name = pName;
+      config = pConfig;
+    }
+
+    private boolean isBusy() {
+      return lock.isLocked();
+    }
+
+    /**
+     * Create a task that returns the dumped interpolants for the given dumped formulas,
+     * or null if the trace is feasible.
+     */
+    private Callable<List<String>> newTask(final List<String> formulaDumps,
+        final List<AbstractState> pAbstractionStates, final ShutdownNotifier pShutdownNotifier) {
+      return new Callable<List<String>>() {
+        @Override
+        public List<String> call() throws Exception {
+          lock.lockInterruptibly();
+          try {
+            if (competitorSolver == null) {
+              competitorSolver = Solver.create(config, logger, shutdownNotifier);
+            }
+            FormulaManagerView competitorFmgr = competitorSolver.getFormulaManager();
+            // cheap compared to the solver, and binds the strategies to the notifier of this race
+            InterpolationManager competitorManager = new InterpolationManager(
+                null, competitorSolver, loopStructure, variableClassification,
+                config, pShutdownNotifier, logger);
+
+            List<BooleanFormula> formulas = new ArrayList<>(formulaDumps.size());
+            for (String dump : formulaDumps) {
+              formulas.add(competitorFmgr.parse(dump));
+            }
+
+            CounterexampleTraceInfo info = competitorManager.buildCounterexampleTrace0(
+                formulas, pAbstractionStates, Collections.<ARGState>emptySet(), true);
+            if (!info.isSpurious()) {
+              return null;
+            }
+
+            List<String> interpolantDumps = new ArrayList<>(info.getInterpolants().size());
+            for (BooleanFormula itp : info.getInterpolants()) {
+              interpolantDumps.add(competitorFmgr.dumpFormula(itp).toString());
+            }
+            return interpolantDumps;
+
+          } finally {
+            lock.unlock();
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Add axioms about bitwise operations to a list of formulas, if such operations
    * are used. This is probably not that helpful currently, we would have to the
@@ -590,6 +831,11 @@ public final class InterpolationManager {
       BasicProverEnvironment<?> pProver, Set<ARGState> elementsOnPath)
       throws CPATransferException, SolverException, InterruptedException {
 
+    if (pmgr == null) {
+      // racing competitor, the main instance computes the error path itself
+      return CounterexampleTraceInfo.feasible(f, RichModel.empty(), ImmutableMap.<Integer, Boolean>of());
+    }
+
     // get the branchingFormula
     // this formula contains predicates for all branches we took
     // this way we can figure out which branches make a feasible path
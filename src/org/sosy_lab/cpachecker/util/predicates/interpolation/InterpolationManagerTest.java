@@ -0,0 +1,105 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.interpolation;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Checks that racing several interpolation strategies during refinement
+ * actually runs races and does not change the verdicts of predicate analysis.
+ */
+public class InterpolationManagerTest {
+
+  private static final String SAFE_PROGRAM = "test/programs/bmc/loop-bound_true-unreach-label.c";
+  private static final String UNSAFE_PROGRAM = "test/programs/bmc/loop-bound_false-unreach-label.c";
+
+  private static ImmutableMap.Builder<String, String> predicateAnalysis() {
+    return ImmutableMap.<String, String>builder()
+        .put("analysis.algorithm.CEGAR", "true")
+        .put("cegar.refiner", "cpa.predicate.PredicateRefiner")
+        .put("cpa", "cpa.arg.ARGCPA")
+        .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+        .put("CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.functionpointer.FunctionPointerCPA, cpa.predicate.PredicateCPA")
+        .put("specification", "config/specification/default.spc")
+        .put("cpa.predicate.blk.alwaysAtFunctions", "false")
+        .put("cpa.predicate.blk.alwaysAtLoops", "true")
+        .put("cfa.useMultiEdges", "true")
+        .put("solver.solver", "SMTInterpol");
+  }
+
+  private static Map<String, String> withRacing() {
+    return predicateAnalysis()
+        .put("cpa.predicate.refinement.racing.strategies", "SEQ, SEQ_CPACHECKER, TREE")
+        .put("cpa.predicate.refinement.racing.directions", "FORWARDS, BACKWARDS")
+        .build();
+  }
+
+  private static String statistics(TestResults results) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    results.getCheckerResult().printStatistics(new PrintStream(out));
+    return out.toString();
+  }
+
+  @Test
+  public void testWithoutRacing() throws Exception {
+    TestResults results = CPATestRunner.run(predicateAnalysis().build(), SAFE_PROGRAM);
+
+    assertThat(results.getCheckerResult().getResult()).isEqualTo(Result.TRUE);
+    assertThat(statistics(results)).doesNotContain("Interpolation races:");
+  }
+
+  @Test
+  public void testRacingOnSafeProgram() throws Exception {
+    TestResults results = CPATestRunner.run(withRacing(), SAFE_PROGRAM);
+
+    assertThat(results.getCheckerResult().getResult()).isEqualTo(Result.TRUE);
+    String statistics = statistics(results);
+    assertThat(statistics).contains("Interpolation races:");
+    assertThat(Pattern.compile("Won by (SEQ|SEQ_CPACHECKER|TREE)/(FORWARDS|BACKWARDS): [1-9]")
+        .matcher(statistics).find()).isTrue();
+  }
+
+  @Test
+  public void testRacingOnUnsafeProgram() throws Exception {
+    TestResults results = CPATestRunner.run(withRacing(), UNSAFE_PROGRAM);
+
+    assertThat(results.getCheckerResult().getResult()).isEqualTo(Result.FALSE);
+    // the race for the feasible counterexample stops without a winner
+    String statistics = statistics(results);
+    assertThat(statistics).contains("Interpolation races:");
+    assertThat(Pattern.compile("Without winner: +[1-9]").matcher(statistics).find()).isTrue();
+  }
+}
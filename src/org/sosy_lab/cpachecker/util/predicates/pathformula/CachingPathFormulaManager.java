@@ -23,10 +23,15 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
-import java.util.HashMap;
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Map;
 
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
@@ -39,33 +44,178 @@ import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.Formula;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ *
+ * The caches are unbounded by default. They can be bounded
+ * by number of entries or by an approximated weight
+ * (the number of SSA indices of the path formulas in an entry),
+ * and their values can be made softly reachable such that the garbage
+ * collector may evict entries when memory gets low.
  */
+@Options(prefix="cpa.predicate.pathFormulaCache")
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  @Option(secure=true, description="maximum number of entries in each of the path-formula caches "
+      + "(least-recently used entries are evicted first, 0 for no limit)")
+  @IntegerOption(min=0)
+  private int maxEntries = 0;
+
+  @Option(secure=true, description="maximum weight of each of the path-formula caches, "
+      + "where the weight of an entry is the number of SSA indices of its path formulas "
+      + "(least-recently used entries are evicted first, 0 for no limit, "
+      + "cannot be combined with cpa.predicate.pathFormulaCache.maxEntries)")
+  @IntegerOption(min=0)
+  private long maxWeight = 0;
+
+  @Option(secure=true, description="reference cached path formulas only softly, "
+      + "such that the garbage collector may evict cache entries if memory runs low")
+  private boolean softValues = false;
+
   public final Timer pathFormulaComputationTimer = new Timer();
-  public int pathFormulaCacheHits = 0;
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final FormulaCache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache;
+  private final FormulaCache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final FormulaCache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final FormulaCache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
-  public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+  public CachingPathFormulaManager(PathFormulaManager pDelegate, Configuration pConfig)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    if (maxEntries > 0 && maxWeight > 0) {
+      throw new InvalidConfigurationException("The path-formula caches can be bounded either "
+          + "by number of entries or by weight, but not both.");
+    }
+
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+
+    andFormulaWithConditionsCache = new FormulaCache<>("and (with error conditions)",
+        new Weigher<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>>() {
+          @Override
+          public int weigh(Pair<CFAEdge, PathFormula> pKey, Pair<PathFormula, ErrorConditions> pValue) {
+            return weightOf(pKey.getSecond()) + weightOf(pValue.getFirst());
+          }
+        });
+    andFormulaCache = new FormulaCache<>("and",
+        new Weigher<Pair<CFAEdge, PathFormula>, PathFormula>() {
+          @Override
+          public int weigh(Pair<CFAEdge, PathFormula> pKey, PathFormula pValue) {
+            return weightOf(pKey.getSecond()) + weightOf(pValue);
+          }
+        });
+    orFormulaCache = new FormulaCache<>("or",
+        new Weigher<Pair<PathFormula, PathFormula>, PathFormula>() {
+          @Override
+          public int weigh(Pair<PathFormula, PathFormula> pKey, PathFormula pValue) {
+            return weightOf(pKey.getFirst()) + weightOf(pKey.getSecond()) + weightOf(pValue);
+          }
+        });
+    emptyFormulaCache = new FormulaCache<>("empty",
+        new Weigher<PathFormula, PathFormula>() {
+          @Override
+          public int weigh(PathFormula pKey, PathFormula pValue) {
+            return weightOf(pKey) + weightOf(pValue);
+          }
+        });
+  }
+
+  /**
+   * Approximate the memory retained by a path formula.
+   * SSA maps and pointer-target sets share most of their structure,
+   * so this is only a rough measure that grows with the size of the program state.
+   */
+  private static int weightOf(PathFormula pFormula) {
+    return 1 + pFormula.getSsa().allVariables().size();
+  }
+
+  /**
+   * One of the caches of this class, together with its statistics.
+   */
+  private final class FormulaCache<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+
+    // Counted here and not with CacheBuilder.recordStats(),
+    // because a lookup in makeOr may query the cache twice.
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+
+    private FormulaCache(String pName, Weigher<? super K, ? super V> pWeigher) {
+      name = pName;
+
+      CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+      if (maxEntries > 0) {
+        builder.maximumSize(maxEntries);
+      } else if (maxWeight > 0) {
+        builder.maximumWeight(maxWeight).weigher(pWeigher);
+      }
+      if (softValues) {
+        builder.softValues();
+      }
+      cache = builder.removalListener(new RemovalListener<K, V>() {
+            @Override
+            public void onRemoval(RemovalNotification<K, V> pNotification) {
+              if (pNotification.wasEvicted()) {
+                evictions++;
+              }
+            }
+          }).build();
+    }
+
+    private V get(K pKey) {
+      return cache.getIfPresent(pKey);
+    }
+
+    private void put(K pKey, V pValue) {
+      cache.put(pKey, pValue);
+    }
+
+    private void recordHit() {
+      hits++;
+    }
+
+    private void recordMiss() {
+      misses++;
+    }
+
+    private void printStatistics(PrintStream out) {
+      out.println("  " + name + ": " + hits + " hits, " + misses + " misses, "
+          + evictions + " evictions, " + cache.size() + " entries");
+    }
+  }
+
+  /**
+   * Get the number of cache hits of all caches together.
+   */
+  public int getPathFormulaCacheHits() {
+    return andFormulaCache.hits + andFormulaWithConditionsCache.hits
+        + orFormulaCache.hits + emptyFormulaCache.hits;
+  }
+
+  /**
+   * Print hit, miss and eviction counts for each of the caches.
+   */
+  public void printCacheStatistics(PrintStream out) {
+    andFormulaCache.printStatistics(out);
+    andFormulaWithConditionsCache.printStatistics(out);
+    orFormulaCache.printStatistics(out);
+    emptyFormulaCache.printStatistics(out);
   }
 
   @Override
@@ -79,9 +229,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
       result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
       pathFormulaComputationTimer.stop();
       andFormulaWithConditionsCache.put(formulaCacheKey, result);
+      andFormulaWithConditionsCache.recordMiss();
 
     } else {
-      pathFormulaCacheHits++;
+      andFormulaWithConditionsCache.recordHit();
     }
     return result;
   }
@@ -96,9 +247,10 @@ public class CachingPathFormulaManager implements PathFormulaManager {
       result = delegate.makeAnd(pOldFormula, pEdge);
       pathFormulaComputationTimer.stop();
       andFormulaCache.put(formulaCacheKey, result);
+      andFormulaCache.recordMiss();
 
     } else {
-      pathFormulaCacheHits++;
+      andFormulaCache.recordHit();
     }
     return result;
   }
@@ -116,8 +268,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (result == null) {
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
+      orFormulaCache.recordMiss();
     } else {
-      pathFormulaCacheHits++;
+      orFormulaCache.recordHit();
     }
     return result;
   }
@@ -136,8 +289,9 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (result == null) {
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
+      emptyFormulaCache.recordMiss();
     } else {
-      pathFormulaCacheHits++;
+      emptyFormulaCache.recordHit();
     }
     return result;
   }
@@ -26,11 +26,14 @@ package org.sosy_lab.cpachecker.util.predicates.pathformula;
 import static com.google.common.truth.Truth.assertThat;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.sosy_lab.common.collect.MapsDifference;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
@@ -172,4 +175,36 @@ public class PathFormulaTest {
     thrown.expect(IllegalArgumentException.class);
     builder.setIndex("a", CNumericTypes.INT, 1);
   }
+
+  @Test
+  public void testSSAMerge() {
+    SSAMap base = builder
+        .setIndex("a", CNumericTypes.INT, 1)
+        .setIndex("b", CNumericTypes.INT, 1)
+        .build();
+    SSAMap left = base.builder()
+        .setIndex("b", CNumericTypes.INT, 3)
+        .build();
+    SSAMap right = base.builder()
+        .setIndex("a", CNumericTypes.INT, 2)
+        .setIndex("c", CNumericTypes.INT, 1)
+        .build();
+
+    List<MapsDifference.Entry<String, Integer>> differences = new ArrayList<>();
+    SSAMap merged = SSAMap.merge(left, right, MapsDifference.collectMapsDifferenceTo(differences));
+
+    assertThat(merged.getIndex("a")).isEqualTo(2);
+    assertThat(merged.getIndex("b")).isEqualTo(3);
+    assertThat(merged.getIndex("c")).isEqualTo(1);
+    assertThat(merged.allVariables()).containsExactly("a", "b", "c").inOrder();
+    assertThat(differences).hasSize(3);
+
+    SSAMap expected = SSAMap.emptySSAMap().builder()
+        .setIndex("c", CNumericTypes.INT, 1)
+        .setIndex("b", CNumericTypes.INT, 3)
+        .setIndex("a", CNumericTypes.INT, 2)
+        .build();
+    assertThat(merged).isEqualTo(expected);
+    assertThat(merged.hashCode()).isEqualTo(expected.hashCode());
+  }
 }
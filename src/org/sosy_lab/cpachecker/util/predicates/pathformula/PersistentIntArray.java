@@ -0,0 +1,415 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable map from non-negative int keys to int values,
+ * implemented as a trie with 32 children per node and path copying.
+ * Updates copy only the nodes on the path to the changed key,
+ * all other nodes are shared with the previous version of the map.
+ *
+ * The value 0 is used to represent keys that are not present,
+ * so it cannot be stored as an actual value.
+ *
+ * The trie is kept in a canonical form (no empty nodes, minimal height),
+ * such that equal maps have equal structure and two maps that were derived
+ * from each other can be compared and merged in time proportional to the
+ * parts that differ.
+ */
+final class PersistentIntArray {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final PersistentIntArray EMPTY = new PersistentIntArray(null, 0, 0);
+
+  /**
+   * Receives the keys whose values differ in two merged maps.
+   * Absent values are given as 0.
+   */
+  interface DifferenceVisitor {
+    void visit(int key, int leftValue, int rightValue);
+  }
+
+  /**
+   * Receives all entries of a map.
+   */
+  interface EntryVisitor {
+    void visit(int key, int value);
+  }
+
+  // Either null (empty map), an int[WIDTH] (if shift == 0),
+  // or an Object[WIDTH] with children of the next lower level.
+  private final @Nullable Object root;
+
+  // Number of bits of the key that are consumed below the root level.
+  private final int shift;
+
+  private final int size;
+
+  private PersistentIntArray(@Nullable Object pRoot, int pShift, int pSize) {
+    root = pRoot;
+    shift = pShift;
+    size = pSize;
+  }
+
+  static PersistentIntArray empty() {
+    return EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Return the value of a key, or 0 if the key is not present.
+   */
+  int get(int key) {
+    checkArgument(key >= 0, "Negative key %s", key);
+    if (root == null || !fits(key, shift)) {
+      return 0;
+    }
+    Object node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = ((Object[])node)[(key >>> level) & MASK];
+      if (node == null) {
+        return 0;
+      }
+    }
+    return ((int[])node)[key & MASK];
+  }
+
+  /**
+   * Return a map that has the given value for the given key
+   * and is otherwise identical to this map.
+   * A value of 0 removes the key.
+   */
+  PersistentIntArray set(int key, int value) {
+    int oldValue = get(key);
+    if (oldValue == value) {
+      return this;
+    }
+
+    Object newRoot = root;
+    int newShift = shift;
+    while (!fits(key, newShift)) {
+      if (newRoot != null) {
+        Object[] node = new Object[WIDTH];
+        node[0] = newRoot;
+        newRoot = node;
+      }
+      newShift += BITS;
+    }
+
+    newRoot = setIn(newRoot, newShift, key, value);
+
+    int newSize = size;
+    if (oldValue == 0) {
+      newSize++;
+    } else if (value == 0) {
+      newSize--;
+    }
+    return canonical(newRoot, newShift, newSize);
+  }
+
+  private static boolean fits(int key, int shift) {
+    return shift + BITS >= Integer.SIZE - 1 || (key >>> (shift + BITS)) == 0;
+  }
+
+  private static @Nullable Object setIn(@Nullable Object node, int level, int key, int value) {
+    if (level == 0) {
+      int[] leaf = (node == null) ? new int[WIDTH] : ((int[])node).clone();
+      leaf[key & MASK] = value;
+      return (value == 0 && isEmptyLeaf(leaf)) ? null : leaf;
+    }
+
+    Object[] inner = (node == null) ? new Object[WIDTH] : ((Object[])node).clone();
+    int i = (key >>> level) & MASK;
+    inner[i] = setIn(inner[i], level - BITS, key, value);
+    return (value == 0 && isEmptyInner(inner)) ? null : inner;
+  }
+
+  private static boolean isEmptyLeaf(int[] leaf) {
+    for (int value : leaf) {
+      if (value != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isEmptyInner(Object[] inner) {
+    for (Object child : inner) {
+      if (child != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Create a map with minimal height from a (possibly too high) trie.
+   */
+  private static PersistentIntArray canonical(@Nullable Object root, int shift, int size) {
+    if (root == null) {
+      return EMPTY;
+    }
+    while (shift > 0 && hasOnlyFirstChild((Object[])root)) {
+      root = ((Object[])root)[0];
+      shift -= BITS;
+    }
+    return new PersistentIntArray(root, shift, size);
+  }
+
+  private static boolean hasOnlyFirstChild(Object[] inner) {
+    for (int i = 1; i < WIDTH; i++) {
+      if (inner[i] != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static @Nullable Object raise(@Nullable Object root, int shift, int targetShift) {
+    if (root == null) {
+      return null;
+    }
+    for (; shift < targetShift; shift += BITS) {
+      Object[] node = new Object[WIDTH];
+      node[0] = root;
+      root = node;
+    }
+    return root;
+  }
+
+  /**
+   * Create a map that contains all keys of both maps,
+   * with the maximum of both values for keys that are present in both maps.
+   * All keys for which the values differ are passed to the visitor
+   * (in ascending order).
+   * Subtries that are shared by both maps are skipped without looking at them.
+   */
+  static PersistentIntArray merge(PersistentIntArray left, PersistentIntArray right,
+      DifferenceVisitor differences) {
+    if (left.root == right.root) {
+      return left;
+    }
+    int shift = Math.max(left.shift, right.shift);
+    int[] addedKeys = new int[1];
+    Object root = mergeNodes(
+        raise(left.root, left.shift, shift),
+        raise(right.root, right.shift, shift),
+        shift, 0, differences, addedKeys);
+    return canonical(root, shift, left.size + addedKeys[0]);
+  }
+
+  private static @Nullable Object mergeNodes(@Nullable Object left, @Nullable Object right,
+      int level, int offset, DifferenceVisitor differences, int[] addedKeys) {
+    if (left == right) {
+      return left;
+    }
+    if (right == null) {
+      visitNode(left, level, offset, differences, true);
+      return left;
+    }
+    if (left == null) {
+      addedKeys[0] += visitNode(right, level, offset, differences, false);
+      return right;
+    }
+
+    if (level == 0) {
+      int[] l = (int[])left;
+      int[] r = (int[])right;
+      int[] result = null;
+      for (int i = 0; i < WIDTH; i++) {
+        if (l[i] != r[i]) {
+          differences.visit(offset + i, l[i], r[i]);
+          if (r[i] > l[i]) {
+            if (result == null) {
+              result = l.clone();
+            }
+            result[i] = r[i];
+            if (l[i] == 0) {
+              addedKeys[0]++;
+            }
+          }
+        }
+      }
+      return (result == null) ? left : result;
+    }
+
+    Object[] l = (Object[])left;
+    Object[] r = (Object[])right;
+    Object[] result = null;
+    for (int i = 0; i < WIDTH; i++) {
+      Object child = mergeNodes(l[i], r[i], level - BITS, offset + (i << level),
+          differences, addedKeys);
+      if (child != l[i]) {
+        if (result == null) {
+          result = l.clone();
+        }
+        result[i] = child;
+      }
+    }
+    return (result == null) ? left : result;
+  }
+
+  /**
+   * Report all entries below a node that is present in only one of two merged maps.
+   * @return the number of entries
+   */
+  private static int visitNode(Object node, int level, int offset,
+      DifferenceVisitor differences, boolean isLeft) {
+    int count = 0;
+    if (level == 0) {
+      int[] leaf = (int[])node;
+      for (int i = 0; i < WIDTH; i++) {
+        if (leaf[i] != 0) {
+          if (isLeft) {
+            differences.visit(offset + i, leaf[i], 0);
+          } else {
+            differences.visit(offset + i, 0, leaf[i]);
+          }
+          count++;
+        }
+      }
+    } else {
+      Object[] inner = (Object[])node;
+      for (int i = 0; i < WIDTH; i++) {
+        if (inner[i] != null) {
+          count += visitNode(inner[i], level - BITS, offset + (i << level), differences, isLeft);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Pass all entries of this map to the visitor (in ascending order of keys).
+   */
+  void visitEntries(EntryVisitor visitor) {
+    if (root != null) {
+      visitEntries(root, shift, 0, visitor);
+    }
+  }
+
+  private static void visitEntries(Object node, int level, int offset, EntryVisitor visitor) {
+    if (level == 0) {
+      int[] leaf = (int[])node;
+      for (int i = 0; i < WIDTH; i++) {
+        if (leaf[i] != 0) {
+          visitor.visit(offset + i, leaf[i]);
+        }
+      }
+    } else {
+      Object[] inner = (Object[])node;
+      for (int i = 0; i < WIDTH; i++) {
+        if (inner[i] != null) {
+          visitEntries(inner[i], level - BITS, offset + (i << level), visitor);
+        }
+      }
+    }
+  }
+
+  private static boolean nodesEqual(@Nullable Object left, @Nullable Object right, int level) {
+    if (left == right) {
+      return true;
+    }
+    if (left == null || right == null) {
+      return false;
+    }
+    if (level == 0) {
+      int[] l = (int[])left;
+      int[] r = (int[])right;
+      for (int i = 0; i < WIDTH; i++) {
+        if (l[i] != r[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+    Object[] l = (Object[])left;
+    Object[] r = (Object[])right;
+    for (int i = 0; i < WIDTH; i++) {
+      if (!nodesEqual(l[i], r[i], level - BITS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean equals(Object pObj) {
+    if (this == pObj) {
+      return true;
+    }
+    if (!(pObj instanceof PersistentIntArray)) {
+      return false;
+    }
+    PersistentIntArray other = (PersistentIntArray)pObj;
+    // canonical form guarantees equal height for equal maps
+    return size == other.size
+        && shift == other.shift
+        && nodesEqual(root, other.root, shift);
+  }
+
+  /**
+   * Compute the hash code. This takes time linear in the size of the map.
+   */
+  @Override
+  public int hashCode() {
+    final int[] result = new int[1];
+    visitEntries(new EntryVisitor() {
+      @Override
+      public void visit(int pKey, int pValue) {
+        result[0] += pKey ^ pValue;
+      }
+    });
+    return result[0];
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("[");
+    visitEntries(new EntryVisitor() {
+      @Override
+      public void visit(int pKey, int pValue) {
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+        sb.append(pKey).append('=').append(pValue);
+      }
+    });
+    return sb.append(']').toString();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PersistentIntArrayTest {
+
+  private static class CollectingVisitor implements PersistentIntArray.DifferenceVisitor {
+    private final List<String> differences = new ArrayList<>();
+
+    @Override
+    public void visit(int pKey, int pLeftValue, int pRightValue) {
+      differences.add(pKey + ":" + pLeftValue + "/" + pRightValue);
+    }
+  }
+
+  @Test
+  public void testSetAndGet() {
+    PersistentIntArray empty = PersistentIntArray.empty();
+    PersistentIntArray a = empty.set(3, 1).set(100000, 7);
+
+    assertThat(a.get(3)).isEqualTo(1);
+    assertThat(a.get(100000)).isEqualTo(7);
+    assertThat(a.get(4)).isEqualTo(0);
+    assertThat(a.get(Integer.MAX_VALUE)).isEqualTo(0);
+    assertThat(a.size()).isEqualTo(2);
+
+    // persistence
+    assertThat(empty.isEmpty()).isTrue();
+    assertThat(a.set(3, 2).get(3)).isEqualTo(2);
+    assertThat(a.get(3)).isEqualTo(1);
+  }
+
+  @Test
+  public void testRemoveIsCanonical() {
+    PersistentIntArray a = PersistentIntArray.empty().set(1, 1);
+    PersistentIntArray b = a.set(5000, 2).set(5000, 0);
+
+    assertThat(b).isEqualTo(a);
+    assertThat(b.hashCode()).isEqualTo(a.hashCode());
+    assertThat(b.set(1, 0)).isEqualTo(PersistentIntArray.empty());
+  }
+
+  @Test
+  public void testMerge() {
+    PersistentIntArray base = PersistentIntArray.empty().set(1, 1).set(2, 1).set(40, 1);
+    PersistentIntArray left = base.set(1, 3).set(7, 1);
+    PersistentIntArray right = base.set(1, 2).set(40, 5).set(1000, 1);
+
+    CollectingVisitor visitor = new CollectingVisitor();
+    PersistentIntArray merged = PersistentIntArray.merge(left, right, visitor);
+
+    assertThat(visitor.differences).containsExactly("1:3/2", "7:1/0", "40:1/5", "1000:0/1").inOrder();
+    assertThat(merged).isEqualTo(PersistentIntArray.empty()
+        .set(1, 3).set(2, 1).set(7, 1).set(40, 5).set(1000, 1));
+    assertThat(merged.size()).isEqualTo(5);
+  }
+
+  @Test
+  public void testMergeIdentical() {
+    PersistentIntArray a = PersistentIntArray.empty().set(1, 1);
+    CollectingVisitor visitor = new CollectingVisitor();
+
+    assertThat(PersistentIntArray.merge(a, a, visitor)).isSameAs(a);
+    assertThat(visitor.differences).isEmpty();
+  }
+}
@@ -23,8 +23,16 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -43,13 +51,18 @@ import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cfa.types.c.CTypes;
 
-import com.google.common.base.Equivalence;
-import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 
 /**
  * Maps a variable name to its latest "SSA index", that should be used when
  * referring to that variable.
+ *
+ * The indices are stored in a {@link PersistentIntArray}
+ * that is keyed by interned variable ids (cf. {@link SSAVariableIds}),
+ * so updates do not need to compare strings and maps that were derived from
+ * each other share most of their structure, which makes merging them cheap.
+ * The types are stored in a sorted map keyed by the variable names,
+ * which also provides the sorted set of all variables.
  */
 public class SSAMap implements Serializable {
 
@@ -93,11 +106,11 @@ public class SSAMap implements Serializable {
   public static class SSAMapBuilder {
 
     private SSAMap ssa;
-    private PersistentSortedMap<String, Integer> vars; // Do not update without updating varsHashCode!
+    private PersistentIntArray vars; // Do not update without updating varsHashCode!
     private FreshValueProvider freshValueProvider;
     private PersistentSortedMap<String, CType> varTypes;
 
-    // Instead of computing vars.hashCode(),
+    // Instead of computing the hashCode of all entries,
     // we calculate the hashCode ourselves incrementally
     // (this is possible because a Map's hashCode is clearly defined).
     private int varsHashCode;
@@ -137,7 +150,7 @@ public class SSAMap implements Serializable {
       }
 
       if (idx > oldIdx || idx == ssa.defaultValue) {
-        vars = vars.putAndCopy(name, idx);
+        vars = vars.set(SSAVariableIds.idOf(name), idx);
         if (oldIdx != ssa.defaultValue) {
           varsHashCode -= mapEntryHashCode(name, oldIdx);
         }
@@ -154,7 +167,7 @@ public class SSAMap implements Serializable {
     public SSAMapBuilder deleteVariable(String variable) {
       int index = getIndex(variable);
       if (index != ssa.defaultValue) {
-        vars = vars.removeAndCopy(variable);
+        vars = vars.set(SSAVariableIds.idOf(variable), 0);
         varsHashCode -= mapEntryHashCode(variable, index);
 
         varTypes = varTypes.removeAndCopy(variable);
@@ -182,18 +195,18 @@ public class SSAMap implements Serializable {
       ssa = new SSAMap(vars, freshValueProvider, varsHashCode, varTypes, ssa.defaultValue);
       return ssa;
     }
+  }
 
-    /**
-     * Not-null safe copy of {@link SimpleImmutableEntry#hashCode()}
-     * for Object-to-int maps.
-     */
-    private static int mapEntryHashCode(Object key, int value) {
-      return key.hashCode() ^ value;
-    }
+  /**
+   * Not-null safe copy of {@link SimpleImmutableEntry#hashCode()}
+   * for Object-to-int maps.
+   */
+  private static int mapEntryHashCode(Object key, int value) {
+    return key.hashCode() ^ value;
   }
 
   private static final SSAMap EMPTY_SSA_MAP = new SSAMap(
-      PathCopyingPersistentTreeMap.<String, Integer>of(),
+      PersistentIntArray.empty(),
       new FreshValueProvider.DefaultFreshValueProvider(),
       0,
       PathCopyingPersistentTreeMap.<String, CType>of());
@@ -221,24 +234,47 @@ public class SSAMap implements Serializable {
     // are equal. These checks use == instead of equals() because it is much faster
     // and we create sets lazily (so when they are not identical, they are
     // probably not equal, too).
+    // The indices of both maps are usually derived from a common ancestor,
+    // and merging them only visits the parts that are not shared.
     // We don't bother checking the vars set for emptiness, because this will
     // probably never be the case on a merge.
 
-    PersistentSortedMap<String, Integer> vars;
+    PersistentIntArray vars;
     FreshValueProvider freshValueProvider;
+    int varsHashCode = s1.varsHashCode;
     if (s1.vars == s2.vars && s1.freshValueProvider == s2.freshValueProvider) {
       // both are absolutely identical
       return s1;
 
     } else {
-      vars =
-          PersistentSortedMaps.merge(
-              s1.vars,
-              s2.vars,
-              Equivalence.equals(),
-              PersistentSortedMaps.<String, Integer>getMaximumMergeConflictHandler(),
-              collectDifferences);
+      final List<int[]> differences = new ArrayList<>();
+      vars = PersistentIntArray.merge(s1.vars, s2.vars,
+          new PersistentIntArray.DifferenceVisitor() {
+            @Override
+            public void visit(int pId, int pLeftIndex, int pRightIndex) {
+              differences.add(new int[] {pId, pLeftIndex, pRightIndex});
+            }
+          });
       freshValueProvider = s1.freshValueProvider.merge(s2.freshValueProvider);
+
+      // report differences ordered by variable name, independently of the ids
+      Collections.sort(differences, DIFFERENCE_ORDERING);
+      for (int[] difference : differences) {
+        String name = SSAVariableIds.nameOf(difference[0]);
+        int leftIndex = difference[1];
+        int rightIndex = difference[2];
+        if (rightIndex == 0) {
+          collectDifferences.leftValueOnly(name, leftIndex);
+        } else if (leftIndex == 0) {
+          collectDifferences.rightValueOnly(name, rightIndex);
+          varsHashCode += mapEntryHashCode(name, rightIndex);
+        } else {
+          collectDifferences.differingValues(name, leftIndex, rightIndex);
+          if (rightIndex > leftIndex) {
+            varsHashCode += mapEntryHashCode(name, rightIndex) - mapEntryHashCode(name, leftIndex);
+          }
+        }
+      }
     }
 
     PersistentSortedMap<String, CType> varTypes =
@@ -249,17 +285,24 @@ public class SSAMap implements Serializable {
             TYPE_CONFLICT_CHECKER,
             MapsDifference.ignoreMapsDifference());
 
-    return new SSAMap(vars, freshValueProvider, 0, varTypes);
+    return new SSAMap(vars, freshValueProvider, varsHashCode, varTypes);
   }
 
-  private final PersistentSortedMap<String, Integer> vars;
+  private static final Comparator<int[]> DIFFERENCE_ORDERING = new Comparator<int[]>() {
+    @Override
+    public int compare(int[] pDiff1, int[] pDiff2) {
+      return SSAVariableIds.nameOf(pDiff1[0]).compareTo(SSAVariableIds.nameOf(pDiff2[0]));
+    }
+  };
+
+  private final PersistentIntArray vars;
   private final FreshValueProvider freshValueProvider;
   private final PersistentSortedMap<String, CType> varTypes;
 
   // Cache hashCode of potentially big map
   private final int varsHashCode;
 
-  private SSAMap(PersistentSortedMap<String, Integer> vars,
+  private SSAMap(PersistentIntArray vars,
                  FreshValueProvider freshValueProvider,
                  int varsHashCode,
                  PersistentSortedMap<String, CType> varTypes,
@@ -267,24 +310,33 @@ public class SSAMap implements Serializable {
     this.vars = vars;
     this.freshValueProvider = freshValueProvider;
     this.varTypes = varTypes;
-
-    if (varsHashCode == 0) {
-      this.varsHashCode = vars.hashCode();
-    } else {
-      this.varsHashCode = varsHashCode;
-      assert varsHashCode == vars.hashCode();
-    }
+    this.varsHashCode = varsHashCode;
+    assert varsHashCode == computeHashCode(vars);
 
     defaultValue = defaultSSAIdx;
   }
 
-  private SSAMap(PersistentSortedMap<String, Integer> vars,
+  private SSAMap(PersistentIntArray vars,
                  FreshValueProvider freshValueProvider,
                  int varsHashCode,
                  PersistentSortedMap<String, CType> varTypes) {
     this(vars, freshValueProvider, varsHashCode, varTypes, DEFAULT_DEFAULT_IDX);
   }
 
+  /**
+   * Compute the hashCode of the indices as if they were stored in a Map<String, Integer>.
+   */
+  private static int computeHashCode(PersistentIntArray vars) {
+    final int[] result = new int[1];
+    vars.visitEntries(new PersistentIntArray.EntryVisitor() {
+      @Override
+      public void visit(int pId, int pIndex) {
+        result[0] += mapEntryHashCode(SSAVariableIds.nameOf(pId), pIndex);
+      }
+    });
+    return result[0];
+  }
+
   /**
    * Returns a SSAMapBuilder that is initialized with the current SSAMap.
    */
@@ -292,9 +344,13 @@ public class SSAMap implements Serializable {
     return new SSAMapBuilder(this);
   }
 
-  private static int getIndex(String variable, Map<String, Integer> vars, int defaultValue) {
-    Integer value = vars.get(variable);
-    if (value == null) {
+  private static int getIndex(String variable, PersistentIntArray vars, int defaultValue) {
+    int id = SSAVariableIds.lookup(variable);
+    if (id < 0) {
+      return defaultValue;
+    }
+    int value = vars.get(id);
+    if (value == 0) {
       return defaultValue;
     }
     return value;
@@ -309,7 +365,8 @@ public class SSAMap implements Serializable {
   }
 
   public boolean containsVariable(String variable) {
-    return vars.containsKey(variable);
+    int id = SSAVariableIds.lookup(variable);
+    return id >= 0 && vars.get(id) != 0;
   }
 
   public CType getType(String name) {
@@ -317,14 +374,20 @@ public class SSAMap implements Serializable {
   }
 
   public SortedSet<String> allVariables() {
-    return vars.keySet();
+    // the types are stored for exactly the variables that have an index
+    return varTypes.keySet();
   }
 
-  private static final Joiner joiner = Joiner.on(" ");
-
   @Override
   public String toString() {
-    return joiner.join(vars.entrySet());
+    StringBuilder sb = new StringBuilder();
+    for (String variable : varTypes.keySet()) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(variable).append('=').append(getIndex(variable));
+    }
+    return sb.toString();
   }
 
   @Override
@@ -346,4 +409,48 @@ public class SSAMap implements Serializable {
           && freshValueProvider.equals(other.freshValueProvider);
     }
   }
+
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Variable ids are only valid within one JVM,
+   * so we serialize the indices keyed by variable names.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -2830493127851376430L;
+
+    private final HashMap<String, Integer> vars = new HashMap<>();
+    private final FreshValueProvider freshValueProvider;
+    private final PersistentSortedMap<String, CType> varTypes;
+    private final int defaultValue;
+
+    private SerializationProxy(SSAMap pSsa) {
+      pSsa.vars.visitEntries(new PersistentIntArray.EntryVisitor() {
+        @Override
+        public void visit(int pId, int pIndex) {
+          vars.put(SSAVariableIds.nameOf(pId), pIndex);
+        }
+      });
+      freshValueProvider = pSsa.freshValueProvider;
+      varTypes = pSsa.varTypes;
+      defaultValue = pSsa.defaultValue;
+    }
+
+    private Object readResolve() {
+      PersistentIntArray indices = PersistentIntArray.empty();
+      int hashCode = 0;
+      for (Map.Entry<String, Integer> entry : vars.entrySet()) {
+        indices = indices.set(SSAVariableIds.idOf(entry.getKey()), entry.getValue());
+        hashCode += mapEntryHashCode(entry.getKey(), entry.getValue());
+      }
+      return new SSAMap(indices, freshValueProvider, hashCode, varTypes, defaultValue);
+    }
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interning of variable names to dense int ids,
+ * which are used as keys for the SSA indices in {@link SSAMap}.
+ *
+ * The ids are assigned once per name and are never released,
+ * so the number of ids is bounded by the number of distinct variable names
+ * in the analyzed program(s).
+ * Ids are only valid within the current JVM,
+ * serialized SSAMaps store variable names instead.
+ *
+ * This class is thread-safe.
+ */
+final class SSAVariableIds {
+
+  private SSAVariableIds() { }
+
+  private static final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+  // Entries are written before the id is published in the map,
+  // and the volatile write of the array makes them visible to other threads.
+  private static volatile String[] names = new String[256];
+
+  // guarded by SSAVariableIds.class
+  private static int nextId = 0;
+
+  /**
+   * Get the id for a variable name, assigning a new id if necessary.
+   */
+  static int idOf(String name) {
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    return register(name);
+  }
+
+  private static synchronized int register(String name) {
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    int newId = nextId++;
+    String[] currentNames = names;
+    if (newId == currentNames.length) {
+      currentNames = Arrays.copyOf(currentNames, 2 * currentNames.length);
+    }
+    currentNames[newId] = name;
+    names = currentNames;
+    ids.put(name, newId);
+    return newId;
+  }
+
+  /**
+   * Get the id for a variable name without assigning a new one.
+   * @return the id, or -1 if the name does not have an id yet.
+   */
+  static int lookup(String name) {
+    Integer id = ids.get(name);
+    return (id == null) ? -1 : id;
+  }
+
+  /**
+   * Get the variable name for an id that was returned by {@link #idOf(String)}.
+   */
+  static String nameOf(int id) {
+    return names[id];
+  }
+}
@@ -251,7 +251,8 @@ public class CtoFormulaConverter {
   protected final boolean isRelevantVariable(final CSimpleDeclaration var) {
     if (options.ignoreIrrelevantVariables() && variableClassification.isPresent()) {
       return var.getName().equals(RETURN_VARIABLE_NAME) ||
-           variableClassification.get().getRelevantVariables().contains(var.getQualifiedName());
+           (variableClassification.get().getVariableFlags(var.getQualifiedName())
+               & VariableClassification.RELEVANT) != 0;
     }
     return true;
   }
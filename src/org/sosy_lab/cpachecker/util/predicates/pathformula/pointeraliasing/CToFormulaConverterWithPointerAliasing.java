@@ -228,7 +228,8 @@ public class CToFormulaConverterWithPointerAliasing extends CtoFormulaConverter
 
   boolean isAddressedVariable(CDeclaration var) {
     return !variableClassification.isPresent() ||
-        variableClassification.get().getAddressedVariables().contains(var.getQualifiedName());
+        (variableClassification.get().getVariableFlags(var.getQualifiedName())
+            & VariableClassification.ADDRESSED) != 0;
   }
 
   private void addAllFields(final CType type, final PointerTargetSetBuilder pts) {
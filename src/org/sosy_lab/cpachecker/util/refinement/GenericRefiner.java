@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.counterexample.RichModel;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.MetricStatistics;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
@@ -56,6 +57,7 @@ import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsRegistry;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.collect.Lists;
@@ -332,7 +334,7 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
 
   @Override
   public void collectStatistics(final Collection<Statistics> pStatsCollection) {
-    pStatsCollection.add(new Statistics() {
+    pStatsCollection.add(new MetricStatistics() {
 
       @Override
       public String getName() {
@@ -343,6 +345,13 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
       public void printStatistics(final PrintStream pOut, final Result pResult, final ReachedSet pReached) {
         GenericRefiner.this.printStatistics(pOut, pResult, pReached);
       }
+
+      @Override
+      public void registerMetrics(final StatisticsRegistry pRegistry) {
+        pRegistry.register(refinementCounter)
+            .register(numberOfTargets)
+            .register(refinementTime);
+      }
     });
   }
 
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
+import com.google.common.collect.ImmutableMap;
 
 public abstract class AbstractStatValue {
 
@@ -48,4 +49,11 @@ public abstract class AbstractStatValue {
   public StatKind getMainStatisticKind() {
     return mainStatisticKind;
   }
+
+  /**
+   * The current values of this statistic in a machine-readable form,
+   * keyed by short field names (e.g., "sum" or "count").
+   * This is used for exporting a {@link StatisticsRegistry}.
+   */
+  public abstract ImmutableMap<String, Number> getValues();
 }
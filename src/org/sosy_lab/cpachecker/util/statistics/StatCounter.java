@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
+import com.google.common.collect.ImmutableMap;
 
 public class StatCounter extends AbstractStatValue {
 
@@ -45,6 +46,11 @@ public class StatCounter extends AbstractStatValue {
     return counter;
   }
 
+  @Override
+  public ImmutableMap<String, Number> getValues() {
+    return ImmutableMap.<String, Number>of("value", counter);
+  }
+
   @Override
   public String toString() {
     return String.format("%8d", counter);
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
+import com.google.common.collect.ImmutableMap;
 
 public class StatInt extends AbstractStatValue {
 
@@ -71,6 +72,17 @@ public class StatInt extends AbstractStatValue {
     return valueCount;
   }
 
+  @Override
+  public ImmutableMap<String, Number> getValues() {
+    return ImmutableMap.<String, Number>builder()
+        .put("sum", valueSum)
+        .put("count", valueCount)
+        .put("min", getMinValue())
+        .put("max", getMaxValue())
+        .put("avg", getAverage())
+        .build();
+  }
+
   @Override
   public String toString() {
     return String.format("%8d (count: %d, min: %d, max: %d, avg: %.2f)",
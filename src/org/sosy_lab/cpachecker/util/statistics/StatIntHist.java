@@ -24,29 +24,52 @@
 package org.sosy_lab.cpachecker.util.statistics;
 
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Multiset;
 
 
+/**
+ * A {@link StatInt} that additionally keeps a histogram of all values.
+ * Access to the histogram is synchronized,
+ * such that it can be read while another thread adds values.
+ */
 public class StatIntHist extends StatInt {
 
-  private Multiset<Integer> hist = HashMultiset.create();
+  private final Multiset<Integer> hist = HashMultiset.create();
 
   public StatIntHist(StatKind pMainStatisticKind, String pTitle) {
     super(pMainStatisticKind, pTitle);
   }
 
-  public int getTimesWithValue(Integer value) {
+  public synchronized int getTimesWithValue(Integer value) {
     return hist.count(value);
   }
 
   @Override
-  public void setNextValue(int pNewValue) {
+  public synchronized void setNextValue(int pNewValue) {
     super.setNextValue(pNewValue);
     hist.add(pNewValue);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * In addition to the values of {@link StatInt},
+   * this contains the histogram with one field "value_X" per seen value X.
+   */
+  @Override
+  public synchronized ImmutableMap<String, Number> getValues() {
+    ImmutableMap.Builder<String, Number> result = ImmutableMap.builder();
+    result.putAll(super.getValues());
+    for (Integer value : ImmutableSortedSet.copyOf(hist.elementSet())) {
+      result.put("value_" + value, hist.count(value));
+    }
+    return result.build();
+  }
+
   @Override
-  public String toString() {
+  public synchronized String toString() {
     return super.toString() + " " + hist.toString();
   }
 
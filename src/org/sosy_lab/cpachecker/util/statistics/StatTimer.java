@@ -25,17 +25,30 @@ package org.sosy_lab.cpachecker.util.statistics;
 
 import org.sosy_lab.common.time.Timer;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
 
 public class StatTimer extends AbstractStatValue {
 
-  private final Timer timer = new Timer();
+  private final Timer timer;
 
   public StatTimer(StatKind pMainStatisticKind, String pTitle) {
     super(pMainStatisticKind, pTitle);
+    timer = new Timer();
   }
 
   public StatTimer(String pTitle) {
+    this(StatKind.SUM, pTitle);
+  }
+
+  /**
+   * Create a StatTimer that shows the values of an existing {@link Timer},
+   * e.g., for exporting the timers of statistics that do not use this class.
+   */
+  public StatTimer(String pTitle, Timer pTimer) {
     super(StatKind.SUM, pTitle);
+    timer = Preconditions.checkNotNull(pTimer);
   }
 
   public void start() {
@@ -46,11 +59,24 @@ public class StatTimer extends AbstractStatValue {
     timer.stop();
   }
 
+  public boolean isRunning() {
+    return timer.isRunning();
+  }
+
   @Override
   public int getUpdateCount() {
     return timer.getNumberOfIntervals();
   }
 
+  @Override
+  public ImmutableMap<String, Number> getValues() {
+    return ImmutableMap.<String, Number>of(
+        "sum_ms", timer.getSumTime().asMillis(),
+        "max_ms", timer.getMaxTime().asMillis(),
+        "avg_ms", timer.getAvgTime().asMillis(),
+        "count", timer.getNumberOfIntervals());
+  }
+
   @Override
   public String toString() {
     return timer.toString();
@@ -0,0 +1,250 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.sosy_lab.common.time.Timer;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A hierarchical registry of named statistical values
+ * that can be exported in a machine-readable format (JSON or CSV).
+ *
+ * Each level of the hierarchy has a name and contains metrics
+ * (instances of {@link AbstractStatValue}) and nested registries.
+ * The registry only stores references to the values,
+ * so an export always contains their current state.
+ * Values are read without synchronization,
+ * so they should be exported only when the analysis does not update them anymore.
+ */
+public class StatisticsRegistry {
+
+  private static final CharMatcher CSV_SPECIAL_CHARS = CharMatcher.anyOf(",\"\r\n");
+
+  private final String name;
+  private final ConcurrentMap<String, AbstractStatValue> metrics = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<String, StatisticsRegistry> children = new ConcurrentSkipListMap<>();
+
+  public StatisticsRegistry(String pName) {
+    name = Preconditions.checkNotNull(pName);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the nested registry with the given name, creating it if necessary.
+   */
+  public StatisticsRegistry getSubRegistry(String pName) {
+    StatisticsRegistry result = children.get(pName);
+    if (result == null) {
+      StatisticsRegistry newRegistry = new StatisticsRegistry(pName);
+      result = children.putIfAbsent(pName, newRegistry);
+      if (result == null) {
+        result = newRegistry;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Register a metric under its title.
+   */
+  public StatisticsRegistry register(AbstractStatValue pStat) {
+    return register(pStat.getTitle(), pStat);
+  }
+
+  /**
+   * Register a metric under the given name.
+   * A metric that was previously registered with the same name is replaced.
+   */
+  public StatisticsRegistry register(String pName, AbstractStatValue pStat) {
+    metrics.put(Preconditions.checkNotNull(pName), Preconditions.checkNotNull(pStat));
+    return this;
+  }
+
+  /**
+   * Register a {@link Timer} of statistics that do not use {@link StatTimer}.
+   */
+  public StatisticsRegistry register(String pName, Timer pTimer) {
+    return register(pName, new StatTimer(pName, pTimer));
+  }
+
+  /**
+   * Register the current value of a plain number, which is not updated afterwards.
+   */
+  public StatisticsRegistry register(String pName, Number pValue) {
+    return register(pName, new FixedValue(pName, pValue));
+  }
+
+  public boolean isEmpty() {
+    if (!metrics.isEmpty()) {
+      return false;
+    }
+    for (StatisticsRegistry child : children.values()) {
+      if (!child.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Write all metrics as one JSON object,
+   * with one nested object per registry and per metric.
+   */
+  public void writeJson(Appendable pOut) throws IOException {
+    pOut.append('{');
+    appendJsonString(pOut, name);
+    pOut.append(':');
+    appendJsonContents(pOut);
+    pOut.append("}\n");
+  }
+
+  private void appendJsonContents(Appendable pOut) throws IOException {
+    pOut.append('{');
+    boolean first = true;
+    for (Map.Entry<String, AbstractStatValue> metric : metrics.entrySet()) {
+      if (!first) {
+        pOut.append(',');
+      }
+      first = false;
+      appendJsonString(pOut, metric.getKey());
+      pOut.append(":{");
+      boolean firstValue = true;
+      for (Map.Entry<String, Number> value : metric.getValue().getValues().entrySet()) {
+        if (!firstValue) {
+          pOut.append(',');
+        }
+        firstValue = false;
+        appendJsonString(pOut, value.getKey());
+        pOut.append(':').append(value.getValue().toString());
+      }
+      pOut.append('}');
+    }
+    for (StatisticsRegistry child : children.values()) {
+      if (!first) {
+        pOut.append(',');
+      }
+      first = false;
+      appendJsonString(pOut, child.name);
+      pOut.append(':');
+      child.appendJsonContents(pOut);
+    }
+    pOut.append('}');
+  }
+
+  private static void appendJsonString(Appendable pOut, String pString) throws IOException {
+    pOut.append('"');
+    for (int i = 0; i < pString.length(); i++) {
+      char c = pString.charAt(i);
+      switch (c) {
+      case '"':
+        pOut.append("\\\"");
+        break;
+      case '\\':
+        pOut.append("\\\\");
+        break;
+      case '\n':
+        pOut.append("\\n");
+        break;
+      case '\r':
+        pOut.append("\\r");
+        break;
+      case '\t':
+        pOut.append("\\t");
+        break;
+      default:
+        if (c < 0x20) {
+          pOut.append(String.format("\\u%04x", (int) c));
+        } else {
+          pOut.append(c);
+        }
+      }
+    }
+    pOut.append('"');
+  }
+
+  /**
+   * Write all metrics as CSV with the columns "metric", "field", and "value",
+   * i.e., one line per value of each metric.
+   * The metric column contains the names of the registries and the metric,
+   * separated by dots.
+   */
+  public void writeCsv(Appendable pOut) throws IOException {
+    pOut.append("metric,field,value\n");
+    appendCsvContents(pOut, name);
+  }
+
+  private void appendCsvContents(Appendable pOut, String pPrefix) throws IOException {
+    for (Map.Entry<String, AbstractStatValue> metric : metrics.entrySet()) {
+      String metricName = pPrefix + "." + metric.getKey();
+      for (Map.Entry<String, Number> value : metric.getValue().getValues().entrySet()) {
+        appendCsvField(pOut, metricName);
+        pOut.append(',');
+        appendCsvField(pOut, value.getKey());
+        pOut.append(',').append(value.getValue().toString()).append('\n');
+      }
+    }
+    for (StatisticsRegistry child : children.values()) {
+      child.appendCsvContents(pOut, pPrefix + "." + child.name);
+    }
+  }
+
+  private static class FixedValue extends AbstractStatValue {
+
+    private final Number value;
+
+    private FixedValue(String pTitle, Number pValue) {
+      super(StatKind.SUM, pTitle);
+      value = Preconditions.checkNotNull(pValue);
+    }
+
+    @Override
+    public int getUpdateCount() {
+      return 1;
+    }
+
+    @Override
+    public ImmutableMap<String, Number> getValues() {
+      return ImmutableMap.<String, Number>of("value", value);
+    }
+  }
+
+  private static void appendCsvField(Appendable pOut, String pField) throws IOException {
+    if (CSV_SPECIAL_CHARS.matchesAnyOf(pField)) {
+      pOut.append('"').append(pField.replace("\"", "\"\"")).append('"');
+    } else {
+      pOut.append(pField);
+    }
+  }
+}
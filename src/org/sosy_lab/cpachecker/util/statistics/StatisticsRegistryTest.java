@@ -0,0 +1,106 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatisticsRegistryTest {
+
+  private StatisticsRegistry registry;
+
+  @Before
+  public void setUp() {
+    StatCounter counter = new StatCounter("Number of refinements");
+    counter.inc();
+    counter.inc();
+    StatInt targets = new StatInt(StatKind.SUM, "Targets");
+    targets.setNextValue(3);
+
+    registry = new StatisticsRegistry("CPAchecker");
+    registry.register(counter);
+    registry.getSubRegistry("Refiner, \"main\"").register(targets);
+  }
+
+  @Test
+  public void testWriteJson() throws IOException {
+    StringBuilder out = new StringBuilder();
+    registry.writeJson(out);
+
+    assertThat(out.toString()).isEqualTo(
+        "{\"CPAchecker\":{"
+        + "\"Number of refinements\":{\"value\":2},"
+        + "\"Refiner, \\\"main\\\"\":{"
+        + "\"Targets\":{\"sum\":3,\"count\":1,\"min\":3,\"max\":3,\"avg\":3.0}}}}\n");
+  }
+
+  @Test
+  public void testWriteCsv() throws IOException {
+    StringBuilder out = new StringBuilder();
+    registry.writeCsv(out);
+
+    assertThat(out.toString()).isEqualTo(
+        "metric,field,value\n"
+        + "CPAchecker.Number of refinements,value,2\n"
+        + "\"CPAchecker.Refiner, \"\"main\"\".Targets\",sum,3\n"
+        + "\"CPAchecker.Refiner, \"\"main\"\".Targets\",count,1\n"
+        + "\"CPAchecker.Refiner, \"\"main\"\".Targets\",min,3\n"
+        + "\"CPAchecker.Refiner, \"\"main\"\".Targets\",max,3\n"
+        + "\"CPAchecker.Refiner, \"\"main\"\".Targets\",avg,3.0\n");
+  }
+
+  @Test
+  public void testSubRegistryIsShared() {
+    assertThat(registry.getSubRegistry("Other").isEmpty()).isTrue();
+    assertThat(registry.getSubRegistry("Other")).isSameAs(registry.getSubRegistry("Other"));
+    assertThat(registry.isEmpty()).isFalse();
+  }
+
+  @Test
+  public void testExportWhileHistogramIsUpdated() throws Exception {
+    final StatIntHist hist = new StatIntHist(StatKind.SUM, "Successors");
+    registry.register(hist);
+
+    Thread analysis = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 200000; i++) {
+            hist.setNextValue(i % 1000);
+          }
+        }
+      });
+    analysis.start();
+    while (analysis.isAlive()) {
+      registry.writeJson(new StringBuilder());
+    }
+    analysis.join();
+
+    assertThat(hist.getValueCount()).isEqualTo(200000);
+    assertThat(hist.getValues().get("value_999")).isEqualTo(200);
+  }
+}
@@ -0,0 +1,13 @@
+int main() {
+  int i = 0;
+  int x = 0;
+  while (i < 3) {
+    i++;
+    x += 2;
+  }
+  if (x != 6) {
+ERROR:
+    return 1;
+  }
+  return 0;
+}
@@ -0,0 +1,15 @@
+extern int __VERIFIER_nondet_int();
+
+int main() {
+  int x = 0;
+  int y = 0;
+  while (__VERIFIER_nondet_int()) {
+    x++;
+    y++;
+  }
+  if (x != y) {
+ERROR:
+    return 1;
+  }
+  return 0;
+}
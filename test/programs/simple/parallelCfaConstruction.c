@@ -0,0 +1,53 @@
+struct list {
+  int value;
+  struct list *next;
+};
+
+int sum(struct list *l) {
+  int result = 0;
+  while (l != 0) {
+    result += l->value;
+    l = l->next;
+  }
+  return result;
+}
+
+int max(int a, int b) {
+  if (a > b) {
+    return a;
+  }
+  return b;
+}
+
+int count(struct list *l) {
+  struct counter {
+    int n;
+  } c;
+  c.n = 0;
+  for (; l != 0; l = l->next) {
+    c.n++;
+  }
+  return c.n;
+}
+
+void check(int x) {
+  if (x < 0) {
+    goto ERROR;
+  }
+  return;
+ERROR:
+  check(-x);
+}
+
+int main() {
+  struct list a;
+  struct list b;
+  a.value = 1;
+  a.next = &b;
+  b.value = 2;
+  b.next = 0;
+  int s = sum(&a);
+  int c = count(&a);
+  check(max(s, c));
+  return 0;
+}
@@ -0,0 +1,7 @@
+int main() {
+  int x = 0;
+  while (1) {
+    x++;
+  }
+  return 0;
+}